@@ -0,0 +1,225 @@
+package org.padminisys.cache;
+
+import io.fabric8.kubernetes.client.informers.ResourceEventHandler;
+import io.fabric8.kubernetes.client.informers.cache.Cache;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.annotation.Priority;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.interceptor.Interceptor;
+import org.padminisys.dto.CidrLookupMatch;
+import org.padminisys.dto.CiliumNetworkPolicyRequest.RuleType;
+import org.padminisys.model.CiliumNetworkPolicy;
+import org.padminisys.model.CiliumNetworkPolicySpec;
+import org.padminisys.model.Ipv4Cidr;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Binary radix trie over the fromCIDR/toCIDR prefixes of all policies, one level per address bit.
+ * Maintained from CiliumNetworkPolicy watch events so that finding the rules covering an address
+ * walks at most 32 nodes instead of scanning every policy. Only IPv4 prefixes are indexed.
+ */
+@ApplicationScoped
+public class CidrIndex {
+
+    private static final Comparator<Entry> MATCH_ORDER = Comparator
+            .comparingInt((Entry entry) -> entry.cidr().prefixLength()).reversed()
+            .thenComparing(Entry::namespace)
+            .thenComparing(Entry::name)
+            .thenComparing(Entry::ruleType);
+
+    @Inject
+    CiliumNetworkPolicyCache policyCache;
+
+    private final Node root = new Node();
+    private final Map<String, Set<Entry>> entriesByPolicy = new ConcurrentHashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * A rule of a policy listing the prefix of the node holding it.
+     */
+    private record Entry(Ipv4Cidr cidr, String namespace, String name, RuleType ruleType) {
+    }
+
+    private static final class Node {
+        final Node[] children = new Node[2];
+        final Set<Entry> entries = new HashSet<>();
+
+        boolean isEmpty() {
+            return entries.isEmpty() && children[0] == null && children[1] == null;
+        }
+    }
+
+    final ResourceEventHandler<CiliumNetworkPolicy> eventHandler = new ResourceEventHandler<>() {
+        @Override
+        public void onAdd(CiliumNetworkPolicy policy) {
+            index(policy);
+        }
+
+        @Override
+        public void onUpdate(CiliumNetworkPolicy oldPolicy, CiliumNetworkPolicy newPolicy) {
+            index(newPolicy);
+        }
+
+        @Override
+        public void onDelete(CiliumNetworkPolicy policy, boolean deletedFinalStateUnknown) {
+            remove(Cache.metaNamespaceKeyFunc(policy));
+        }
+    };
+
+    /**
+     * Registers with the policy cache ahead of the informer start, so the initial list is indexed too.
+     */
+    void onStart(@Observes @Priority(Interceptor.Priority.PLATFORM_BEFORE) StartupEvent event) {
+        policyCache.addEventHandler(eventHandler);
+    }
+
+    /**
+     * Finds the policy rules whose CIDRs contain every address of the given prefix.
+     *
+     * @param query the address or prefix to look up
+     * @return the matches, most specific CIDR first, then by namespace, name and rule type
+     */
+    public List<CidrLookupMatch> find(Ipv4Cidr query) {
+        policyCache.awaitSynced();
+
+        List<Entry> entries = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            for (int depth = 0; node != null; depth++) {
+                entries.addAll(node.entries);
+                node = depth < query.prefixLength() ? node.children[query.bit(depth)] : null;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return matches(entries);
+    }
+
+    /**
+     * Finds the covering policy rules by checking every CIDR of the given policies, for when
+     * no index is maintained.
+     *
+     * @param policies the policies to check
+     * @param query the address or prefix to look up
+     * @return the matches, in the same order as {@link #find(Ipv4Cidr)}
+     */
+    public static List<CidrLookupMatch> scan(Collection<CiliumNetworkPolicy> policies, Ipv4Cidr query) {
+        List<Entry> entries = new ArrayList<>();
+        for (CiliumNetworkPolicy policy : policies) {
+            for (Entry entry : entriesOf(policy)) {
+                if (entry.cidr().contains(query)) {
+                    entries.add(entry);
+                }
+            }
+        }
+        return matches(entries);
+    }
+
+    void index(CiliumNetworkPolicy policy) {
+        Set<Entry> entries = entriesOf(policy);
+        lock.writeLock().lock();
+        try {
+            Set<Entry> previous = entriesByPolicy.put(Cache.metaNamespaceKeyFunc(policy), entries);
+            if (previous != null) {
+                previous.stream().filter(entry -> !entries.contains(entry)).forEach(this::removeEntry);
+            }
+            for (Entry entry : entries) {
+                Node node = root;
+                for (int depth = 0; depth < entry.cidr().prefixLength(); depth++) {
+                    int bit = entry.cidr().bit(depth);
+                    if (node.children[bit] == null) {
+                        node.children[bit] = new Node();
+                    }
+                    node = node.children[bit];
+                }
+                node.entries.add(entry);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(String key) {
+        lock.writeLock().lock();
+        try {
+            Set<Entry> previous = entriesByPolicy.remove(key);
+            if (previous != null) {
+                previous.forEach(this::removeEntry);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes an entry from its node and prunes the nodes left without entries or children.
+     */
+    private void removeEntry(Entry entry) {
+        int prefixLength = entry.cidr().prefixLength();
+        Node[] path = new Node[prefixLength + 1];
+        path[0] = root;
+        for (int depth = 0; depth < prefixLength; depth++) {
+            path[depth + 1] = path[depth].children[entry.cidr().bit(depth)];
+            if (path[depth + 1] == null) {
+                return;
+            }
+        }
+        path[prefixLength].entries.remove(entry);
+        for (int depth = prefixLength; depth > 0 && path[depth].isEmpty(); depth--) {
+            path[depth - 1].children[entry.cidr().bit(depth - 1)] = null;
+        }
+    }
+
+    private static Set<Entry> entriesOf(CiliumNetworkPolicy policy) {
+        Set<Entry> entries = new HashSet<>();
+        CiliumNetworkPolicySpec spec = policy.getSpec();
+        if (spec == null) {
+            return entries;
+        }
+        BiConsumer<RuleType, List<String>> addAll = (ruleType, cidrs) -> {
+            if (cidrs != null) {
+                for (String cidr : cidrs) {
+                    try {
+                        entries.add(new Entry(Ipv4Cidr.parse(cidr), policy.getMetadata().getNamespace(),
+                                policy.getMetadata().getName(), ruleType));
+                    } catch (IllegalArgumentException e) {
+                        // IPv6 or otherwise not an IPv4 prefix, never matched
+                    }
+                }
+            }
+        };
+        forEach(spec.getIngress(), rule -> addAll.accept(RuleType.INGRESS_ALLOW, rule.getFromCIDR()));
+        forEach(spec.getIngressDeny(), rule -> addAll.accept(RuleType.INGRESS_DENY, rule.getFromCIDR()));
+        forEach(spec.getEgress(), rule -> addAll.accept(RuleType.EGRESS_ALLOW, rule.getToCIDR()));
+        forEach(spec.getEgressDeny(), rule -> addAll.accept(RuleType.EGRESS_DENY, rule.getToCIDR()));
+        return entries;
+    }
+
+    private static <T> void forEach(List<T> rules, Consumer<T> action) {
+        if (rules != null) {
+            rules.forEach(action);
+        }
+    }
+
+    private static List<CidrLookupMatch> matches(List<Entry> entries) {
+        entries.sort(MATCH_ORDER);
+        return entries.stream()
+                .map(entry -> new CidrLookupMatch(entry.name(), entry.namespace(), entry.ruleType(), entry.cidr().toString()))
+                .toList();
+    }
+}
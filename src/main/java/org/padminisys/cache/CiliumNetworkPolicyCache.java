@@ -0,0 +1,326 @@
+package org.padminisys.cache;
+
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.informers.ResourceEventHandler;
+import io.fabric8.kubernetes.client.informers.SharedIndexInformer;
+import io.fabric8.kubernetes.client.informers.cache.Cache;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import org.padminisys.model.CiliumNetworkPolicy;
+import org.padminisys.model.CiliumNetworkPolicyList;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Watch-maintained local cache of all CiliumNetworkPolicies in the cluster.
+ * Backed by a SharedIndexInformer with namespace and name indexes so that reads
+ * are served from memory instead of the Kubernetes API server.
+ */
+@ApplicationScoped
+public class CiliumNetworkPolicyCache {
+
+    private static final Logger LOG = Logger.getLogger(CiliumNetworkPolicyCache.class);
+    public static final String NAME_INDEX = "name";
+
+    @Inject
+    KubernetesClient kubernetesClient;
+
+    @ConfigProperty(name = "ppcs.cache.policies.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "ppcs.cache.sync-timeout", defaultValue = "30s")
+    Duration syncTimeout;
+
+    @ConfigProperty(name = "ppcs.cache.resync-period", defaultValue = "10m")
+    Duration resyncPeriod;
+
+    private final List<ResourceEventHandler<CiliumNetworkPolicy>> eventHandlers = new CopyOnWriteArrayList<>();
+    // resourceVersion returned by this instance's last write of each policy, by store key
+    private final Map<String, String> writtenVersions = new ConcurrentHashMap<>();
+    // Policies of each namespace ordered by name, for paged reads
+    private final Map<String, ConcurrentSkipListMap<String, CiliumNetworkPolicy>> byNamespaceAndName = new ConcurrentHashMap<>();
+    private final CompletableFuture<Void> synced = new CompletableFuture<>();
+    private volatile SharedIndexInformer<CiliumNetworkPolicy> informer;
+
+    // Forgets our writes of deleted policies
+    final ResourceEventHandler<CiliumNetworkPolicy> writeTracker = new ResourceEventHandler<>() {
+        @Override
+        public void onAdd(CiliumNetworkPolicy policy) {
+        }
+
+        @Override
+        public void onUpdate(CiliumNetworkPolicy oldPolicy, CiliumNetworkPolicy newPolicy) {
+        }
+
+        @Override
+        public void onDelete(CiliumNetworkPolicy policy, boolean deletedFinalStateUnknown) {
+            writtenVersions.remove(Cache.metaNamespaceKeyFunc(policy));
+        }
+    };
+
+    // Keeps the name-ordered view of each namespace in step with the store
+    final ResourceEventHandler<CiliumNetworkPolicy> nameOrder = new ResourceEventHandler<>() {
+        @Override
+        public void onAdd(CiliumNetworkPolicy policy) {
+            put(policy);
+        }
+
+        @Override
+        public void onUpdate(CiliumNetworkPolicy oldPolicy, CiliumNetworkPolicy newPolicy) {
+            put(newPolicy);
+        }
+
+        @Override
+        public void onDelete(CiliumNetworkPolicy policy, boolean deletedFinalStateUnknown) {
+            byNamespaceAndName.computeIfPresent(policy.getMetadata().getNamespace(), (namespace, policies) -> {
+                policies.remove(policy.getMetadata().getName());
+                return policies.isEmpty() ? null : policies;
+            });
+        }
+
+        private void put(CiliumNetworkPolicy policy) {
+            byNamespaceAndName.compute(policy.getMetadata().getNamespace(), (namespace, policies) -> {
+                ConcurrentSkipListMap<String, CiliumNetworkPolicy> updated = policies != null ? policies : new ConcurrentSkipListMap<>();
+                updated.put(policy.getMetadata().getName(), policy);
+                return updated;
+            });
+        }
+    };
+
+    void onStart(@Observes StartupEvent event) {
+        if (!enabled) {
+            LOG.info("CiliumNetworkPolicy cache is disabled, reads will go to the API server");
+            return;
+        }
+        start(kubernetesClient
+                .resources(CiliumNetworkPolicy.class, CiliumNetworkPolicyList.class)
+                .inAnyNamespace()
+                .runnableInformer(resyncPeriod.toMillis()));
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        if (informer != null) {
+            informer.stop();
+        }
+    }
+
+    /**
+     * Registers the indexes and event handlers on the informer and starts watching.
+     *
+     * @param policyInformer the informer over ciliumnetworkpolicies in all namespaces
+     */
+    void start(SharedIndexInformer<CiliumNetworkPolicy> policyInformer) {
+        LOG.info("Starting CiliumNetworkPolicy informer cache");
+        policyInformer.addIndexers(Map.of(NAME_INDEX, policy -> List.of(policy.getMetadata().getName())));
+        policyInformer.addEventHandler(writeTracker);
+        policyInformer.addEventHandler(nameOrder);
+        eventHandlers.forEach(policyInformer::addEventHandler);
+        informer = policyInformer;
+
+        policyInformer.start().whenComplete((ignored, error) -> {
+            if (error != null) {
+                LOG.errorf(error, "CiliumNetworkPolicy informer failed to sync: %s", error.getMessage());
+                synced.completeExceptionally(error);
+            } else {
+                LOG.infof("CiliumNetworkPolicy informer synced with %d policies", policyInformer.getStore().list().size());
+                synced.complete(null);
+            }
+        });
+    }
+
+    /**
+     * Registers a handler for policy add/update/delete events. Handlers registered
+     * before startup also receive the initial list as add events.
+     *
+     * @param handler the event handler
+     */
+    public void addEventHandler(ResourceEventHandler<CiliumNetworkPolicy> handler) {
+        eventHandlers.add(handler);
+        SharedIndexInformer<CiliumNetworkPolicy> current = informer;
+        if (current != null) {
+            current.addEventHandler(handler);
+        }
+    }
+
+    /**
+     * @return true if reads should be served from this cache
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return true once the informer has completed its initial list
+     */
+    public boolean isSynced() {
+        return synced.isDone() && !synced.isCompletedExceptionally();
+    }
+
+    /**
+     * Records the resourceVersion a write by this instance left a policy at.
+     *
+     * @param writtenPolicy the policy returned by the API server for the write
+     */
+    public void recordWrite(CiliumNetworkPolicy writtenPolicy) {
+        if (enabled && writtenPolicy != null && writtenPolicy.getMetadata().getResourceVersion() != null) {
+            writtenVersions.put(Cache.metaNamespaceKeyFunc(writtenPolicy), writtenPolicy.getMetadata().getResourceVersion());
+        }
+    }
+
+    /**
+     * Tells whether a cached policy is the version this instance last wrote. The informer can lag
+     * the API server, so a cached copy is only known to be current when it is our own last write;
+     * any other version may already have been changed by another writer.
+     *
+     * @param cachedPolicy a policy read from this cache
+     * @return true if the policy's resourceVersion is the one recorded for our last write of it
+     */
+    public boolean isLastWritten(CiliumNetworkPolicy cachedPolicy) {
+        String resourceVersion = cachedPolicy.getMetadata().getResourceVersion();
+        return resourceVersion != null && resourceVersion.equals(writtenVersions.get(Cache.metaNamespaceKeyFunc(cachedPolicy)));
+    }
+
+    /**
+     * Gets a policy by namespace and name.
+     *
+     * @param namespace the namespace of the policy
+     * @param name the name of the policy
+     * @return the cached policy, or null if it does not exist
+     */
+    public CiliumNetworkPolicy get(String namespace, String name) {
+        awaitSynced();
+        return informer.getIndexer().getByKey(Cache.namespaceKeyFunc(namespace, name));
+    }
+
+    /**
+     * Gets a policy by its informer store key.
+     *
+     * @param key the "namespace/name" key of the policy
+     * @return the cached policy, or null if it does not exist
+     */
+    public CiliumNetworkPolicy getByKey(String key) {
+        awaitSynced();
+        return informer.getIndexer().getByKey(key);
+    }
+
+    /**
+     * Lists all cached policies in a namespace.
+     *
+     * @param namespace the namespace to list
+     * @return the cached policies in the namespace
+     */
+    public List<CiliumNetworkPolicy> listByNamespace(String namespace) {
+        awaitSynced();
+        return informer.getIndexer().byIndex(Cache.NAMESPACE_INDEX, namespace);
+    }
+
+    /**
+     * Lists cached policies in a namespace in name order, starting after a given name.
+     * Served from a name-ordered view, so a page costs a seek plus its own items instead
+     * of a sort of the whole namespace.
+     *
+     * @param namespace the namespace to list
+     * @param afterName the name to start after, or null to start at the first policy
+     * @param limit the maximum number of policies to return
+     * @return up to limit cached policies in the namespace, ordered by name
+     */
+    public List<CiliumNetworkPolicy> listByNamespaceAfter(String namespace, String afterName, int limit) {
+        awaitSynced();
+        NavigableMap<String, CiliumNetworkPolicy> policies = byNamespaceAndName.get(namespace);
+        if (policies == null) {
+            return List.of();
+        }
+        if (afterName != null) {
+            policies = policies.tailMap(afterName, false);
+        }
+        return policies.values().stream().limit(limit).toList();
+    }
+
+    /**
+     * Lists all cached policies with the given name across namespaces.
+     *
+     * @param name the policy name
+     * @return the cached policies with that name
+     */
+    public List<CiliumNetworkPolicy> listByName(String name) {
+        awaitSynced();
+        return informer.getIndexer().byIndex(NAME_INDEX, name);
+    }
+
+    /**
+     * Lists all cached policies in the cluster.
+     *
+     * @return all cached policies
+     */
+    public List<CiliumNetworkPolicy> listAll() {
+        awaitSynced();
+        return informer.getIndexer().list();
+    }
+
+    /**
+     * Completes once the informer has synced, without blocking the caller, so that reads made
+     * afterwards return at once. For callers that must not block, such as event loop threads.
+     *
+     * @return a stage that fails like {@link #awaitSynced()} if the cache is disabled, failed to sync
+     *         or did not sync in time
+     */
+    public CompletionStage<Void> whenSynced() {
+        if (!enabled || informer == null) {
+            return CompletableFuture.failedStage(new IllegalStateException("CiliumNetworkPolicy cache is not running"));
+        }
+        if (isSynced()) {
+            return CompletableFuture.completedStage(null);
+        }
+
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        synced.copy().orTimeout(syncTimeout.toMillis(), TimeUnit.MILLISECONDS).whenComplete((ignored, error) -> {
+            Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+            if (cause == null) {
+                result.complete(null);
+            } else if (cause instanceof TimeoutException) {
+                result.completeExceptionally(new RuntimeException("CiliumNetworkPolicy cache did not sync within " + syncTimeout, cause));
+            } else {
+                result.completeExceptionally(new RuntimeException("CiliumNetworkPolicy cache failed to sync: " + cause.getMessage(), cause));
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Blocks until the informer has synced so reads never observe a partial cache.
+     *
+     * @throws RuntimeException if the cache is disabled, failed to sync or did not sync in time
+     */
+    public void awaitSynced() {
+        if (!enabled || informer == null) {
+            throw new IllegalStateException("CiliumNetworkPolicy cache is not running");
+        }
+        try {
+            synced.get(syncTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new RuntimeException("CiliumNetworkPolicy cache did not sync within " + syncTimeout, e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("CiliumNetworkPolicy cache failed to sync: " + e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for CiliumNetworkPolicy cache to sync", e);
+        }
+    }
+}
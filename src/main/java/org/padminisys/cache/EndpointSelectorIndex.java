@@ -0,0 +1,137 @@
+package org.padminisys.cache;
+
+import io.fabric8.kubernetes.client.informers.ResourceEventHandler;
+import io.fabric8.kubernetes.client.informers.cache.Cache;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.annotation.Priority;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.interceptor.Interceptor;
+import org.padminisys.model.CiliumNetworkPolicy;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Inverted index from endpointSelector.matchLabels "key=value" pairs to policy keys.
+ * Maintained from CiliumNetworkPolicy watch events so that endpoint-selector lookups
+ * intersect a few posting lists instead of scanning every policy.
+ */
+@ApplicationScoped
+public class EndpointSelectorIndex {
+
+    @Inject
+    CiliumNetworkPolicyCache policyCache;
+
+    private final Map<String, Set<String>> postings = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> labelsByPolicy = new ConcurrentHashMap<>();
+
+    final ResourceEventHandler<CiliumNetworkPolicy> eventHandler = new ResourceEventHandler<>() {
+        @Override
+        public void onAdd(CiliumNetworkPolicy policy) {
+            index(policy);
+        }
+
+        @Override
+        public void onUpdate(CiliumNetworkPolicy oldPolicy, CiliumNetworkPolicy newPolicy) {
+            index(newPolicy);
+        }
+
+        @Override
+        public void onDelete(CiliumNetworkPolicy policy, boolean deletedFinalStateUnknown) {
+            remove(Cache.metaNamespaceKeyFunc(policy));
+        }
+    };
+
+    /**
+     * Registers with the policy cache ahead of the informer start, so the initial list is indexed too.
+     */
+    void onStart(@Observes @Priority(Interceptor.Priority.PLATFORM_BEFORE) StartupEvent event) {
+        policyCache.addEventHandler(eventHandler);
+    }
+
+    /**
+     * Finds the keys of policies whose endpoint selector contains every given label.
+     * Posting lists are intersected smallest first.
+     *
+     * @param namespace the namespace to restrict to (optional, if null searches all namespaces)
+     * @param labels the labels to match, must not be empty
+     * @return sorted "namespace/name" keys of the matching policies
+     */
+    public List<String> find(String namespace, Map<String, String> labels) {
+        policyCache.awaitSynced();
+
+        List<Set<String>> lists = new ArrayList<>(labels.size());
+        for (Map.Entry<String, String> label : labels.entrySet()) {
+            Set<String> posting = postings.get(posting(label.getKey(), label.getValue()));
+            if (posting == null || posting.isEmpty()) {
+                return Collections.emptyList();
+            }
+            lists.add(posting);
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+
+        String namespacePrefix = namespace != null && !namespace.trim().isEmpty() ? namespace + "/" : null;
+        Set<String> result = new HashSet<>();
+        for (String key : lists.get(0)) {
+            if (namespacePrefix == null || key.startsWith(namespacePrefix)) {
+                result.add(key);
+            }
+        }
+        for (int i = 1; i < lists.size() && !result.isEmpty(); i++) {
+            result.retainAll(lists.get(i));
+        }
+
+        List<String> keys = new ArrayList<>(result);
+        Collections.sort(keys);
+        return keys;
+    }
+
+    void index(CiliumNetworkPolicy policy) {
+        String key = Cache.metaNamespaceKeyFunc(policy);
+        Set<String> labels = new HashSet<>();
+
+        if (policy.getSpec() != null && policy.getSpec().getEndpointSelector() != null
+                && policy.getSpec().getEndpointSelector().getMatchLabels() != null) {
+            policy.getSpec().getEndpointSelector().getMatchLabels().forEach((labelKey, value) ->
+                    labels.add(posting(labelKey, value)));
+        }
+
+        Set<String> previous = labelsByPolicy.put(key, labels);
+        if (previous != null) {
+            for (String label : previous) {
+                if (!labels.contains(label)) {
+                    removePosting(label, key);
+                }
+            }
+        }
+        for (String label : labels) {
+            postings.computeIfAbsent(label, ignored -> ConcurrentHashMap.newKeySet()).add(key);
+        }
+    }
+
+    void remove(String key) {
+        Set<String> previous = labelsByPolicy.remove(key);
+        if (previous != null) {
+            previous.forEach(label -> removePosting(label, key));
+        }
+    }
+
+    private void removePosting(String label, String key) {
+        postings.computeIfPresent(label, (ignored, keys) -> {
+            keys.remove(key);
+            return keys.isEmpty() ? null : keys;
+        });
+    }
+
+    private static String posting(String key, String value) {
+        return key + "=" + value;
+    }
+}
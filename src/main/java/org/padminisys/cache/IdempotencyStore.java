@@ -0,0 +1,177 @@
+package org.padminisys.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.padminisys.exception.IdempotencyKeyReuseException;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Remembers the responses of create requests sent with an Idempotency-Key, so a client retrying
+ * after a timeout gets the original result back instead of causing a second write.
+ * Entries expire after ppcs.idempotency.ttl and at most ppcs.idempotency.max-entries are kept,
+ * the oldest evicted first. A retry arriving while the original request is still running waits
+ * for its outcome. Failed requests are forgotten, so they can be retried with the same key.
+ * Cached responses are shared between callers and must not be modified.
+ */
+@ApplicationScoped
+public class IdempotencyStore {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    /**
+     * The response to a request, and whether it was replayed from an earlier request with the same key.
+     */
+    public record Outcome<T>(T response, boolean replayed) {
+    }
+
+    private static final class Entry {
+        final String fingerprint;
+        final long expiresAt;
+        final CompletableFuture<Object> response = new CompletableFuture<>();
+
+        Entry(String fingerprint, long expiresAt) {
+            this.fingerprint = fingerprint;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @ConfigProperty(name = "ppcs.idempotency.ttl", defaultValue = "1h")
+    Duration ttl;
+
+    @ConfigProperty(name = "ppcs.idempotency.max-entries", defaultValue = "10000")
+    int maxEntries;
+
+    LongSupplier nanoClock = System::nanoTime;
+
+    // Insertion order is expiry order, as every entry lives for the same ttl
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>();
+    private final LongAdder replays = new LongAdder();
+
+    /**
+     * Runs a create request at most once per idempotency key.
+     *
+     * @param scope the endpoint the key belongs to
+     * @param idempotencyKey the client's Idempotency-Key, or null to run the action unconditionally
+     * @param request the request body, which a replay must match
+     * @param action the create call
+     * @return the response of the action, or the remembered response of the first request with this key
+     * @throws IdempotencyKeyReuseException if the key was used before with a different request
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Outcome<T> execute(String scope, String idempotencyKey, Object request, Supplier<T> action) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return new Outcome<>(action.get(), false);
+        }
+
+        String key = scope + "\n" + idempotencyKey;
+        String fingerprint = fingerprint(request);
+        Entry entry;
+        boolean first;
+        synchronized (entries) {
+            long now = nanoClock.getAsLong();
+            evictExpired(now);
+            entry = entries.get(key);
+            if (entry != null && !entry.fingerprint.equals(fingerprint)) {
+                throw new IdempotencyKeyReuseException(
+                        "Idempotency-Key '" + idempotencyKey + "' was already used with a different request");
+            }
+            first = entry == null;
+            if (first) {
+                entry = new Entry(fingerprint, now + ttl.toNanos());
+                entries.put(key, entry);
+                evictOverflow();
+            }
+        }
+
+        if (!first) {
+            replays.increment();
+            return new Outcome<>((T) await(entry.response), true);
+        }
+
+        try {
+            T response = action.get();
+            entry.response.complete(response);
+            return new Outcome<>(response, false);
+        } catch (RuntimeException | Error e) {
+            synchronized (entries) {
+                entries.remove(key, entry);
+            }
+            entry.response.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private void evictExpired(long now) {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext() && iterator.next().expiresAt - now <= 0) {
+            iterator.remove();
+        }
+    }
+
+    private void evictOverflow() {
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while (entries.size() > Math.max(1, maxEntries) && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    private String fingerprint(Object request) {
+        try {
+            byte[] json = objectMapper.writer().with(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS).writeValueAsBytes(request);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(json));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Failed to fingerprint request", e);
+        }
+    }
+
+    private static Object await(CompletableFuture<Object> response) {
+        try {
+            return response.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * @return the number of requests answered with a remembered response
+     */
+    public long getReplays() {
+        return replays.sum();
+    }
+
+    /**
+     * @return the number of remembered keys
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+}
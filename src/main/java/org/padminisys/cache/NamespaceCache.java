@@ -0,0 +1,92 @@
+package org.padminisys.cache;
+
+import io.fabric8.kubernetes.api.model.Namespace;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.informers.ResourceEventHandler;
+import io.fabric8.kubernetes.client.informers.SharedIndexInformer;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Watch-maintained set of namespace names in the cluster.
+ * Lets existence checks be answered from memory; callers are expected to fall back
+ * to the API server on a miss, since a namespace created moments ago may not have
+ * been delivered by the watch yet.
+ */
+@ApplicationScoped
+public class NamespaceCache {
+
+    private static final Logger LOG = Logger.getLogger(NamespaceCache.class);
+
+    @Inject
+    KubernetesClient kubernetesClient;
+
+    @ConfigProperty(name = "ppcs.cache.namespaces.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "ppcs.cache.resync-period", defaultValue = "10m")
+    Duration resyncPeriod;
+
+    private final Set<String> namespaces = ConcurrentHashMap.newKeySet();
+    private volatile SharedIndexInformer<Namespace> informer;
+
+    final ResourceEventHandler<Namespace> eventHandler = new ResourceEventHandler<>() {
+        @Override
+        public void onAdd(Namespace namespace) {
+            namespaces.add(namespace.getMetadata().getName());
+        }
+
+        @Override
+        public void onUpdate(Namespace oldNamespace, Namespace newNamespace) {
+            namespaces.add(newNamespace.getMetadata().getName());
+        }
+
+        @Override
+        public void onDelete(Namespace namespace, boolean deletedFinalStateUnknown) {
+            namespaces.remove(namespace.getMetadata().getName());
+        }
+    };
+
+    void onStart(@Observes StartupEvent event) {
+        if (!enabled) {
+            LOG.info("Namespace cache is disabled, existence checks will go to the API server");
+            return;
+        }
+        LOG.info("Starting namespace informer cache");
+        informer = kubernetesClient.namespaces().runnableInformer(resyncPeriod.toMillis());
+        informer.addEventHandler(eventHandler);
+        informer.start().whenComplete((ignored, error) -> {
+            if (error != null) {
+                LOG.errorf(error, "Namespace informer failed to sync: %s", error.getMessage());
+            } else {
+                LOG.infof("Namespace informer synced with %d namespaces", namespaces.size());
+            }
+        });
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        if (informer != null) {
+            informer.stop();
+        }
+    }
+
+    /**
+     * Checks whether a namespace is known to exist, without calling the API server.
+     * A false result is not authoritative.
+     *
+     * @param namespace the namespace name
+     * @return true if the namespace is in the watched set
+     */
+    public boolean contains(String namespace) {
+        return enabled && namespaces.contains(namespace);
+    }
+}
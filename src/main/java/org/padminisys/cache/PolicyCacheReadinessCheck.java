@@ -0,0 +1,34 @@
+package org.padminisys.cache;
+
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.health.HealthCheck;
+import org.eclipse.microprofile.health.HealthCheckResponse;
+import org.eclipse.microprofile.health.Readiness;
+
+/**
+ * Reports the pod as not ready until the CiliumNetworkPolicy cache has synced,
+ * so no traffic is routed to an instance that would block reads.
+ */
+@Readiness
+public class PolicyCacheReadinessCheck implements HealthCheck {
+
+    @Inject
+    CiliumNetworkPolicyCache policyCache;
+
+    @Inject
+    PolicyConversionCache conversionCache;
+
+    @Override
+    public HealthCheckResponse call() {
+        if (!policyCache.isEnabled()) {
+            return HealthCheckResponse.named("policy-cache").up().withData("enabled", false).build();
+        }
+        return HealthCheckResponse.named("policy-cache")
+                .status(policyCache.isSynced())
+                .withData("enabled", true)
+                .withData("conversion-cache-hits", conversionCache.getHits())
+                .withData("conversion-cache-misses", conversionCache.getMisses())
+                .withData("conversion-cache-size", conversionCache.size())
+                .build();
+    }
+}
@@ -0,0 +1,126 @@
+package org.padminisys.cache;
+
+import io.fabric8.kubernetes.client.informers.ResourceEventHandler;
+import io.fabric8.kubernetes.client.informers.cache.Cache;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.annotation.Priority;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.interceptor.Interceptor;
+import org.padminisys.dto.CiliumNetworkPolicyRequest;
+import org.padminisys.model.CiliumNetworkPolicy;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Memoizes the conversion of CiliumNetworkPolicy resources to request DTOs, keyed by
+ * namespace, name and resourceVersion. Entries are evicted from policy watch events,
+ * so repeated reads of an unchanged policy reuse the same DTO. While the policy cache is
+ * enabled, only versions still current in its informer store are kept.
+ * Cached DTOs are shared between callers and must not be modified.
+ */
+@ApplicationScoped
+public class PolicyConversionCache {
+
+    @Inject
+    CiliumNetworkPolicyCache policyCache;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    private record Entry(String resourceVersion, CiliumNetworkPolicyRequest request) {
+    }
+
+    final ResourceEventHandler<CiliumNetworkPolicy> eventHandler = new ResourceEventHandler<>() {
+        @Override
+        public void onAdd(CiliumNetworkPolicy policy) {
+            // Nothing is converted until the policy is first read
+        }
+
+        @Override
+        public void onUpdate(CiliumNetworkPolicy oldPolicy, CiliumNetworkPolicy newPolicy) {
+            if (!Objects.equals(oldPolicy.getMetadata().getResourceVersion(), newPolicy.getMetadata().getResourceVersion())) {
+                entries.remove(Cache.metaNamespaceKeyFunc(newPolicy));
+            }
+        }
+
+        @Override
+        public void onDelete(CiliumNetworkPolicy policy, boolean deletedFinalStateUnknown) {
+            entries.remove(Cache.metaNamespaceKeyFunc(policy));
+        }
+    };
+
+    /**
+     * Registers with the policy cache ahead of the informer start so no update is missed.
+     */
+    void onStart(@Observes @Priority(Interceptor.Priority.PLATFORM_BEFORE) StartupEvent event) {
+        policyCache.addEventHandler(eventHandler);
+    }
+
+    /**
+     * Returns the converted DTO for a policy, running the converter only if this
+     * resourceVersion has not been converted before.
+     *
+     * @param policy the Kubernetes CNP resource
+     * @param converter the conversion to memoize
+     * @return the converted request object
+     */
+    public CiliumNetworkPolicyRequest convert(CiliumNetworkPolicy policy,
+                                              Function<CiliumNetworkPolicy, CiliumNetworkPolicyRequest> converter) {
+        String resourceVersion = policy.getMetadata().getResourceVersion();
+        if (resourceVersion == null) {
+            misses.increment();
+            return converter.apply(policy);
+        }
+
+        String key = Cache.metaNamespaceKeyFunc(policy);
+        Entry entry = entries.get(key);
+        if (entry != null && entry.resourceVersion().equals(resourceVersion)) {
+            hits.increment();
+            return entry.request();
+        }
+
+        misses.increment();
+        CiliumNetworkPolicyRequest request = converter.apply(policy);
+        Entry converted = new Entry(resourceVersion, request);
+        entries.put(key, converted);
+        // A watch event may have evicted the key just before the put. The informer store is
+        // updated before its handlers run, so re-checking it afterwards catches that race.
+        if (policyCache.isEnabled() && !isCurrent(key, resourceVersion)) {
+            entries.remove(key, converted);
+        }
+        return request;
+    }
+
+    private boolean isCurrent(String key, String resourceVersion) {
+        CiliumNetworkPolicy current = policyCache.getByKey(key);
+        return current != null && resourceVersion.equals(current.getMetadata().getResourceVersion());
+    }
+
+    /**
+     * @return the number of conversions served from the cache
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return the number of conversions that had to run the converter
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return the number of cached DTOs
+     */
+    public int size() {
+        return entries.size();
+    }
+}
@@ -0,0 +1,91 @@
+package org.padminisys.cache;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.core.EntityTag;
+import org.padminisys.model.CiliumNetworkPolicy;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Computes strong entity tags for policy reads from the cached resourceVersions,
+ * so unchanged polls can be answered with 304 Not Modified before any conversion.
+ * Tags are only produced while the policy cache is enabled; otherwise computing one
+ * would cost the same API round trip as the read itself.
+ */
+@ApplicationScoped
+public class PolicyETags {
+
+    @Inject
+    CiliumNetworkPolicyCache policyCache;
+
+    /**
+     * Gets the entity tag of a single policy.
+     *
+     * @param namespace the namespace of the policy
+     * @param name the name of the policy
+     * @return the policy's resourceVersion as a strong tag, or null if unavailable
+     */
+    public EntityTag forPolicy(String namespace, String name) {
+        if (!policyCache.isEnabled()) {
+            return null;
+        }
+        CiliumNetworkPolicy policy = policyCache.get(namespace, name);
+        if (policy == null || policy.getMetadata().getResourceVersion() == null) {
+            return null;
+        }
+        return new EntityTag(policy.getMetadata().getResourceVersion());
+    }
+
+    /**
+     * Gets the entity tag of the policy list of a namespace, a digest over the
+     * names and resourceVersions of its items.
+     *
+     * @param namespace the namespace to list
+     * @return the aggregate strong tag, or null if unavailable or the namespace has no policies
+     */
+    public EntityTag forNamespace(String namespace) {
+        if (!policyCache.isEnabled()) {
+            return null;
+        }
+        return forPolicies(policyCache.listByNamespace(namespace));
+    }
+
+    /**
+     * Gets the entity tag of a policy list already read, so a response can be tagged
+     * with exactly the items it carries.
+     *
+     * @param policies the policies of one namespace, in any order
+     * @return the aggregate strong tag, or null if the list is empty
+     */
+    public static EntityTag forPolicies(List<CiliumNetworkPolicy> policies) {
+        if (policies.isEmpty()) {
+            // An empty list is indistinguishable from a namespace that no longer exists
+            return null;
+        }
+
+        MessageDigest digest = sha256();
+        policies.stream()
+                .sorted(Comparator.comparing(policy -> policy.getMetadata().getName()))
+                .forEach(policy -> {
+                    digest.update(policy.getMetadata().getName().getBytes(StandardCharsets.UTF_8));
+                    digest.update((byte) ':');
+                    digest.update(String.valueOf(policy.getMetadata().getResourceVersion()).getBytes(StandardCharsets.UTF_8));
+                    digest.update((byte) ';');
+                });
+        return new EntityTag(HexFormat.of().formatHex(digest.digest(), 0, 16));
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
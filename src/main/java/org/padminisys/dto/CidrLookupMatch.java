@@ -0,0 +1,97 @@
+package org.padminisys.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+import java.util.Objects;
+
+/**
+ * A CIDR of a CiliumNetworkPolicy rule that covers a looked-up IP address or CIDR.
+ * The rule type tells whether the policy allows or denies the traffic and in which direction.
+ */
+@RegisterForReflection
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CidrLookupMatch {
+
+    @JsonProperty("name")
+    private String name;
+
+    @JsonProperty("namespace")
+    private String namespace;
+
+    @JsonProperty("ruleType")
+    private CiliumNetworkPolicyRequest.RuleType ruleType;
+
+    @JsonProperty("cidr")
+    private String cidr;
+
+    public CidrLookupMatch() {
+    }
+
+    public CidrLookupMatch(String name, String namespace, CiliumNetworkPolicyRequest.RuleType ruleType, String cidr) {
+        this.name = name;
+        this.namespace = namespace;
+        this.ruleType = ruleType;
+        this.cidr = cidr;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getNamespace() {
+        return namespace;
+    }
+
+    public void setNamespace(String namespace) {
+        this.namespace = namespace;
+    }
+
+    public CiliumNetworkPolicyRequest.RuleType getRuleType() {
+        return ruleType;
+    }
+
+    public void setRuleType(CiliumNetworkPolicyRequest.RuleType ruleType) {
+        this.ruleType = ruleType;
+    }
+
+    /**
+     * @return the covering CIDR in canonical form, host bits cleared
+     */
+    public String getCidr() {
+        return cidr;
+    }
+
+    public void setCidr(String cidr) {
+        this.cidr = cidr;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof CidrLookupMatch that
+                && Objects.equals(name, that.name)
+                && Objects.equals(namespace, that.namespace)
+                && ruleType == that.ruleType
+                && Objects.equals(cidr, that.cidr);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, namespace, ruleType, cidr);
+    }
+
+    @Override
+    public String toString() {
+        return "CidrLookupMatch{" +
+                "name='" + name + '\'' +
+                ", namespace='" + namespace + '\'' +
+                ", ruleType=" + ruleType +
+                ", cidr='" + cidr + '\'' +
+                '}';
+    }
+}
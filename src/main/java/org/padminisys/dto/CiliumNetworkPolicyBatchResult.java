@@ -0,0 +1,133 @@
+package org.padminisys.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+import java.time.Instant;
+
+/**
+ * Result of one item of a batch CiliumNetworkPolicy creation.
+ * Status is CREATED, UPDATED or EXISTS as for single creation, or FAILED.
+ */
+@RegisterForReflection
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CiliumNetworkPolicyBatchResult {
+
+    public static final String STATUS_FAILED = "FAILED";
+
+    @JsonProperty("index")
+    private int index;
+
+    @JsonProperty("name")
+    private String name;
+
+    @JsonProperty("namespace")
+    private String namespace;
+
+    @JsonProperty("status")
+    private String status;
+
+    @JsonProperty("createdAt")
+    private Instant createdAt;
+
+    @JsonProperty("message")
+    private String message;
+
+    public CiliumNetworkPolicyBatchResult() {
+    }
+
+    public CiliumNetworkPolicyBatchResult(int index, String name, String namespace, String status,
+                                          Instant createdAt, String message) {
+        this.index = index;
+        this.name = name;
+        this.namespace = namespace;
+        this.status = status;
+        this.createdAt = createdAt;
+        this.message = message;
+    }
+
+    /**
+     * Creates the result of a successfully written item.
+     *
+     * @param index the position of the item in the batch
+     * @param response the single-creation response of the item
+     * @return the batch result
+     */
+    public static CiliumNetworkPolicyBatchResult of(int index, CiliumNetworkPolicyResponse response) {
+        return new CiliumNetworkPolicyBatchResult(index, response.getName(), response.getNamespace(),
+                response.getStatus(), response.getCreatedAt(), response.getMessage());
+    }
+
+    /**
+     * Creates the result of a failed item.
+     *
+     * @param index the position of the item in the batch
+     * @param name the policy name, if known
+     * @param namespace the namespace of the item
+     * @param message the failure reason
+     * @return the batch result
+     */
+    public static CiliumNetworkPolicyBatchResult failed(int index, String name, String namespace, String message) {
+        return new CiliumNetworkPolicyBatchResult(index, name, namespace, STATUS_FAILED, null, message);
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getNamespace() {
+        return namespace;
+    }
+
+    public void setNamespace(String namespace) {
+        this.namespace = namespace;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    @Override
+    public String toString() {
+        return "CiliumNetworkPolicyBatchResult{" +
+                "index=" + index +
+                ", name='" + name + '\'' +
+                ", namespace='" + namespace + '\'' +
+                ", status='" + status + '\'' +
+                ", message='" + message + '\'' +
+                '}';
+    }
+}
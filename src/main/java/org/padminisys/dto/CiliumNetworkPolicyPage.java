@@ -0,0 +1,51 @@
+package org.padminisys.dto;
+
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+import java.util.List;
+
+/**
+ * One page of CiliumNetworkPolicies together with the token for the next page.
+ */
+@RegisterForReflection
+public class CiliumNetworkPolicyPage {
+
+    private List<CiliumNetworkPolicyRequest> items;
+
+    private String continueToken;
+
+    public CiliumNetworkPolicyPage() {
+    }
+
+    public CiliumNetworkPolicyPage(List<CiliumNetworkPolicyRequest> items, String continueToken) {
+        this.items = items;
+        this.continueToken = continueToken;
+    }
+
+    public List<CiliumNetworkPolicyRequest> getItems() {
+        return items;
+    }
+
+    public void setItems(List<CiliumNetworkPolicyRequest> items) {
+        this.items = items;
+    }
+
+    /**
+     * @return the token to pass as continue for the next page, or null if this is the last page
+     */
+    public String getContinueToken() {
+        return continueToken;
+    }
+
+    public void setContinueToken(String continueToken) {
+        this.continueToken = continueToken;
+    }
+
+    @Override
+    public String toString() {
+        return "CiliumNetworkPolicyPage{" +
+                "items=" + (items != null ? items.size() : 0) +
+                ", continueToken='" + continueToken + '\'' +
+                '}';
+    }
+}
@@ -58,6 +58,9 @@ public class CiliumNetworkPolicyRequest {
     @JsonProperty("egressDenyRules")
     private List<@Valid NetworkRule> egressDenyRules;
 
+    @JsonProperty("aggregateCidrs")
+    private Boolean aggregateCidrs;
+
     public CiliumNetworkPolicyRequest() {
     }
 
@@ -117,6 +120,17 @@ public class CiliumNetworkPolicyRequest {
         this.egressDenyRules = egressDenyRules;
     }
 
+    /**
+     * @return whether the CIDRs of each rule are aggregated into the fewest covering prefixes; off when null
+     */
+    public Boolean getAggregateCidrs() {
+        return aggregateCidrs;
+    }
+
+    public void setAggregateCidrs(Boolean aggregateCidrs) {
+        this.aggregateCidrs = aggregateCidrs;
+    }
+
     @Override
     public String toString() {
         return "CiliumNetworkPolicyRequest{" +
@@ -127,6 +141,7 @@ public class CiliumNetworkPolicyRequest {
                 ", ingressDenyRules=" + ingressDenyRules +
                 ", egressRules=" + egressRules +
                 ", egressDenyRules=" + egressDenyRules +
+                ", aggregateCidrs=" + aggregateCidrs +
                 '}';
     }
 
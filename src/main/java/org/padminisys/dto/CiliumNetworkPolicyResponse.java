@@ -1,5 +1,6 @@
 package org.padminisys.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import io.quarkus.runtime.annotations.RegisterForReflection;
 
@@ -29,6 +30,18 @@ public class CiliumNetworkPolicyResponse {
     @JsonProperty("generatedName")
     private String generatedName;
 
+    @JsonProperty("resourceVersion")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String resourceVersion;
+
+    @JsonProperty("ruleCountBefore")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer ruleCountBefore;
+
+    @JsonProperty("ruleCountAfter")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer ruleCountAfter;
+
     public CiliumNetworkPolicyResponse() {
     }
 
@@ -90,6 +103,39 @@ public class CiliumNetworkPolicyResponse {
         this.generatedName = generatedName;
     }
 
+    /**
+     * @return the resourceVersion written by a rule patch, for use in If-Match; null for other operations
+     */
+    public String getResourceVersion() {
+        return resourceVersion;
+    }
+
+    public void setResourceVersion(String resourceVersion) {
+        this.resourceVersion = resourceVersion;
+    }
+
+    /**
+     * @return the number of rules in the request of a create, before compaction; null for other operations
+     */
+    public Integer getRuleCountBefore() {
+        return ruleCountBefore;
+    }
+
+    public void setRuleCountBefore(Integer ruleCountBefore) {
+        this.ruleCountBefore = ruleCountBefore;
+    }
+
+    /**
+     * @return the number of rules in the written policy of a create, after compaction; null for other operations
+     */
+    public Integer getRuleCountAfter() {
+        return ruleCountAfter;
+    }
+
+    public void setRuleCountAfter(Integer ruleCountAfter) {
+        this.ruleCountAfter = ruleCountAfter;
+    }
+
     @Override
     public String toString() {
         return "CiliumNetworkPolicyResponse{" +
@@ -99,6 +145,9 @@ public class CiliumNetworkPolicyResponse {
                 ", createdAt=" + createdAt +
                 ", message='" + message + '\'' +
                 ", generatedName='" + generatedName + '\'' +
+                ", resourceVersion='" + resourceVersion + '\'' +
+                ", ruleCountBefore=" + ruleCountBefore +
+                ", ruleCountAfter=" + ruleCountAfter +
                 '}';
     }
 }
\ No newline at end of file
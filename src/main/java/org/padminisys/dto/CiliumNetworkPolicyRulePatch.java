@@ -0,0 +1,57 @@
+package org.padminisys.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.quarkus.runtime.annotations.RegisterForReflection;
+import jakarta.validation.Valid;
+import org.padminisys.dto.CiliumNetworkPolicyRequest.NetworkRule;
+
+import java.util.List;
+
+/**
+ * Request DTO for adding and removing individual rules of an existing CiliumNetworkPolicy.
+ * Each rule goes to, or is removed from, the rule list selected by its rule type.
+ * Removed rules are matched by content against the policy's current rules.
+ */
+@RegisterForReflection
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CiliumNetworkPolicyRulePatch {
+
+    @JsonProperty("add")
+    private List<@Valid NetworkRule> add;
+
+    @JsonProperty("remove")
+    private List<@Valid NetworkRule> remove;
+
+    public CiliumNetworkPolicyRulePatch() {
+    }
+
+    public CiliumNetworkPolicyRulePatch(List<NetworkRule> add, List<NetworkRule> remove) {
+        this.add = add;
+        this.remove = remove;
+    }
+
+    public List<NetworkRule> getAdd() {
+        return add;
+    }
+
+    public void setAdd(List<NetworkRule> add) {
+        this.add = add;
+    }
+
+    public List<NetworkRule> getRemove() {
+        return remove;
+    }
+
+    public void setRemove(List<NetworkRule> remove) {
+        this.remove = remove;
+    }
+
+    @Override
+    public String toString() {
+        return "CiliumNetworkPolicyRulePatch{" +
+                "add=" + add +
+                ", remove=" + remove +
+                '}';
+    }
+}
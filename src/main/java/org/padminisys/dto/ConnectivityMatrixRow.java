@@ -0,0 +1,139 @@
+package org.padminisys.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.quarkus.runtime.annotations.RegisterForReflection;
+import org.padminisys.dto.PolicySimulationResponse.Decision;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One row of a namespace connectivity matrix: whether pods with the source labels can reach
+ * pods with each destination labels, on the protocol and port the matrix was computed for.
+ */
+@RegisterForReflection
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ConnectivityMatrixRow {
+
+    @JsonProperty("source")
+    private Map<String, String> source;
+
+    @JsonProperty("destinations")
+    private List<Cell> destinations;
+
+    public ConnectivityMatrixRow() {
+    }
+
+    public ConnectivityMatrixRow(Map<String, String> source, List<Cell> destinations) {
+        this.source = source;
+        this.destinations = destinations;
+    }
+
+    /**
+     * @return the endpoint selector labels of the source group; empty for the policies selecting every pod
+     */
+    public Map<String, String> getSource() {
+        return source;
+    }
+
+    public void setSource(Map<String, String> source) {
+        this.source = source;
+    }
+
+    /**
+     * @return one cell per endpoint group of the namespace, in the same order in every row
+     */
+    public List<Cell> getDestinations() {
+        return destinations;
+    }
+
+    public void setDestinations(List<Cell> destinations) {
+        this.destinations = destinations;
+    }
+
+    @Override
+    public String toString() {
+        return "ConnectivityMatrixRow{" +
+                "source=" + source +
+                ", destinations=" + destinations +
+                '}';
+    }
+
+    /**
+     * The decisions for connections from the row's source group to one destination group.
+     */
+    @RegisterForReflection
+    public static class Cell {
+
+        @JsonProperty("destination")
+        private Map<String, String> destination;
+
+        @JsonProperty("allowed")
+        private boolean allowed;
+
+        @JsonProperty("egress")
+        private Decision egress;
+
+        @JsonProperty("ingress")
+        private Decision ingress;
+
+        public Cell() {
+        }
+
+        public Cell(Map<String, String> destination, Decision egress, Decision ingress) {
+            this.destination = destination;
+            this.allowed = egress.isAllowed() && ingress.isAllowed();
+            this.egress = egress;
+            this.ingress = ingress;
+        }
+
+        public Map<String, String> getDestination() {
+            return destination;
+        }
+
+        public void setDestination(Map<String, String> destination) {
+            this.destination = destination;
+        }
+
+        public boolean isAllowed() {
+            return allowed;
+        }
+
+        public void setAllowed(boolean allowed) {
+            this.allowed = allowed;
+        }
+
+        /**
+         * @return the decision of the policies selecting the source group
+         */
+        public Decision getEgress() {
+            return egress;
+        }
+
+        public void setEgress(Decision egress) {
+            this.egress = egress;
+        }
+
+        /**
+         * @return the decision of the policies selecting the destination group
+         */
+        public Decision getIngress() {
+            return ingress;
+        }
+
+        public void setIngress(Decision ingress) {
+            this.ingress = ingress;
+        }
+
+        @Override
+        public String toString() {
+            return "Cell{" +
+                    "destination=" + destination +
+                    ", allowed=" + allowed +
+                    ", egress=" + egress +
+                    ", ingress=" + ingress +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package org.padminisys.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.quarkus.runtime.annotations.RegisterForReflection;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+
+import java.util.Map;
+
+/**
+ * Request DTO for simulating a connection against the CiliumNetworkPolicies in the cluster.
+ * Each side of the connection is either a pod, given by its namespace and labels, or an
+ * address outside the cluster.
+ */
+@RegisterForReflection
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PolicySimulationRequest {
+
+    @NotNull(message = "Source cannot be null")
+    @Valid
+    @JsonProperty("source")
+    private Endpoint source;
+
+    @NotNull(message = "Destination cannot be null")
+    @Valid
+    @JsonProperty("destination")
+    private Endpoint destination;
+
+    @NotNull(message = "Protocol cannot be null")
+    @JsonProperty("protocol")
+    private CiliumNetworkPolicyRequest.Protocol protocol;
+
+    @NotNull(message = "Port cannot be null")
+    @Min(value = 1, message = "Port must be between 1 and 65535")
+    @Max(value = 65535, message = "Port must be between 1 and 65535")
+    @JsonProperty("port")
+    private Integer port;
+
+    public PolicySimulationRequest() {
+    }
+
+    public PolicySimulationRequest(Endpoint source, Endpoint destination, CiliumNetworkPolicyRequest.Protocol protocol, Integer port) {
+        this.source = source;
+        this.destination = destination;
+        this.protocol = protocol;
+        this.port = port;
+    }
+
+    public Endpoint getSource() {
+        return source;
+    }
+
+    public void setSource(Endpoint source) {
+        this.source = source;
+    }
+
+    public Endpoint getDestination() {
+        return destination;
+    }
+
+    public void setDestination(Endpoint destination) {
+        this.destination = destination;
+    }
+
+    public CiliumNetworkPolicyRequest.Protocol getProtocol() {
+        return protocol;
+    }
+
+    public void setProtocol(CiliumNetworkPolicyRequest.Protocol protocol) {
+        this.protocol = protocol;
+    }
+
+    public Integer getPort() {
+        return port;
+    }
+
+    public void setPort(Integer port) {
+        this.port = port;
+    }
+
+    @Override
+    public String toString() {
+        return "PolicySimulationRequest{" +
+                "source=" + source +
+                ", destination=" + destination +
+                ", protocol=" + protocol +
+                ", port=" + port +
+                '}';
+    }
+
+    /**
+     * One side of a simulated connection: a pod with the given labels in a namespace, or an IP address.
+     */
+    @RegisterForReflection
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class Endpoint {
+
+        @Pattern(regexp = "^[a-z0-9]([-a-z0-9]*[a-z0-9])?$",
+                 message = "Namespace must be a valid DNS-1123 label")
+        @JsonProperty("namespace")
+        private String namespace;
+
+        @JsonProperty("labels")
+        private Map<String, String> labels;
+
+        @Pattern(regexp = "^(?:[0-9]{1,3}\\.){3}[0-9]{1,3}$", message = "Invalid IP address format")
+        @JsonProperty("ipAddress")
+        private String ipAddress;
+
+        public Endpoint() {
+        }
+
+        /**
+         * @return a pod endpoint
+         */
+        public static Endpoint pod(String namespace, Map<String, String> labels) {
+            Endpoint endpoint = new Endpoint();
+            endpoint.setNamespace(namespace);
+            endpoint.setLabels(labels);
+            return endpoint;
+        }
+
+        /**
+         * @return an endpoint outside the cluster
+         */
+        public static Endpoint external(String ipAddress) {
+            Endpoint endpoint = new Endpoint();
+            endpoint.setIpAddress(ipAddress);
+            return endpoint;
+        }
+
+        public String getNamespace() {
+            return namespace;
+        }
+
+        public void setNamespace(String namespace) {
+            this.namespace = namespace;
+        }
+
+        public Map<String, String> getLabels() {
+            return labels;
+        }
+
+        public void setLabels(Map<String, String> labels) {
+            this.labels = labels;
+        }
+
+        public String getIpAddress() {
+            return ipAddress;
+        }
+
+        public void setIpAddress(String ipAddress) {
+            this.ipAddress = ipAddress;
+        }
+
+        @Override
+        public String toString() {
+            return "Endpoint{" +
+                    "namespace='" + namespace + '\'' +
+                    ", labels=" + labels +
+                    ", ipAddress='" + ipAddress + '\'' +
+                    '}';
+        }
+    }
+}
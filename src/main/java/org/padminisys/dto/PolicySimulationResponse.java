@@ -0,0 +1,151 @@
+package org.padminisys.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+import java.util.List;
+
+/**
+ * Response DTO of a connection simulation. The connection is allowed only if both the egress
+ * side at the source and the ingress side at the destination are known to allow it.
+ */
+@RegisterForReflection
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PolicySimulationResponse {
+
+    /**
+     * How the policies selecting one side of the connection decide it.
+     */
+    public enum Decision {
+        /** No policy selects the endpoint in this direction, so all traffic is allowed. */
+        ALLOWED_BY_DEFAULT,
+        /** An allow rule matches and no deny rule does. */
+        ALLOWED,
+        /** Policies select the endpoint in this direction but none of their allow rules match. */
+        DENIED_BY_DEFAULT,
+        /** A deny rule matches; deny rules take precedence over allow rules. */
+        DENIED,
+        /** This side is outside the cluster, where no policy applies. */
+        NOT_APPLICABLE,
+        /**
+         * Policies use selectors or rules the simulator cannot model, such as matchExpressions,
+         * entities or FQDNs, and could change the decision; they are listed in the verdict.
+         */
+        UNEVALUABLE;
+
+        /**
+         * @return true only if this side is known to allow the connection
+         */
+        public boolean isAllowed() {
+            return this == ALLOWED_BY_DEFAULT || this == ALLOWED || this == NOT_APPLICABLE;
+        }
+    }
+
+    @JsonProperty("allowed")
+    private boolean allowed;
+
+    @JsonProperty("egress")
+    private Verdict egress;
+
+    @JsonProperty("ingress")
+    private Verdict ingress;
+
+    public PolicySimulationResponse() {
+    }
+
+    public PolicySimulationResponse(Verdict egress, Verdict ingress) {
+        this.allowed = egress.getDecision().isAllowed() && ingress.getDecision().isAllowed();
+        this.egress = egress;
+        this.ingress = ingress;
+    }
+
+    public boolean isAllowed() {
+        return allowed;
+    }
+
+    public void setAllowed(boolean allowed) {
+        this.allowed = allowed;
+    }
+
+    /**
+     * @return the decision of the policies selecting the source
+     */
+    public Verdict getEgress() {
+        return egress;
+    }
+
+    public void setEgress(Verdict egress) {
+        this.egress = egress;
+    }
+
+    /**
+     * @return the decision of the policies selecting the destination
+     */
+    public Verdict getIngress() {
+        return ingress;
+    }
+
+    public void setIngress(Verdict ingress) {
+        this.ingress = ingress;
+    }
+
+    @Override
+    public String toString() {
+        return "PolicySimulationResponse{" +
+                "allowed=" + allowed +
+                ", egress=" + egress +
+                ", ingress=" + ingress +
+                '}';
+    }
+
+    /**
+     * The decision for one direction and the "namespace/name" keys of the policies whose rules made it.
+     */
+    @RegisterForReflection
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    public static class Verdict {
+
+        @JsonProperty("decision")
+        private Decision decision;
+
+        @JsonProperty("policies")
+        private List<String> policies;
+
+        public Verdict() {
+        }
+
+        public Verdict(Decision decision, List<String> policies) {
+            this.decision = decision;
+            this.policies = policies;
+        }
+
+        public Decision getDecision() {
+            return decision;
+        }
+
+        public void setDecision(Decision decision) {
+            this.decision = decision;
+        }
+
+        /**
+         * @return the policies with matching deny rules if denied, with matching allow rules if allowed,
+         *         selecting the endpoint if denied by default, or that could not be evaluated if unevaluable
+         */
+        public List<String> getPolicies() {
+            return policies;
+        }
+
+        public void setPolicies(List<String> policies) {
+            this.policies = policies;
+        }
+
+        @Override
+        public String toString() {
+            return "Verdict{" +
+                    "decision=" + decision +
+                    ", policies=" + policies +
+                    '}';
+        }
+    }
+}
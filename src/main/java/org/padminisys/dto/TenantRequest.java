@@ -0,0 +1,63 @@
+package org.padminisys.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.quarkus.runtime.annotations.RegisterForReflection;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+
+/**
+ * Request DTO for provisioning a tenant: its namespace, service account and baseline policies.
+ */
+@RegisterForReflection
+public class TenantRequest {
+
+    @NotBlank(message = "Tenant name cannot be blank")
+    @Size(max = 63, message = "Tenant name must not exceed 63 characters")
+    @Pattern(regexp = "^[a-z0-9]([-a-z0-9]*[a-z0-9])?$",
+             message = "Tenant name must be a valid DNS-1123 label")
+    @JsonProperty("name")
+    private String name;
+
+    @NotBlank(message = "Service account name cannot be blank")
+    @Size(max = 63, message = "Service account name must not exceed 63 characters")
+    @Pattern(regexp = "^[a-z0-9]([-a-z0-9]*[a-z0-9])?$",
+             message = "Service account name must be a valid DNS-1123 label")
+    @JsonProperty("serviceAccountName")
+    private String serviceAccountName;
+
+    public TenantRequest() {
+    }
+
+    public TenantRequest(String name, String serviceAccountName) {
+        this.name = name;
+        this.serviceAccountName = serviceAccountName;
+    }
+
+    /**
+     * @return the tenant name, which is also the name of its namespace
+     */
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getServiceAccountName() {
+        return serviceAccountName;
+    }
+
+    public void setServiceAccountName(String serviceAccountName) {
+        this.serviceAccountName = serviceAccountName;
+    }
+
+    @Override
+    public String toString() {
+        return "TenantRequest{" +
+                "name='" + name + '\'' +
+                ", serviceAccountName='" + serviceAccountName + '\'' +
+                '}';
+    }
+}
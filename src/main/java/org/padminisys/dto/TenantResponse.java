@@ -0,0 +1,109 @@
+package org.padminisys.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+import java.util.List;
+
+/**
+ * Response DTO for tenant provisioning.
+ * Status is CREATED if the namespace was created, EXISTS if it already existed,
+ * or PARTIAL if any stage after the namespace failed; failed stages are listed in failures.
+ */
+@RegisterForReflection
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TenantResponse {
+
+    public static final String STATUS_PARTIAL = "PARTIAL";
+
+    @JsonProperty("name")
+    private String name;
+
+    @JsonProperty("status")
+    private String status;
+
+    @JsonProperty("namespace")
+    private NamespaceResponse namespace;
+
+    @JsonProperty("serviceAccount")
+    private ServiceAccountResponse serviceAccount;
+
+    @JsonProperty("policies")
+    private List<CiliumNetworkPolicyBatchResult> policies;
+
+    @JsonProperty("failures")
+    private List<String> failures;
+
+    public TenantResponse() {
+    }
+
+    public TenantResponse(String name, String status, NamespaceResponse namespace,
+                          ServiceAccountResponse serviceAccount, List<CiliumNetworkPolicyBatchResult> policies,
+                          List<String> failures) {
+        this.name = name;
+        this.status = status;
+        this.namespace = namespace;
+        this.serviceAccount = serviceAccount;
+        this.policies = policies;
+        this.failures = failures;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public NamespaceResponse getNamespace() {
+        return namespace;
+    }
+
+    public void setNamespace(NamespaceResponse namespace) {
+        this.namespace = namespace;
+    }
+
+    public ServiceAccountResponse getServiceAccount() {
+        return serviceAccount;
+    }
+
+    public void setServiceAccount(ServiceAccountResponse serviceAccount) {
+        this.serviceAccount = serviceAccount;
+    }
+
+    public List<CiliumNetworkPolicyBatchResult> getPolicies() {
+        return policies;
+    }
+
+    public void setPolicies(List<CiliumNetworkPolicyBatchResult> policies) {
+        this.policies = policies;
+    }
+
+    public List<String> getFailures() {
+        return failures;
+    }
+
+    public void setFailures(List<String> failures) {
+        this.failures = failures;
+    }
+
+    @Override
+    public String toString() {
+        return "TenantResponse{" +
+                "name='" + name + '\'' +
+                ", status='" + status + '\'' +
+                ", policies=" + (policies != null ? policies.size() : 0) +
+                ", failures=" + failures +
+                '}';
+    }
+}
@@ -0,0 +1,22 @@
+package org.padminisys.exception;
+
+/**
+ * Thrown when a Kubernetes API call is refused on the client side because the rate limit
+ * or concurrency queue toward the API server is full. Mapped to 503 with a Retry-After header.
+ */
+public class ApiServerBusyException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public ApiServerBusyException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = Math.max(1, retryAfterSeconds);
+    }
+
+    /**
+     * @return the number of seconds after which the client may retry, at least 1
+     */
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
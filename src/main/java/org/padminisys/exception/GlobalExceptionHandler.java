@@ -3,6 +3,7 @@ package org.padminisys.exception;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
 import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.ext.ExceptionMapper;
@@ -29,6 +30,22 @@ public class GlobalExceptionHandler implements ExceptionMapper<Exception> {
             return handleValidationException((ConstraintViolationException) exception);
         }
 
+        if (exception instanceof ApiServerBusyException) {
+            return handleApiServerBusyException((ApiServerBusyException) exception);
+        }
+
+        if (exception instanceof IdempotencyKeyReuseException) {
+            return handleIdempotencyKeyReuseException(exception);
+        }
+
+        if (exception instanceof PolicyConflictException) {
+            return handlePolicyConflictException(exception);
+        }
+
+        if (exception instanceof PolicyRuleNotFoundException) {
+            return handlePolicyRuleNotFoundException(exception);
+        }
+
         if (exception instanceof WebApplicationException) {
             return handleWebApplicationException((WebApplicationException) exception);
         }
@@ -76,6 +93,59 @@ public class GlobalExceptionHandler implements ExceptionMapper<Exception> {
                 .build();
     }
 
+    private Response handleApiServerBusyException(ApiServerBusyException exception) {
+        ErrorResponse errorResponse = new ErrorResponse(
+                "SERVICE_UNAVAILABLE",
+                exception.getMessage(),
+                Response.Status.SERVICE_UNAVAILABLE.getStatusCode()
+        );
+
+        return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, exception.getRetryAfterSeconds())
+                .entity(errorResponse)
+                .type(MediaType.APPLICATION_JSON)
+                .build();
+    }
+
+    private Response handleIdempotencyKeyReuseException(Exception exception) {
+        ErrorResponse errorResponse = new ErrorResponse(
+                "IDEMPOTENCY_KEY_REUSED",
+                exception.getMessage(),
+                422
+        );
+
+        return Response.status(422)
+                .entity(errorResponse)
+                .type(MediaType.APPLICATION_JSON)
+                .build();
+    }
+
+    private Response handlePolicyConflictException(Exception exception) {
+        ErrorResponse errorResponse = new ErrorResponse(
+                "CONFLICT",
+                exception.getMessage(),
+                Response.Status.CONFLICT.getStatusCode()
+        );
+
+        return Response.status(Response.Status.CONFLICT)
+                .entity(errorResponse)
+                .type(MediaType.APPLICATION_JSON)
+                .build();
+    }
+
+    private Response handlePolicyRuleNotFoundException(Exception exception) {
+        ErrorResponse errorResponse = new ErrorResponse(
+                "RULE_NOT_FOUND",
+                exception.getMessage(),
+                422
+        );
+
+        return Response.status(422)
+                .entity(errorResponse)
+                .type(MediaType.APPLICATION_JSON)
+                .build();
+    }
+
     private Response handleWebApplicationException(WebApplicationException exception) {
         // Handle JSON parsing errors and other client errors
         int statusCode = exception.getResponse().getStatus();
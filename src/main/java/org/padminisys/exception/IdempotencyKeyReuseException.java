@@ -0,0 +1,12 @@
+package org.padminisys.exception;
+
+/**
+ * Thrown when an Idempotency-Key is sent again with a different request than the one it was
+ * first used for. Mapped to 422 Unprocessable Entity.
+ */
+public class IdempotencyKeyReuseException extends RuntimeException {
+
+    public IdempotencyKeyReuseException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,17 @@
+package org.padminisys.exception;
+
+/**
+ * Thrown when a CiliumNetworkPolicy changed between being read and being patched, or no longer
+ * has the resourceVersion the client expected. Mapped to 409 Conflict; the client should
+ * re-read the policy and retry.
+ */
+public class PolicyConflictException extends RuntimeException {
+
+    public PolicyConflictException(String message) {
+        super(message);
+    }
+
+    public PolicyConflictException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
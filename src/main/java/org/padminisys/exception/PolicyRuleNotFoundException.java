@@ -0,0 +1,12 @@
+package org.padminisys.exception;
+
+/**
+ * Thrown when a rule patch removes a rule that the CiliumNetworkPolicy does not contain.
+ * The policy itself exists, so this is mapped to 422 Unprocessable Entity rather than 404.
+ */
+public class PolicyRuleNotFoundException extends RuntimeException {
+
+    public PolicyRuleNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,47 @@
+package org.padminisys.model;
+
+import com.fasterxml.jackson.annotation.JsonAnyGetter;
+import com.fasterxml.jackson.annotation.JsonAnySetter;
+import io.fabric8.kubernetes.api.model.Namespaced;
+import io.fabric8.kubernetes.client.CustomResource;
+import io.fabric8.kubernetes.model.annotation.Group;
+import io.fabric8.kubernetes.model.annotation.Kind;
+import io.fabric8.kubernetes.model.annotation.Plural;
+import io.fabric8.kubernetes.model.annotation.Version;
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Typed cilium.io/v2 CiliumNetworkPolicy, bound by Jackson directly from API server responses.
+ * Only the parts of the spec this service manages are modelled; the status is not read. Other
+ * top-level fields, such as the plural specs, are kept as additional properties.
+ */
+@Group("cilium.io")
+@Version("v2")
+@Kind("CiliumNetworkPolicy")
+@Plural("ciliumnetworkpolicies")
+@RegisterForReflection
+public class CiliumNetworkPolicy extends CustomResource<CiliumNetworkPolicySpec, Void> implements Namespaced {
+
+    private final Map<String, Object> additionalProperties = new LinkedHashMap<>();
+
+    @JsonAnyGetter
+    public Map<String, Object> getAdditionalProperties() {
+        return additionalProperties;
+    }
+
+    @JsonAnySetter
+    public void setAdditionalProperty(String name, Object value) {
+        additionalProperties.put(name, value);
+    }
+
+    /**
+     * @return true if the policy carries a field the typed model does not cover, at the top level
+     *         or anywhere in its spec, so code relying on the model must not treat it as complete
+     */
+    public boolean hasUnmodelledFields() {
+        return !additionalProperties.isEmpty() || (getSpec() != null && getSpec().hasUnmodelledFields());
+    }
+}
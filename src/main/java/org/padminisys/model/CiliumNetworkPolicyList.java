@@ -0,0 +1,11 @@
+package org.padminisys.model;
+
+import io.fabric8.kubernetes.api.model.DefaultKubernetesResourceList;
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+/**
+ * List of {@link CiliumNetworkPolicy} resources, as returned by list calls.
+ */
+@RegisterForReflection
+public class CiliumNetworkPolicyList extends DefaultKubernetesResourceList<CiliumNetworkPolicy> {
+}
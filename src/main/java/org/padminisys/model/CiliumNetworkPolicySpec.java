@@ -0,0 +1,786 @@
+package org.padminisys.model;
+
+import com.fasterxml.jackson.annotation.JsonAnyGetter;
+import com.fasterxml.jackson.annotation.JsonAnySetter;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Predicate;
+
+/**
+ * Spec of a {@link CiliumNetworkPolicy}: the endpoint selector and the allow and deny rules
+ * in both directions. Fields this service does not model, such as matchExpressions, entities
+ * or ICMP rules, are kept at each level as additional properties, so they survive a round trip
+ * and {@link #hasUnmodelledFields()} can tell a partially modelled policy from a complete one.
+ */
+@RegisterForReflection
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CiliumNetworkPolicySpec {
+
+    @JsonProperty("endpointSelector")
+    private EndpointSelector endpointSelector;
+
+    @JsonProperty("ingress")
+    private List<IngressRule> ingress;
+
+    @JsonProperty("ingressDeny")
+    private List<IngressRule> ingressDeny;
+
+    @JsonProperty("egress")
+    private List<EgressRule> egress;
+
+    @JsonProperty("egressDeny")
+    private List<EgressRule> egressDeny;
+
+    private final Map<String, Object> additionalProperties = new LinkedHashMap<>();
+
+    public CiliumNetworkPolicySpec() {
+    }
+
+    public EndpointSelector getEndpointSelector() {
+        return endpointSelector;
+    }
+
+    public void setEndpointSelector(EndpointSelector endpointSelector) {
+        this.endpointSelector = endpointSelector;
+    }
+
+    public List<IngressRule> getIngress() {
+        return ingress;
+    }
+
+    public void setIngress(List<IngressRule> ingress) {
+        this.ingress = ingress;
+    }
+
+    public List<IngressRule> getIngressDeny() {
+        return ingressDeny;
+    }
+
+    public void setIngressDeny(List<IngressRule> ingressDeny) {
+        this.ingressDeny = ingressDeny;
+    }
+
+    public List<EgressRule> getEgress() {
+        return egress;
+    }
+
+    public void setEgress(List<EgressRule> egress) {
+        this.egress = egress;
+    }
+
+    public List<EgressRule> getEgressDeny() {
+        return egressDeny;
+    }
+
+    public void setEgressDeny(List<EgressRule> egressDeny) {
+        this.egressDeny = egressDeny;
+    }
+
+    /**
+     * @return the fields Cilium accepts here that this model does not cover
+     */
+    @JsonAnyGetter
+    public Map<String, Object> getAdditionalProperties() {
+        return additionalProperties;
+    }
+
+    @JsonAnySetter
+    public void setAdditionalProperty(String name, Object value) {
+        additionalProperties.put(name, value);
+    }
+
+    /**
+     * @return true if this spec or any of its rules carries a field this model does not cover,
+     *         so the typed view of the policy is incomplete
+     */
+    public boolean hasUnmodelledFields() {
+        return !additionalProperties.isEmpty()
+                || (endpointSelector != null && endpointSelector.hasUnmodelledFields())
+                || anyUnmodelled(ingress, IngressRule::hasUnmodelledFields)
+                || anyUnmodelled(ingressDeny, IngressRule::hasUnmodelledFields)
+                || anyUnmodelled(egress, EgressRule::hasUnmodelledFields)
+                || anyUnmodelled(egressDeny, EgressRule::hasUnmodelledFields);
+    }
+
+    private static <T> boolean anyUnmodelled(List<T> items, Predicate<T> hasUnmodelledFields) {
+        return items != null && items.stream().anyMatch(hasUnmodelledFields);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CiliumNetworkPolicySpec that)) {
+            return false;
+        }
+        return Objects.equals(endpointSelector, that.endpointSelector) &&
+                Objects.equals(ingress, that.ingress) &&
+                Objects.equals(ingressDeny, that.ingressDeny) &&
+                Objects.equals(egress, that.egress) &&
+                Objects.equals(egressDeny, that.egressDeny) &&
+                Objects.equals(additionalProperties, that.additionalProperties);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(endpointSelector, ingress, ingressDeny, egress, egressDeny, additionalProperties);
+    }
+
+    @Override
+    public String toString() {
+        return "CiliumNetworkPolicySpec{" +
+                "endpointSelector=" + endpointSelector +
+                ", ingress=" + ingress +
+                ", ingressDeny=" + ingressDeny +
+                ", egress=" + egress +
+                ", egressDeny=" + egressDeny +
+                ", additionalProperties=" + additionalProperties +
+                '}';
+    }
+
+    /**
+     * Selects endpoints by label; an empty selector selects every endpoint. Only matchLabels is
+     * modelled, so a selector with matchExpressions has unmodelled fields.
+     */
+    @RegisterForReflection
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class EndpointSelector {
+
+        @JsonProperty("matchLabels")
+        private Map<String, String> matchLabels;
+
+        private final Map<String, Object> additionalProperties = new LinkedHashMap<>();
+
+        public EndpointSelector() {
+        }
+
+        public EndpointSelector(Map<String, String> matchLabels) {
+            this.matchLabels = matchLabels;
+        }
+
+        public Map<String, String> getMatchLabels() {
+            return matchLabels;
+        }
+
+        public void setMatchLabels(Map<String, String> matchLabels) {
+            this.matchLabels = matchLabels;
+        }
+
+        @JsonAnyGetter
+        public Map<String, Object> getAdditionalProperties() {
+            return additionalProperties;
+        }
+
+        @JsonAnySetter
+        public void setAdditionalProperty(String name, Object value) {
+            additionalProperties.put(name, value);
+        }
+
+        public boolean hasUnmodelledFields() {
+            return !additionalProperties.isEmpty();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof EndpointSelector that)) {
+                return false;
+            }
+            return Objects.equals(matchLabels, that.matchLabels) &&
+                    Objects.equals(additionalProperties, that.additionalProperties);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(matchLabels, additionalProperties);
+        }
+
+        @Override
+        public String toString() {
+            return "EndpointSelector{" +
+                    "matchLabels=" + matchLabels +
+                    ", additionalProperties=" + additionalProperties +
+                    '}';
+        }
+    }
+
+    /**
+     * An ingress or ingress deny rule: traffic from CIDRs or endpoints to the listed ports.
+     */
+    @RegisterForReflection
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class IngressRule {
+
+        @JsonProperty("fromCIDR")
+        private List<String> fromCIDR;
+
+        @JsonProperty("fromEndpoints")
+        private List<EndpointSelector> fromEndpoints;
+
+        @JsonProperty("toPorts")
+        private List<PortRule> toPorts;
+
+        private final Map<String, Object> additionalProperties = new LinkedHashMap<>();
+
+        public IngressRule() {
+        }
+
+        public List<String> getFromCIDR() {
+            return fromCIDR;
+        }
+
+        public void setFromCIDR(List<String> fromCIDR) {
+            this.fromCIDR = fromCIDR;
+        }
+
+        public List<EndpointSelector> getFromEndpoints() {
+            return fromEndpoints;
+        }
+
+        public void setFromEndpoints(List<EndpointSelector> fromEndpoints) {
+            this.fromEndpoints = fromEndpoints;
+        }
+
+        public List<PortRule> getToPorts() {
+            return toPorts;
+        }
+
+        public void setToPorts(List<PortRule> toPorts) {
+            this.toPorts = toPorts;
+        }
+
+        @JsonAnyGetter
+        public Map<String, Object> getAdditionalProperties() {
+            return additionalProperties;
+        }
+
+        @JsonAnySetter
+        public void setAdditionalProperty(String name, Object value) {
+            additionalProperties.put(name, value);
+        }
+
+        public boolean hasUnmodelledFields() {
+            return !additionalProperties.isEmpty()
+                    || anyUnmodelled(fromEndpoints, EndpointSelector::hasUnmodelledFields)
+                    || anyUnmodelled(toPorts, PortRule::hasUnmodelledFields);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof IngressRule that)) {
+                return false;
+            }
+            return Objects.equals(fromCIDR, that.fromCIDR) &&
+                    Objects.equals(fromEndpoints, that.fromEndpoints) &&
+                    Objects.equals(toPorts, that.toPorts) &&
+                    Objects.equals(additionalProperties, that.additionalProperties);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(fromCIDR, fromEndpoints, toPorts, additionalProperties);
+        }
+
+        @Override
+        public String toString() {
+            return "IngressRule{" +
+                    "fromCIDR=" + fromCIDR +
+                    ", fromEndpoints=" + fromEndpoints +
+                    ", toPorts=" + toPorts +
+                    ", additionalProperties=" + additionalProperties +
+                    '}';
+        }
+    }
+
+    /**
+     * An egress or egress deny rule: traffic to CIDRs or endpoints on the listed ports.
+     */
+    @RegisterForReflection
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class EgressRule {
+
+        @JsonProperty("toCIDR")
+        private List<String> toCIDR;
+
+        @JsonProperty("toEndpoints")
+        private List<EndpointSelector> toEndpoints;
+
+        @JsonProperty("toPorts")
+        private List<PortRule> toPorts;
+
+        private final Map<String, Object> additionalProperties = new LinkedHashMap<>();
+
+        public EgressRule() {
+        }
+
+        public List<String> getToCIDR() {
+            return toCIDR;
+        }
+
+        public void setToCIDR(List<String> toCIDR) {
+            this.toCIDR = toCIDR;
+        }
+
+        public List<EndpointSelector> getToEndpoints() {
+            return toEndpoints;
+        }
+
+        public void setToEndpoints(List<EndpointSelector> toEndpoints) {
+            this.toEndpoints = toEndpoints;
+        }
+
+        public List<PortRule> getToPorts() {
+            return toPorts;
+        }
+
+        public void setToPorts(List<PortRule> toPorts) {
+            this.toPorts = toPorts;
+        }
+
+        @JsonAnyGetter
+        public Map<String, Object> getAdditionalProperties() {
+            return additionalProperties;
+        }
+
+        @JsonAnySetter
+        public void setAdditionalProperty(String name, Object value) {
+            additionalProperties.put(name, value);
+        }
+
+        public boolean hasUnmodelledFields() {
+            return !additionalProperties.isEmpty()
+                    || anyUnmodelled(toEndpoints, EndpointSelector::hasUnmodelledFields)
+                    || anyUnmodelled(toPorts, PortRule::hasUnmodelledFields);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof EgressRule that)) {
+                return false;
+            }
+            return Objects.equals(toCIDR, that.toCIDR) &&
+                    Objects.equals(toEndpoints, that.toEndpoints) &&
+                    Objects.equals(toPorts, that.toPorts) &&
+                    Objects.equals(additionalProperties, that.additionalProperties);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(toCIDR, toEndpoints, toPorts, additionalProperties);
+        }
+
+        @Override
+        public String toString() {
+            return "EgressRule{" +
+                    "toCIDR=" + toCIDR +
+                    ", toEndpoints=" + toEndpoints +
+                    ", toPorts=" + toPorts +
+                    ", additionalProperties=" + additionalProperties +
+                    '}';
+        }
+    }
+
+    /**
+     * A set of ports with the optional L7 rules applied to them.
+     */
+    @RegisterForReflection
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class PortRule {
+
+        @JsonProperty("ports")
+        private List<PortProtocol> ports;
+
+        @JsonProperty("rules")
+        private L7Rules rules;
+
+        private final Map<String, Object> additionalProperties = new LinkedHashMap<>();
+
+        public PortRule() {
+        }
+
+        public List<PortProtocol> getPorts() {
+            return ports;
+        }
+
+        public void setPorts(List<PortProtocol> ports) {
+            this.ports = ports;
+        }
+
+        public L7Rules getRules() {
+            return rules;
+        }
+
+        public void setRules(L7Rules rules) {
+            this.rules = rules;
+        }
+
+        @JsonAnyGetter
+        public Map<String, Object> getAdditionalProperties() {
+            return additionalProperties;
+        }
+
+        @JsonAnySetter
+        public void setAdditionalProperty(String name, Object value) {
+            additionalProperties.put(name, value);
+        }
+
+        public boolean hasUnmodelledFields() {
+            return !additionalProperties.isEmpty()
+                    || anyUnmodelled(ports, PortProtocol::hasUnmodelledFields)
+                    || (rules != null && rules.hasUnmodelledFields());
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof PortRule that)) {
+                return false;
+            }
+            return Objects.equals(ports, that.ports) &&
+                    Objects.equals(rules, that.rules) &&
+                    Objects.equals(additionalProperties, that.additionalProperties);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(ports, rules, additionalProperties);
+        }
+
+        @Override
+        public String toString() {
+            return "PortRule{" +
+                    "ports=" + ports +
+                    ", rules=" + rules +
+                    ", additionalProperties=" + additionalProperties +
+                    '}';
+        }
+    }
+
+    /**
+     * A port, or a port range when endPort is set, with its protocol.
+     * Cilium accepts the port as a number or a named port, so it is kept as a string.
+     */
+    @RegisterForReflection
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class PortProtocol {
+
+        @JsonProperty("port")
+        private String port;
+
+        @JsonProperty("protocol")
+        private String protocol;
+
+        @JsonProperty("endPort")
+        private Integer endPort;
+
+        private final Map<String, Object> additionalProperties = new LinkedHashMap<>();
+
+        public PortProtocol() {
+        }
+
+        public PortProtocol(String port, String protocol, Integer endPort) {
+            this.port = port;
+            this.protocol = protocol;
+            this.endPort = endPort;
+        }
+
+        public String getPort() {
+            return port;
+        }
+
+        public void setPort(String port) {
+            this.port = port;
+        }
+
+        public String getProtocol() {
+            return protocol;
+        }
+
+        public void setProtocol(String protocol) {
+            this.protocol = protocol;
+        }
+
+        public Integer getEndPort() {
+            return endPort;
+        }
+
+        public void setEndPort(Integer endPort) {
+            this.endPort = endPort;
+        }
+
+        @JsonAnyGetter
+        public Map<String, Object> getAdditionalProperties() {
+            return additionalProperties;
+        }
+
+        @JsonAnySetter
+        public void setAdditionalProperty(String name, Object value) {
+            additionalProperties.put(name, value);
+        }
+
+        public boolean hasUnmodelledFields() {
+            return !additionalProperties.isEmpty();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof PortProtocol that)) {
+                return false;
+            }
+            return Objects.equals(port, that.port) &&
+                    Objects.equals(protocol, that.protocol) &&
+                    Objects.equals(endPort, that.endPort) &&
+                    Objects.equals(additionalProperties, that.additionalProperties);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(port, protocol, endPort, additionalProperties);
+        }
+
+        @Override
+        public String toString() {
+            return "PortProtocol{" +
+                    "port='" + port + '\'' +
+                    ", protocol='" + protocol + '\'' +
+                    ", endPort=" + endPort +
+                    ", additionalProperties=" + additionalProperties +
+                    '}';
+        }
+    }
+
+    /**
+     * L7 rules of a port rule; only HTTP rules are modelled.
+     */
+    @RegisterForReflection
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class L7Rules {
+
+        @JsonProperty("http")
+        private List<HttpRule> http;
+
+        private final Map<String, Object> additionalProperties = new LinkedHashMap<>();
+
+        public L7Rules() {
+        }
+
+        public L7Rules(List<HttpRule> http) {
+            this.http = http;
+        }
+
+        public List<HttpRule> getHttp() {
+            return http;
+        }
+
+        public void setHttp(List<HttpRule> http) {
+            this.http = http;
+        }
+
+        @JsonAnyGetter
+        public Map<String, Object> getAdditionalProperties() {
+            return additionalProperties;
+        }
+
+        @JsonAnySetter
+        public void setAdditionalProperty(String name, Object value) {
+            additionalProperties.put(name, value);
+        }
+
+        public boolean hasUnmodelledFields() {
+            return !additionalProperties.isEmpty() || anyUnmodelled(http, HttpRule::hasUnmodelledFields);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof L7Rules that)) {
+                return false;
+            }
+            return Objects.equals(http, that.http) &&
+                    Objects.equals(additionalProperties, that.additionalProperties);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(http, additionalProperties);
+        }
+
+        @Override
+        public String toString() {
+            return "L7Rules{" +
+                    "http=" + http +
+                    ", additionalProperties=" + additionalProperties +
+                    '}';
+        }
+    }
+
+    /**
+     * An HTTP rule allowing requests that carry all of the given headers.
+     */
+    @RegisterForReflection
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class HttpRule {
+
+        @JsonProperty("headerMatches")
+        private List<HeaderMatch> headerMatches;
+
+        private final Map<String, Object> additionalProperties = new LinkedHashMap<>();
+
+        public HttpRule() {
+        }
+
+        public HttpRule(List<HeaderMatch> headerMatches) {
+            this.headerMatches = headerMatches;
+        }
+
+        public List<HeaderMatch> getHeaderMatches() {
+            return headerMatches;
+        }
+
+        public void setHeaderMatches(List<HeaderMatch> headerMatches) {
+            this.headerMatches = headerMatches;
+        }
+
+        @JsonAnyGetter
+        public Map<String, Object> getAdditionalProperties() {
+            return additionalProperties;
+        }
+
+        @JsonAnySetter
+        public void setAdditionalProperty(String name, Object value) {
+            additionalProperties.put(name, value);
+        }
+
+        public boolean hasUnmodelledFields() {
+            return !additionalProperties.isEmpty() || anyUnmodelled(headerMatches, HeaderMatch::hasUnmodelledFields);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof HttpRule that)) {
+                return false;
+            }
+            return Objects.equals(headerMatches, that.headerMatches) &&
+                    Objects.equals(additionalProperties, that.additionalProperties);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(headerMatches, additionalProperties);
+        }
+
+        @Override
+        public String toString() {
+            return "HttpRule{" +
+                    "headerMatches=" + headerMatches +
+                    ", additionalProperties=" + additionalProperties +
+                    '}';
+        }
+    }
+
+    /**
+     * An HTTP header name and the value it must have.
+     */
+    @RegisterForReflection
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class HeaderMatch {
+
+        @JsonProperty("name")
+        private String name;
+
+        @JsonProperty("value")
+        private String value;
+
+        private final Map<String, Object> additionalProperties = new LinkedHashMap<>();
+
+        public HeaderMatch() {
+        }
+
+        public HeaderMatch(String name, String value) {
+            this.name = name;
+            this.value = value;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public String getValue() {
+            return value;
+        }
+
+        public void setValue(String value) {
+            this.value = value;
+        }
+
+        @JsonAnyGetter
+        public Map<String, Object> getAdditionalProperties() {
+            return additionalProperties;
+        }
+
+        @JsonAnySetter
+        public void setAdditionalProperty(String name, Object value) {
+            additionalProperties.put(name, value);
+        }
+
+        public boolean hasUnmodelledFields() {
+            return !additionalProperties.isEmpty();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof HeaderMatch that)) {
+                return false;
+            }
+            return Objects.equals(name, that.name) &&
+                    Objects.equals(value, that.value) &&
+                    Objects.equals(additionalProperties, that.additionalProperties);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(name, value, additionalProperties);
+        }
+
+        @Override
+        public String toString() {
+            return "HeaderMatch{" +
+                    "name='" + name + '\'' +
+                    ", value='" + value + '\'' +
+                    ", additionalProperties=" + additionalProperties +
+                    '}';
+        }
+    }
+}
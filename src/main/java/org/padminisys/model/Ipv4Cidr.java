@@ -0,0 +1,95 @@
+package org.padminisys.model;
+
+/**
+ * An IPv4 prefix as used in fromCIDR/toCIDR, with the address held as an int and host bits cleared.
+ *
+ * @param address the network address, most significant octet first
+ * @param prefixLength the number of leading network bits, 0 to 32
+ */
+public record Ipv4Cidr(int address, int prefixLength) {
+
+    public Ipv4Cidr {
+        if (prefixLength < 0 || prefixLength > 32) {
+            throw new IllegalArgumentException("Invalid prefix length: " + prefixLength);
+        }
+        address &= mask(prefixLength);
+    }
+
+    /**
+     * Parses a CIDR in a.b.c.d/n notation. Host bits set beyond the prefix length are cleared.
+     *
+     * @param cidr the CIDR
+     * @return the parsed prefix
+     * @throws IllegalArgumentException if the CIDR is malformed
+     */
+    public static Ipv4Cidr parse(String cidr) {
+        int slash = cidr.indexOf('/');
+        if (slash < 0) {
+            throw new IllegalArgumentException("Invalid CIDR: " + cidr);
+        }
+        int prefixLength = number(cidr, cidr.substring(slash + 1));
+        if (prefixLength > 32) {
+            throw new IllegalArgumentException("Invalid CIDR: " + cidr);
+        }
+        return new Ipv4Cidr(address(cidr, cidr.substring(0, slash)), prefixLength);
+    }
+
+    /**
+     * Parses either a single address, taken as a /32, or a CIDR.
+     *
+     * @param value the address or CIDR
+     * @return the parsed prefix
+     * @throws IllegalArgumentException if the value is malformed
+     */
+    public static Ipv4Cidr parseAddressOrCidr(String value) {
+        return value.indexOf('/') < 0 ? new Ipv4Cidr(address(value, value), 32) : parse(value);
+    }
+
+    /**
+     * @param depth the bit position, 0 being the most significant
+     * @return the address bit at the given position, 0 or 1
+     */
+    public int bit(int depth) {
+        return (address >>> (31 - depth)) & 1;
+    }
+
+    /**
+     * @return whether every address of the other prefix is also in this one
+     */
+    public boolean contains(Ipv4Cidr other) {
+        return prefixLength <= other.prefixLength && (other.address & mask(prefixLength)) == address;
+    }
+
+    @Override
+    public String toString() {
+        return (address >>> 24) + "." + (address >>> 16 & 0xff) + "." + (address >>> 8 & 0xff) + "." + (address & 0xff)
+                + "/" + prefixLength;
+    }
+
+    private static int mask(int prefixLength) {
+        return prefixLength == 0 ? 0 : -1 << (32 - prefixLength);
+    }
+
+    private static int address(String value, String address) {
+        String[] octets = address.split("\\.", -1);
+        if (octets.length != 4) {
+            throw new IllegalArgumentException("Invalid CIDR: " + value);
+        }
+        int parsed = 0;
+        for (String octet : octets) {
+            int octetValue = number(value, octet);
+            if (octetValue > 255) {
+                throw new IllegalArgumentException("Invalid CIDR: " + value);
+            }
+            parsed = parsed << 8 | octetValue;
+        }
+        return parsed;
+    }
+
+    private static int number(String value, String number) {
+        if (number.isEmpty() || number.length() > 3 || !number.chars().allMatch(c -> c >= '0' && c <= '9')) {
+            throw new IllegalArgumentException("Invalid CIDR: " + value);
+        }
+        return Integer.parseInt(number);
+    }
+}
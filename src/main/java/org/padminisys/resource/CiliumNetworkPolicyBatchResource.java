@@ -0,0 +1,90 @@
+package org.padminisys.resource;
+
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import jakarta.inject.Inject;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.enums.SchemaType;
+import org.eclipse.microprofile.openapi.annotations.media.Content;
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponses;
+import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+import org.jboss.logging.Logger;
+import org.padminisys.dto.CiliumNetworkPolicyBatchResult;
+import org.padminisys.dto.CiliumNetworkPolicyRequest;
+import org.padminisys.exception.ApiServerBusyException;
+import org.padminisys.resource.CiliumNetworkPolicyResource.ErrorResponse;
+import org.padminisys.service.CiliumNetworkPolicyBatchService;
+
+import java.util.List;
+
+/**
+ * REST endpoint for creating CiliumNetworkPolicies in bulk.
+ */
+@Path("/api/v1/cilium-network-policies:batch")
+@Produces(MediaType.APPLICATION_JSON)
+@Consumes(MediaType.APPLICATION_JSON)
+@Tag(name = "CiliumNetworkPolicy Management", description = "Operations for managing Cilium Network Policies")
+@RunOnVirtualThread
+public class CiliumNetworkPolicyBatchResource {
+
+    private static final Logger LOG = Logger.getLogger(CiliumNetworkPolicyBatchResource.class);
+    static final int MAX_BATCH_SIZE = 500;
+
+    @Inject
+    CiliumNetworkPolicyBatchService batchService;
+
+    @POST
+    @Operation(
+            summary = "Create CiliumNetworkPolicies in bulk",
+            description = "Validates all policies up front, then creates them in parallel and returns one result per item in request order"
+    )
+    @APIResponses({
+            @APIResponse(
+                    responseCode = "200",
+                    description = "Batch processed; each item has status CREATED, UPDATED, UNCHANGED, EXISTS or FAILED",
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_JSON,
+                            schema = @Schema(type = SchemaType.ARRAY, implementation = CiliumNetworkPolicyBatchResult.class)
+                    )
+            ),
+            @APIResponse(
+                    responseCode = "400",
+                    description = "Invalid request data; no policy was written"
+            ),
+            @APIResponse(
+                    responseCode = "500",
+                    description = "Internal server error"
+            )
+    })
+    public Response createCiliumNetworkPolicies(
+            @Valid @NotEmpty @Size(max = MAX_BATCH_SIZE) List<@Valid CiliumNetworkPolicyRequest> requests) {
+        LOG.infof("Received request to create %d CiliumNetworkPolicies", requests.size());
+
+        try {
+            List<CiliumNetworkPolicyBatchResult> results = batchService.createCiliumNetworkPolicies(requests);
+            return Response.ok(results).build();
+        } catch (ApiServerBusyException e) {
+            throw e;
+        } catch (IllegalArgumentException e) {
+            LOG.errorf(e, "Invalid CiliumNetworkPolicy batch");
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(new ErrorResponse("Invalid batch: " + e.getMessage()))
+                    .build();
+        } catch (RuntimeException e) {
+            LOG.errorf(e, "Error creating CiliumNetworkPolicy batch");
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(new ErrorResponse("Failed to create CiliumNetworkPolicies: " + e.getMessage()))
+                    .build();
+        }
+    }
+}
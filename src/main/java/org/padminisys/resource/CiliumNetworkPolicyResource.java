@@ -1,11 +1,23 @@
 package org.padminisys.resource;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.inject.Inject;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
 import org.eclipse.microprofile.openapi.annotations.Operation;
 import org.eclipse.microprofile.openapi.annotations.media.Content;
 import org.eclipse.microprofile.openapi.annotations.media.Schema;
@@ -13,14 +25,25 @@ import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
 import org.eclipse.microprofile.openapi.annotations.responses.APIResponses;
 import org.eclipse.microprofile.openapi.annotations.tags.Tag;
 import org.jboss.logging.Logger;
+import org.padminisys.cache.IdempotencyStore;
+import org.padminisys.cache.PolicyETags;
+import org.padminisys.dto.CidrLookupMatch;
+import org.padminisys.dto.CiliumNetworkPolicyPage;
 import org.padminisys.dto.CiliumNetworkPolicyRequest;
 import org.padminisys.dto.CiliumNetworkPolicyResponse;
+import org.padminisys.dto.CiliumNetworkPolicyRulePatch;
+import org.padminisys.exception.ApiServerBusyException;
+import org.padminisys.exception.IdempotencyKeyReuseException;
+import org.padminisys.exception.PolicyConflictException;
+import org.padminisys.exception.PolicyRuleNotFoundException;
 import org.padminisys.service.KubernetesService;
 import org.padminisys.service.CiliumNetworkPolicyService;
 
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 /**
  * REST endpoint for CiliumNetworkPolicy operations.
@@ -29,9 +52,13 @@ import java.util.Map;
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
 @Tag(name = "CiliumNetworkPolicy Management", description = "Operations for managing Cilium Network Policies")
+@RunOnVirtualThread
 public class CiliumNetworkPolicyResource {
 
     private static final Logger LOG = Logger.getLogger(CiliumNetworkPolicyResource.class);
+    static final String CONTINUE_TOKEN_HEADER = "X-Continue-Token";
+    static final String APPLICATION_NDJSON = "application/x-ndjson";
+    private static final MediaType APPLICATION_NDJSON_TYPE = MediaType.valueOf(APPLICATION_NDJSON);
 
     @Inject
     KubernetesService kubernetesService;
@@ -39,6 +66,15 @@ public class CiliumNetworkPolicyResource {
     @Inject
     CiliumNetworkPolicyService ciliumNetworkPolicyService;
 
+    @Inject
+    PolicyETags policyETags;
+
+    @Inject
+    IdempotencyStore idempotencyStore;
+
+    @Inject
+    ObjectMapper objectMapper;
+
     @POST
     @Operation(
             summary = "Create a new CiliumNetworkPolicy",
@@ -74,18 +110,30 @@ public class CiliumNetworkPolicyResource {
                     description = "Internal server error"
             )
     })
-    public Response createCiliumNetworkPolicy(@Valid CiliumNetworkPolicyRequest request) {
+    public Response createCiliumNetworkPolicy(@Valid CiliumNetworkPolicyRequest request,
+                                              @Size(max = 255) @HeaderParam(IdempotencyStore.IDEMPOTENCY_KEY_HEADER) String idempotencyKey) {
         LOG.infof("Received request to create CiliumNetworkPolicy in namespace: %s with labels: %s", 
                   request.getNamespace(), request.getLabels());
 
         try {
-            CiliumNetworkPolicyResponse response = kubernetesService.createCiliumNetworkPolicy(request);
-            
-            if ("CREATED".equals(response.getStatus())) {
-                return Response.status(Response.Status.CREATED).entity(response).build();
-            } else {
-                return Response.ok(response).build();
+            IdempotencyStore.Outcome<CiliumNetworkPolicyResponse> outcome = idempotencyStore.execute("cilium-network-policies",
+                    idempotencyKey, request, () -> kubernetesService.createCiliumNetworkPolicy(request));
+            CiliumNetworkPolicyResponse response = outcome.response();
+
+            Response.ResponseBuilder builder = "CREATED".equals(response.getStatus())
+                    ? Response.status(Response.Status.CREATED).entity(response)
+                    : Response.ok(response);
+            if (outcome.replayed()) {
+                builder.header(IdempotencyStore.REPLAYED_HEADER, true);
             }
+            return builder.build();
+        } catch (ApiServerBusyException | IdempotencyKeyReuseException e) {
+            throw e;
+        } catch (IllegalArgumentException e) {
+            LOG.errorf(e, "Invalid CiliumNetworkPolicy request in namespace: %s", request.getNamespace());
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(new ErrorResponse("Invalid request: " + e.getMessage()))
+                    .build();
         } catch (RuntimeException e) {
             LOG.errorf(e, "Error creating CiliumNetworkPolicy in namespace: %s", request.getNamespace());
             
@@ -121,6 +169,10 @@ public class CiliumNetworkPolicyResource {
                             schema = @Schema(implementation = CiliumNetworkPolicyRequest.class)
                     )
             ),
+            @APIResponse(
+                    responseCode = "304",
+                    description = "CiliumNetworkPolicy unchanged since the ETag given in If-None-Match"
+            ),
             @APIResponse(
                     responseCode = "404",
                     description = "CiliumNetworkPolicy not found"
@@ -132,12 +184,21 @@ public class CiliumNetworkPolicyResource {
     })
     public Response getCiliumNetworkPolicyByName(
             @PathParam("name") String name,
-            @QueryParam("namespace") @NotBlank String namespace) {
+            @QueryParam("namespace") @NotBlank String namespace,
+            @Context Request request) {
         LOG.infof("Received request to get CiliumNetworkPolicy: %s in namespace: %s", name, namespace);
 
         try {
+            EntityTag etag = policyETags.forPolicy(namespace, name);
+            Response.ResponseBuilder notModified = evaluateETag(request, etag);
+            if (notModified != null) {
+                return notModified.build();
+            }
+
             CiliumNetworkPolicyRequest policy = ciliumNetworkPolicyService.getCiliumNetworkPolicyByName(name, namespace);
-            return Response.ok(policy).build();
+            return Response.ok(policy).tag(etag).build();
+        } catch (ApiServerBusyException e) {
+            throw e;
         } catch (RuntimeException e) {
             LOG.errorf(e, "Error getting CiliumNetworkPolicy: %s in namespace: %s", name, namespace);
             
@@ -158,33 +219,160 @@ public class CiliumNetworkPolicyResource {
         }
     }
 
+    @PATCH
+    @Path("/{name}/rules")
+    @Operation(
+            summary = "Add or remove individual rules of a CiliumNetworkPolicy",
+            description = "Appends the rules in add and removes the rules in remove, each in the rule list selected by its ruleType, "
+                    + "with a JSON patch instead of replacing the whole policy. Removed rules are matched by content. "
+                    + "With If-Match the patch is only applied if the policy still has that ETag (its resourceVersion)"
+    )
+    @APIResponses({
+            @APIResponse(
+                    responseCode = "200",
+                    description = "CiliumNetworkPolicy rules patched; the ETag is the new resourceVersion",
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_JSON,
+                            schema = @Schema(implementation = CiliumNetworkPolicyResponse.class)
+                    )
+            ),
+            @APIResponse(
+                    responseCode = "400",
+                    description = "Invalid request data"
+            ),
+            @APIResponse(
+                    responseCode = "404",
+                    description = "Namespace or CiliumNetworkPolicy not found"
+            ),
+            @APIResponse(
+                    responseCode = "409",
+                    description = "CiliumNetworkPolicy changed since the If-Match ETag or while being patched"
+            ),
+            @APIResponse(
+                    responseCode = "422",
+                    description = "A rule to remove is not in the CiliumNetworkPolicy"
+            ),
+            @APIResponse(
+                    responseCode = "500",
+                    description = "Internal server error"
+            )
+    })
+    public Response patchCiliumNetworkPolicyRules(
+            @PathParam("name") String name,
+            @QueryParam("namespace") @NotBlank String namespace,
+            @NotNull @Valid CiliumNetworkPolicyRulePatch patch,
+            @HeaderParam(HttpHeaders.IF_MATCH) String ifMatch) {
+        LOG.infof("Received request to patch rules of CiliumNetworkPolicy: %s in namespace: %s", name, namespace);
+
+        try {
+            CiliumNetworkPolicyResponse response = ciliumNetworkPolicyService
+                    .patchCiliumNetworkPolicyRules(name, namespace, patch, resourceVersionOf(ifMatch));
+            return Response.ok(response).tag(new EntityTag(response.getResourceVersion())).build();
+        } catch (ApiServerBusyException | PolicyConflictException | PolicyRuleNotFoundException e) {
+            throw e;
+        } catch (IllegalArgumentException e) {
+            LOG.errorf(e, "Invalid rule patch for CiliumNetworkPolicy: %s in namespace: %s", name, namespace);
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(new ErrorResponse("Invalid rule patch: " + e.getMessage()))
+                    .build();
+        } catch (RuntimeException e) {
+            LOG.errorf(e, "Error patching CiliumNetworkPolicy: %s in namespace: %s", name, namespace);
+
+            if (e.getMessage().contains("does not exist") || e.getMessage().contains("not found")) {
+                return Response.status(Response.Status.NOT_FOUND)
+                        .entity(new ErrorResponse("Not found: " + e.getMessage()))
+                        .build();
+            }
+
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(new ErrorResponse("Failed to patch CiliumNetworkPolicy: " + e.getMessage()))
+                    .build();
+        } catch (Exception e) {
+            LOG.errorf(e, "Unexpected error patching CiliumNetworkPolicy: %s in namespace: %s", name, namespace);
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(new ErrorResponse("Unexpected error: " + e.getMessage()))
+                    .build();
+        }
+    }
+
     @GET
     @Path("/namespace/{namespace}")
+    @Produces({MediaType.APPLICATION_JSON, APPLICATION_NDJSON})
     @Operation(
             summary = "Get all CiliumNetworkPolicies in a namespace",
-            description = "Retrieves all CiliumNetworkPolicies in the specified namespace and converts them back to the original request format"
+            description = "Retrieves all CiliumNetworkPolicies in the specified namespace and converts them back to the original request format. "
+                    + "When limit is given, returns one page ordered by name and sets the " + CONTINUE_TOKEN_HEADER
+                    + " response header while more pages remain; pass it back as continue to fetch the next page. "
+                    + "With Accept: " + APPLICATION_NDJSON + " policies are streamed one JSON object per line"
     )
     @APIResponses({
             @APIResponse(
                     responseCode = "200",
                     description = "CiliumNetworkPolicies found and returned",
-                    content = @Content(mediaType = MediaType.APPLICATION_JSON)
+                    content = {
+                            @Content(mediaType = MediaType.APPLICATION_JSON),
+                            @Content(mediaType = APPLICATION_NDJSON)
+                    }
+            ),
+            @APIResponse(
+                    responseCode = "304",
+                    description = "CiliumNetworkPolicies unchanged since the ETag given in If-None-Match"
+            ),
+            @APIResponse(
+                    responseCode = "400",
+                    description = "Invalid limit or continue parameter"
             ),
             @APIResponse(
                     responseCode = "404",
                     description = "Namespace not found"
             ),
+            @APIResponse(
+                    responseCode = "410",
+                    description = "Continue token has expired"
+            ),
             @APIResponse(
                     responseCode = "500",
                     description = "Internal server error"
             )
     })
-    public Response getCiliumNetworkPoliciesByNamespace(@PathParam("namespace") String namespace) {
+    public Response getCiliumNetworkPoliciesByNamespace(@PathParam("namespace") String namespace,
+                                                        @QueryParam("limit") @Min(1) @Max(1000) Integer limit,
+                                                        @QueryParam("continue") String continueToken,
+                                                        @Context Request request,
+                                                        @Context HttpHeaders headers) {
         LOG.infof("Received request to get all CiliumNetworkPolicies in namespace: %s", namespace);
 
         try {
-            List<CiliumNetworkPolicyRequest> policies = ciliumNetworkPolicyService.getCiliumNetworkPoliciesByNamespace(namespace);
-            return Response.ok(policies).build();
+            boolean ndjson = acceptsNdjson(headers);
+            if (limit != null) {
+                CiliumNetworkPolicyPage page = ciliumNetworkPolicyService
+                        .getCiliumNetworkPoliciesByNamespace(namespace, limit, continueToken);
+                return (ndjson ? ndjsonResponse(page.getItems().stream()) : Response.ok(page.getItems()))
+                        .header(CONTINUE_TOKEN_HEADER, page.getContinueToken())
+                        .build();
+            }
+            if (continueToken != null) {
+                throw new IllegalArgumentException("continue requires limit");
+            }
+            if (ndjson) {
+                return ndjsonResponse(ciliumNetworkPolicyService.streamCiliumNetworkPoliciesByNamespace(namespace)).build();
+            }
+
+            Response.ResponseBuilder notModified = evaluateETag(request, policyETags.forNamespace(namespace));
+            if (notModified != null) {
+                return notModified.build();
+            }
+
+            // Tag the list actually returned, which may be newer than the one checked above
+            CiliumNetworkPolicyService.TaggedPolicies policies = ciliumNetworkPolicyService.getCiliumNetworkPoliciesByNamespace(namespace);
+            return Response.ok(policies.items()).tag(policies.etag()).build();
+        } catch (ApiServerBusyException e) {
+            throw e;
+        } catch (IllegalArgumentException e) {
+            LOG.errorf(e, "Invalid pagination parameters for namespace: %s", namespace);
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(new ErrorResponse("Invalid pagination parameters: " + e.getMessage()))
+                    .build();
         } catch (RuntimeException e) {
             LOG.errorf(e, "Error getting CiliumNetworkPolicies in namespace: %s", namespace);
             
@@ -193,6 +381,12 @@ public class CiliumNetworkPolicyResource {
                         .entity(new ErrorResponse("Namespace not found: " + e.getMessage()))
                         .build();
             }
+
+            if (e.getMessage().contains("Continue token has expired")) {
+                return Response.status(Response.Status.GONE)
+                        .entity(new ErrorResponse(e.getMessage()))
+                        .build();
+            }
             
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
                     .entity(new ErrorResponse("Failed to get CiliumNetworkPolicies: " + e.getMessage()))
@@ -207,15 +401,20 @@ public class CiliumNetworkPolicyResource {
 
     @GET
     @Path("/endpoint-selector")
+    @Produces({MediaType.APPLICATION_JSON, APPLICATION_NDJSON})
     @Operation(
             summary = "Get CiliumNetworkPolicies by endpoint selector labels",
-            description = "Retrieves all CiliumNetworkPolicies that match the specified endpoint selector labels"
+            description = "Retrieves all CiliumNetworkPolicies that match the specified endpoint selector labels. "
+                    + "With Accept: " + APPLICATION_NDJSON + " policies are streamed one JSON object per line"
     )
     @APIResponses({
             @APIResponse(
                     responseCode = "200",
                     description = "CiliumNetworkPolicies found and returned",
-                    content = @Content(mediaType = MediaType.APPLICATION_JSON)
+                    content = {
+                            @Content(mediaType = MediaType.APPLICATION_JSON),
+                            @Content(mediaType = APPLICATION_NDJSON)
+                    }
             ),
             @APIResponse(
                     responseCode = "400",
@@ -228,15 +427,23 @@ public class CiliumNetworkPolicyResource {
     })
     public Response getCiliumNetworkPoliciesByEndpointSelector(
             @QueryParam("namespace") String namespace,
-            @QueryParam("labels") @NotBlank String labelsParam) {
+            @QueryParam("labels") @NotBlank String labelsParam,
+            @Context HttpHeaders headers) {
         LOG.infof("Received request to get CiliumNetworkPolicies by endpoint selector labels: %s in namespace: %s", labelsParam, namespace);
 
         try {
             // Parse labels from query parameter (format: key1=value1,key2=value2)
             Map<String, String> labels = parseLabelsFromQueryParam(labelsParam);
+
+            if (acceptsNdjson(headers)) {
+                return ndjsonResponse(ciliumNetworkPolicyService
+                        .streamCiliumNetworkPoliciesByEndpointSelector(namespace, labels)).build();
+            }
             
             List<CiliumNetworkPolicyRequest> policies = ciliumNetworkPolicyService.getCiliumNetworkPoliciesByEndpointSelector(namespace, labels);
             return Response.ok(policies).build();
+        } catch (ApiServerBusyException e) {
+            throw e;
         } catch (IllegalArgumentException e) {
             LOG.errorf(e, "Invalid labels parameter: %s", labelsParam);
             return Response.status(Response.Status.BAD_REQUEST)
@@ -256,6 +463,57 @@ public class CiliumNetworkPolicyResource {
         }
     }
 
+    @GET
+    @Path("/cidr-lookup")
+    @Operation(
+            summary = "Find the CiliumNetworkPolicy rules covering an IP address",
+            description = "Lists the rules of all CiliumNetworkPolicies whose CIDRs contain the given IPv4 address or CIDR, "
+                    + "with the rule type telling whether the traffic is allowed or denied. Most specific CIDR first"
+    )
+    @APIResponses({
+            @APIResponse(
+                    responseCode = "200",
+                    description = "Covering rules returned",
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_JSON,
+                            schema = @Schema(implementation = CidrLookupMatch.class)
+                    )
+            ),
+            @APIResponse(
+                    responseCode = "400",
+                    description = "Invalid IP address or CIDR"
+            ),
+            @APIResponse(
+                    responseCode = "500",
+                    description = "Internal server error"
+            )
+    })
+    public Response findCiliumNetworkPolicyRulesByCidr(@QueryParam("ip") @NotBlank String ip) {
+        LOG.infof("Received request to look up CiliumNetworkPolicy rules covering: %s", ip);
+
+        try {
+            List<CidrLookupMatch> matches = ciliumNetworkPolicyService.findCiliumNetworkPolicyRulesByCidr(ip);
+            return Response.ok(matches).build();
+        } catch (ApiServerBusyException e) {
+            throw e;
+        } catch (IllegalArgumentException e) {
+            LOG.errorf(e, "Invalid ip parameter: %s", ip);
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(new ErrorResponse("Invalid ip parameter: " + e.getMessage()))
+                    .build();
+        } catch (RuntimeException e) {
+            LOG.errorf(e, "Error looking up CiliumNetworkPolicy rules covering: %s", ip);
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(new ErrorResponse("Failed to get CiliumNetworkPolicies: " + e.getMessage()))
+                    .build();
+        } catch (Exception e) {
+            LOG.errorf(e, "Unexpected error looking up CiliumNetworkPolicy rules covering: %s", ip);
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(new ErrorResponse("Unexpected error: " + e.getMessage()))
+                    .build();
+        }
+    }
+
     @DELETE
     @Path("/{name}")
     @Operation(
@@ -291,6 +549,8 @@ public class CiliumNetworkPolicyResource {
                         .entity(new ErrorResponse("CiliumNetworkPolicy '" + name + "' not found in namespace '" + namespace + "'"))
                         .build();
             }
+        } catch (ApiServerBusyException e) {
+            throw e;
         } catch (RuntimeException e) {
             LOG.errorf(e, "Error deleting CiliumNetworkPolicy: %s in namespace: %s", name, namespace);
             
@@ -342,6 +602,8 @@ public class CiliumNetworkPolicyResource {
                     : "No CiliumNetworkPolicies found to delete";
             
             return Response.ok(new DeleteResponse(message, null, namespace, deletedCount)).build();
+        } catch (ApiServerBusyException e) {
+            throw e;
         } catch (RuntimeException e) {
             LOG.errorf(e, "Error deleting all CiliumNetworkPolicies in namespace: %s", namespace);
             
@@ -385,6 +647,72 @@ public class CiliumNetworkPolicyResource {
         return labels;
     }
 
+    /**
+     * Evaluates If-None-Match against the current entity tag.
+     * Returns a 304 builder when the client's copy is current, otherwise null.
+     */
+    private Response.ResponseBuilder evaluateETag(Request request, EntityTag etag) {
+        if (etag == null || request == null) {
+            return null;
+        }
+        return request.evaluatePreconditions(etag);
+    }
+
+    /**
+     * Extracts the resourceVersion from an If-Match header carrying a policy ETag.
+     * A missing header or the * wildcard means no precondition.
+     */
+    private String resourceVersionOf(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        if (tag.length() >= 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            tag = tag.substring(1, tag.length() - 1);
+        }
+        return tag;
+    }
+
+    /**
+     * Checks whether the client explicitly asked for newline-delimited JSON.
+     * Wildcard Accept headers keep the default JSON array response.
+     */
+    private boolean acceptsNdjson(HttpHeaders headers) {
+        if (headers == null) {
+            return false;
+        }
+        return headers.getAcceptableMediaTypes().stream()
+                .anyMatch(type -> !type.isWildcardType() && !type.isWildcardSubtype()
+                        && APPLICATION_NDJSON_TYPE.isCompatible(type));
+    }
+
+    /**
+     * Builds a response that converts and writes one policy per line as the stream is consumed,
+     * flushing after the first line so the client starts receiving data immediately.
+     */
+    private Response.ResponseBuilder ndjsonResponse(Stream<CiliumNetworkPolicyRequest> policies) {
+        ObjectWriter writer = objectMapper.writer();
+        StreamingOutput body = output -> {
+            try (Stream<CiliumNetworkPolicyRequest> stream = policies) {
+                Iterator<CiliumNetworkPolicyRequest> iterator = stream.iterator();
+                boolean first = true;
+                while (iterator.hasNext()) {
+                    output.write(writer.writeValueAsBytes(iterator.next()));
+                    output.write('\n');
+                    if (first) {
+                        output.flush();
+                        first = false;
+                    }
+                }
+                output.flush();
+            }
+        };
+        return Response.ok(body, APPLICATION_NDJSON_TYPE);
+    }
+
     @GET
     @Path("/health")
     @Operation(
@@ -1,7 +1,9 @@
 package org.padminisys.resource;
 
+import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.inject.Inject;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Size;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
@@ -12,8 +14,11 @@ import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
 import org.eclipse.microprofile.openapi.annotations.responses.APIResponses;
 import org.eclipse.microprofile.openapi.annotations.tags.Tag;
 import org.jboss.logging.Logger;
+import org.padminisys.cache.IdempotencyStore;
 import org.padminisys.dto.NamespaceRequest;
 import org.padminisys.dto.NamespaceResponse;
+import org.padminisys.exception.ApiServerBusyException;
+import org.padminisys.exception.IdempotencyKeyReuseException;
 import org.padminisys.service.KubernetesService;
 
 /**
@@ -23,6 +28,7 @@ import org.padminisys.service.KubernetesService;
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
 @Tag(name = "Namespace Management", description = "Operations for managing Kubernetes namespaces")
+@RunOnVirtualThread
 public class NamespaceResource {
 
     private static final Logger LOG = Logger.getLogger(NamespaceResource.class);
@@ -30,6 +36,9 @@ public class NamespaceResource {
     @Inject
     KubernetesService kubernetesService;
 
+    @Inject
+    IdempotencyStore idempotencyStore;
+
     @POST
     @Operation(
             summary = "Create a new namespace",
@@ -61,11 +70,14 @@ public class NamespaceResource {
                     description = "Internal server error"
             )
     })
-    public Response createNamespace(@Valid NamespaceRequest request) {
+    public Response createNamespace(@Valid NamespaceRequest request,
+                                    @Size(max = 255) @HeaderParam(IdempotencyStore.IDEMPOTENCY_KEY_HEADER) String idempotencyKey) {
         LOG.infof("Received request to create namespace: %s", request.getName());
 
         try {
-            NamespaceResponse response = kubernetesService.createNamespace(request);
+            IdempotencyStore.Outcome<NamespaceResponse> outcome = idempotencyStore.execute("namespaces", idempotencyKey, request,
+                    () -> kubernetesService.createNamespace(request));
+            NamespaceResponse response = outcome.response();
             
             if (response == null) {
                 LOG.errorf("Service returned null response for namespace: %s", request.getName());
@@ -74,11 +86,15 @@ public class NamespaceResource {
                         .build();
             }
             
-            if ("CREATED".equals(response.getStatus())) {
-                return Response.status(Response.Status.CREATED).entity(response).build();
-            } else {
-                return Response.ok(response).build();
+            Response.ResponseBuilder builder = "CREATED".equals(response.getStatus())
+                    ? Response.status(Response.Status.CREATED).entity(response)
+                    : Response.ok(response);
+            if (outcome.replayed()) {
+                builder.header(IdempotencyStore.REPLAYED_HEADER, true);
             }
+            return builder.build();
+        } catch (ApiServerBusyException | IdempotencyKeyReuseException e) {
+            throw e;
         } catch (Exception e) {
             LOG.errorf(e, "Error creating namespace: %s", request.getName());
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
@@ -0,0 +1,200 @@
+package org.padminisys.resource;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import jakarta.inject.Inject;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.media.Content;
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponses;
+import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+import org.jboss.logging.Logger;
+import org.padminisys.dto.CiliumNetworkPolicyRequest;
+import org.padminisys.dto.ConnectivityMatrixRow;
+import org.padminisys.dto.PolicySimulationRequest;
+import org.padminisys.dto.PolicySimulationResponse;
+import org.padminisys.exception.ApiServerBusyException;
+import org.padminisys.service.PolicySimulationService;
+
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * REST endpoint for simulating connections against CiliumNetworkPolicies.
+ */
+@Path("/api/v1/policy-simulations")
+@Produces(MediaType.APPLICATION_JSON)
+@Consumes(MediaType.APPLICATION_JSON)
+@Tag(name = "Policy Simulation", description = "Operations for checking what CiliumNetworkPolicies allow without sending traffic")
+@RunOnVirtualThread
+public class PolicySimulationResource {
+
+    private static final Logger LOG = Logger.getLogger(PolicySimulationResource.class);
+
+    @Inject
+    PolicySimulationService policySimulationService;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @POST
+    @Operation(
+            summary = "Simulate a connection",
+            description = "Decides whether the CiliumNetworkPolicies allow a connection from a pod or address to a pod or address "
+                    + "on a protocol and port. A pod is given by namespace and labels. Selected endpoints deny what no rule "
+                    + "allows, and deny rules override allow rules. A side whose outcome depends on selectors or rules the "
+                    + "simulator cannot model, such as matchExpressions, entities or FQDNs, is UNEVALUABLE and names the policies"
+    )
+    @APIResponses({
+            @APIResponse(
+                    responseCode = "200",
+                    description = "Connection simulated",
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_JSON,
+                            schema = @Schema(implementation = PolicySimulationResponse.class)
+                    )
+            ),
+            @APIResponse(
+                    responseCode = "400",
+                    description = "Invalid request data"
+            ),
+            @APIResponse(
+                    responseCode = "404",
+                    description = "Namespace not found"
+            ),
+            @APIResponse(
+                    responseCode = "500",
+                    description = "Internal server error"
+            )
+    })
+    public Response simulateConnection(@Valid @NotNull PolicySimulationRequest request) {
+        LOG.debugf("Received request to simulate connection: %s", request);
+
+        try {
+            return Response.ok(policySimulationService.simulate(request)).build();
+        } catch (ApiServerBusyException e) {
+            throw e;
+        } catch (IllegalArgumentException e) {
+            LOG.errorf("Invalid simulation request: %s", e.getMessage());
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(new ErrorResponse("Invalid request: " + e.getMessage()))
+                    .build();
+        } catch (RuntimeException e) {
+            LOG.errorf(e, "Error simulating connection: %s", request);
+
+            if (e.getMessage() != null && e.getMessage().contains("does not exist")) {
+                return Response.status(Response.Status.NOT_FOUND)
+                        .entity(new ErrorResponse("Namespace not found: " + e.getMessage()))
+                        .build();
+            }
+
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(new ErrorResponse("Failed to simulate connection: " + e.getMessage()))
+                    .build();
+        }
+    }
+
+    @GET
+    @Path("/matrix/{namespace}")
+    @Produces(CiliumNetworkPolicyResource.APPLICATION_NDJSON)
+    @Operation(
+            summary = "Compute the connectivity matrix of a namespace",
+            description = "Decides for every pair of endpoint groups of a namespace, the distinct endpoint selector label "
+                    + "sets of its CiliumNetworkPolicies, whether the policies allow connections between them on a protocol "
+                    + "and port. Rows are streamed one JSON object per line as they are computed; the matrix is cached "
+                    + "until a policy of the namespace changes. Policies with selectors the simulator cannot model form no "
+                    + "group, and cells they could decide are UNEVALUABLE"
+    )
+    @APIResponses({
+            @APIResponse(
+                    responseCode = "200",
+                    description = "Connectivity matrix streamed",
+                    content = @Content(
+                            mediaType = CiliumNetworkPolicyResource.APPLICATION_NDJSON,
+                            schema = @Schema(implementation = ConnectivityMatrixRow.class)
+                    )
+            ),
+            @APIResponse(
+                    responseCode = "400",
+                    description = "Invalid namespace, protocol or port"
+            ),
+            @APIResponse(
+                    responseCode = "404",
+                    description = "Namespace not found"
+            ),
+            @APIResponse(
+                    responseCode = "500",
+                    description = "Internal server error"
+            )
+    })
+    public Response getConnectivityMatrix(@PathParam("namespace")
+                                          @Pattern(regexp = "^[a-z0-9]([-a-z0-9]*[a-z0-9])?$",
+                                                   message = "Namespace must be a valid DNS-1123 label") String namespace,
+                                          @QueryParam("protocol") @NotNull CiliumNetworkPolicyRequest.Protocol protocol,
+                                          @QueryParam("port") @NotNull @Min(1) @Max(65535) Integer port) {
+        LOG.infof("Received request to compute connectivity matrix of namespace %s for %s/%d", namespace, protocol, port);
+
+        try {
+            return ndjsonResponse(policySimulationService.computeConnectivityMatrix(namespace, protocol, port)).build();
+        } catch (ApiServerBusyException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            LOG.errorf(e, "Error computing connectivity matrix of namespace: %s", namespace);
+
+            if (e.getMessage() != null && e.getMessage().contains("does not exist")) {
+                return Response.status(Response.Status.NOT_FOUND)
+                        .type(MediaType.APPLICATION_JSON)
+                        .entity(new ErrorResponse("Namespace not found: " + e.getMessage()))
+                        .build();
+            }
+
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .type(MediaType.APPLICATION_JSON)
+                    .entity(new ErrorResponse("Failed to compute connectivity matrix: " + e.getMessage()))
+                    .build();
+        }
+    }
+
+    /**
+     * Builds a response that writes one row per line as the stream is consumed, flushing after
+     * each row so the client receives rows while later ones are still being computed.
+     */
+    private Response.ResponseBuilder ndjsonResponse(Stream<ConnectivityMatrixRow> rows) {
+        ObjectWriter writer = objectMapper.writer();
+        StreamingOutput body = output -> {
+            try (Stream<ConnectivityMatrixRow> stream = rows) {
+                Iterator<ConnectivityMatrixRow> iterator = stream.iterator();
+                while (iterator.hasNext()) {
+                    output.write(writer.writeValueAsBytes(iterator.next()));
+                    output.write('\n');
+                    output.flush();
+                }
+            }
+        };
+        return Response.ok(body, CiliumNetworkPolicyResource.APPLICATION_NDJSON);
+    }
+
+    /**
+     * Simple error response DTO
+     */
+    public static class ErrorResponse {
+        public String error;
+        public long timestamp;
+
+        public ErrorResponse(String error) {
+            this.error = error;
+            this.timestamp = System.currentTimeMillis();
+        }
+    }
+}
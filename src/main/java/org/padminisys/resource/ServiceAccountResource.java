@@ -1,5 +1,6 @@
 package org.padminisys.resource;
 
+import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.inject.Inject;
 import jakarta.validation.Valid;
 import jakarta.ws.rs.*;
@@ -14,6 +15,7 @@ import org.eclipse.microprofile.openapi.annotations.tags.Tag;
 import org.jboss.logging.Logger;
 import org.padminisys.dto.ServiceAccountRequest;
 import org.padminisys.dto.ServiceAccountResponse;
+import org.padminisys.exception.ApiServerBusyException;
 import org.padminisys.service.KubernetesService;
 
 /**
@@ -23,6 +25,7 @@ import org.padminisys.service.KubernetesService;
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
 @Tag(name = "Service Account Management", description = "Operations for managing Kubernetes service accounts")
+@RunOnVirtualThread
 public class ServiceAccountResource {
 
     private static final Logger LOG = Logger.getLogger(ServiceAccountResource.class);
@@ -81,6 +84,8 @@ public class ServiceAccountResource {
             } else {
                 return Response.ok(response).build();
             }
+        } catch (ApiServerBusyException e) {
+            throw e;
         } catch (RuntimeException e) {
             LOG.errorf(e, "Error creating service account: %s in namespace: %s",
                       request.getName(), request.getNamespace());
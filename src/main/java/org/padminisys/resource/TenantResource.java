@@ -0,0 +1,104 @@
+package org.padminisys.resource;
+
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import jakarta.inject.Inject;
+import jakarta.validation.Valid;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.media.Content;
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponses;
+import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+import org.jboss.logging.Logger;
+import org.padminisys.dto.TenantRequest;
+import org.padminisys.dto.TenantResponse;
+import org.padminisys.exception.ApiServerBusyException;
+import org.padminisys.service.TenantProvisioningService;
+
+/**
+ * REST endpoint for tenant provisioning.
+ */
+@Path("/api/v1/tenants")
+@Produces(MediaType.APPLICATION_JSON)
+@Consumes(MediaType.APPLICATION_JSON)
+@Tag(name = "Tenant Management", description = "Operations for provisioning tenants")
+@RunOnVirtualThread
+public class TenantResource {
+
+    private static final Logger LOG = Logger.getLogger(TenantResource.class);
+
+    @Inject
+    TenantProvisioningService tenantProvisioningService;
+
+    @POST
+    @Operation(
+            summary = "Provision a tenant",
+            description = "Creates the tenant's namespace, then its service account and the configured baseline CiliumNetworkPolicies concurrently"
+    )
+    @APIResponses({
+            @APIResponse(
+                    responseCode = "201",
+                    description = "Tenant provisioned; the namespace was created",
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_JSON,
+                            schema = @Schema(implementation = TenantResponse.class)
+                    )
+            ),
+            @APIResponse(
+                    responseCode = "200",
+                    description = "Tenant provisioned; the namespace already existed",
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_JSON,
+                            schema = @Schema(implementation = TenantResponse.class)
+                    )
+            ),
+            @APIResponse(
+                    responseCode = "400",
+                    description = "Invalid request data"
+            ),
+            @APIResponse(
+                    responseCode = "500",
+                    description = "Namespace creation failed, or some later stage failed (status PARTIAL); the request can be retried",
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_JSON,
+                            schema = @Schema(implementation = TenantResponse.class)
+                    )
+            )
+    })
+    public Response provisionTenant(@Valid TenantRequest request) {
+        LOG.infof("Received request to provision tenant: %s", request.getName());
+
+        try {
+            TenantResponse response = tenantProvisioningService.provisionTenant(request);
+
+            if (TenantResponse.STATUS_PARTIAL.equals(response.getStatus())) {
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR).entity(response).build();
+            }
+            if ("CREATED".equals(response.getStatus())) {
+                return Response.status(Response.Status.CREATED).entity(response).build();
+            }
+            return Response.ok(response).build();
+        } catch (ApiServerBusyException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            LOG.errorf(e, "Error provisioning tenant: %s", request.getName());
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(new ErrorResponse("Failed to provision tenant: " + e.getMessage()))
+                    .build();
+        }
+    }
+
+    /**
+     * Simple error response DTO
+     */
+    public static class ErrorResponse {
+        public String message;
+
+        public ErrorResponse(String message) {
+            this.message = message;
+        }
+    }
+}
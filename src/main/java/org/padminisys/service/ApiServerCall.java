@@ -0,0 +1,24 @@
+package org.padminisys.service;
+
+import jakarta.enterprise.util.Nonbinding;
+import jakarta.interceptor.InterceptorBinding;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a method that makes blocking Kubernetes API calls, so that it runs through the {@link ApiServerLimiter}.
+ */
+@InterceptorBinding
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ApiServerCall {
+
+    /**
+     * @return whether the method modifies resources, which draws from the write rate limit
+     */
+    @Nonbinding
+    boolean write() default false;
+}
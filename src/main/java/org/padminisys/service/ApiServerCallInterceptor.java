@@ -0,0 +1,25 @@
+package org.padminisys.service;
+
+import jakarta.annotation.Priority;
+import jakarta.inject.Inject;
+import jakarta.interceptor.AroundInvoke;
+import jakarta.interceptor.Interceptor;
+import jakarta.interceptor.InvocationContext;
+
+/**
+ * Runs methods annotated with {@link ApiServerCall} through the {@link ApiServerLimiter}.
+ */
+@ApiServerCall
+@Interceptor
+@Priority(Interceptor.Priority.APPLICATION)
+public class ApiServerCallInterceptor {
+
+    @Inject
+    ApiServerLimiter limiter;
+
+    @AroundInvoke
+    Object limit(InvocationContext context) throws Exception {
+        ApiServerCall binding = context.getInterceptorBinding(ApiServerCall.class);
+        return limiter.call(binding != null && binding.write(), context::proceed);
+    }
+}
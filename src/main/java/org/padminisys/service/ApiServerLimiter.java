@@ -0,0 +1,242 @@
+package org.padminisys.service;
+
+import io.smallrye.mutiny.Uni;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import org.padminisys.exception.ApiServerBusyException;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Guards the blocking Kubernetes API calls.
+ * Each call first takes a token from the read or write {@link TokenBucket}, so replays of many
+ * writes are smoothed out on our side instead of being throttled by the control plane, and then
+ * one of ppcs.kubernetes.max-concurrent-calls permits. REST requests run on virtual threads, so
+ * waiting callers park without holding a carrier thread.
+ * Waiting is bounded: a call fails with {@link ApiServerBusyException} as soon as it is clear it
+ * would wait past ppcs.kubernetes.call-acquire-timeout, or when ppcs.kubernetes.max-queued-calls
+ * callers are already waiting.
+ * A call made while the current thread already holds a permit does not pass the gate again,
+ * so nested service calls cannot deadlock on it and take one token per operation.
+ * The non-blocking requests of {@link KubernetesAsyncApi} pass the same gate through
+ * {@link #callAsync(boolean, Supplier)}, each holding a permit until its response arrives.
+ */
+@ApplicationScoped
+public class ApiServerLimiter {
+
+    private static final Logger LOG = Logger.getLogger(ApiServerLimiter.class);
+
+    private static final ThreadLocal<Boolean> HOLDS_PERMIT = new ThreadLocal<>();
+    private static final Executor ASYNC_ACQUIRE = runnable -> Thread.ofVirtual().name("ppcs-api-acquire").start(runnable);
+
+    @ConfigProperty(name = "ppcs.kubernetes.max-concurrent-calls", defaultValue = "64")
+    int maxConcurrentCalls;
+
+    @ConfigProperty(name = "ppcs.kubernetes.call-acquire-timeout", defaultValue = "30s")
+    Duration acquireTimeout;
+
+    @ConfigProperty(name = "ppcs.kubernetes.max-queued-calls", defaultValue = "1000")
+    int maxQueuedCalls;
+
+    @ConfigProperty(name = "ppcs.kubernetes.rate-limit.enabled", defaultValue = "true")
+    boolean rateLimitEnabled;
+
+    @ConfigProperty(name = "ppcs.kubernetes.rate-limit.read-qps", defaultValue = "50")
+    double readQps;
+
+    @ConfigProperty(name = "ppcs.kubernetes.rate-limit.read-burst", defaultValue = "100")
+    int readBurst;
+
+    @ConfigProperty(name = "ppcs.kubernetes.rate-limit.write-qps", defaultValue = "20")
+    double writeQps;
+
+    @ConfigProperty(name = "ppcs.kubernetes.rate-limit.write-burst", defaultValue = "40")
+    int writeBurst;
+
+    private Semaphore permits;
+    private TokenBucket readBucket;
+    private TokenBucket writeBucket;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxObservedInFlight = new AtomicInteger();
+    private final AtomicLong rejected = new AtomicLong();
+
+    @PostConstruct
+    void init() {
+        permits = new Semaphore(Math.max(1, maxConcurrentCalls), true);
+        if (rateLimitEnabled) {
+            readBucket = new TokenBucket("read", readQps, readBurst, maxQueuedCalls, System::nanoTime);
+            writeBucket = new TokenBucket("write", writeQps, writeBurst, maxQueuedCalls, System::nanoTime);
+        }
+    }
+
+    /**
+     * Runs a blocking Kubernetes API read once a token and a permit are available.
+     *
+     * @param call the call to run
+     * @return the result of the call
+     * @throws ApiServerBusyException if the call could not start within ppcs.kubernetes.call-acquire-timeout
+     */
+    public <T> T call(Callable<T> call) throws Exception {
+        return call(false, call);
+    }
+
+    /**
+     * Runs a blocking Kubernetes API call once a token and a permit are available.
+     *
+     * @param write whether the call modifies resources, which draws from the write budget
+     * @param call the call to run
+     * @return the result of the call
+     * @throws ApiServerBusyException if the call could not start within ppcs.kubernetes.call-acquire-timeout
+     */
+    public <T> T call(boolean write, Callable<T> call) throws Exception {
+        if (HOLDS_PERMIT.get() != null) {
+            return call.call();
+        }
+
+        acquire(write);
+        HOLDS_PERMIT.set(Boolean.TRUE);
+        try {
+            return call.call();
+        } finally {
+            HOLDS_PERMIT.remove();
+            release();
+        }
+    }
+
+    /**
+     * Runs a non-blocking Kubernetes API call once a token and a permit are available.
+     * Waiting for them happens on a virtual thread, so the subscribing thread, possibly an event
+     * loop, is never blocked. The permit is held until the call completes, even if the subscriber
+     * cancels, since the request is then still in flight at the API server.
+     *
+     * @param write whether the call modifies resources, which draws from the write budget
+     * @param call starts the call
+     * @return the result of the call; fails with {@link ApiServerBusyException} if the call could
+     *         not start within ppcs.kubernetes.call-acquire-timeout
+     */
+    public <T> Uni<T> callAsync(boolean write, Supplier<Uni<T>> call) {
+        return Uni.createFrom().emitter(emitter -> {
+            // Terminated before anything is emitted means the subscriber cancelled
+            AtomicBoolean cancelled = new AtomicBoolean();
+            emitter.onTermination(() -> cancelled.set(true));
+            ASYNC_ACQUIRE.execute(() -> {
+                try {
+                    acquire(write);
+                } catch (RuntimeException e) {
+                    emitter.fail(e);
+                    return;
+                }
+                if (cancelled.get()) {
+                    release();
+                    return;
+                }
+                Uni.createFrom().<T>deferred(call::get).subscribe().with(
+                        item -> {
+                            release();
+                            emitter.complete(item);
+                        },
+                        failure -> {
+                            release();
+                            emitter.fail(failure);
+                        });
+            });
+        });
+    }
+
+    private void acquire(boolean write) {
+        long deadline = System.nanoTime() + acquireTimeout.toNanos();
+        awaitToken(write ? writeBucket : readBucket);
+        acquirePermit(deadline);
+        maxObservedInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+    }
+
+    private void release() {
+        inFlight.decrementAndGet();
+        permits.release();
+    }
+
+    private void awaitToken(TokenBucket bucket) {
+        if (bucket == null) {
+            return;
+        }
+
+        long waitNanos;
+        try {
+            waitNanos = bucket.reserve(acquireTimeout.toNanos());
+        } catch (ApiServerBusyException e) {
+            rejected.incrementAndGet();
+            LOG.warnf("Rejected Kubernetes API call: %s (%d calls waiting)", e.getMessage(), bucket.getQueued());
+            throw e;
+        }
+        if (waitNanos == 0) {
+            return;
+        }
+
+        try {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for the Kubernetes API rate limit", e);
+        } finally {
+            bucket.dequeued();
+        }
+    }
+
+    private void acquirePermit(long deadline) {
+        if (permits.getQueueLength() >= maxQueuedCalls) {
+            throw reject("Too many Kubernetes API calls queued, try again later");
+        }
+        try {
+            if (!permits.tryAcquire(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+                throw reject("Too many concurrent Kubernetes API calls, try again later");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for a Kubernetes API call permit", e);
+        }
+    }
+
+    private ApiServerBusyException reject(String message) {
+        rejected.incrementAndGet();
+        LOG.warnf("Rejected Kubernetes API call: %s (%d calls in flight)", message, inFlight.get());
+        return new ApiServerBusyException(message, 1);
+    }
+
+    /**
+     * @return the number of calls currently holding a permit
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * @return the number of calls waiting for a permit
+     */
+    public int getQueuedCalls() {
+        return permits.getQueueLength();
+    }
+
+    /**
+     * @return the highest number of calls that held a permit at the same time
+     */
+    public int getMaxObservedInFlight() {
+        return maxObservedInFlight.get();
+    }
+
+    /**
+     * @return the number of calls rejected because the rate limit or permit queue was full
+     */
+    public long getRejected() {
+        return rejected.get();
+    }
+}
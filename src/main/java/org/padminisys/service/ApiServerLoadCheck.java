@@ -0,0 +1,49 @@
+package org.padminisys.service;
+
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.health.HealthCheck;
+import org.eclipse.microprofile.health.HealthCheckResponse;
+import org.eclipse.microprofile.health.Readiness;
+import org.padminisys.cache.IdempotencyStore;
+
+/**
+ * Reports how much load this instance puts on the Kubernetes API server: calls in flight and
+ * queued behind the {@link ApiServerLimiter}, calls it turned away, reads that were served
+ * by sharing an identical read already in flight, policy updates folded into a pending write,
+ * policy writes skipped because nothing changed, and create retries answered from the {@link IdempotencyStore}.
+ * Always up; the data is for dashboards.
+ */
+@Readiness
+public class ApiServerLoadCheck implements HealthCheck {
+
+    @Inject
+    ApiServerLimiter limiter;
+
+    @Inject
+    KubernetesService kubernetesService;
+
+    @Inject
+    CiliumNetworkPolicyService ciliumNetworkPolicyService;
+
+    @Inject
+    CiliumNetworkPolicyWriteCoalescer writeCoalescer;
+
+    @Inject
+    IdempotencyStore idempotencyStore;
+
+    @Override
+    public HealthCheckResponse call() {
+        return HealthCheckResponse.named("kubernetes-api")
+                .up()
+                .withData("calls-in-flight", limiter.getInFlight())
+                .withData("calls-in-flight-max", limiter.getMaxObservedInFlight())
+                .withData("calls-queued", limiter.getQueuedCalls())
+                .withData("calls-rejected", limiter.getRejected())
+                .withData("policy-reads-executed", ciliumNetworkPolicyService.getReadExecutions())
+                .withData("policy-reads-deduplicated", ciliumNetworkPolicyService.getDeduplicatedReads())
+                .withData("policy-writes-coalesced", writeCoalescer.getUpdatesCoalesced())
+                .withData("policy-writes-unchanged", kubernetesService.getUnchangedWrites())
+                .withData("idempotent-replays", idempotencyStore.getReplays())
+                .build();
+    }
+}
@@ -0,0 +1,105 @@
+package org.padminisys.service;
+
+import org.padminisys.model.Ipv4Cidr;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Reduces a set of IPv4 CIDRs to the smallest equivalent set. Prefixes are inserted into a binary
+ * trie with one level per address bit: a prefix covered by a shorter one is dropped on insertion,
+ * and two sibling prefixes that are both covered are replaced by their parent. The result matches
+ * exactly the same addresses as the input, in ascending address order.
+ */
+final class CidrAggregator {
+
+    private static final int ROOT = 0;
+
+    // Child node indices, two per node; 0 means no child since the root is never a child
+    private int[] children;
+    private boolean[] covered;
+    private int nodeCount;
+
+    private CidrAggregator(int expectedPrefixes) {
+        int capacity = Math.max(64, expectedPrefixes * 8);
+        children = new int[capacity * 2];
+        covered = new boolean[capacity];
+        nodeCount = 1;
+    }
+
+    /**
+     * Aggregates a collection of CIDRs. Host bits set beyond the prefix length are ignored.
+     *
+     * @param cidrs the CIDRs in a.b.c.d/n notation
+     * @return the minimal list of CIDRs covering the same addresses
+     * @throws IllegalArgumentException if a CIDR is malformed
+     */
+    static List<String> aggregate(Collection<String> cidrs) {
+        CidrAggregator aggregator = new CidrAggregator(cidrs.size());
+        for (String cidr : cidrs) {
+            aggregator.insert(Ipv4Cidr.parse(cidr));
+        }
+        aggregator.mergeSiblings(ROOT);
+
+        List<String> aggregated = new ArrayList<>();
+        aggregator.collect(ROOT, 0, 0, aggregated);
+        return aggregated;
+    }
+
+    private void insert(Ipv4Cidr cidr) {
+        int node = ROOT;
+        for (int depth = 0; depth < cidr.prefixLength(); depth++) {
+            if (covered[node]) {
+                return;
+            }
+            int slot = node * 2 + cidr.bit(depth);
+            if (children[slot] == 0) {
+                children[slot] = newNode();
+            }
+            node = children[slot];
+        }
+        // Everything below is now covered by this prefix
+        covered[node] = true;
+        children[node * 2] = 0;
+        children[node * 2 + 1] = 0;
+    }
+
+    private boolean mergeSiblings(int node) {
+        if (covered[node]) {
+            return true;
+        }
+        int zero = children[node * 2];
+        int one = children[node * 2 + 1];
+        boolean zeroCovered = zero != 0 && mergeSiblings(zero);
+        boolean oneCovered = one != 0 && mergeSiblings(one);
+        if (zeroCovered && oneCovered) {
+            covered[node] = true;
+        }
+        return covered[node];
+    }
+
+    private void collect(int node, int address, int depth, List<String> aggregated) {
+        if (covered[node]) {
+            aggregated.add(new Ipv4Cidr(address, depth).toString());
+            return;
+        }
+        int zero = children[node * 2];
+        int one = children[node * 2 + 1];
+        if (zero != 0) {
+            collect(zero, address, depth + 1, aggregated);
+        }
+        if (one != 0) {
+            collect(one, address | (1 << (31 - depth)), depth + 1, aggregated);
+        }
+    }
+
+    private int newNode() {
+        if (nodeCount == covered.length) {
+            covered = Arrays.copyOf(covered, covered.length * 2);
+            children = Arrays.copyOf(children, children.length * 2);
+        }
+        return nodeCount++;
+    }
+}
@@ -0,0 +1,154 @@
+package org.padminisys.service;
+
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import org.padminisys.dto.CiliumNetworkPolicyBatchResult;
+import org.padminisys.dto.CiliumNetworkPolicyRequest;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Service for creating many CiliumNetworkPolicies in one request.
+ * The whole batch is validated before any write, each distinct namespace is checked once,
+ * and the writes run in parallel on virtual threads. Each request may have up to
+ * ppcs.batch.max-concurrency writes in flight, so concurrent batches do not queue behind each
+ * other; the {@link ApiServerLimiter} still caps the calls of all requests together.
+ */
+@ApplicationScoped
+public class CiliumNetworkPolicyBatchService {
+
+    private static final Logger LOG = Logger.getLogger(CiliumNetworkPolicyBatchService.class);
+
+    @Inject
+    KubernetesService kubernetesService;
+
+    @ConfigProperty(name = "ppcs.batch.max-concurrency", defaultValue = "8")
+    int maxConcurrency;
+
+    /**
+     * Creates a batch of CiliumNetworkPolicies.
+     *
+     * @param requests the policies to create
+     * @return one result per request, in request order
+     * @throws IllegalArgumentException if any request has an invalid or duplicate name; nothing is written then
+     */
+    public List<CiliumNetworkPolicyBatchResult> createCiliumNetworkPolicies(List<CiliumNetworkPolicyRequest> requests) {
+        LOG.infof("Creating batch of %d CiliumNetworkPolicies", requests.size());
+
+        List<String> policyNames = determinePolicyNames(requests);
+        Map<String, String> namespaceErrors = validateNamespaces(requests);
+
+        List<CompletableFuture<CiliumNetworkPolicyBatchResult>> futures = new ArrayList<>(requests.size());
+        Semaphore permits = new Semaphore(Math.max(1, maxConcurrency));
+        try (ExecutorService executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("ppcs-batch-", 0).factory())) {
+            for (int i = 0; i < requests.size(); i++) {
+                int index = i;
+                CiliumNetworkPolicyRequest request = requests.get(index);
+                String policyName = policyNames.get(index);
+
+                String namespaceError = namespaceErrors.get(request.getNamespace());
+                if (namespaceError != null) {
+                    futures.add(CompletableFuture.completedFuture(
+                            CiliumNetworkPolicyBatchResult.failed(index, policyName, request.getNamespace(), namespaceError)));
+                    continue;
+                }
+
+                futures.add(CompletableFuture.supplyAsync(() -> write(permits, index, request, policyName), executor));
+            }
+        }
+
+        List<CiliumNetworkPolicyBatchResult> results = futures.stream()
+                .map(CompletableFuture::join)
+                .toList();
+
+        long failed = results.stream()
+                .filter(result -> CiliumNetworkPolicyBatchResult.STATUS_FAILED.equals(result.getStatus()))
+                .count();
+        LOG.infof("Batch of %d CiliumNetworkPolicies finished with %d failures", requests.size(), failed);
+        return results;
+    }
+
+    /**
+     * Determines the name of every request up front and rejects the batch if any name is invalid
+     * or the same user-provided name appears twice in a namespace.
+     */
+    private List<String> determinePolicyNames(List<CiliumNetworkPolicyRequest> requests) {
+        List<String> policyNames = new ArrayList<>(requests.size());
+        Set<String> userProvidedKeys = new HashSet<>();
+
+        for (int i = 0; i < requests.size(); i++) {
+            CiliumNetworkPolicyRequest request = requests.get(i);
+            String policyName;
+            try {
+                policyName = kubernetesService.determinePolicyName(request);
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Item " + i + ": " + e.getMessage(), e);
+            }
+
+            boolean isUserProvidedName = request.getName() != null && !request.getName().trim().isEmpty();
+            if (isUserProvidedName && !userProvidedKeys.add(request.getNamespace() + "/" + policyName)) {
+                throw new IllegalArgumentException("Item " + i + ": duplicate policy name '" + policyName
+                        + "' in namespace '" + request.getNamespace() + "'");
+            }
+            policyNames.add(policyName);
+        }
+        return policyNames;
+    }
+
+    /**
+     * Checks each distinct namespace of the batch once.
+     *
+     * @return the failure message per namespace that cannot be written to
+     */
+    private Map<String, String> validateNamespaces(List<CiliumNetworkPolicyRequest> requests) {
+        Set<String> namespaces = new LinkedHashSet<>();
+        requests.forEach(request -> namespaces.add(request.getNamespace()));
+
+        Map<String, String> namespaceErrors = new HashMap<>();
+        for (String namespace : namespaces) {
+            try {
+                kubernetesService.validateNamespaceExists(namespace);
+            } catch (KubernetesClientException e) {
+                LOG.errorf(e, "Failed to validate namespace: %s", namespace);
+                namespaceErrors.put(namespace, "Failed to validate namespace: " + e.getMessage());
+            } catch (RuntimeException e) {
+                LOG.warnf("Skipping batch items in namespace %s: %s", namespace, e.getMessage());
+                namespaceErrors.put(namespace, e.getMessage());
+            }
+        }
+        return namespaceErrors;
+    }
+
+    /**
+     * Writes one item once a permit of its batch is free.
+     */
+    private CiliumNetworkPolicyBatchResult write(Semaphore permits, int index, CiliumNetworkPolicyRequest request, String policyName) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CiliumNetworkPolicyBatchResult.failed(index, policyName, request.getNamespace(), "Interrupted before writing");
+        }
+        try {
+            return CiliumNetworkPolicyBatchResult.of(index, kubernetesService.writeCiliumNetworkPolicy(request, policyName));
+        } catch (RuntimeException e) {
+            LOG.errorf(e, "Batch item %d failed: %s in namespace: %s", index, policyName, request.getNamespace());
+            return CiliumNetworkPolicyBatchResult.failed(index, policyName, request.getNamespace(), e.getMessage());
+        } finally {
+            permits.release();
+        }
+    }
+}
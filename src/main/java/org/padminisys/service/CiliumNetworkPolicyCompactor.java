@@ -0,0 +1,176 @@
+package org.padminisys.service;
+
+import org.padminisys.model.CiliumNetworkPolicySpec;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Merges equivalent rules of a CiliumNetworkPolicy spec so Cilium agents have fewer rules to compile.
+ * Within each rule list, rules with the same port and L7 section and the same kind of peer (CIDRs or
+ * endpoint selectors) become one rule listing all of their peers, and duplicate peers are dropped.
+ * Peers within a rule are alternatives, so the merged rule allows exactly the same traffic.
+ */
+final class CiliumNetworkPolicyCompactor {
+
+    private CiliumNetworkPolicyCompactor() {
+    }
+
+    /**
+     * Identifies the rules that can be merged into one.
+     *
+     * @param cidr true for CIDR peers, false for endpoint selector peers
+     * @param toPorts the normalised port and L7 section
+     */
+    private record MergeKey(boolean cidr, List<CiliumNetworkPolicySpec.PortRule> toPorts) {
+    }
+
+    /**
+     * Collects the peers of the rules merged under one key, in first-seen order without duplicates.
+     */
+    private static final class MergedRule {
+
+        private final List<CiliumNetworkPolicySpec.PortRule> toPorts;
+        private final Set<String> cidrs = new LinkedHashSet<>();
+        private final Set<CiliumNetworkPolicySpec.EndpointSelector> endpoints = new LinkedHashSet<>();
+
+        MergedRule(List<CiliumNetworkPolicySpec.PortRule> toPorts) {
+            this.toPorts = toPorts;
+        }
+
+        void add(List<String> ruleCidrs, List<CiliumNetworkPolicySpec.EndpointSelector> ruleEndpoints) {
+            if (ruleCidrs != null) {
+                cidrs.addAll(ruleCidrs);
+            }
+            if (ruleEndpoints != null) {
+                endpoints.addAll(ruleEndpoints);
+            }
+        }
+
+        List<String> cidrs() {
+            return cidrs.isEmpty() ? null : new ArrayList<>(cidrs);
+        }
+
+        List<CiliumNetworkPolicySpec.EndpointSelector> endpoints() {
+            return endpoints.isEmpty() ? null : new ArrayList<>(endpoints);
+        }
+    }
+
+    /**
+     * Compacts all four rule lists of a spec in place. Merged rules take the position of the
+     * first rule they absorbed.
+     *
+     * @param spec the spec to compact
+     */
+    static void compact(CiliumNetworkPolicySpec spec) {
+        spec.setIngress(compactIngress(spec.getIngress()));
+        spec.setIngressDeny(compactIngress(spec.getIngressDeny()));
+        spec.setEgress(compactEgress(spec.getEgress()));
+        spec.setEgressDeny(compactEgress(spec.getEgressDeny()));
+    }
+
+    /**
+     * Replaces the CIDRs of every rule of a spec with the fewest prefixes covering the same
+     * addresses, as computed by the {@link CidrAggregator}.
+     *
+     * @param spec the spec whose CIDRs to aggregate
+     * @throws IllegalArgumentException if a CIDR is malformed
+     */
+    static void aggregateCidrs(CiliumNetworkPolicySpec spec) {
+        forEachIngress(spec, rule -> rule.setFromCIDR(aggregated(rule.getFromCIDR())));
+        forEachEgress(spec, rule -> rule.setToCIDR(aggregated(rule.getToCIDR())));
+    }
+
+    /**
+     * @return the number of rules in all four rule lists of the spec
+     */
+    static int ruleCount(CiliumNetworkPolicySpec spec) {
+        return sizeOf(spec.getIngress()) + sizeOf(spec.getIngressDeny()) + sizeOf(spec.getEgress()) + sizeOf(spec.getEgressDeny());
+    }
+
+    private static List<CiliumNetworkPolicySpec.IngressRule> compactIngress(List<CiliumNetworkPolicySpec.IngressRule> rules) {
+        if (rules == null || rules.isEmpty()) {
+            return rules;
+        }
+
+        Map<Object, MergedRule> merged = new LinkedHashMap<>();
+        for (CiliumNetworkPolicySpec.IngressRule rule : rules) {
+            merged.computeIfAbsent(mergeKey(rule.getFromCIDR(), rule.getFromEndpoints(), rule.getToPorts()),
+                            key -> new MergedRule(rule.getToPorts()))
+                    .add(rule.getFromCIDR(), rule.getFromEndpoints());
+        }
+
+        List<CiliumNetworkPolicySpec.IngressRule> compacted = new ArrayList<>(merged.size());
+        for (MergedRule rule : merged.values()) {
+            CiliumNetworkPolicySpec.IngressRule ingressRule = new CiliumNetworkPolicySpec.IngressRule();
+            ingressRule.setFromCIDR(rule.cidrs());
+            ingressRule.setFromEndpoints(rule.endpoints());
+            ingressRule.setToPorts(rule.toPorts);
+            compacted.add(ingressRule);
+        }
+        return compacted;
+    }
+
+    private static List<CiliumNetworkPolicySpec.EgressRule> compactEgress(List<CiliumNetworkPolicySpec.EgressRule> rules) {
+        if (rules == null || rules.isEmpty()) {
+            return rules;
+        }
+
+        Map<Object, MergedRule> merged = new LinkedHashMap<>();
+        for (CiliumNetworkPolicySpec.EgressRule rule : rules) {
+            merged.computeIfAbsent(mergeKey(rule.getToCIDR(), rule.getToEndpoints(), rule.getToPorts()),
+                            key -> new MergedRule(rule.getToPorts()))
+                    .add(rule.getToCIDR(), rule.getToEndpoints());
+        }
+
+        List<CiliumNetworkPolicySpec.EgressRule> compacted = new ArrayList<>(merged.size());
+        for (MergedRule rule : merged.values()) {
+            CiliumNetworkPolicySpec.EgressRule egressRule = new CiliumNetworkPolicySpec.EgressRule();
+            egressRule.setToCIDR(rule.cidrs());
+            egressRule.setToEndpoints(rule.endpoints());
+            egressRule.setToPorts(rule.toPorts);
+            compacted.add(egressRule);
+        }
+        return compacted;
+    }
+
+    /**
+     * Builds the merge key of a rule. A rule with both or neither kind of peer gets a key of its
+     * own, so it is kept as it is.
+     */
+    static Object mergeKey(List<String> cidrs, List<CiliumNetworkPolicySpec.EndpointSelector> endpoints,
+                                   List<CiliumNetworkPolicySpec.PortRule> toPorts) {
+        boolean hasCidrs = cidrs != null && !cidrs.isEmpty();
+        boolean hasEndpoints = endpoints != null && !endpoints.isEmpty();
+        if (hasCidrs == hasEndpoints) {
+            return new Object();
+        }
+        List<CiliumNetworkPolicySpec.PortRule> normalizedPorts = toPorts == null || toPorts.isEmpty()
+                ? null
+                : toPorts.stream().map(CiliumNetworkPolicyMapper::normalizePortRule).toList();
+        return new MergeKey(hasCidrs, normalizedPorts);
+    }
+
+    private static void forEachIngress(CiliumNetworkPolicySpec spec, Consumer<CiliumNetworkPolicySpec.IngressRule> action) {
+        Stream.of(spec.getIngress(), spec.getIngressDeny()).filter(Objects::nonNull).flatMap(List::stream).forEach(action);
+    }
+
+    private static void forEachEgress(CiliumNetworkPolicySpec spec, Consumer<CiliumNetworkPolicySpec.EgressRule> action) {
+        Stream.of(spec.getEgress(), spec.getEgressDeny()).filter(Objects::nonNull).flatMap(List::stream).forEach(action);
+    }
+
+    private static List<String> aggregated(List<String> cidrs) {
+        return cidrs == null || cidrs.isEmpty() ? cidrs : CidrAggregator.aggregate(cidrs);
+    }
+
+    private static int sizeOf(List<?> rules) {
+        return rules != null ? rules.size() : 0;
+    }
+}
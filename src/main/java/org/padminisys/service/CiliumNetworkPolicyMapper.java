@@ -0,0 +1,406 @@
+package org.padminisys.service;
+
+import io.fabric8.kubernetes.api.model.ObjectMetaBuilder;
+import org.padminisys.dto.CiliumNetworkPolicyRequest;
+import org.padminisys.model.CiliumNetworkPolicy;
+import org.padminisys.model.CiliumNetworkPolicySpec;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Translates between the API request format and the typed {@link CiliumNetworkPolicy} resource,
+ * in both directions. Shared by the blocking and reactive services so the two never drift apart.
+ */
+final class CiliumNetworkPolicyMapper {
+
+    static final String NAMESPACE_LABEL_KEY = "k8s:io.kubernetes.pod.namespace";
+
+    private CiliumNetworkPolicyMapper() {
+    }
+
+    /**
+     * Builds the CiliumNetworkPolicy resource for a request. Endpoint rules are constrained to
+     * the policy's own namespace.
+     *
+     * @param request the policy request
+     * @param policyName the determined policy name
+     * @return the CiliumNetworkPolicy resource
+     */
+    static CiliumNetworkPolicy toResource(CiliumNetworkPolicyRequest request, String policyName) {
+        String namespace = request.getNamespace();
+        CiliumNetworkPolicySpec spec = new CiliumNetworkPolicySpec();
+
+        // An empty selector selects every endpoint in the namespace
+        spec.setEndpointSelector(new CiliumNetworkPolicySpec.EndpointSelector(
+                request.getLabels() != null && !request.getLabels().isEmpty() ? new HashMap<>(request.getLabels()) : null));
+
+        if (request.getIngressRules() != null && !request.getIngressRules().isEmpty()) {
+            spec.setIngress(request.getIngressRules().stream().map(rule -> toIngressRule(rule, namespace)).toList());
+        }
+        if (request.getIngressDenyRules() != null && !request.getIngressDenyRules().isEmpty()) {
+            spec.setIngressDeny(request.getIngressDenyRules().stream().map(rule -> toIngressRule(rule, namespace)).toList());
+        }
+        if (request.getEgressRules() != null && !request.getEgressRules().isEmpty()) {
+            spec.setEgress(request.getEgressRules().stream().map(rule -> toEgressRule(rule, namespace)).toList());
+        }
+        if (request.getEgressDenyRules() != null && !request.getEgressDenyRules().isEmpty()) {
+            spec.setEgressDeny(request.getEgressDenyRules().stream().map(rule -> toEgressRule(rule, namespace)).toList());
+        }
+
+        CiliumNetworkPolicy policy = new CiliumNetworkPolicy();
+        policy.setMetadata(new ObjectMetaBuilder()
+                .withName(policyName)
+                .withNamespace(namespace)
+                .addToLabels("created-by", "ppcs-nsm")
+                .addToLabels("managed-by", "quarkus-app")
+                .build());
+        policy.setSpec(spec);
+        return policy;
+    }
+
+    static CiliumNetworkPolicySpec.IngressRule toIngressRule(CiliumNetworkPolicyRequest.NetworkRule rule, String namespace) {
+        CiliumNetworkPolicySpec.IngressRule ingressRule = new CiliumNetworkPolicySpec.IngressRule();
+        if (rule.getIpAddresses() != null && !rule.getIpAddresses().isEmpty()) {
+            ingressRule.setFromCIDR(rule.getIpAddresses());
+        }
+        if (rule.getFromLabels() != null && !rule.getFromLabels().isEmpty()) {
+            ingressRule.setFromEndpoints(List.of(toNamespacedSelector(rule.getFromLabels(), namespace)));
+        }
+        if (rule.getPorts() != null && !rule.getPorts().isEmpty()) {
+            ingressRule.setToPorts(List.of(toPortRule(rule.getPorts())));
+        }
+        return ingressRule;
+    }
+
+    static CiliumNetworkPolicySpec.EgressRule toEgressRule(CiliumNetworkPolicyRequest.NetworkRule rule, String namespace) {
+        CiliumNetworkPolicySpec.EgressRule egressRule = new CiliumNetworkPolicySpec.EgressRule();
+        if (rule.getIpAddresses() != null && !rule.getIpAddresses().isEmpty()) {
+            egressRule.setToCIDR(rule.getIpAddresses());
+        }
+        if (rule.getToLabels() != null && !rule.getToLabels().isEmpty()) {
+            egressRule.setToEndpoints(List.of(toNamespacedSelector(rule.getToLabels(), namespace)));
+        }
+        if (rule.getPorts() != null && !rule.getPorts().isEmpty()) {
+            egressRule.setToPorts(List.of(toPortRule(rule.getPorts())));
+        }
+        return egressRule;
+    }
+
+    private static CiliumNetworkPolicySpec.EndpointSelector toNamespacedSelector(Map<String, String> labels, String namespace) {
+        Map<String, String> matchLabels = new HashMap<>(labels);
+        matchLabels.put(NAMESPACE_LABEL_KEY, namespace);
+        return new CiliumNetworkPolicySpec.EndpointSelector(matchLabels);
+    }
+
+    private static CiliumNetworkPolicySpec.PortRule toPortRule(List<CiliumNetworkPolicyRequest.PortRule> portRules) {
+        CiliumNetworkPolicySpec.PortRule portRule = new CiliumNetworkPolicySpec.PortRule();
+        portRule.setPorts(portRules.stream()
+                .map(port -> new CiliumNetworkPolicySpec.PortProtocol(
+                        port.getPort().toString(), port.getProtocol().name(), port.getEndPort()))
+                .toList());
+
+        // One HTTP rule per header match, so a request carrying any one of the headers is allowed
+        List<CiliumNetworkPolicySpec.HttpRule> httpRules = new ArrayList<>();
+        for (CiliumNetworkPolicyRequest.PortRule port : portRules) {
+            if (port.getHeaderMatches() != null) {
+                for (CiliumNetworkPolicyRequest.HeaderMatch headerMatch : port.getHeaderMatches()) {
+                    httpRules.add(new CiliumNetworkPolicySpec.HttpRule(List.of(
+                            new CiliumNetworkPolicySpec.HeaderMatch(headerMatch.getName(), headerMatch.getValue()))));
+                }
+            }
+        }
+        if (!httpRules.isEmpty()) {
+            portRule.setRules(new CiliumNetworkPolicySpec.L7Rules(httpRules));
+        }
+        return portRule;
+    }
+
+    /**
+     * Converts a CiliumNetworkPolicy resource back to the API request format. The namespace
+     * constraint added to endpoint rules is stripped again.
+     *
+     * @param policy the CiliumNetworkPolicy resource
+     * @return the converted request object
+     */
+    static CiliumNetworkPolicyRequest toRequest(CiliumNetworkPolicy policy) {
+        CiliumNetworkPolicyRequest request = new CiliumNetworkPolicyRequest();
+        request.setName(policy.getMetadata().getName());
+        request.setNamespace(policy.getMetadata().getNamespace());
+
+        CiliumNetworkPolicySpec spec = policy.getSpec();
+        if (spec == null) {
+            return request;
+        }
+
+        if (spec.getEndpointSelector() != null && spec.getEndpointSelector().getMatchLabels() != null) {
+            request.setLabels(new HashMap<>(spec.getEndpointSelector().getMatchLabels()));
+        }
+        if (spec.getIngress() != null) {
+            request.setIngressRules(fromIngressRules(spec.getIngress(), CiliumNetworkPolicyRequest.RuleType.INGRESS_ALLOW));
+        }
+        if (spec.getIngressDeny() != null) {
+            request.setIngressDenyRules(fromIngressRules(spec.getIngressDeny(), CiliumNetworkPolicyRequest.RuleType.INGRESS_DENY));
+        }
+        if (spec.getEgress() != null) {
+            request.setEgressRules(fromEgressRules(spec.getEgress(), CiliumNetworkPolicyRequest.RuleType.EGRESS_ALLOW));
+        }
+        if (spec.getEgressDeny() != null) {
+            request.setEgressDenyRules(fromEgressRules(spec.getEgressDeny(), CiliumNetworkPolicyRequest.RuleType.EGRESS_DENY));
+        }
+        return request;
+    }
+
+    private static List<CiliumNetworkPolicyRequest.NetworkRule> fromIngressRules(List<CiliumNetworkPolicySpec.IngressRule> rules,
+                                                                                CiliumNetworkPolicyRequest.RuleType ruleType) {
+        List<CiliumNetworkPolicyRequest.NetworkRule> networkRules = new ArrayList<>(rules.size());
+        for (CiliumNetworkPolicySpec.IngressRule rule : rules) {
+            CiliumNetworkPolicyRequest.NetworkRule networkRule = networkRule(ruleType, rule.getFromCIDR(), rule.getToPorts());
+            List<Map<String, String>> selectorLabels = selectorLabels(rule.getFromEndpoints());
+            if (!selectorLabels.isEmpty()) {
+                networkRule.setFromLabels(selectorLabels.get(0));
+            }
+            networkRules.add(networkRule);
+            for (int i = 1; i < selectorLabels.size(); i++) {
+                CiliumNetworkPolicyRequest.NetworkRule peerRule = networkRule(ruleType, null, rule.getToPorts());
+                peerRule.setFromLabels(selectorLabels.get(i));
+                networkRules.add(peerRule);
+            }
+        }
+        return networkRules;
+    }
+
+    private static List<CiliumNetworkPolicyRequest.NetworkRule> fromEgressRules(List<CiliumNetworkPolicySpec.EgressRule> rules,
+                                                                               CiliumNetworkPolicyRequest.RuleType ruleType) {
+        List<CiliumNetworkPolicyRequest.NetworkRule> networkRules = new ArrayList<>(rules.size());
+        for (CiliumNetworkPolicySpec.EgressRule rule : rules) {
+            CiliumNetworkPolicyRequest.NetworkRule networkRule = networkRule(ruleType, rule.getToCIDR(), rule.getToPorts());
+            List<Map<String, String>> selectorLabels = selectorLabels(rule.getToEndpoints());
+            if (!selectorLabels.isEmpty()) {
+                networkRule.setToLabels(selectorLabels.get(0));
+            }
+            networkRules.add(networkRule);
+            for (int i = 1; i < selectorLabels.size(); i++) {
+                CiliumNetworkPolicyRequest.NetworkRule peerRule = networkRule(ruleType, null, rule.getToPorts());
+                peerRule.setToLabels(selectorLabels.get(i));
+                networkRules.add(peerRule);
+            }
+        }
+        return networkRules;
+    }
+
+    private static CiliumNetworkPolicyRequest.NetworkRule networkRule(CiliumNetworkPolicyRequest.RuleType ruleType, List<String> cidrs,
+                                                                     List<CiliumNetworkPolicySpec.PortRule> toPorts) {
+        CiliumNetworkPolicyRequest.NetworkRule networkRule = new CiliumNetworkPolicyRequest.NetworkRule();
+        networkRule.setRuleType(ruleType);
+        if (cidrs != null && !cidrs.isEmpty()) {
+            networkRule.setIpAddresses(cidrs);
+        }
+        if (toPorts != null && !toPorts.isEmpty()) {
+            List<CiliumNetworkPolicyRequest.PortRule> portRules = fromPortRule(toPorts.get(0));
+            if (portRules != null) {
+                networkRule.setPorts(portRules);
+            }
+        }
+        return networkRule;
+    }
+
+    /**
+     * Takes the labels of each endpoint selector. Our API supports one set of labels per rule, so a
+     * rule with several selectors, such as a compacted one, becomes one rule per selector.
+     *
+     * @return the labels of each selector without the namespace constraint, skipping selectors with none left
+     */
+    private static List<Map<String, String>> selectorLabels(List<CiliumNetworkPolicySpec.EndpointSelector> endpoints) {
+        if (endpoints == null) {
+            return List.of();
+        }
+        List<Map<String, String>> selectorLabels = new ArrayList<>(endpoints.size());
+        for (CiliumNetworkPolicySpec.EndpointSelector endpoint : endpoints) {
+            if (endpoint.getMatchLabels() != null) {
+                Map<String, String> labels = new HashMap<>(endpoint.getMatchLabels());
+                labels.remove(NAMESPACE_LABEL_KEY);
+                if (!labels.isEmpty()) {
+                    selectorLabels.add(labels);
+                }
+            }
+        }
+        return selectorLabels;
+    }
+
+    private static List<CiliumNetworkPolicyRequest.PortRule> fromPortRule(CiliumNetworkPolicySpec.PortRule toPorts) {
+        if (toPorts.getPorts() == null || toPorts.getPorts().isEmpty()) {
+            return null;
+        }
+
+        List<CiliumNetworkPolicyRequest.PortRule> portRules = new ArrayList<>(toPorts.getPorts().size());
+        for (CiliumNetworkPolicySpec.PortProtocol port : toPorts.getPorts()) {
+            CiliumNetworkPolicyRequest.PortRule portRule = new CiliumNetworkPolicyRequest.PortRule();
+            if (port.getProtocol() != null) {
+                portRule.setProtocol(CiliumNetworkPolicyRequest.Protocol.valueOf(port.getProtocol()));
+            }
+            if (port.getPort() != null) {
+                portRule.setPort(Integer.valueOf(port.getPort()));
+            }
+            portRule.setEndPort(port.getEndPort());
+            portRules.add(portRule);
+        }
+
+        // Header matches of all HTTP rules belong to the first port rule (our API structure)
+        if (toPorts.getRules() != null && toPorts.getRules().getHttp() != null) {
+            List<CiliumNetworkPolicyRequest.HeaderMatch> headerMatches = new ArrayList<>();
+            for (CiliumNetworkPolicySpec.HttpRule httpRule : toPorts.getRules().getHttp()) {
+                if (httpRule.getHeaderMatches() != null) {
+                    for (CiliumNetworkPolicySpec.HeaderMatch headerMatch : httpRule.getHeaderMatches()) {
+                        if (headerMatch.getName() != null && headerMatch.getValue() != null) {
+                            headerMatches.add(new CiliumNetworkPolicyRequest.HeaderMatch(headerMatch.getName(), headerMatch.getValue()));
+                        }
+                    }
+                }
+            }
+            if (!headerMatches.isEmpty()) {
+                portRules.get(0).setHeaderMatches(headerMatches);
+            }
+        }
+        return portRules;
+    }
+
+    /**
+     * Checks whether the live policy already matches the desired one, so writing the desired
+     * policy would change nothing. Specs are compared after normalisation, as the API server
+     * may return an omitted field as an empty list or map and vice versa. The desired metadata
+     * labels must be present on the live policy; labels added by others are ignored. A live
+     * policy with fields the typed model does not cover is never up to date, as the comparison
+     * could not see them.
+     *
+     * @param live the policy currently stored in the cluster
+     * @param desired the policy about to be written
+     * @return true if the write can be skipped
+     */
+    static boolean isUpToDate(CiliumNetworkPolicy live, CiliumNetworkPolicy desired) {
+        if (live.hasUnmodelledFields()) {
+            return false;
+        }
+        Map<String, String> desiredLabels = desired.getMetadata().getLabels();
+        Map<String, String> liveLabels = live.getMetadata() != null ? live.getMetadata().getLabels() : null;
+        if (desiredLabels != null && !desiredLabels.isEmpty()
+                && (liveLabels == null || !liveLabels.entrySet().containsAll(desiredLabels.entrySet()))) {
+            return false;
+        }
+        return normalize(live.getSpec()).equals(normalize(desired.getSpec()));
+    }
+
+    /**
+     * Copies a spec with empty lists and maps replaced by null and a missing endpoint selector
+     * replaced by the empty one, so that equivalent specs compare equal. Unmodelled fields are
+     * carried over, so they still tell rules apart. The input is not modified.
+     *
+     * @param spec the spec to normalise, may be null
+     * @return the normalised copy
+     */
+    static CiliumNetworkPolicySpec normalize(CiliumNetworkPolicySpec spec) {
+        CiliumNetworkPolicySpec normalized = new CiliumNetworkPolicySpec();
+        if (spec == null) {
+            normalized.setEndpointSelector(new CiliumNetworkPolicySpec.EndpointSelector(null));
+            return normalized;
+        }
+        normalized.setEndpointSelector(normalizeSelector(spec.getEndpointSelector()));
+        normalized.setIngress(normalizeList(spec.getIngress(), CiliumNetworkPolicyMapper::normalizeIngressRule));
+        normalized.setIngressDeny(normalizeList(spec.getIngressDeny(), CiliumNetworkPolicyMapper::normalizeIngressRule));
+        normalized.setEgress(normalizeList(spec.getEgress(), CiliumNetworkPolicyMapper::normalizeEgressRule));
+        normalized.setEgressDeny(normalizeList(spec.getEgressDeny(), CiliumNetworkPolicyMapper::normalizeEgressRule));
+        normalized.getAdditionalProperties().putAll(spec.getAdditionalProperties());
+        return normalized;
+    }
+
+    private static CiliumNetworkPolicySpec.EndpointSelector normalizeSelector(CiliumNetworkPolicySpec.EndpointSelector selector) {
+        Map<String, String> matchLabels = selector != null ? selector.getMatchLabels() : null;
+        CiliumNetworkPolicySpec.EndpointSelector normalized =
+                new CiliumNetworkPolicySpec.EndpointSelector(matchLabels == null || matchLabels.isEmpty() ? null : matchLabels);
+        if (selector != null) {
+            normalized.getAdditionalProperties().putAll(selector.getAdditionalProperties());
+        }
+        return normalized;
+    }
+
+    static CiliumNetworkPolicySpec.IngressRule normalizeIngressRule(CiliumNetworkPolicySpec.IngressRule rule) {
+        CiliumNetworkPolicySpec.IngressRule normalized = new CiliumNetworkPolicySpec.IngressRule();
+        normalized.setFromCIDR(normalizeList(rule.getFromCIDR(), Function.identity()));
+        normalized.setFromEndpoints(normalizeList(rule.getFromEndpoints(), CiliumNetworkPolicyMapper::normalizeSelector));
+        normalized.setToPorts(normalizeList(rule.getToPorts(), CiliumNetworkPolicyMapper::normalizePortRule));
+        normalized.getAdditionalProperties().putAll(rule.getAdditionalProperties());
+        return normalized;
+    }
+
+    static CiliumNetworkPolicySpec.EgressRule normalizeEgressRule(CiliumNetworkPolicySpec.EgressRule rule) {
+        CiliumNetworkPolicySpec.EgressRule normalized = new CiliumNetworkPolicySpec.EgressRule();
+        normalized.setToCIDR(normalizeList(rule.getToCIDR(), Function.identity()));
+        normalized.setToEndpoints(normalizeList(rule.getToEndpoints(), CiliumNetworkPolicyMapper::normalizeSelector));
+        normalized.setToPorts(normalizeList(rule.getToPorts(), CiliumNetworkPolicyMapper::normalizePortRule));
+        normalized.getAdditionalProperties().putAll(rule.getAdditionalProperties());
+        return normalized;
+    }
+
+    static CiliumNetworkPolicySpec.PortRule normalizePortRule(CiliumNetworkPolicySpec.PortRule portRule) {
+        CiliumNetworkPolicySpec.L7Rules rules = portRule.getRules();
+        List<CiliumNetworkPolicySpec.HttpRule> http = rules != null
+                ? normalizeList(rules.getHttp(), CiliumNetworkPolicyMapper::normalizeHttpRule)
+                : null;
+        CiliumNetworkPolicySpec.PortRule normalized = new CiliumNetworkPolicySpec.PortRule();
+        normalized.setPorts(normalizeList(portRule.getPorts(), Function.identity()));
+        if (http != null || (rules != null && !rules.getAdditionalProperties().isEmpty())) {
+            normalized.setRules(new CiliumNetworkPolicySpec.L7Rules(http));
+            normalized.getRules().getAdditionalProperties().putAll(rules.getAdditionalProperties());
+        }
+        normalized.getAdditionalProperties().putAll(portRule.getAdditionalProperties());
+        return normalized;
+    }
+
+    private static CiliumNetworkPolicySpec.HttpRule normalizeHttpRule(CiliumNetworkPolicySpec.HttpRule httpRule) {
+        CiliumNetworkPolicySpec.HttpRule normalized =
+                new CiliumNetworkPolicySpec.HttpRule(normalizeList(httpRule.getHeaderMatches(), Function.identity()));
+        normalized.getAdditionalProperties().putAll(httpRule.getAdditionalProperties());
+        return normalized;
+    }
+
+    private static <T> List<T> normalizeList(List<T> values, Function<T, T> normalizer) {
+        if (values == null || values.isEmpty()) {
+            return null;
+        }
+        return values.stream().map(normalizer).toList();
+    }
+
+    /**
+     * Checks if a policy's endpoint selector contains all of the target labels. A policy with an
+     * empty selector only matches an empty set of target labels.
+     *
+     * @param policy the CiliumNetworkPolicy resource
+     * @param targetLabels the labels to match against
+     * @return true if the policy's endpoint selector matches the target labels
+     */
+    static boolean matchesEndpointSelector(CiliumNetworkPolicy policy, Map<String, String> targetLabels) {
+        CiliumNetworkPolicySpec spec = policy.getSpec();
+        if (spec == null || spec.getEndpointSelector() == null) {
+            return false;
+        }
+
+        Map<String, String> matchLabels = spec.getEndpointSelector().getMatchLabels();
+        if (matchLabels == null || matchLabels.isEmpty()) {
+            return targetLabels == null || targetLabels.isEmpty();
+        }
+        if (targetLabels == null) {
+            return false;
+        }
+
+        for (Map.Entry<String, String> targetEntry : targetLabels.entrySet()) {
+            String policyValue = matchLabels.get(targetEntry.getKey());
+            if (policyValue == null || !policyValue.equals(targetEntry.getValue())) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,295 @@
+package org.padminisys.service;
+
+import io.fabric8.kubernetes.client.utils.Serialization;
+import org.padminisys.dto.CiliumNetworkPolicyRequest;
+import org.padminisys.dto.CiliumNetworkPolicyRulePatch;
+import org.padminisys.exception.PolicyRuleNotFoundException;
+import org.padminisys.model.CiliumNetworkPolicy;
+import org.padminisys.model.CiliumNetworkPolicySpec;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Builds the RFC 6902 JSON patch that adds and removes individual rules of a live policy.
+ * The patch starts with a test of the resourceVersion the rule positions were computed from,
+ * so the API server rejects it if the policy changed in the meantime.
+ */
+final class CiliumNetworkPolicyRulePatches {
+
+    private CiliumNetworkPolicyRulePatches() {
+    }
+
+    /**
+     * Builds the JSON patch for a rule patch request. A rule to remove that is not in the policy
+     * as a whole is taken out of the rules it was merged into by compaction. With compaction, a
+     * rule to add is merged into a rule of the list with the same ports and peer kind. Rules with
+     * fields the typed model does not cover are never merged into or trimmed, as rewriting them
+     * from the model would lose those fields; they can only be removed as a whole.
+     *
+     * @param live the current policy, whose rule positions the patch refers to
+     * @param patch the rules to add and remove
+     * @param compact whether to merge added rules into equivalent rules of the policy
+     * @return the JSON patch document
+     * @throws PolicyRuleNotFoundException if a rule to remove is not found in the policy
+     */
+    static String build(CiliumNetworkPolicy live, CiliumNetworkPolicyRulePatch patch, boolean compact) {
+        String namespace = live.getMetadata().getNamespace();
+        CiliumNetworkPolicySpec spec = live.getSpec();
+
+        List<Map<String, Object>> operations = new ArrayList<>();
+        operations.add(operation("test", "/metadata/resourceVersion", live.getMetadata().getResourceVersion()));
+        if (spec == null) {
+            spec = new CiliumNetworkPolicySpec();
+            operations.add(operation("add", "/spec", Map.of()));
+        }
+
+        for (CiliumNetworkPolicyRequest.RuleType ruleType : CiliumNetworkPolicyRequest.RuleType.values()) {
+            List<Object> additions = specRules(patch.getAdd(), ruleType, namespace);
+            List<Object> removals = specRules(patch.getRemove(), ruleType, namespace);
+            if (additions.isEmpty() && removals.isEmpty()) {
+                continue;
+            }
+
+            String path = "/spec/" + ruleListField(ruleType);
+            List<Object> current = normalizedRules(spec, ruleType);
+
+            // The rule list after the patch, with null for the removed rules and the appended ones last
+            List<Object> updated = new ArrayList<>(current);
+            for (Object removal : removals) {
+                if (!removeRule(updated, normalize(removal))) {
+                    throw new PolicyRuleNotFoundException("Rule " + removal + " not found in CiliumNetworkPolicy '"
+                            + live.getMetadata().getName() + "' in namespace '" + namespace + "'");
+                }
+            }
+            for (Object addition : additions) {
+                if (!compact || !mergePeers(updated, addition)) {
+                    updated.add(addition);
+                }
+            }
+
+            List<Object> survivors = updated.subList(0, current.size()).stream().filter(Objects::nonNull).toList();
+            List<Object> appended = updated.subList(current.size(), updated.size());
+            if (survivors.isEmpty()) {
+                // Nothing of the current list survives, so set the list as a whole
+                if (!appended.isEmpty()) {
+                    operations.add(operation("add", path, new ArrayList<>(appended)));
+                } else if (hasRuleList(spec, ruleType)) {
+                    operations.add(operation("remove", path, null));
+                }
+                continue;
+            }
+
+            for (int position = 0; position < current.size(); position++) {
+                Object rule = updated.get(position);
+                if (rule != null && !rule.equals(current.get(position))) {
+                    operations.add(operation("replace", path + "/" + position, rule));
+                }
+            }
+            // Remove from the back so earlier positions stay valid
+            for (int position = current.size() - 1; position >= 0; position--) {
+                if (updated.get(position) == null) {
+                    operations.add(operation("remove", path + "/" + position, null));
+                }
+            }
+            for (Object addition : appended) {
+                operations.add(operation("add", path + "/-", addition));
+            }
+        }
+        return Serialization.asJson(operations);
+    }
+
+    private static List<Object> specRules(List<CiliumNetworkPolicyRequest.NetworkRule> rules,
+                                          CiliumNetworkPolicyRequest.RuleType ruleType, String namespace) {
+        List<Object> specRules = new ArrayList<>();
+        if (rules != null) {
+            for (CiliumNetworkPolicyRequest.NetworkRule rule : rules) {
+                if (rule.getRuleType() == ruleType) {
+                    specRules.add(isIngress(ruleType)
+                            ? CiliumNetworkPolicyMapper.toIngressRule(rule, namespace)
+                            : CiliumNetworkPolicyMapper.toEgressRule(rule, namespace));
+                }
+            }
+        }
+        return specRules;
+    }
+
+    /**
+     * Removes a rule from the list. Rules are compared in normalised form, and a duplicated rule
+     * must be removed as often as it is listed. A rule that is not in the list as a whole has its
+     * peers removed from the rules with the same ports and peer kind, so a rule that compaction
+     * merged with others can still be removed on its own.
+     *
+     * @param rules the rule list, in which removed rules are set to null
+     * @param removal the normalised rule to remove
+     * @return false if the rule or one of its peers is not found
+     */
+    private static boolean removeRule(List<Object> rules, Object removal) {
+        int position = rules.indexOf(removal);
+        if (position >= 0) {
+            rules.set(position, null);
+            return true;
+        }
+
+        Object mergeKey = mergeKey(removal);
+        List<?> peers = peers(removal);
+        if (peers.isEmpty()) {
+            return false;
+        }
+        for (Object peer : peers) {
+            position = -1;
+            for (int i = 0; i < rules.size() && position < 0; i++) {
+                Object rule = rules.get(i);
+                if (isRewritable(rule) && mergeKey.equals(mergeKey(rule)) && peers(rule).contains(peer)) {
+                    position = i;
+                }
+            }
+            if (position < 0) {
+                return false;
+            }
+            List<Object> remaining = new ArrayList<>(peers(rules.get(position)));
+            remaining.remove(peer);
+            rules.set(position, remaining.isEmpty() ? null : withPeers(rules.get(position), remaining));
+        }
+        return true;
+    }
+
+    /**
+     * Merges the peers of a rule into the first rule of the list with the same ports and peer
+     * kind, as the {@link CiliumNetworkPolicyCompactor} does when a policy is written.
+     *
+     * @return false if the list has no such rule
+     */
+    private static boolean mergePeers(List<Object> rules, Object addition) {
+        Object mergeKey = mergeKey(addition);
+        for (int i = 0; i < rules.size(); i++) {
+            Object rule = rules.get(i);
+            if (isRewritable(rule) && mergeKey.equals(mergeKey(rule))) {
+                Set<Object> peers = new LinkedHashSet<>(peers(rule));
+                peers.addAll(peers(addition));
+                rules.set(i, withPeers(rule, new ArrayList<>(peers)));
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return true if the rule is present and fully modelled, so a copy with other peers loses nothing
+     */
+    private static boolean isRewritable(Object rule) {
+        if (rule instanceof CiliumNetworkPolicySpec.IngressRule ingressRule) {
+            return !ingressRule.hasUnmodelledFields();
+        }
+        return rule != null && !((CiliumNetworkPolicySpec.EgressRule) rule).hasUnmodelledFields();
+    }
+
+    private static Object mergeKey(Object rule) {
+        if (rule instanceof CiliumNetworkPolicySpec.IngressRule ingressRule) {
+            return CiliumNetworkPolicyCompactor.mergeKey(ingressRule.getFromCIDR(), ingressRule.getFromEndpoints(), ingressRule.getToPorts());
+        }
+        CiliumNetworkPolicySpec.EgressRule egressRule = (CiliumNetworkPolicySpec.EgressRule) rule;
+        return CiliumNetworkPolicyCompactor.mergeKey(egressRule.getToCIDR(), egressRule.getToEndpoints(), egressRule.getToPorts());
+    }
+
+    /**
+     * @return the CIDRs of a rule if it has any, otherwise its endpoint selectors
+     */
+    private static List<?> peers(Object rule) {
+        List<String> cidrs;
+        List<CiliumNetworkPolicySpec.EndpointSelector> endpoints;
+        if (rule instanceof CiliumNetworkPolicySpec.IngressRule ingressRule) {
+            cidrs = ingressRule.getFromCIDR();
+            endpoints = ingressRule.getFromEndpoints();
+        } else {
+            cidrs = ((CiliumNetworkPolicySpec.EgressRule) rule).getToCIDR();
+            endpoints = ((CiliumNetworkPolicySpec.EgressRule) rule).getToEndpoints();
+        }
+        if (cidrs != null && !cidrs.isEmpty()) {
+            return cidrs;
+        }
+        return endpoints != null ? endpoints : List.of();
+    }
+
+    /**
+     * Copies a rule with CIDR or endpoint selector peers, replacing them with the given peers of the same kind.
+     */
+    @SuppressWarnings("unchecked")
+    private static Object withPeers(Object rule, List<?> peers) {
+        boolean cidrs = !peers.isEmpty() && peers.get(0) instanceof String;
+        if (rule instanceof CiliumNetworkPolicySpec.IngressRule ingressRule) {
+            CiliumNetworkPolicySpec.IngressRule copy = new CiliumNetworkPolicySpec.IngressRule();
+            copy.setFromCIDR(cidrs ? (List<String>) peers : null);
+            copy.setFromEndpoints(cidrs ? null : (List<CiliumNetworkPolicySpec.EndpointSelector>) peers);
+            copy.setToPorts(ingressRule.getToPorts());
+            return copy;
+        }
+        CiliumNetworkPolicySpec.EgressRule copy = new CiliumNetworkPolicySpec.EgressRule();
+        copy.setToCIDR(cidrs ? (List<String>) peers : null);
+        copy.setToEndpoints(cidrs ? null : (List<CiliumNetworkPolicySpec.EndpointSelector>) peers);
+        copy.setToPorts(((CiliumNetworkPolicySpec.EgressRule) rule).getToPorts());
+        return copy;
+    }
+
+    private static List<Object> normalizedRules(CiliumNetworkPolicySpec spec, CiliumNetworkPolicyRequest.RuleType ruleType) {
+        List<?> rules = switch (ruleType) {
+            case INGRESS_ALLOW -> spec.getIngress();
+            case INGRESS_DENY -> spec.getIngressDeny();
+            case EGRESS_ALLOW -> spec.getEgress();
+            case EGRESS_DENY -> spec.getEgressDeny();
+        };
+        List<Object> normalized = new ArrayList<>();
+        if (rules != null) {
+            rules.forEach(rule -> normalized.add(normalize(rule)));
+        }
+        return normalized;
+    }
+
+    private static boolean hasRuleList(CiliumNetworkPolicySpec spec, CiliumNetworkPolicyRequest.RuleType ruleType) {
+        return switch (ruleType) {
+            case INGRESS_ALLOW -> spec.getIngress() != null;
+            case INGRESS_DENY -> spec.getIngressDeny() != null;
+            case EGRESS_ALLOW -> spec.getEgress() != null;
+            case EGRESS_DENY -> spec.getEgressDeny() != null;
+        };
+    }
+
+    private static Object normalize(Object rule) {
+        if (rule instanceof CiliumNetworkPolicySpec.IngressRule ingressRule) {
+            return CiliumNetworkPolicyMapper.normalizeIngressRule(ingressRule);
+        }
+        return CiliumNetworkPolicyMapper.normalizeEgressRule((CiliumNetworkPolicySpec.EgressRule) rule);
+    }
+
+    private static boolean isIngress(CiliumNetworkPolicyRequest.RuleType ruleType) {
+        return ruleType == CiliumNetworkPolicyRequest.RuleType.INGRESS_ALLOW
+                || ruleType == CiliumNetworkPolicyRequest.RuleType.INGRESS_DENY;
+    }
+
+    /**
+     * @return the spec field holding the rules of the given type
+     */
+    static String ruleListField(CiliumNetworkPolicyRequest.RuleType ruleType) {
+        return switch (ruleType) {
+            case INGRESS_ALLOW -> "ingress";
+            case INGRESS_DENY -> "ingressDeny";
+            case EGRESS_ALLOW -> "egress";
+            case EGRESS_DENY -> "egressDeny";
+        };
+    }
+
+    private static Map<String, Object> operation(String op, String path, Object value) {
+        Map<String, Object> operation = new LinkedHashMap<>();
+        operation.put("op", op);
+        operation.put("path", path);
+        if (value != null) {
+            operation.put("value", value);
+        }
+        return operation;
+    }
+}
@@ -1,18 +1,45 @@
 package org.padminisys.service;
 
 import io.fabric8.kubernetes.api.model.Namespace;
-import io.fabric8.kubernetes.api.model.GenericKubernetesResource;
+import io.fabric8.kubernetes.api.model.ListOptions;
+import io.fabric8.kubernetes.api.model.ListOptionsBuilder;
 import io.fabric8.kubernetes.client.KubernetesClient;
 import io.fabric8.kubernetes.client.KubernetesClientException;
-import io.fabric8.kubernetes.client.dsl.base.CustomResourceDefinitionContext;
+import io.fabric8.kubernetes.client.dsl.MixedOperation;
+import io.fabric8.kubernetes.client.dsl.Resource;
+import io.fabric8.kubernetes.client.dsl.base.PatchContext;
+import io.fabric8.kubernetes.client.dsl.base.PatchType;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
+import jakarta.ws.rs.core.EntityTag;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.jboss.logging.Logger;
+import org.padminisys.cache.CidrIndex;
+import org.padminisys.cache.CiliumNetworkPolicyCache;
+import org.padminisys.cache.EndpointSelectorIndex;
+import org.padminisys.cache.NamespaceCache;
+import org.padminisys.cache.PolicyConversionCache;
+import org.padminisys.cache.PolicyETags;
+import org.padminisys.dto.CidrLookupMatch;
+import org.padminisys.dto.CiliumNetworkPolicyPage;
 import org.padminisys.dto.CiliumNetworkPolicyRequest;
-
+import org.padminisys.dto.CiliumNetworkPolicyResponse;
+import org.padminisys.dto.CiliumNetworkPolicyRulePatch;
+import org.padminisys.exception.PolicyConflictException;
+import org.padminisys.exception.PolicyRuleNotFoundException;
+import org.padminisys.model.CiliumNetworkPolicy;
+import org.padminisys.model.CiliumNetworkPolicyList;
+import org.padminisys.model.Ipv4Cidr;
+
+import java.net.HttpURLConnection;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Service class dedicated to CiliumNetworkPolicy operations.
@@ -23,18 +50,41 @@ import java.util.stream.Collectors;
 public class CiliumNetworkPolicyService {
 
     private static final Logger LOG = Logger.getLogger(CiliumNetworkPolicyService.class);
-    private static final String NAMESPACE_LABEL_KEY = "k8s:io.kubernetes.pod.namespace";
+    static final long STREAM_PAGE_SIZE = 250;
 
     @Inject
     KubernetesClient kubernetesClient;
 
-    private final CustomResourceDefinitionContext ciliumNetworkPolicyContext =
-        new CustomResourceDefinitionContext.Builder()
-            .withGroup("cilium.io")
-            .withVersion("v2")
-            .withScope("Namespaced")
-            .withPlural("ciliumnetworkpolicies")
-            .build();
+    @Inject
+    CiliumNetworkPolicyCache policyCache;
+
+    @Inject
+    NamespaceCache namespaceCache;
+
+    @Inject
+    EndpointSelectorIndex endpointSelectorIndex;
+
+    @Inject
+    PolicyConversionCache conversionCache;
+
+    @Inject
+    CidrIndex cidrIndex;
+
+    @ConfigProperty(name = "ppcs.policies.compaction.enabled", defaultValue = "true")
+    boolean compactRules;
+
+    private final SingleFlight<String, CiliumNetworkPolicyRequest> policyReads = new SingleFlight<>();
+    private final SingleFlight<String, TaggedPolicies> namespaceReads = new SingleFlight<>();
+
+    /**
+     * The converted policies of a namespace together with the entity tag of the listing they were
+     * converted from.
+     *
+     * @param items the policies in request format
+     * @param etag the tag of exactly these policies, or null when the policy cache is disabled or the list is empty
+     */
+    public record TaggedPolicies(List<CiliumNetworkPolicyRequest> items, EntityTag etag) {
+    }
 
     /**
      * Deletes a specific CiliumNetworkPolicy by name in the given namespace.
@@ -45,6 +95,7 @@ public class CiliumNetworkPolicyService {
      * @return true if policy was deleted, false if policy didn't exist
      * @throws RuntimeException if namespace doesn't exist or deletion fails
      */
+    @ApiServerCall(write = true)
     public boolean deleteCiliumNetworkPolicy(String policyName, String namespace) {
         LOG.infof("Deleting CiliumNetworkPolicy: %s in namespace: %s", policyName, namespace);
 
@@ -53,8 +104,8 @@ public class CiliumNetworkPolicyService {
             validateNamespaceExists(namespace);
 
             // Check if policy exists
-            GenericKubernetesResource existingPolicy = kubernetesClient
-                    .genericKubernetesResources(ciliumNetworkPolicyContext)
+            CiliumNetworkPolicy existingPolicy = kubernetesClient
+                    .resources(CiliumNetworkPolicy.class, CiliumNetworkPolicyList.class)
                     .inNamespace(namespace)
                     .withName(policyName)
                     .get();
@@ -66,7 +117,7 @@ public class CiliumNetworkPolicyService {
 
             // Delete the policy
             boolean deleted = kubernetesClient
-                    .genericKubernetesResources(ciliumNetworkPolicyContext)
+                    .resources(CiliumNetworkPolicy.class, CiliumNetworkPolicyList.class)
                     .inNamespace(namespace)
                     .withName(policyName)
                     .delete()
@@ -94,6 +145,7 @@ public class CiliumNetworkPolicyService {
      * @return the number of policies that were deleted
      * @throws RuntimeException if namespace doesn't exist or deletion fails
      */
+    @ApiServerCall(write = true)
     public int deleteAllCiliumNetworkPoliciesInNamespace(String namespace) {
         LOG.infof("Deleting all CiliumNetworkPolicies in namespace: %s", namespace);
 
@@ -102,8 +154,8 @@ public class CiliumNetworkPolicyService {
             validateNamespaceExists(namespace);
 
             // Get all policies in the namespace first
-            List<GenericKubernetesResource> policies = kubernetesClient
-                    .genericKubernetesResources(ciliumNetworkPolicyContext)
+            List<CiliumNetworkPolicy> policies = kubernetesClient
+                    .resources(CiliumNetworkPolicy.class, CiliumNetworkPolicyList.class)
                     .inNamespace(namespace)
                     .list()
                     .getItems();
@@ -117,7 +169,7 @@ public class CiliumNetworkPolicyService {
 
             // Delete all policies in the namespace
             boolean deleted = kubernetesClient
-                    .genericKubernetesResources(ciliumNetworkPolicyContext)
+                    .resources(CiliumNetworkPolicy.class, CiliumNetworkPolicyList.class)
                     .inNamespace(namespace)
                     .delete()
                     .size() > 0;
@@ -133,8 +185,87 @@ public class CiliumNetworkPolicyService {
         }
     }
 
+    /**
+     * Adds and removes individual rules of an existing CiliumNetworkPolicy with a single JSON patch,
+     * so the rest of the policy is neither rebuilt nor sent again. The patch is only applied if the
+     * policy still has the resourceVersion its rule positions were computed from.
+     *
+     * @param policyName the name of the policy to patch
+     * @param namespace the namespace containing the policy
+     * @param patch the rules to add and remove
+     * @param expectedResourceVersion the resourceVersion the client last read, or null to patch the current one
+     * @return the response with status UPDATED and the new resourceVersion
+     * @throws IllegalArgumentException if the patch adds and removes nothing
+     * @throws PolicyConflictException if the policy changed since the expected or the read resourceVersion
+     * @throws PolicyRuleNotFoundException if a rule to remove is not in the policy
+     * @throws RuntimeException if the namespace or policy is not found, or the patch fails
+     */
+    @ApiServerCall(write = true)
+    public CiliumNetworkPolicyResponse patchCiliumNetworkPolicyRules(String policyName, String namespace,
+                                                                     CiliumNetworkPolicyRulePatch patch,
+                                                                     String expectedResourceVersion) {
+        LOG.infof("Patching rules of CiliumNetworkPolicy: %s in namespace: %s", policyName, namespace);
+
+        boolean hasAdditions = patch.getAdd() != null && !patch.getAdd().isEmpty();
+        boolean hasRemovals = patch.getRemove() != null && !patch.getRemove().isEmpty();
+        if (!hasAdditions && !hasRemovals) {
+            throw new IllegalArgumentException("Rule patch must add or remove at least one rule");
+        }
+
+        try {
+            validateNamespaceExists(namespace);
+
+            CiliumNetworkPolicy livePolicy = findPolicy(namespace, policyName);
+            if (livePolicy != null && policyCache.isEnabled() && expectedResourceVersion != null
+                    && !expectedResourceVersion.equals(livePolicy.getMetadata().getResourceVersion())) {
+                // The cache may not have seen the version the client read yet
+                livePolicy = kubernetesClient
+                        .resources(CiliumNetworkPolicy.class, CiliumNetworkPolicyList.class)
+                        .inNamespace(namespace)
+                        .withName(policyName)
+                        .get();
+            }
+            if (livePolicy == null) {
+                throw new RuntimeException("CiliumNetworkPolicy '" + policyName + "' not found in namespace '" + namespace + "'");
+            }
+            if (expectedResourceVersion != null && !expectedResourceVersion.equals(livePolicy.getMetadata().getResourceVersion())) {
+                throw new PolicyConflictException("CiliumNetworkPolicy '" + policyName + "' has changed since resourceVersion "
+                        + expectedResourceVersion + "; re-read it and retry");
+            }
+
+            CiliumNetworkPolicy patchedPolicy = kubernetesClient
+                    .resources(CiliumNetworkPolicy.class, CiliumNetworkPolicyList.class)
+                    .inNamespace(namespace)
+                    .withName(policyName)
+                    .patch(PatchContext.of(PatchType.JSON), CiliumNetworkPolicyRulePatches.build(livePolicy, patch, compactRules));
+            policyCache.recordWrite(patchedPolicy);
+
+            LOG.infof("Successfully patched rules of CiliumNetworkPolicy: %s in namespace: %s (resourceVersion %s)",
+                    policyName, namespace, patchedPolicy.getMetadata().getResourceVersion());
+            CiliumNetworkPolicyResponse response = new CiliumNetworkPolicyResponse(
+                    patchedPolicy.getMetadata().getName(),
+                    patchedPolicy.getMetadata().getNamespace(),
+                    "UPDATED",
+                    Instant.parse(patchedPolicy.getMetadata().getCreationTimestamp()),
+                    "CiliumNetworkPolicy rules patched successfully",
+                    policyName
+            );
+            response.setResourceVersion(patchedPolicy.getMetadata().getResourceVersion());
+            return response;
+
+        } catch (KubernetesClientException e) {
+            if (isFailedResourceVersionTest(e)) {
+                throw new PolicyConflictException("CiliumNetworkPolicy '" + policyName
+                        + "' was modified while it was being patched; re-read it and retry", e);
+            }
+            LOG.errorf(e, "Failed to patch CiliumNetworkPolicy: %s in namespace: %s", policyName, namespace);
+            throw new RuntimeException("Failed to patch CiliumNetworkPolicy: " + e.getMessage(), e);
+        }
+    }
+
     /**
      * Retrieves a CiliumNetworkPolicy by name and converts it back to the original request format.
+     * Concurrent identical lookups share one read of the policy.
      *
      * @param name the name of the policy
      * @param namespace the namespace of the policy
@@ -144,22 +275,23 @@ public class CiliumNetworkPolicyService {
     public CiliumNetworkPolicyRequest getCiliumNetworkPolicyByName(String name, String namespace) {
         LOG.infof("Getting CiliumNetworkPolicy: %s in namespace: %s", name, namespace);
 
+        return policyReads.execute(namespace + "/" + name, () -> loadCiliumNetworkPolicyByName(name, namespace));
+    }
+
+    @ApiServerCall
+    CiliumNetworkPolicyRequest loadCiliumNetworkPolicyByName(String name, String namespace) {
         try {
             // Check if namespace exists
             validateNamespaceExists(namespace);
 
             // Get the policy
-            GenericKubernetesResource policy = kubernetesClient
-                    .genericKubernetesResources(ciliumNetworkPolicyContext)
-                    .inNamespace(namespace)
-                    .withName(name)
-                    .get();
+            CiliumNetworkPolicy policy = findPolicy(namespace, name);
 
             if (policy == null) {
                 throw new RuntimeException("CiliumNetworkPolicy '" + name + "' not found in namespace '" + namespace + "'");
             }
 
-            return convertKubernetesCNPToRequest(policy);
+            return toRequest(policy);
 
         } catch (KubernetesClientException e) {
             LOG.errorf(e, "Failed to get CiliumNetworkPolicy: %s in namespace: %s", name, namespace);
@@ -169,28 +301,32 @@ public class CiliumNetworkPolicyService {
 
     /**
      * Retrieves all CiliumNetworkPolicies in a namespace and converts them back to the original request format.
+     * Concurrent identical queries share one listing and its converted result. The entity tag is
+     * computed from that same listing, so a response never carries the tag of another version.
      *
      * @param namespace the namespace to search in
-     * @return list of policies converted to request format
+     * @return the policies converted to request format, and their tag
      * @throws RuntimeException if namespace doesn't exist or retrieval fails
      */
-    public List<CiliumNetworkPolicyRequest> getCiliumNetworkPoliciesByNamespace(String namespace) {
+    public TaggedPolicies getCiliumNetworkPoliciesByNamespace(String namespace) {
         LOG.infof("Getting all CiliumNetworkPolicies in namespace: %s", namespace);
 
+        return namespaceReads.execute(namespace, () -> loadCiliumNetworkPoliciesByNamespace(namespace));
+    }
+
+    @ApiServerCall
+    TaggedPolicies loadCiliumNetworkPoliciesByNamespace(String namespace) {
         try {
             // Check if namespace exists
             validateNamespaceExists(namespace);
 
             // Get all policies in the namespace
-            List<GenericKubernetesResource> policies = kubernetesClient
-                    .genericKubernetesResources(ciliumNetworkPolicyContext)
-                    .inNamespace(namespace)
-                    .list()
-                    .getItems();
+            List<CiliumNetworkPolicy> policies = listPolicies(namespace);
 
-            return policies.stream()
-                    .map(this::convertKubernetesCNPToRequest)
+            List<CiliumNetworkPolicyRequest> items = policies.stream()
+                    .map(this::toRequest)
                     .collect(Collectors.toList());
+            return new TaggedPolicies(items, policyCache.isEnabled() ? PolicyETags.forPolicies(policies) : null);
 
         } catch (KubernetesClientException e) {
             LOG.errorf(e, "Failed to get CiliumNetworkPolicies in namespace: %s", namespace);
@@ -198,6 +334,53 @@ public class CiliumNetworkPolicyService {
         }
     }
 
+    /**
+     * Retrieves one page of the CiliumNetworkPolicies in a namespace, ordered by name.
+     * Only the policies of the requested page are converted, so memory stays bounded
+     * regardless of how many policies the namespace holds.
+     *
+     * @param namespace the namespace to search in
+     * @param limit the maximum number of policies to return
+     * @param continueToken the token returned with the previous page, or null for the first page
+     * @return the page of policies converted to request format
+     * @throws IllegalArgumentException if the continue token is malformed
+     * @throws RuntimeException if namespace doesn't exist, the continue token has expired or retrieval fails
+     */
+    @ApiServerCall
+    public CiliumNetworkPolicyPage getCiliumNetworkPoliciesByNamespace(String namespace, int limit, String continueToken) {
+        LOG.infof("Getting CiliumNetworkPolicies in namespace: %s (limit: %d, continue: %s)", namespace, limit, continueToken);
+
+        try {
+            // Check if namespace exists
+            validateNamespaceExists(namespace);
+
+            if (policyCache.isEnabled()) {
+                return pagePolicies(namespace, limit, continueToken);
+            }
+
+            CiliumNetworkPolicyList page = kubernetesClient
+                    .resources(CiliumNetworkPolicy.class, CiliumNetworkPolicyList.class)
+                    .inNamespace(namespace)
+                    .list(new ListOptionsBuilder()
+                            .withLimit((long) limit)
+                            .withContinue(continueToken)
+                            .build());
+
+            List<CiliumNetworkPolicyRequest> items = page.getItems().stream()
+                    .map(this::toRequest)
+                    .collect(Collectors.toList());
+            String next = page.getMetadata() != null ? page.getMetadata().getContinue() : null;
+            return new CiliumNetworkPolicyPage(items, next == null || next.isEmpty() ? null : next);
+
+        } catch (KubernetesClientException e) {
+            LOG.errorf(e, "Failed to get CiliumNetworkPolicies page in namespace: %s", namespace);
+            if (e.getCode() == 410) {
+                throw new RuntimeException("Continue token has expired, restart the listing from the first page", e);
+            }
+            throw new RuntimeException("Failed to get CiliumNetworkPolicies: " + e.getMessage(), e);
+        }
+    }
+
     /**
      * Retrieves CiliumNetworkPolicies by endpoint selector labels and converts them back to the original request format.
      *
@@ -206,35 +389,41 @@ public class CiliumNetworkPolicyService {
      * @return list of policies converted to request format
      * @throws RuntimeException if retrieval fails
      */
+    @ApiServerCall
     public List<CiliumNetworkPolicyRequest> getCiliumNetworkPoliciesByEndpointSelector(String namespace, Map<String, String> endpointLabels) {
         LOG.infof("Getting CiliumNetworkPolicies by endpoint selector labels: %s in namespace: %s", endpointLabels, namespace);
 
         try {
-            List<GenericKubernetesResource> allPolicies;
+            if (policyCache.isEnabled() && endpointLabels != null && !endpointLabels.isEmpty()) {
+                if (namespace != null && !namespace.trim().isEmpty()) {
+                    validateNamespaceExists(namespace);
+                }
+
+                // Intersect the label index posting lists, then re-check candidates against the cached spec
+                return endpointSelectorIndex.find(namespace, endpointLabels).stream()
+                        .map(policyCache::getByKey)
+                        .filter(policy -> policy != null && matchesEndpointSelector(policy, endpointLabels))
+                        .map(this::toRequest)
+                        .collect(Collectors.toList());
+            }
+
+            List<CiliumNetworkPolicy> allPolicies;
             
             if (namespace != null && !namespace.trim().isEmpty()) {
                 // Check if namespace exists
                 validateNamespaceExists(namespace);
 
                 // Get policies from specific namespace
-                allPolicies = kubernetesClient
-                        .genericKubernetesResources(ciliumNetworkPolicyContext)
-                        .inNamespace(namespace)
-                        .list()
-                        .getItems();
+                allPolicies = listPolicies(namespace);
             } else {
                 // Get policies from all namespaces
-                allPolicies = kubernetesClient
-                        .genericKubernetesResources(ciliumNetworkPolicyContext)
-                        .inAnyNamespace()
-                        .list()
-                        .getItems();
+                allPolicies = listAllPolicies();
             }
 
             // Filter policies by endpoint selector labels
             return allPolicies.stream()
                     .filter(policy -> matchesEndpointSelector(policy, endpointLabels))
-                    .map(this::convertKubernetesCNPToRequest)
+                    .map(this::toRequest)
                     .collect(Collectors.toList());
 
         } catch (KubernetesClientException e) {
@@ -243,13 +432,249 @@ public class CiliumNetworkPolicyService {
         }
     }
 
+    /**
+     * Finds the policy rules in all namespaces whose CIDRs cover an IP address or CIDR. Served from
+     * the CIDR index when the policy cache is enabled, otherwise by checking every policy. Only the
+     * API server listing goes through the {@link ApiServerLimiter}, so indexed lookups take no token.
+     *
+     * @param ipOrCidr the IP address, or a CIDR all of whose addresses must be covered
+     * @return the covering rules, most specific CIDR first
+     * @throws IllegalArgumentException if the address is not a valid IPv4 address or CIDR
+     * @throws RuntimeException if retrieval fails
+     */
+    public List<CidrLookupMatch> findCiliumNetworkPolicyRulesByCidr(String ipOrCidr) {
+        LOG.infof("Looking up CiliumNetworkPolicy rules covering: %s", ipOrCidr);
+        Ipv4Cidr query = Ipv4Cidr.parseAddressOrCidr(ipOrCidr.trim());
+
+        try {
+            if (policyCache.isEnabled()) {
+                return cidrIndex.find(query);
+            }
+            return CidrIndex.scan(listAllPolicies(), query);
+        } catch (KubernetesClientException e) {
+            LOG.errorf(e, "Failed to look up CiliumNetworkPolicy rules covering: %s", ipOrCidr);
+            throw new RuntimeException("Failed to get CiliumNetworkPolicies: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Streams all CiliumNetworkPolicies in a namespace in request format, converting each policy
+     * only as the stream is consumed. The namespace is validated before the stream is returned.
+     * When the policy cache is disabled, the API server is read one page at a time.
+     *
+     * @param namespace the namespace to search in
+     * @return a lazy stream of policies converted to request format; the caller must close it
+     * @throws RuntimeException if namespace doesn't exist
+     */
+    @ApiServerCall
+    public Stream<CiliumNetworkPolicyRequest> streamCiliumNetworkPoliciesByNamespace(String namespace) {
+        LOG.infof("Streaming all CiliumNetworkPolicies in namespace: %s", namespace);
+
+        try {
+            validateNamespaceExists(namespace);
+            return streamPolicies(namespace).map(this::toRequest);
+        } catch (KubernetesClientException e) {
+            LOG.errorf(e, "Failed to stream CiliumNetworkPolicies in namespace: %s", namespace);
+            throw new RuntimeException("Failed to get CiliumNetworkPolicies: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Streams the CiliumNetworkPolicies matching the endpoint selector labels in request format,
+     * converting each policy only as the stream is consumed.
+     *
+     * @param namespace the namespace to search in (optional, if null searches all namespaces)
+     * @param endpointLabels the endpoint selector labels to match
+     * @return a lazy stream of policies converted to request format; the caller must close it
+     * @throws RuntimeException if namespace doesn't exist
+     */
+    @ApiServerCall
+    public Stream<CiliumNetworkPolicyRequest> streamCiliumNetworkPoliciesByEndpointSelector(String namespace, Map<String, String> endpointLabels) {
+        LOG.infof("Streaming CiliumNetworkPolicies by endpoint selector labels: %s in namespace: %s", endpointLabels, namespace);
+
+        try {
+            boolean hasNamespace = namespace != null && !namespace.trim().isEmpty();
+            if (hasNamespace) {
+                validateNamespaceExists(namespace);
+            }
+
+            Stream<CiliumNetworkPolicy> candidates;
+            if (policyCache.isEnabled() && endpointLabels != null && !endpointLabels.isEmpty()) {
+                candidates = endpointSelectorIndex.find(namespace, endpointLabels).stream()
+                        .map(policyCache::getByKey)
+                        .filter(Objects::nonNull);
+            } else {
+                candidates = streamPolicies(hasNamespace ? namespace : null);
+            }
+
+            return candidates
+                    .filter(policy -> matchesEndpointSelector(policy, endpointLabels))
+                    .map(this::toRequest);
+        } catch (KubernetesClientException e) {
+            LOG.errorf(e, "Failed to stream CiliumNetworkPolicies by endpoint selector: %s", endpointLabels);
+            throw new RuntimeException("Failed to get CiliumNetworkPolicies: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Checks whether the API server rejected a JSON patch because its resourceVersion test failed.
+     * A failed test is reported as 422 naming the tested path; a 409 is a conflicting concurrent write.
+     */
+    private static boolean isFailedResourceVersionTest(KubernetesClientException e) {
+        return e.getCode() == HttpURLConnection.HTTP_CONFLICT
+                || (e.getCode() == 422 && e.getMessage() != null && e.getMessage().contains("/metadata/resourceVersion"));
+    }
+
+    /**
+     * Gets a single policy, from the informer cache when enabled, otherwise from the API server.
+     *
+     * @param namespace the namespace of the policy
+     * @param name the name of the policy
+     * @return the policy, or null if it does not exist
+     */
+    private CiliumNetworkPolicy findPolicy(String namespace, String name) {
+        if (policyCache.isEnabled()) {
+            return policyCache.get(namespace, name);
+        }
+        return kubernetesClient
+                .resources(CiliumNetworkPolicy.class, CiliumNetworkPolicyList.class)
+                .inNamespace(namespace)
+                .withName(name)
+                .get();
+    }
+
+    /**
+     * Lists the policies in a namespace, from the informer cache when enabled, otherwise from the API server.
+     *
+     * @param namespace the namespace to list
+     * @return the policies in the namespace
+     */
+    private List<CiliumNetworkPolicy> listPolicies(String namespace) {
+        if (policyCache.isEnabled()) {
+            return policyCache.listByNamespace(namespace);
+        }
+        return kubernetesClient
+                .resources(CiliumNetworkPolicy.class, CiliumNetworkPolicyList.class)
+                .inNamespace(namespace)
+                .list()
+                .getItems();
+    }
+
+    /**
+     * Lists the policies in all namespaces, from the informer cache when enabled, otherwise from the API server.
+     *
+     * @return all policies in the cluster
+     */
+    private List<CiliumNetworkPolicy> listAllPolicies() {
+        if (policyCache.isEnabled()) {
+            return policyCache.listAll();
+        }
+        return listAllPoliciesFromApiServer();
+    }
+
+    /**
+     * Lists the policies in all namespaces from the API server.
+     */
+    @ApiServerCall
+    List<CiliumNetworkPolicy> listAllPoliciesFromApiServer() {
+        return kubernetesClient
+                .resources(CiliumNetworkPolicy.class, CiliumNetworkPolicyList.class)
+                .inAnyNamespace()
+                .list()
+                .getItems();
+    }
+
+    /**
+     * Streams the policies in a namespace, or in all namespaces when namespace is null.
+     * Cached policies are streamed from memory; otherwise the API server is listed page by page,
+     * fetching the next page only once the previous one has been consumed.
+     *
+     * @param namespace the namespace to list, or null for all namespaces
+     * @return a lazy stream of policies
+     */
+    private Stream<CiliumNetworkPolicy> streamPolicies(String namespace) {
+        if (policyCache.isEnabled()) {
+            return namespace != null ? policyCache.listByNamespace(namespace).stream() : policyCache.listAll().stream();
+        }
+
+        return Stream.iterate(listPage(namespace, null),
+                        Objects::nonNull,
+                        page -> {
+                            String next = page.getMetadata() != null ? page.getMetadata().getContinue() : null;
+                            return next == null || next.isEmpty() ? null : listPage(namespace, next);
+                        })
+                .flatMap(page -> page.getItems().stream());
+    }
+
+    /**
+     * Lists one page of policies from the API server. Pages of a lazy stream are fetched after the
+     * streaming method has returned, so each page takes its own {@link ApiServerLimiter} permit.
+     *
+     * @param namespace the namespace to list, or null for all namespaces
+     * @param continueToken the continue token of the previous page, or null for the first page
+     * @return the page of policies
+     */
+    @ApiServerCall
+    CiliumNetworkPolicyList listPage(String namespace, String continueToken) {
+        MixedOperation<CiliumNetworkPolicy, CiliumNetworkPolicyList, Resource<CiliumNetworkPolicy>> policies =
+                kubernetesClient.resources(CiliumNetworkPolicy.class, CiliumNetworkPolicyList.class);
+        ListOptions listOptions = new ListOptionsBuilder()
+                .withLimit(STREAM_PAGE_SIZE)
+                .withContinue(continueToken)
+                .build();
+        return namespace != null
+                ? policies.inNamespace(namespace).list(listOptions)
+                : policies.inAnyNamespace().list(listOptions);
+    }
+
+    /**
+     * Pages through cached policies by name. The continue token is the URL-safe Base64 encoding
+     * of the last name returned, so pages stay consistent when policies are added or removed
+     * between requests. The cache seeks straight to the token, and one extra policy is read
+     * to tell whether another page follows.
+     *
+     * @param namespace the namespace to list
+     * @param limit the maximum number of policies to return
+     * @param continueToken the token returned with the previous page, or null for the first page
+     * @return the converted page
+     */
+    private CiliumNetworkPolicyPage pagePolicies(String namespace, int limit, String continueToken) {
+        String lastName = null;
+        if (continueToken != null && !continueToken.isEmpty()) {
+            try {
+                lastName = new String(Base64.getUrlDecoder().decode(continueToken), StandardCharsets.UTF_8);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Malformed continue token", e);
+            }
+        }
+
+        List<CiliumNetworkPolicy> policies = policyCache.listByNamespaceAfter(namespace, lastName, limit + 1);
+        List<CiliumNetworkPolicyRequest> items = policies.stream()
+                .limit(limit)
+                .map(this::toRequest)
+                .collect(Collectors.toList());
+
+        String next = null;
+        if (policies.size() > limit) {
+            String pageEnd = policies.get(limit - 1).getMetadata().getName();
+            next = Base64.getUrlEncoder().withoutPadding().encodeToString(pageEnd.getBytes(StandardCharsets.UTF_8));
+        }
+        return new CiliumNetworkPolicyPage(items, next);
+    }
+
     /**
      * Validates that a namespace exists in the cluster.
+     * Answered from the namespace cache when possible; a miss falls back to the API server
+     * so that a namespace created moments ago is never rejected.
      *
      * @param namespace the namespace to validate
      * @throws RuntimeException if namespace doesn't exist
      */
     private void validateNamespaceExists(String namespace) {
+        if (namespaceCache.contains(namespace)) {
+            return;
+        }
+
         Namespace namespaceObj = kubernetesClient.namespaces()
                 .withName(namespace)
                 .get();
@@ -259,6 +684,20 @@ public class CiliumNetworkPolicyService {
         }
     }
 
+    /**
+     * @return the number of by-name and by-namespace reads that went to the cache or API server
+     */
+    long getReadExecutions() {
+        return policyReads.getExecutions() + namespaceReads.getExecutions();
+    }
+
+    /**
+     * @return the number of by-name and by-namespace reads that shared a read already in flight
+     */
+    long getDeduplicatedReads() {
+        return policyReads.getDeduplicated() + namespaceReads.getDeduplicated();
+    }
+
     /**
      * Checks if a policy matches the given endpoint selector labels.
      *
@@ -266,76 +705,21 @@ public class CiliumNetworkPolicyService {
      * @param targetLabels the labels to match against
      * @return true if the policy's endpoint selector matches the target labels
      */
-    @SuppressWarnings("unchecked")
-    private boolean matchesEndpointSelector(GenericKubernetesResource policy, Map<String, String> targetLabels) {
-        try {
-            Map<String, Object> spec = (Map<String, Object>) policy.getAdditionalProperties().get("spec");
-            if (spec == null) {
-                return false;
-            }
-
-            Map<String, Object> endpointSelector = (Map<String, Object>) spec.get("endpointSelector");
-            if (endpointSelector == null) {
-                return false;
-            }
-
-            Map<String, Object> matchLabels = (Map<String, Object>) endpointSelector.get("matchLabels");
-            if (matchLabels == null || matchLabels.isEmpty()) {
-                return targetLabels == null || targetLabels.isEmpty();
-            }
-
-            // Check if all target labels match the policy's endpoint selector
-            for (Map.Entry<String, String> targetEntry : targetLabels.entrySet()) {
-                Object policyValue = matchLabels.get(targetEntry.getKey());
-                if (policyValue == null || !policyValue.toString().equals(targetEntry.getValue())) {
-                    return false;
-                }
-            }
-
-            return true;
-        } catch (Exception e) {
-            LOG.warnf("Error checking endpoint selector match for policy %s: %s",
-                     policy.getMetadata().getName(), e.getMessage());
-            return false;
-        }
+    boolean matchesEndpointSelector(CiliumNetworkPolicy policy, Map<String, String> targetLabels) {
+        return CiliumNetworkPolicyMapper.matchesEndpointSelector(policy, targetLabels);
     }
 
     /**
-     * Converts a Kubernetes CiliumNetworkPolicy resource back to our API request format.
-     * This is a simplified version focusing on the essential conversion logic.
+     * Converts a policy to request format, reusing the memoized DTO for cache-served policies.
+     * Only watch-backed reads are memoized, since eviction relies on the policy cache's events.
      *
      * @param policy the Kubernetes CNP resource
      * @return the converted request object
      */
-    @SuppressWarnings("unchecked")
-    private CiliumNetworkPolicyRequest convertKubernetesCNPToRequest(GenericKubernetesResource policy) {
-        CiliumNetworkPolicyRequest request = new CiliumNetworkPolicyRequest();
-        
-        // Set name and namespace
-        request.setName(policy.getMetadata().getName());
-        request.setNamespace(policy.getMetadata().getNamespace());
-        
-        // Extract spec
-        Map<String, Object> spec = (Map<String, Object>) policy.getAdditionalProperties().get("spec");
-        if (spec == null) {
-            LOG.warnf("Policy %s has no spec", policy.getMetadata().getName());
-            return request;
-        }
-        
-        // Extract endpoint selector labels
-        Map<String, Object> endpointSelector = (Map<String, Object>) spec.get("endpointSelector");
-        if (endpointSelector != null) {
-            Map<String, Object> matchLabels = (Map<String, Object>) endpointSelector.get("matchLabels");
-            if (matchLabels != null) {
-                Map<String, String> labels = matchLabels.entrySet().stream()
-                        .collect(Collectors.toMap(
-                                Map.Entry::getKey,
-                                entry -> entry.getValue().toString()
-                        ));
-                request.setLabels(labels);
-            }
+    CiliumNetworkPolicyRequest toRequest(CiliumNetworkPolicy policy) {
+        if (policyCache.isEnabled()) {
+            return conversionCache.convert(policy, CiliumNetworkPolicyMapper::toRequest);
         }
-        
-        return request;
+        return CiliumNetworkPolicyMapper.toRequest(policy);
     }
-}
\ No newline at end of file
+}
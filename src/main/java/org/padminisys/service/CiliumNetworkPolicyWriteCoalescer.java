@@ -0,0 +1,169 @@
+package org.padminisys.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import org.padminisys.dto.CiliumNetworkPolicyRequest;
+import org.padminisys.dto.CiliumNetworkPolicyResponse;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Collapses rapid successive updates of the same user-named CiliumNetworkPolicy into one write.
+ * The first update of a (namespace, name) opens a window of ppcs.kubernetes.write-coalescing-window;
+ * updates arriving within it replace the desired state, and when the window closes only the latest
+ * state is written. Every caller of the window waits for and receives the outcome of that write.
+ * Writes of the same policy are applied in window order, never concurrently.
+ * Disabled when the window is zero, which is the default.
+ */
+@ApplicationScoped
+public class CiliumNetworkPolicyWriteCoalescer {
+
+    private static final Logger LOG = Logger.getLogger(CiliumNetworkPolicyWriteCoalescer.class);
+
+    @ConfigProperty(name = "ppcs.kubernetes.write-coalescing-window", defaultValue = "0ms")
+    Duration window;
+
+    private final ConcurrentHashMap<String, PendingWrite> pending = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, CompletableFuture<Void>> writes = new ConcurrentHashMap<>();
+    private final AtomicLong writesIssued = new AtomicLong();
+    private final AtomicLong updatesCoalesced = new AtomicLong();
+
+    private ScheduledExecutorService timer;
+    private ExecutorService writeExecutor;
+
+    /**
+     * The latest desired state of one policy within a window, and the outcome shared by its callers.
+     */
+    private static final class PendingWrite {
+        CiliumNetworkPolicyRequest request;
+        Function<CiliumNetworkPolicyRequest, CiliumNetworkPolicyResponse> writer;
+        final CompletableFuture<CiliumNetworkPolicyResponse> outcome = new CompletableFuture<>();
+    }
+
+    @PostConstruct
+    void init() {
+        if (!isEnabled()) {
+            return;
+        }
+        timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ppcs-write-coalescer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        writeExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        LOG.infof("Coalescing CiliumNetworkPolicy updates within %s", window);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (timer == null) {
+            return;
+        }
+        timer.shutdownNow();
+        pending.forEach(this::flush);
+        writeExecutor.close();
+    }
+
+    /**
+     * @return whether updates are coalesced
+     */
+    boolean isEnabled() {
+        return window != null && !window.isZero() && !window.isNegative();
+    }
+
+    /**
+     * Submits a desired state and waits for the write that includes it.
+     *
+     * @param namespace the namespace of the policy
+     * @param policyName the name of the policy
+     * @param request the desired state
+     * @param writer writes a desired state; called once per window with the latest one
+     * @return the outcome of the write of the latest desired state of the window
+     * @throws RuntimeException if that write fails
+     */
+    CiliumNetworkPolicyResponse write(String namespace, String policyName, CiliumNetworkPolicyRequest request,
+                                      Function<CiliumNetworkPolicyRequest, CiliumNetworkPolicyResponse> writer) {
+        String key = namespace + "/" + policyName;
+        PendingWrite pendingWrite = pending.compute(key, (k, existing) -> {
+            PendingWrite current = existing;
+            if (current == null) {
+                current = new PendingWrite();
+                PendingWrite scheduled = current;
+                timer.schedule(() -> flush(k, scheduled), window.toMillis(), TimeUnit.MILLISECONDS);
+            } else {
+                updatesCoalesced.incrementAndGet();
+                LOG.debugf("Coalescing update of CiliumNetworkPolicy %s", k);
+            }
+            current.request = request;
+            current.writer = writer;
+            return current;
+        });
+        return await(pendingWrite.outcome);
+    }
+
+    /**
+     * Closes the window of a policy and writes its latest state once the previous write of the
+     * same policy has finished.
+     */
+    private void flush(String key, PendingWrite pendingWrite) {
+        if (!pending.remove(key, pendingWrite)) {
+            return;
+        }
+        CompletableFuture<Void> write = writes.compute(key, (k, previous) -> {
+            CompletableFuture<Void> after = previous == null
+                    ? CompletableFuture.completedFuture(null)
+                    : previous.exceptionally(e -> null);
+            return after.thenRunAsync(() -> apply(pendingWrite), writeExecutor);
+        });
+        write.whenComplete((ignored, e) -> writes.remove(key, write));
+    }
+
+    private void apply(PendingWrite pendingWrite) {
+        writesIssued.incrementAndGet();
+        try {
+            pendingWrite.outcome.complete(pendingWrite.writer.apply(pendingWrite.request));
+        } catch (RuntimeException | Error e) {
+            pendingWrite.outcome.completeExceptionally(e);
+        }
+    }
+
+    private static CiliumNetworkPolicyResponse await(CompletableFuture<CiliumNetworkPolicyResponse> outcome) {
+        try {
+            return outcome.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * @return the number of writes issued for coalesced windows
+     */
+    long getWritesIssued() {
+        return writesIssued.get();
+    }
+
+    /**
+     * @return the number of updates that were folded into a write already pending
+     */
+    long getUpdatesCoalesced() {
+        return updatesCoalesced.get();
+    }
+}
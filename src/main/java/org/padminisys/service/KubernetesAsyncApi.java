@@ -0,0 +1,170 @@
+package org.padminisys.service;
+
+import io.fabric8.kubernetes.api.model.Status;
+import io.fabric8.kubernetes.api.model.StatusBuilder;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.http.HttpRequest;
+import io.fabric8.kubernetes.client.http.HttpResponse;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.net.HttpURLConnection;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Non-blocking access to the Kubernetes REST API for the reactive services.
+ * Requests go through the fabric8 client's own HTTP client, so they share its configuration,
+ * authentication and connection pool, but no thread waits for the response: results complete
+ * on the HTTP client's event loop. Requests pass the same {@link ApiServerLimiter} gate as the
+ * blocking calls, so they share the rate limits and the cap on calls in flight. Failures are
+ * reported as {@link KubernetesClientException} with the API server's status code, like the blocking DSL.
+ */
+@ApplicationScoped
+public class KubernetesAsyncApi {
+
+    static final String APPLY_PATCH_CONTENT_TYPE = "application/apply-patch+yaml";
+    private static final String JSON_CONTENT_TYPE = "application/json";
+
+    @Inject
+    KubernetesClient kubernetesClient;
+
+    @Inject
+    ApiServerLimiter limiter;
+
+    /**
+     * The result of a server-side apply.
+     *
+     * @param object the applied object
+     * @param created true if the apply created the object, which the API server answers with 201 Created
+     */
+    public record Applied<T>(T object, boolean created) {
+    }
+
+    /**
+     * Reads an object.
+     *
+     * @param path the API path, e.g. /api/v1/namespaces/default
+     * @param type the type to read the response as
+     * @return the object, or null if it does not exist
+     */
+    public <T> Uni<T> get(String path, Class<T> type) {
+        return send(newRequest(path).build(), type, true, false);
+    }
+
+    /**
+     * Creates an object.
+     *
+     * @param path the API path of the collection
+     * @param body the object to create
+     * @param type the type to read the response as
+     * @return the created object; fails with code 409 if it already exists
+     */
+    public <T> Uni<T> post(String path, Object body, Class<T> type) {
+        String json = kubernetesClient.getKubernetesSerialization().asJson(body);
+        return send(newRequest(path).post(JSON_CONTENT_TYPE, json).build(), type, false, true);
+    }
+
+    /**
+     * Creates or updates an object with a server-side apply, forcing conflicts with other field managers.
+     *
+     * @param path the API path of the object
+     * @param body the desired object
+     * @param fieldManager the field manager to apply as
+     * @param type the type to read the response as
+     * @return the applied object, and whether the apply created it
+     */
+    public <T> Uni<Applied<T>> apply(String path, Object body, String fieldManager, Class<T> type) {
+        String json = kubernetesClient.getKubernetesSerialization().asJson(body);
+        String query = "?fieldManager=" + URLEncoder.encode(fieldManager, StandardCharsets.UTF_8) + "&force=true";
+        return exchange(newRequest(path + query).method("PATCH", APPLY_PATCH_CONTENT_TYPE, json).build(), false, true)
+                .map(response -> new Applied<>(body(response, type), response.code() == HttpURLConnection.HTTP_CREATED));
+    }
+
+    /**
+     * Deletes an object.
+     *
+     * @param path the API path of the object
+     * @return true if the object was deleted, false if it did not exist
+     */
+    public Uni<Boolean> delete(String path) {
+        return send(newRequest(path).delete(JSON_CONTENT_TYPE, "{}").build(), String.class, true, true)
+                .map(body -> body != null);
+    }
+
+    /**
+     * @return the API path of a namespace
+     */
+    static String namespacePath(String namespace) {
+        return "/api/v1/namespaces/" + namespace;
+    }
+
+    /**
+     * @return the API path of the service accounts in a namespace
+     */
+    static String serviceAccountsPath(String namespace) {
+        return namespacePath(namespace) + "/serviceaccounts";
+    }
+
+    /**
+     * @return the API path of the CiliumNetworkPolicies in a namespace, or in all namespaces when namespace is null
+     */
+    static String ciliumNetworkPoliciesPath(String namespace) {
+        return namespace != null
+                ? "/apis/cilium.io/v2/namespaces/" + namespace + "/ciliumnetworkpolicies"
+                : "/apis/cilium.io/v2/ciliumnetworkpolicies";
+    }
+
+    private HttpRequest.Builder newRequest(String path) {
+        String masterUrl = kubernetesClient.getMasterUrl().toString();
+        if (masterUrl.endsWith("/")) {
+            masterUrl = masterUrl.substring(0, masterUrl.length() - 1);
+        }
+        return kubernetesClient.getHttpClient().newHttpRequestBuilder().uri(masterUrl + path);
+    }
+
+    private <T> Uni<T> send(HttpRequest request, Class<T> type, boolean notFoundAsNull, boolean write) {
+        return exchange(request, notFoundAsNull, write).map(response -> response != null ? body(response, type) : null);
+    }
+
+    /**
+     * Sends a request through the limiter.
+     *
+     * @return the successful response, or null for 404 if notFoundAsNull; fails for any other response
+     */
+    private Uni<HttpResponse<String>> exchange(HttpRequest request, boolean notFoundAsNull, boolean write) {
+        return limiter.callAsync(write, () -> Uni.createFrom()
+                        .completionStage(() -> kubernetesClient.getHttpClient().sendAsync(request, String.class)))
+                .map(response -> {
+                    if (response.isSuccessful()) {
+                        return response;
+                    }
+                    if (notFoundAsNull && response.code() == HttpURLConnection.HTTP_NOT_FOUND) {
+                        return null;
+                    }
+                    throw requestFailure(request, response);
+                });
+    }
+
+    private <T> T body(HttpResponse<String> response, Class<T> type) {
+        return type == String.class
+                ? type.cast(response.body())
+                : kubernetesClient.getKubernetesSerialization().unmarshal(response.body(), type);
+    }
+
+    private KubernetesClientException requestFailure(HttpRequest request, HttpResponse<String> response) {
+        Status status;
+        try {
+            status = kubernetesClient.getKubernetesSerialization().unmarshal(response.body(), Status.class);
+        } catch (RuntimeException e) {
+            status = null;
+        }
+        if (status == null || status.getMessage() == null) {
+            status = new StatusBuilder().withCode(response.code()).withMessage(response.body()).build();
+        }
+        return new KubernetesClientException("Failure executing: " + request.method() + " at: " + request.uri()
+                + ". Message: " + status.getMessage() + ".", response.code(), status);
+    }
+}
@@ -1,26 +1,32 @@
 package org.padminisys.service;
 
+import io.fabric8.kubernetes.api.model.HasMetadata;
 import io.fabric8.kubernetes.api.model.Namespace;
 import io.fabric8.kubernetes.api.model.NamespaceBuilder;
 import io.fabric8.kubernetes.api.model.ServiceAccount;
 import io.fabric8.kubernetes.api.model.ServiceAccountBuilder;
-import io.fabric8.kubernetes.api.model.GenericKubernetesResource;
-import io.fabric8.kubernetes.api.model.ObjectMetaBuilder;
+import io.fabric8.kubernetes.api.model.ManagedFieldsEntry;
 import io.fabric8.kubernetes.client.KubernetesClient;
 import io.fabric8.kubernetes.client.KubernetesClientException;
-import io.fabric8.kubernetes.client.dsl.base.CustomResourceDefinitionContext;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.jboss.logging.Logger;
+import org.padminisys.cache.CiliumNetworkPolicyCache;
+import org.padminisys.cache.NamespaceCache;
 import org.padminisys.dto.NamespaceRequest;
 import org.padminisys.dto.NamespaceResponse;
 import org.padminisys.dto.ServiceAccountRequest;
 import org.padminisys.dto.ServiceAccountResponse;
 import org.padminisys.dto.CiliumNetworkPolicyRequest;
 import org.padminisys.dto.CiliumNetworkPolicyResponse;
+import org.padminisys.model.CiliumNetworkPolicy;
+import org.padminisys.model.CiliumNetworkPolicyList;
 
+import java.net.HttpURLConnection;
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Collectors;
 
 /**
@@ -31,21 +37,28 @@ import java.util.stream.Collectors;
 public class KubernetesService {
 
     private static final Logger LOG = Logger.getLogger(KubernetesService.class);
-    private static final String CILIUM_API_VERSION = "cilium.io/v2";
-    private static final String CILIUM_KIND = "CiliumNetworkPolicy";
-    private static final String NAMESPACE_LABEL_KEY = "k8s:io.kubernetes.pod.namespace";
     private static final Random RANDOM = new Random();
+    static final String FIELD_MANAGER = "ppcs-nsm";
 
     @Inject
     KubernetesClient kubernetesClient;
 
-    private final CustomResourceDefinitionContext ciliumNetworkPolicyContext =
-        new CustomResourceDefinitionContext.Builder()
-            .withGroup("cilium.io")
-            .withVersion("v2")
-            .withScope("Namespaced")
-            .withPlural("ciliumnetworkpolicies")
-            .build();
+    @Inject
+    NamespaceCache namespaceCache;
+
+    @Inject
+    CiliumNetworkPolicyCache policyCache;
+
+    @Inject
+    CiliumNetworkPolicyWriteCoalescer writeCoalescer;
+
+    @ConfigProperty(name = "ppcs.kubernetes.optimistic-create", defaultValue = "true")
+    boolean optimisticCreate;
+
+    @ConfigProperty(name = "ppcs.policies.compaction.enabled", defaultValue = "true")
+    boolean compactRules;
+
+    private final LongAdder unchangedWrites = new LongAdder();
 
     /**
      * Creates a new namespace in the Kubernetes cluster.
@@ -54,9 +67,14 @@ public class KubernetesService {
      * @return the namespace creation response
      * @throws KubernetesClientException if namespace creation fails
      */
+    @ApiServerCall(write = true)
     public NamespaceResponse createNamespace(NamespaceRequest request) {
         LOG.infof("Creating namespace: %s", request.getName());
 
+        if (optimisticCreate) {
+            return createNamespaceOptimistically(request);
+        }
+
         try {
             // Check if namespace already exists
             Namespace existingNamespace = kubernetesClient.namespaces()
@@ -74,13 +92,7 @@ public class KubernetesService {
             }
 
             // Create new namespace
-            Namespace namespace = new NamespaceBuilder()
-                    .withNewMetadata()
-                    .withName(request.getName())
-                    .addToLabels("created-by", "ppcs-nsm")
-                    .addToLabels("managed-by", "quarkus-app")
-                    .endMetadata()
-                    .build();
+            Namespace namespace = buildNamespace(request.getName());
 
             Namespace createdNamespace = kubernetesClient.namespaces().create(namespace);
 
@@ -106,18 +118,17 @@ public class KubernetesService {
      * @return the service account creation response
      * @throws KubernetesClientException if service account creation fails
      */
+    @ApiServerCall(write = true)
     public ServiceAccountResponse createServiceAccount(ServiceAccountRequest request) {
         LOG.infof("Creating service account: %s in namespace: %s", request.getName(), request.getNamespace());
 
+        if (optimisticCreate) {
+            return createServiceAccountOptimistically(request);
+        }
+
         try {
             // Check if namespace exists
-            Namespace namespace = kubernetesClient.namespaces()
-                    .withName(request.getNamespace())
-                    .get();
-
-            if (namespace == null) {
-                throw new RuntimeException("Namespace '" + request.getNamespace() + "' does not exist");
-            }
+            validateNamespaceExists(request.getNamespace());
 
             // Check if service account already exists
             ServiceAccount existingServiceAccount = kubernetesClient.serviceAccounts()
@@ -137,14 +148,7 @@ public class KubernetesService {
             }
 
             // Create new service account
-            ServiceAccount serviceAccount = new ServiceAccountBuilder()
-                    .withNewMetadata()
-                    .withName(request.getName())
-                    .withNamespace(request.getNamespace())
-                    .addToLabels("created-by", "ppcs-nsm")
-                    .addToLabels("managed-by", "quarkus-app")
-                    .endMetadata()
-                    .build();
+            ServiceAccount serviceAccount = buildServiceAccount(request.getNamespace(), request.getName());
 
             ServiceAccount createdServiceAccount = kubernetesClient.serviceAccounts()
                     .inNamespace(request.getNamespace())
@@ -166,8 +170,156 @@ public class KubernetesService {
         }
     }
 
+    /**
+     * Creates a namespace with a single POST. An AlreadyExists conflict becomes the EXISTS
+     * response, with a GET only to fill in the creation timestamp.
+     *
+     * @param request the namespace creation request
+     * @return the namespace creation response
+     */
+    private NamespaceResponse createNamespaceOptimistically(NamespaceRequest request) {
+        Namespace namespace = buildNamespace(request.getName());
+
+        try {
+            Namespace createdNamespace = kubernetesClient.namespaces().create(namespace);
+
+            LOG.infof("Successfully created namespace: %s", request.getName());
+
+            return new NamespaceResponse(
+                    createdNamespace.getMetadata().getName(),
+                    "CREATED",
+                    Instant.parse(createdNamespace.getMetadata().getCreationTimestamp()),
+                    "Namespace created successfully"
+            );
+
+        } catch (KubernetesClientException e) {
+            if (e.getCode() != HttpURLConnection.HTTP_CONFLICT) {
+                LOG.errorf(e, "Failed to create namespace: %s", request.getName());
+                throw new RuntimeException("Failed to create namespace: " + e.getMessage(), e);
+            }
+
+            LOG.warnf("Namespace %s already exists", request.getName());
+            try {
+                Namespace existingNamespace = kubernetesClient.namespaces()
+                        .withName(request.getName())
+                        .get();
+                return new NamespaceResponse(
+                        request.getName(),
+                        "EXISTS",
+                        creationTimestampOf(existingNamespace),
+                        "Namespace already exists"
+                );
+            } catch (KubernetesClientException lookupError) {
+                LOG.errorf(lookupError, "Failed to get existing namespace: %s", request.getName());
+                throw new RuntimeException("Failed to create namespace: " + lookupError.getMessage(), lookupError);
+            }
+        }
+    }
+
+    /**
+     * Creates a service account with a single POST, without checking the namespace or the
+     * service account first. A missing namespace surfaces as NotFound from the API server, and an
+     * AlreadyExists conflict becomes the EXISTS response with a GET only for the creation timestamp.
+     *
+     * @param request the service account creation request
+     * @return the service account creation response
+     */
+    private ServiceAccountResponse createServiceAccountOptimistically(ServiceAccountRequest request) {
+        ServiceAccount serviceAccount = buildServiceAccount(request.getNamespace(), request.getName());
+
+        try {
+            ServiceAccount createdServiceAccount = kubernetesClient.serviceAccounts()
+                    .inNamespace(request.getNamespace())
+                    .create(serviceAccount);
+
+            LOG.infof("Successfully created service account: %s in namespace: %s", request.getName(), request.getNamespace());
+
+            return new ServiceAccountResponse(
+                    createdServiceAccount.getMetadata().getName(),
+                    createdServiceAccount.getMetadata().getNamespace(),
+                    "CREATED",
+                    Instant.parse(createdServiceAccount.getMetadata().getCreationTimestamp()),
+                    "Service account created successfully"
+            );
+
+        } catch (KubernetesClientException e) {
+            if (e.getCode() == HttpURLConnection.HTTP_NOT_FOUND) {
+                throw new RuntimeException("Namespace '" + request.getNamespace() + "' does not exist", e);
+            }
+            if (e.getCode() != HttpURLConnection.HTTP_CONFLICT) {
+                LOG.errorf(e, "Failed to create service account: %s in namespace: %s", request.getName(), request.getNamespace());
+                throw new RuntimeException("Failed to create service account: " + e.getMessage(), e);
+            }
+
+            LOG.warnf("Service account %s already exists in namespace %s", request.getName(), request.getNamespace());
+            try {
+                ServiceAccount existingServiceAccount = kubernetesClient.serviceAccounts()
+                        .inNamespace(request.getNamespace())
+                        .withName(request.getName())
+                        .get();
+                return new ServiceAccountResponse(
+                        request.getName(),
+                        request.getNamespace(),
+                        "EXISTS",
+                        creationTimestampOf(existingServiceAccount),
+                        "Service account already exists"
+                );
+            } catch (KubernetesClientException lookupError) {
+                LOG.errorf(lookupError, "Failed to get existing service account: %s in namespace: %s", request.getName(), request.getNamespace());
+                throw new RuntimeException("Failed to create service account: " + lookupError.getMessage(), lookupError);
+            }
+        }
+    }
+
+    /**
+     * Builds a namespace labelled as managed by this service.
+     *
+     * @param name the namespace name
+     * @return the namespace to create
+     */
+    Namespace buildNamespace(String name) {
+        return new NamespaceBuilder()
+                .withNewMetadata()
+                .withName(name)
+                .addToLabels("created-by", "ppcs-nsm")
+                .addToLabels("managed-by", "quarkus-app")
+                .endMetadata()
+                .build();
+    }
+
+    /**
+     * Builds a service account labelled as managed by this service.
+     *
+     * @param namespace the namespace of the service account
+     * @param name the service account name
+     * @return the service account to create
+     */
+    ServiceAccount buildServiceAccount(String namespace, String name) {
+        return new ServiceAccountBuilder()
+                .withNewMetadata()
+                .withName(name)
+                .withNamespace(namespace)
+                .addToLabels("created-by", "ppcs-nsm")
+                .addToLabels("managed-by", "quarkus-app")
+                .endMetadata()
+                .build();
+    }
+
+    /**
+     * Reads the creation timestamp of an object found after an AlreadyExists conflict.
+     * Falls back to now if the object was deleted in between.
+     */
+    Instant creationTimestampOf(HasMetadata existing) {
+        if (existing == null || existing.getMetadata().getCreationTimestamp() == null) {
+            return Instant.now();
+        }
+        return Instant.parse(existing.getMetadata().getCreationTimestamp());
+    }
+
     /**
      * Creates a new CiliumNetworkPolicy in the Kubernetes cluster.
+     * When write coalescing is enabled, rapid successive updates of the same user-named policy
+     * are collapsed by the {@link CiliumNetworkPolicyWriteCoalescer} and only the latest is written.
      *
      * @param request the CiliumNetworkPolicy creation request
      * @return the CiliumNetworkPolicy creation response
@@ -176,95 +328,218 @@ public class KubernetesService {
     public CiliumNetworkPolicyResponse createCiliumNetworkPolicy(CiliumNetworkPolicyRequest request) {
         // Determine the policy name: use provided name or generate one
         String policyName = determinePolicyName(request);
+
+        try {
+            // Check if namespace exists
+            validateNamespaceExists(request.getNamespace());
+        } catch (KubernetesClientException e) {
+            LOG.errorf(e, "Failed to create CiliumNetworkPolicy: %s in namespace: %s", policyName, request.getNamespace());
+            throw new RuntimeException("Failed to create CiliumNetworkPolicy: " + e.getMessage(), e);
+        }
+
+        boolean isUserProvidedName = request.getName() != null && !request.getName().trim().isEmpty();
+        if (isUserProvidedName && writeCoalescer.isEnabled()) {
+            return writeCoalescer.write(request.getNamespace(), policyName, request,
+                    latest -> writeCiliumNetworkPolicy(latest, policyName));
+        }
+        return writeCiliumNetworkPolicy(request, policyName);
+    }
+
+    /**
+     * Writes a CiliumNetworkPolicy whose name is already determined and whose namespace is known to exist.
+     * Batch creation calls this directly after validating each distinct namespace once.
+     * A user-named policy that already matches the cached live policy is not written at all,
+     * as long as the cached copy is the version this instance last wrote. Any other cached
+     * version may lag the API server, so the policy is applied.
+     *
+     * @param request the CiliumNetworkPolicy creation request
+     * @param policyName the name determined by {@link #determinePolicyName(CiliumNetworkPolicyRequest)}
+     * @return the CiliumNetworkPolicy creation response
+     * @throws RuntimeException if the write fails
+     */
+    CiliumNetworkPolicyResponse writeCiliumNetworkPolicy(CiliumNetworkPolicyRequest request, String policyName) {
         boolean isUserProvidedName = request.getName() != null && !request.getName().trim().isEmpty();
         
         LOG.infof("Creating CiliumNetworkPolicy: %s in namespace: %s (name source: %s)",
                  policyName, request.getNamespace(), isUserProvidedName ? "user-provided" : "auto-generated");
 
         try {
-            // Check if namespace exists
-            Namespace namespace = kubernetesClient.namespaces()
-                    .withName(request.getNamespace())
-                    .get();
-
-            if (namespace == null) {
-                throw new RuntimeException("Namespace '" + request.getNamespace() + "' does not exist");
+            // Create the CiliumNetworkPolicy resource
+            CiliumNetworkPolicy ciliumPolicy = createCiliumPolicyResource(request, policyName);
+
+            CiliumNetworkPolicyResponse response;
+            if (isUserProvidedName) {
+                CiliumNetworkPolicy livePolicy = policyCache.isEnabled() ? policyCache.get(request.getNamespace(), policyName) : null;
+                response = livePolicy != null && policyCache.isLastWritten(livePolicy)
+                        && CiliumNetworkPolicyMapper.isUpToDate(livePolicy, ciliumPolicy)
+                        ? unchangedCiliumNetworkPolicy(livePolicy, policyName)
+                        : applyCiliumNetworkPolicy(ciliumPolicy, request.getNamespace(), policyName);
+            } else {
+                response = createGeneratedCiliumNetworkPolicy(ciliumPolicy, request.getNamespace(), policyName);
             }
+            return withRuleCounts(response, request, ciliumPolicy);
 
-            // Create the CiliumNetworkPolicy resource
-            GenericKubernetesResource ciliumPolicy = createCiliumPolicyResource(request, policyName);
+        } catch (KubernetesClientException e) {
+            LOG.errorf(e, "Failed to create CiliumNetworkPolicy: %s in namespace: %s", policyName, request.getNamespace());
+            throw new RuntimeException("Failed to create CiliumNetworkPolicy: " + e.getMessage(), e);
+        }
+    }
 
-            // Check if policy already exists
-            GenericKubernetesResource existingPolicy = kubernetesClient
-                    .genericKubernetesResources(ciliumNetworkPolicyContext)
-                    .inNamespace(request.getNamespace())
-                    .withName(policyName)
-                    .get();
+    /**
+     * Creates or updates a user-named policy with a single server-side apply PATCH.
+     * Conflicts with other field managers are forced, matching the previous replace semantics.
+     * <p>
+     * The blocking client does not expose the HTTP status of the apply, so CREATED versus UPDATED
+     * is best-effort: exact while the policy cache is enabled, otherwise derived by
+     * {@link #wasCreatedByApply}, which reports a no-op re-apply of an unchanged policy as CREATED.
+     * The reactive path reads the status from the response and is always exact.
+     *
+     * @param ciliumPolicy the desired policy
+     * @param namespace the namespace of the policy
+     * @param policyName the name of the policy
+     * @return the response with status CREATED or UPDATED
+     */
+    @ApiServerCall(write = true)
+    CiliumNetworkPolicyResponse applyCiliumNetworkPolicy(CiliumNetworkPolicy ciliumPolicy,
+                                                                 String namespace, String policyName) {
+        boolean existed = policyCache.isEnabled() && policyCache.get(namespace, policyName) != null;
+
+        CiliumNetworkPolicy resultPolicy = kubernetesClient
+                .resources(CiliumNetworkPolicy.class, CiliumNetworkPolicyList.class)
+                .inNamespace(namespace)
+                .resource(ciliumPolicy)
+                .fieldManager(FIELD_MANAGER)
+                .forceConflicts()
+                .serverSideApply();
+        policyCache.recordWrite(resultPolicy);
+
+        boolean created = !existed && wasCreatedByApply(resultPolicy);
+        if (created) {
+            LOG.infof("Successfully created CiliumNetworkPolicy: %s in namespace: %s", policyName, namespace);
+        } else {
+            LOG.infof("Successfully updated CiliumNetworkPolicy: %s in namespace: %s", policyName, namespace);
+        }
+
+        return new CiliumNetworkPolicyResponse(
+                resultPolicy.getMetadata().getName(),
+                resultPolicy.getMetadata().getNamespace(),
+                created ? "CREATED" : "UPDATED",
+                Instant.parse(resultPolicy.getMetadata().getCreationTimestamp()),
+                created ? "CiliumNetworkPolicy created successfully" : "CiliumNetworkPolicy updated successfully",
+                policyName
+        );
+    }
 
-            GenericKubernetesResource resultPolicy;
-            String status;
-            String message;
-
-            if (existingPolicy != null) {
-                if (isUserProvidedName) {
-                    // For user-provided names, update/patch the existing policy
-                    LOG.infof("CiliumNetworkPolicy %s already exists in namespace %s - updating/patching", policyName, request.getNamespace());
-                    
-                    // Use createOrReplace to update the existing policy
-                    resultPolicy = kubernetesClient
-                            .genericKubernetesResources(ciliumNetworkPolicyContext)
-                            .inNamespace(request.getNamespace())
-                            .createOrReplace(ciliumPolicy);
-                    
-                    status = "UPDATED";
-                    message = "CiliumNetworkPolicy updated successfully";
-                    LOG.infof("Successfully updated CiliumNetworkPolicy: %s in namespace: %s", policyName, request.getNamespace());
-                } else {
-                    // For auto-generated names, this should be rare but we handle it
-                    LOG.warnf("CiliumNetworkPolicy %s already exists in namespace %s", policyName, request.getNamespace());
-                    return new CiliumNetworkPolicyResponse(
-                            policyName,
-                            request.getNamespace(),
-                            "EXISTS",
-                            Instant.parse(existingPolicy.getMetadata().getCreationTimestamp()),
-                            "CiliumNetworkPolicy already exists",
-                            policyName
-                    );
-                }
-            } else {
-                // Create new policy
-                resultPolicy = kubernetesClient
-                        .genericKubernetesResources(ciliumNetworkPolicyContext)
-                        .inNamespace(request.getNamespace())
-                        .create(ciliumPolicy);
-                
-                status = "CREATED";
-                message = "CiliumNetworkPolicy created successfully";
-                LOG.infof("Successfully created CiliumNetworkPolicy: %s in namespace: %s", policyName, request.getNamespace());
-            }
+    /**
+     * Answers a write that would not change the live policy, without calling the API server.
+     *
+     * @param livePolicy the cached live policy
+     * @param policyName the name of the policy
+     * @return the response with status UNCHANGED
+     */
+    CiliumNetworkPolicyResponse unchangedCiliumNetworkPolicy(CiliumNetworkPolicy livePolicy, String policyName) {
+        unchangedWrites.increment();
+        LOG.infof("CiliumNetworkPolicy %s in namespace %s is unchanged, skipping write",
+                policyName, livePolicy.getMetadata().getNamespace());
+        return new CiliumNetworkPolicyResponse(
+                livePolicy.getMetadata().getName(),
+                livePolicy.getMetadata().getNamespace(),
+                "UNCHANGED",
+                creationTimestampOf(livePolicy),
+                "CiliumNetworkPolicy unchanged",
+                policyName
+        );
+    }
+
+    /**
+     * @return the number of policy writes skipped because the live policy already matched
+     */
+    long getUnchangedWrites() {
+        return unchangedWrites.sum();
+    }
+
+    /**
+     * Creates an auto-named policy with a single POST. A name collision is rare, so the existing
+     * policy is only fetched when the API server reports it already exists.
+     *
+     * @param ciliumPolicy the desired policy
+     * @param namespace the namespace of the policy
+     * @param policyName the generated name of the policy
+     * @return the response with status CREATED or EXISTS
+     */
+    @ApiServerCall(write = true)
+    CiliumNetworkPolicyResponse createGeneratedCiliumNetworkPolicy(CiliumNetworkPolicy ciliumPolicy,
+                                                                           String namespace, String policyName) {
+        try {
+            CiliumNetworkPolicy resultPolicy = kubernetesClient
+                    .resources(CiliumNetworkPolicy.class, CiliumNetworkPolicyList.class)
+                    .inNamespace(namespace)
+                    .create(ciliumPolicy);
 
+            LOG.infof("Successfully created CiliumNetworkPolicy: %s in namespace: %s", policyName, namespace);
             return new CiliumNetworkPolicyResponse(
                     resultPolicy.getMetadata().getName(),
                     resultPolicy.getMetadata().getNamespace(),
-                    status,
+                    "CREATED",
                     Instant.parse(resultPolicy.getMetadata().getCreationTimestamp()),
-                    message,
+                    "CiliumNetworkPolicy created successfully",
                     policyName
             );
-
         } catch (KubernetesClientException e) {
-            LOG.errorf(e, "Failed to create CiliumNetworkPolicy: %s in namespace: %s", policyName, request.getNamespace());
-            throw new RuntimeException("Failed to create CiliumNetworkPolicy: " + e.getMessage(), e);
+            if (e.getCode() != HttpURLConnection.HTTP_CONFLICT) {
+                throw e;
+            }
+
+            LOG.warnf("CiliumNetworkPolicy %s already exists in namespace %s", policyName, namespace);
+            CiliumNetworkPolicy existingPolicy = kubernetesClient
+                    .resources(CiliumNetworkPolicy.class, CiliumNetworkPolicyList.class)
+                    .inNamespace(namespace)
+                    .withName(policyName)
+                    .get();
+            return new CiliumNetworkPolicyResponse(
+                    policyName,
+                    namespace,
+                    "EXISTS",
+                    creationTimestampOf(existingPolicy),
+                    "CiliumNetworkPolicy already exists",
+                    policyName
+            );
         }
     }
 
+    /**
+     * Derives from a server-side apply result whether the apply created the policy.
+     * An apply that changed an existing policy bumps its generation past 1 or records
+     * our field manager's apply time after the creation time. This is a heuristic: an apply
+     * that changed nothing leaves both untouched, so re-applying a policy that was never
+     * modified since its creation is reported as created.
+     *
+     * @param appliedPolicy the policy returned by the apply
+     * @return true if the policy was created by this apply
+     */
+    boolean wasCreatedByApply(CiliumNetworkPolicy appliedPolicy) {
+        Long generation = appliedPolicy.getMetadata().getGeneration();
+        if (generation != null && generation > 1) {
+            return false;
+        }
+
+        List<ManagedFieldsEntry> managedFields = appliedPolicy.getMetadata().getManagedFields();
+        if (managedFields == null) {
+            return true;
+        }
+        String creationTimestamp = appliedPolicy.getMetadata().getCreationTimestamp();
+        return managedFields.stream()
+                .filter(entry -> FIELD_MANAGER.equals(entry.getManager()) && "Apply".equals(entry.getOperation()))
+                .allMatch(entry -> entry.getTime() == null || entry.getTime().equals(creationTimestamp));
+    }
+
     /**
      * Determines the policy name to use: either user-provided or auto-generated.
      *
      * @param request the CiliumNetworkPolicy request
      * @return the policy name to use
      */
-    private String determinePolicyName(CiliumNetworkPolicyRequest request) {
+    String determinePolicyName(CiliumNetworkPolicyRequest request) {
         // If user provided a name, use it (after validation)
         if (request.getName() != null && !request.getName().trim().isEmpty()) {
             String userProvidedName = request.getName().trim();
@@ -350,232 +625,43 @@ public class KubernetesService {
     }
 
     /**
-     * Creates a GenericKubernetesResource for CiliumNetworkPolicy.
+     * Creates the typed CiliumNetworkPolicy resource for a request. Unless compaction is disabled,
+     * equivalent rules are merged by the {@link CiliumNetworkPolicyCompactor}; CIDRs are then
+     * aggregated if the request asks for it.
      *
      * @param request the policy request
      * @param policyName the generated policy name
-     * @return GenericKubernetesResource representing the CiliumNetworkPolicy
+     * @return the CiliumNetworkPolicy resource
      */
-    private GenericKubernetesResource createCiliumPolicyResource(CiliumNetworkPolicyRequest request, String policyName) {
-        Map<String, Object> spec = new HashMap<>();
-        
-        // Set endpointSelector based on labels
-        Map<String, Object> endpointSelector = new HashMap<>();
-        if (request.getLabels() != null && !request.getLabels().isEmpty()) {
-            Map<String, Object> matchLabels = new HashMap<>();
-            request.getLabels().forEach(matchLabels::put);
-            endpointSelector.put("matchLabels", matchLabels);
+    CiliumNetworkPolicy createCiliumPolicyResource(CiliumNetworkPolicyRequest request, String policyName) {
+        CiliumNetworkPolicy policy = CiliumNetworkPolicyMapper.toResource(request, policyName);
+        if (compactRules) {
+            CiliumNetworkPolicyCompactor.compact(policy.getSpec());
         }
-        spec.put("endpointSelector", endpointSelector);
-
-        // Process ingress rules
-        if (request.getIngressRules() != null && !request.getIngressRules().isEmpty()) {
-            List<Map<String, Object>> ingressRules = request.getIngressRules().stream()
-                    .map(rule -> convertToIngressRule(rule, request.getNamespace()))
-                    .collect(Collectors.toList());
-            spec.put("ingress", ingressRules);
-        }
-
-        // Process ingress deny rules
-        if (request.getIngressDenyRules() != null && !request.getIngressDenyRules().isEmpty()) {
-            List<Map<String, Object>> ingressDenyRules = request.getIngressDenyRules().stream()
-                    .map(rule -> convertToIngressRule(rule, request.getNamespace()))
-                    .collect(Collectors.toList());
-            spec.put("ingressDeny", ingressDenyRules);
-        }
-
-        // Process egress rules
-        if (request.getEgressRules() != null && !request.getEgressRules().isEmpty()) {
-            List<Map<String, Object>> egressRules = request.getEgressRules().stream()
-                    .map(rule -> convertToEgressRule(rule, request.getNamespace()))
-                    .collect(Collectors.toList());
-            spec.put("egress", egressRules);
-        }
-
-        // Process egress deny rules
-        if (request.getEgressDenyRules() != null && !request.getEgressDenyRules().isEmpty()) {
-            List<Map<String, Object>> egressDenyRules = request.getEgressDenyRules().stream()
-                    .map(rule -> convertToEgressRule(rule, request.getNamespace()))
-                    .collect(Collectors.toList());
-            spec.put("egressDeny", egressDenyRules);
+        if (Boolean.TRUE.equals(request.getAggregateCidrs())) {
+            CiliumNetworkPolicyCompactor.aggregateCidrs(policy.getSpec());
         }
-
-        // Create the resource
-        GenericKubernetesResource resource = new GenericKubernetesResource();
-        resource.setApiVersion(CILIUM_API_VERSION);
-        resource.setKind(CILIUM_KIND);
-        resource.setMetadata(new ObjectMetaBuilder()
-                .withName(policyName)
-                .withNamespace(request.getNamespace())
-                .addToLabels("created-by", "ppcs-nsm")
-                .addToLabels("managed-by", "quarkus-app")
-                .build());
-        resource.setAdditionalProperty("spec", spec);
-
-        return resource;
-    }
-
-    /**
-     * Converts a NetworkRule to an ingress rule map.
-     *
-     * @param rule the network rule
-     * @param namespace the namespace for automatic constraint
-     * @return map representing the ingress rule
-     */
-    private Map<String, Object> convertToIngressRule(CiliumNetworkPolicyRequest.NetworkRule rule, String namespace) {
-        Map<String, Object> ingressRule = new HashMap<>();
-        
-        // Add fromCIDR for IP-based rules
-        if (rule.getIpAddresses() != null && !rule.getIpAddresses().isEmpty()) {
-            ingressRule.put("fromCIDR", rule.getIpAddresses());
-        }
-        
-        // Add fromEndpoints for label-based rules
-        if (rule.getFromLabels() != null && !rule.getFromLabels().isEmpty()) {
-            List<Map<String, Object>> fromEndpoints = new ArrayList<>();
-            Map<String, Object> endpointSelector = new HashMap<>();
-            Map<String, Object> matchLabels = new HashMap<>();
-            
-            // Add user-provided labels
-            rule.getFromLabels().forEach(matchLabels::put);
-            
-            // Automatically add namespace constraint
-            matchLabels.put(NAMESPACE_LABEL_KEY, namespace);
-            
-            endpointSelector.put("matchLabels", matchLabels);
-            fromEndpoints.add(endpointSelector);
-            ingressRule.put("fromEndpoints", fromEndpoints);
-        }
-
-        // Add toPorts if specified
-        if (rule.getPorts() != null && !rule.getPorts().isEmpty()) {
-            List<Map<String, Object>> toPorts = new ArrayList<>();
-            Map<String, Object> toPortsEntry = new HashMap<>();
-            
-            List<Map<String, Object>> ports = rule.getPorts().stream()
-                    .map(this::convertPortRule)
-                    .collect(Collectors.toList());
-            
-            toPortsEntry.put("ports", ports);
-            
-            // Add HTTP rules if any port has header matches
-            List<Map<String, Object>> httpRules = createHttpRules(rule.getPorts());
-            if (!httpRules.isEmpty()) {
-                Map<String, Object> rules = new HashMap<>();
-                rules.put("http", httpRules);
-                toPortsEntry.put("rules", rules);
-            }
-            
-            toPorts.add(toPortsEntry);
-            ingressRule.put("toPorts", toPorts);
-        }
-
-        return ingressRule;
+        return policy;
     }
 
     /**
-     * Converts a NetworkRule to an egress rule map.
+     * Adds the number of rules in the request and in the written policy to a response.
      *
-     * @param rule the network rule
-     * @param namespace the namespace for automatic constraint
-     * @return map representing the egress rule
-     */
-    private Map<String, Object> convertToEgressRule(CiliumNetworkPolicyRequest.NetworkRule rule, String namespace) {
-        Map<String, Object> egressRule = new HashMap<>();
-        
-        // Add toCIDR for IP-based rules
-        if (rule.getIpAddresses() != null && !rule.getIpAddresses().isEmpty()) {
-            egressRule.put("toCIDR", rule.getIpAddresses());
-        }
-        
-        // Add toEndpoints for label-based rules
-        if (rule.getToLabels() != null && !rule.getToLabels().isEmpty()) {
-            List<Map<String, Object>> toEndpoints = new ArrayList<>();
-            Map<String, Object> endpointSelector = new HashMap<>();
-            Map<String, Object> matchLabels = new HashMap<>();
-            
-            // Add user-provided labels
-            rule.getToLabels().forEach(matchLabels::put);
-            
-            // Automatically add namespace constraint
-            matchLabels.put(NAMESPACE_LABEL_KEY, namespace);
-            
-            endpointSelector.put("matchLabels", matchLabels);
-            toEndpoints.add(endpointSelector);
-            egressRule.put("toEndpoints", toEndpoints);
-        }
-
-        // Add toPorts if specified
-        if (rule.getPorts() != null && !rule.getPorts().isEmpty()) {
-            List<Map<String, Object>> toPorts = new ArrayList<>();
-            Map<String, Object> toPortsEntry = new HashMap<>();
-            
-            List<Map<String, Object>> ports = rule.getPorts().stream()
-                    .map(this::convertPortRule)
-                    .collect(Collectors.toList());
-            
-            toPortsEntry.put("ports", ports);
-            
-            // Add HTTP rules if any port has header matches
-            List<Map<String, Object>> httpRules = createHttpRules(rule.getPorts());
-            if (!httpRules.isEmpty()) {
-                Map<String, Object> rules = new HashMap<>();
-                rules.put("http", httpRules);
-                toPortsEntry.put("rules", rules);
-            }
-            
-            toPorts.add(toPortsEntry);
-            egressRule.put("toPorts", toPorts);
-        }
-
-        return egressRule;
-    }
-
-    /**
-     * Converts a PortRule to a port map.
-     *
-     * @param portRule the port rule
-     * @return map representing the port
+     * @param response the write response
+     * @param request the policy request
+     * @param ciliumPolicy the policy resource built from the request
+     * @return the response
      */
-    private Map<String, Object> convertPortRule(CiliumNetworkPolicyRequest.PortRule portRule) {
-        Map<String, Object> port = new HashMap<>();
-        port.put("port", portRule.getPort().toString());
-        port.put("protocol", portRule.getProtocol().name());
-        
-        if (portRule.getEndPort() != null) {
-            port.put("endPort", portRule.getEndPort());
-        }
-        
-        return port;
+    CiliumNetworkPolicyResponse withRuleCounts(CiliumNetworkPolicyResponse response, CiliumNetworkPolicyRequest request,
+                                               CiliumNetworkPolicy ciliumPolicy) {
+        response.setRuleCountBefore(sizeOf(request.getIngressRules()) + sizeOf(request.getIngressDenyRules())
+                + sizeOf(request.getEgressRules()) + sizeOf(request.getEgressDenyRules()));
+        response.setRuleCountAfter(CiliumNetworkPolicyCompactor.ruleCount(ciliumPolicy.getSpec()));
+        return response;
     }
 
-    /**
-     * Creates HTTP rules from port rules that have header matches.
-     *
-     * @param portRules the list of port rules
-     * @return list of HTTP rules
-     */
-    private List<Map<String, Object>> createHttpRules(List<CiliumNetworkPolicyRequest.PortRule> portRules) {
-        List<Map<String, Object>> httpRules = new ArrayList<>();
-        
-        for (CiliumNetworkPolicyRequest.PortRule portRule : portRules) {
-            if (portRule.getHeaderMatches() != null && !portRule.getHeaderMatches().isEmpty()) {
-                for (CiliumNetworkPolicyRequest.HeaderMatch headerMatch : portRule.getHeaderMatches()) {
-                    Map<String, Object> httpRule = new HashMap<>();
-                    List<Map<String, Object>> headerMatches = new ArrayList<>();
-                    
-                    Map<String, Object> headerMatchMap = new HashMap<>();
-                    headerMatchMap.put("name", headerMatch.getName());
-                    headerMatchMap.put("value", headerMatch.getValue());
-                    headerMatches.add(headerMatchMap);
-                    
-                    httpRule.put("headerMatches", headerMatches);
-                    httpRules.add(httpRule);
-                }
-            }
-        }
-        
-        return httpRules;
+    private static int sizeOf(List<?> rules) {
+        return rules != null ? rules.size() : 0;
     }
 
     /**
@@ -583,6 +669,7 @@ public class KubernetesService {
      *
      * @return true if connection is successful, false otherwise
      */
+    @ApiServerCall
     public boolean isKubernetesAvailable() {
         try {
             kubernetesClient.namespaces().list();
@@ -601,22 +688,17 @@ public class KubernetesService {
      * @return the policy converted to request format
      * @throws RuntimeException if policy is not found or conversion fails
      */
+    @ApiServerCall
     public CiliumNetworkPolicyRequest getCiliumNetworkPolicyByName(String name, String namespace) {
         LOG.infof("Getting CiliumNetworkPolicy: %s in namespace: %s", name, namespace);
 
         try {
             // Check if namespace exists
-            Namespace namespaceObj = kubernetesClient.namespaces()
-                    .withName(namespace)
-                    .get();
-
-            if (namespaceObj == null) {
-                throw new RuntimeException("Namespace '" + namespace + "' does not exist");
-            }
+            validateNamespaceExists(namespace);
 
             // Get the policy
-            GenericKubernetesResource policy = kubernetesClient
-                    .genericKubernetesResources(ciliumNetworkPolicyContext)
+            CiliumNetworkPolicy policy = kubernetesClient
+                    .resources(CiliumNetworkPolicy.class, CiliumNetworkPolicyList.class)
                     .inNamespace(namespace)
                     .withName(name)
                     .get();
@@ -625,7 +707,7 @@ public class KubernetesService {
                 throw new RuntimeException("CiliumNetworkPolicy '" + name + "' not found in namespace '" + namespace + "'");
             }
 
-            return convertKubernetesCNPToRequest(policy);
+            return CiliumNetworkPolicyMapper.toRequest(policy);
 
         } catch (KubernetesClientException e) {
             LOG.errorf(e, "Failed to get CiliumNetworkPolicy: %s in namespace: %s", name, namespace);
@@ -640,28 +722,23 @@ public class KubernetesService {
      * @return list of policies converted to request format
      * @throws RuntimeException if namespace doesn't exist or retrieval fails
      */
+    @ApiServerCall
     public List<CiliumNetworkPolicyRequest> getCiliumNetworkPoliciesByNamespace(String namespace) {
         LOG.infof("Getting all CiliumNetworkPolicies in namespace: %s", namespace);
 
         try {
             // Check if namespace exists
-            Namespace namespaceObj = kubernetesClient.namespaces()
-                    .withName(namespace)
-                    .get();
-
-            if (namespaceObj == null) {
-                throw new RuntimeException("Namespace '" + namespace + "' does not exist");
-            }
+            validateNamespaceExists(namespace);
 
             // Get all policies in the namespace
-            List<GenericKubernetesResource> policies = kubernetesClient
-                    .genericKubernetesResources(ciliumNetworkPolicyContext)
+            List<CiliumNetworkPolicy> policies = kubernetesClient
+                    .resources(CiliumNetworkPolicy.class, CiliumNetworkPolicyList.class)
                     .inNamespace(namespace)
                     .list()
                     .getItems();
 
             return policies.stream()
-                    .map(this::convertKubernetesCNPToRequest)
+                    .map(CiliumNetworkPolicyMapper::toRequest)
                     .collect(Collectors.toList());
 
         } catch (KubernetesClientException e) {
@@ -678,32 +755,27 @@ public class KubernetesService {
      * @return list of policies converted to request format
      * @throws RuntimeException if retrieval fails
      */
+    @ApiServerCall
     public List<CiliumNetworkPolicyRequest> getCiliumNetworkPoliciesByEndpointSelector(String namespace, Map<String, String> endpointLabels) {
         LOG.infof("Getting CiliumNetworkPolicies by endpoint selector labels: %s in namespace: %s", endpointLabels, namespace);
 
         try {
-            List<GenericKubernetesResource> allPolicies;
+            List<CiliumNetworkPolicy> allPolicies;
             
             if (namespace != null && !namespace.trim().isEmpty()) {
                 // Check if namespace exists
-                Namespace namespaceObj = kubernetesClient.namespaces()
-                        .withName(namespace)
-                        .get();
-
-                if (namespaceObj == null) {
-                    throw new RuntimeException("Namespace '" + namespace + "' does not exist");
-                }
+                validateNamespaceExists(namespace);
 
                 // Get policies from specific namespace
                 allPolicies = kubernetesClient
-                        .genericKubernetesResources(ciliumNetworkPolicyContext)
+                        .resources(CiliumNetworkPolicy.class, CiliumNetworkPolicyList.class)
                         .inNamespace(namespace)
                         .list()
                         .getItems();
             } else {
                 // Get policies from all namespaces
                 allPolicies = kubernetesClient
-                        .genericKubernetesResources(ciliumNetworkPolicyContext)
+                        .resources(CiliumNetworkPolicy.class, CiliumNetworkPolicyList.class)
                         .inAnyNamespace()
                         .list()
                         .getItems();
@@ -711,8 +783,8 @@ public class KubernetesService {
 
             // Filter policies by endpoint selector labels
             return allPolicies.stream()
-                    .filter(policy -> matchesEndpointSelector(policy, endpointLabels))
-                    .map(this::convertKubernetesCNPToRequest)
+                    .filter(policy -> CiliumNetworkPolicyMapper.matchesEndpointSelector(policy, endpointLabels))
+                    .map(CiliumNetworkPolicyMapper::toRequest)
                     .collect(Collectors.toList());
 
         } catch (KubernetesClientException e) {
@@ -722,234 +794,28 @@ public class KubernetesService {
     }
 
     /**
-     * Checks if a policy matches the given endpoint selector labels.
-     *
-     * @param policy the Kubernetes CNP resource
-     * @param targetLabels the labels to match against
-     * @return true if the policy's endpoint selector matches the target labels
-     */
-    @SuppressWarnings("unchecked")
-    private boolean matchesEndpointSelector(GenericKubernetesResource policy, Map<String, String> targetLabels) {
-        try {
-            Map<String, Object> spec = (Map<String, Object>) policy.getAdditionalProperties().get("spec");
-            if (spec == null) {
-                return false;
-            }
-
-            Map<String, Object> endpointSelector = (Map<String, Object>) spec.get("endpointSelector");
-            if (endpointSelector == null) {
-                return false;
-            }
-
-            Map<String, Object> matchLabels = (Map<String, Object>) endpointSelector.get("matchLabels");
-            if (matchLabels == null || matchLabels.isEmpty()) {
-                return targetLabels == null || targetLabels.isEmpty();
-            }
-
-            // Check if all target labels match the policy's endpoint selector
-            for (Map.Entry<String, String> targetEntry : targetLabels.entrySet()) {
-                Object policyValue = matchLabels.get(targetEntry.getKey());
-                if (policyValue == null || !policyValue.toString().equals(targetEntry.getValue())) {
-                    return false;
-                }
-            }
-
-            return true;
-        } catch (Exception e) {
-            LOG.warnf("Error checking endpoint selector match for policy %s: %s",
-                     policy.getMetadata().getName(), e.getMessage());
-            return false;
-        }
-    }
-
-    /**
-     * Converts a Kubernetes CiliumNetworkPolicy resource back to our API request format.
+     * Validates that a namespace exists in the cluster.
+     * Answered from the namespace cache when possible; a miss falls back to the API server
+     * so that a namespace created moments ago is never rejected. Only that fall-back takes
+     * an {@link ApiServerLimiter} permit.
      *
-     * @param policy the Kubernetes CNP resource
-     * @return the converted request object
+     * @param namespace the namespace to validate
+     * @throws RuntimeException if namespace doesn't exist
      */
-    @SuppressWarnings("unchecked")
-    private CiliumNetworkPolicyRequest convertKubernetesCNPToRequest(GenericKubernetesResource policy) {
-        CiliumNetworkPolicyRequest request = new CiliumNetworkPolicyRequest();
-        
-        // Set name and namespace
-        request.setName(policy.getMetadata().getName());
-        request.setNamespace(policy.getMetadata().getNamespace());
-        
-        // Extract spec
-        Map<String, Object> spec = (Map<String, Object>) policy.getAdditionalProperties().get("spec");
-        if (spec == null) {
-            LOG.warnf("Policy %s has no spec", policy.getMetadata().getName());
-            return request;
-        }
-        
-        // Extract endpoint selector labels
-        Map<String, Object> endpointSelector = (Map<String, Object>) spec.get("endpointSelector");
-        if (endpointSelector != null) {
-            Map<String, Object> matchLabels = (Map<String, Object>) endpointSelector.get("matchLabels");
-            if (matchLabels != null) {
-                Map<String, String> labels = new HashMap<>();
-                matchLabels.forEach((key, value) -> labels.put(key, value.toString()));
-                request.setLabels(labels);
-            }
-        }
-        
-        // Convert ingress rules
-        List<Map<String, Object>> ingressRules = (List<Map<String, Object>>) spec.get("ingress");
-        if (ingressRules != null) {
-            request.setIngressRules(convertKubernetesRulesToNetworkRules(ingressRules, CiliumNetworkPolicyRequest.RuleType.INGRESS_ALLOW));
-        }
-        
-        // Convert ingress deny rules
-        List<Map<String, Object>> ingressDenyRules = (List<Map<String, Object>>) spec.get("ingressDeny");
-        if (ingressDenyRules != null) {
-            request.setIngressDenyRules(convertKubernetesRulesToNetworkRules(ingressDenyRules, CiliumNetworkPolicyRequest.RuleType.INGRESS_DENY));
-        }
-        
-        // Convert egress rules
-        List<Map<String, Object>> egressRules = (List<Map<String, Object>>) spec.get("egress");
-        if (egressRules != null) {
-            request.setEgressRules(convertKubernetesRulesToNetworkRules(egressRules, CiliumNetworkPolicyRequest.RuleType.EGRESS_ALLOW));
-        }
-        
-        // Convert egress deny rules
-        List<Map<String, Object>> egressDenyRules = (List<Map<String, Object>>) spec.get("egressDeny");
-        if (egressDenyRules != null) {
-            request.setEgressDenyRules(convertKubernetesRulesToNetworkRules(egressDenyRules, CiliumNetworkPolicyRequest.RuleType.EGRESS_DENY));
+    void validateNamespaceExists(String namespace) {
+        if (!namespaceCache.contains(namespace) && getNamespace(namespace) == null) {
+            throw new RuntimeException("Namespace '" + namespace + "' does not exist");
         }
-        
-        return request;
     }
 
     /**
-     * Converts Kubernetes CNP rules back to our NetworkRule format.
+     * Reads a namespace from the API server.
      *
-     * @param kubernetesRules the Kubernetes rules
-     * @param ruleType the rule type
-     * @return list of converted network rules
+     * @param namespace the namespace name
+     * @return the namespace, or null if it does not exist
      */
-    @SuppressWarnings("unchecked")
-    private List<CiliumNetworkPolicyRequest.NetworkRule> convertKubernetesRulesToNetworkRules(
-            List<Map<String, Object>> kubernetesRules, CiliumNetworkPolicyRequest.RuleType ruleType) {
-        
-        List<CiliumNetworkPolicyRequest.NetworkRule> networkRules = new ArrayList<>();
-        
-        for (Map<String, Object> kubernetesRule : kubernetesRules) {
-            CiliumNetworkPolicyRequest.NetworkRule networkRule = new CiliumNetworkPolicyRequest.NetworkRule();
-            networkRule.setRuleType(ruleType);
-            
-            // Handle IP-based rules (fromCIDR/toCIDR)
-            List<String> cidrs = null;
-            if (ruleType == CiliumNetworkPolicyRequest.RuleType.INGRESS_ALLOW || ruleType == CiliumNetworkPolicyRequest.RuleType.INGRESS_DENY) {
-                cidrs = (List<String>) kubernetesRule.get("fromCIDR");
-            } else {
-                cidrs = (List<String>) kubernetesRule.get("toCIDR");
-            }
-            
-            if (cidrs != null && !cidrs.isEmpty()) {
-                networkRule.setIpAddresses(cidrs);
-            }
-            
-            // Handle label-based rules (fromEndpoints/toEndpoints)
-            List<Map<String, Object>> endpoints = null;
-            if (ruleType == CiliumNetworkPolicyRequest.RuleType.INGRESS_ALLOW || ruleType == CiliumNetworkPolicyRequest.RuleType.INGRESS_DENY) {
-                endpoints = (List<Map<String, Object>>) kubernetesRule.get("fromEndpoints");
-            } else {
-                endpoints = (List<Map<String, Object>>) kubernetesRule.get("toEndpoints");
-            }
-            
-            if (endpoints != null && !endpoints.isEmpty()) {
-                // Take the first endpoint selector (our API supports one set of labels per rule)
-                Map<String, Object> firstEndpoint = endpoints.get(0);
-                Map<String, Object> matchLabels = (Map<String, Object>) firstEndpoint.get("matchLabels");
-                
-                if (matchLabels != null) {
-                    Map<String, String> labels = new HashMap<>();
-                    matchLabels.forEach((key, value) -> {
-                        // Skip the automatic namespace constraint we added
-                        if (!NAMESPACE_LABEL_KEY.equals(key)) {
-                            labels.put(key, value.toString());
-                        }
-                    });
-                    
-                    if (!labels.isEmpty()) {
-                        if (ruleType == CiliumNetworkPolicyRequest.RuleType.INGRESS_ALLOW || ruleType == CiliumNetworkPolicyRequest.RuleType.INGRESS_DENY) {
-                            networkRule.setFromLabels(labels);
-                        } else {
-                            networkRule.setToLabels(labels);
-                        }
-                    }
-                }
-            }
-            
-            // Handle port rules
-            List<Map<String, Object>> toPorts = (List<Map<String, Object>>) kubernetesRule.get("toPorts");
-            if (toPorts != null && !toPorts.isEmpty()) {
-                Map<String, Object> toPortsEntry = toPorts.get(0);
-                List<Map<String, Object>> ports = (List<Map<String, Object>>) toPortsEntry.get("ports");
-                
-                if (ports != null && !ports.isEmpty()) {
-                    List<CiliumNetworkPolicyRequest.PortRule> portRules = new ArrayList<>();
-                    
-                    for (Map<String, Object> port : ports) {
-                        CiliumNetworkPolicyRequest.PortRule portRule = new CiliumNetworkPolicyRequest.PortRule();
-                        
-                        // Set protocol
-                        String protocol = (String) port.get("protocol");
-                        if (protocol != null) {
-                            portRule.setProtocol(CiliumNetworkPolicyRequest.Protocol.valueOf(protocol));
-                        }
-                        
-                        // Set port
-                        Object portObj = port.get("port");
-                        if (portObj != null) {
-                            portRule.setPort(Integer.valueOf(portObj.toString()));
-                        }
-                        
-                        // Set end port if present
-                        Object endPortObj = port.get("endPort");
-                        if (endPortObj != null) {
-                            portRule.setEndPort(Integer.valueOf(endPortObj.toString()));
-                        }
-                        
-                        portRules.add(portRule);
-                    }
-                    
-                    // Handle HTTP header matches
-                    Map<String, Object> rules = (Map<String, Object>) toPortsEntry.get("rules");
-                    if (rules != null) {
-                        List<Map<String, Object>> httpRules = (List<Map<String, Object>>) rules.get("http");
-                        if (httpRules != null && !httpRules.isEmpty() && !portRules.isEmpty()) {
-                            // Add header matches to the first port rule (our API structure)
-                            CiliumNetworkPolicyRequest.PortRule firstPortRule = portRules.get(0);
-                            List<CiliumNetworkPolicyRequest.HeaderMatch> headerMatches = new ArrayList<>();
-                            
-                            for (Map<String, Object> httpRule : httpRules) {
-                                List<Map<String, Object>> headerMatchesList = (List<Map<String, Object>>) httpRule.get("headerMatches");
-                                if (headerMatchesList != null) {
-                                    for (Map<String, Object> headerMatch : headerMatchesList) {
-                                        String name = (String) headerMatch.get("name");
-                                        String value = (String) headerMatch.get("value");
-                                        if (name != null && value != null) {
-                                            headerMatches.add(new CiliumNetworkPolicyRequest.HeaderMatch(name, value));
-                                        }
-                                    }
-                                }
-                            }
-                            
-                            if (!headerMatches.isEmpty()) {
-                                firstPortRule.setHeaderMatches(headerMatches);
-                            }
-                        }
-                    }
-                    
-                    networkRule.setPorts(portRules);
-                }
-            }
-            
-            networkRules.add(networkRule);
-        }
-        
-        return networkRules;
+    @ApiServerCall
+    Namespace getNamespace(String namespace) {
+        return kubernetesClient.namespaces().withName(namespace).get();
     }
-}
\ No newline at end of file
+}
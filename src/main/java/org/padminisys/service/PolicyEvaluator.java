@@ -0,0 +1,408 @@
+package org.padminisys.service;
+
+import io.fabric8.kubernetes.client.informers.cache.Cache;
+import org.padminisys.dto.PolicySimulationResponse.Decision;
+import org.padminisys.dto.PolicySimulationResponse.Verdict;
+import org.padminisys.model.CiliumNetworkPolicy;
+import org.padminisys.model.CiliumNetworkPolicySpec;
+import org.padminisys.model.Ipv4Cidr;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Decides whether CiliumNetworkPolicies allow a connection, following Cilium's semantics:
+ * <ul>
+ *   <li>an endpoint selected by a policy with rules for a direction denies everything in that
+ *       direction that no allow rule matches;</li>
+ *   <li>a matching deny rule overrides any matching allow rule;</li>
+ *   <li>CIDR rules match addresses outside the cluster, endpoint rules match pods, and a rule
+ *       with ports but no peers matches every peer.</li>
+ * </ul>
+ * Policies are not limited to what this service writes, so a selector, rule or port the model
+ * cannot evaluate, such as matchExpressions, entities, FQDNs or named ports, is never guessed at:
+ * when it could change the decision, the verdict is UNEVALUABLE and names the policies involved.
+ * Policies are compiled once per namespace into {@link NamespaceRules}, with selector label keys
+ * normalised and port ranges parsed, so an evaluation only compares maps and integers.
+ */
+final class PolicyEvaluator {
+
+    static final String NAMESPACE_LABEL = "io.kubernetes.pod.namespace";
+    private static final String[] LABEL_SOURCES = {"k8s:", "any:"};
+    // Spec fields that do not take part in enforcement
+    private static final Set<String> DESCRIPTIVE_SPEC_FIELDS = Set.of("description", "labels");
+
+    private PolicyEvaluator() {
+    }
+
+    enum Direction {
+        INGRESS,
+        EGRESS
+    }
+
+    /**
+     * The other side of a connection: a pod's labels, including its namespace label, or an
+     * address outside the cluster.
+     */
+    record Peer(Map<String, String> labels, Ipv4Cidr address) {
+
+        static Peer pod(String namespace, Map<String, String> labels) {
+            return new Peer(endpointLabels(namespace, labels), null);
+        }
+
+        static Peer external(Ipv4Cidr address) {
+            return new Peer(null, address);
+        }
+    }
+
+    /**
+     * The compiled policies of one namespace, ordered by policy key.
+     */
+    static final class NamespaceRules {
+
+        private final List<CompiledPolicy> policies;
+        private final List<Map<String, String>> endpointGroups;
+
+        private NamespaceRules(List<CompiledPolicy> policies, List<Map<String, String>> endpointGroups) {
+            this.policies = policies;
+            this.endpointGroups = endpointGroups;
+        }
+
+        /**
+         * @return the distinct endpoint selector label sets of the policies, without source prefixes
+         *         or namespace label, ordered by their sorted labels as text
+         */
+        List<Map<String, String>> endpointGroups() {
+            return endpointGroups;
+        }
+    }
+
+    /**
+     * A policy's endpoint selector and its rules per direction; a direction the policy has no
+     * rule lists for is null, so the policy does not enforce it. The selector is null when it
+     * cannot be evaluated, and an opaque policy has fields outside its rules that may change what
+     * it enforces, so it can be evaluated for no endpoint.
+     */
+    private record CompiledPolicy(String key, Map<String, String> endpointSelector, boolean opaque, Section ingress, Section egress) {
+    }
+
+    private record Section(List<CompiledRule> allow, List<CompiledRule> deny) {
+    }
+
+    /**
+     * A rule's peers and ports. Ports are null when the rule applies to every port. A rule that is
+     * not modelled has peers or conditions the evaluator does not know, so it may match anything.
+     */
+    private record CompiledRule(boolean modelled, List<Map<String, String>> selectors, List<Ipv4Cidr> cidrs, boolean anyPeer,
+                                List<PortRange> ports) {
+    }
+
+    /**
+     * An inclusive port range; a null protocol matches every protocol. A named port is resolved by
+     * Cilium per pod, so it may match any port of its protocol.
+     */
+    private record PortRange(String protocol, int from, int to, boolean named) {
+    }
+
+    private enum Match {
+        YES,
+        NO,
+        MAYBE
+    }
+
+    /**
+     * Compiles the policies of a namespace.
+     *
+     * @param policies the policies, all in the same namespace
+     * @return the compiled rule table
+     */
+    static NamespaceRules compile(Collection<CiliumNetworkPolicy> policies) {
+        List<CompiledPolicy> compiled = new ArrayList<>(policies.size());
+        for (CiliumNetworkPolicy policy : policies) {
+            String key = Cache.metaNamespaceKeyFunc(policy);
+            CiliumNetworkPolicySpec spec = policy.getSpec();
+            // The plural specs and other top-level fields hold rules the model does not see
+            if (!policy.getAdditionalProperties().isEmpty()
+                    || (spec != null && !DESCRIPTIVE_SPEC_FIELDS.containsAll(spec.getAdditionalProperties().keySet()))) {
+                compiled.add(new CompiledPolicy(key, null, true, null, null));
+                continue;
+            }
+            if (spec == null) {
+                continue;
+            }
+            String namespace = policy.getMetadata().getNamespace();
+            CiliumNetworkPolicySpec.EndpointSelector selector = spec.getEndpointSelector();
+            Map<String, String> endpointSelector = selector != null && selector.hasUnmodelledFields()
+                    ? null : normalizeLabels(selector != null ? selector.getMatchLabels() : null);
+
+            Section ingress = spec.getIngress() == null && spec.getIngressDeny() == null ? null : new Section(
+                    compileIngress(spec.getIngress(), namespace), compileIngress(spec.getIngressDeny(), namespace));
+            Section egress = spec.getEgress() == null && spec.getEgressDeny() == null ? null : new Section(
+                    compileEgress(spec.getEgress(), namespace), compileEgress(spec.getEgressDeny(), namespace));
+            compiled.add(new CompiledPolicy(key, endpointSelector, false, ingress, egress));
+        }
+        compiled.sort(Comparator.comparing(CompiledPolicy::key));
+
+        Map<String, Map<String, String>> endpointGroups = new TreeMap<>();
+        for (CompiledPolicy policy : compiled) {
+            if (policy.endpointSelector() == null) {
+                continue;
+            }
+            Map<String, String> labels = new TreeMap<>(policy.endpointSelector());
+            labels.remove(NAMESPACE_LABEL);
+            endpointGroups.putIfAbsent(labels.toString(), Collections.unmodifiableMap(labels));
+        }
+        return new NamespaceRules(List.copyOf(compiled), List.copyOf(endpointGroups.values()));
+    }
+
+    /**
+     * Evaluates one direction of a connection at one of its endpoints.
+     *
+     * @param rules the compiled policies of the endpoint's namespace
+     * @param direction INGRESS at the destination, EGRESS at the source
+     * @param endpoint the endpoint whose policies decide
+     * @param peer the other side of the connection
+     * @param protocol the protocol, TCP or UDP
+     * @param port the destination port
+     * @return the decision and the policies that made it, or UNEVALUABLE with the policies whose
+     *         unmodelled selectors or rules could change the decision
+     */
+    static Verdict evaluate(NamespaceRules rules, Direction direction, Peer endpoint, Peer peer, String protocol, int port) {
+        List<String> selecting = new ArrayList<>();
+        List<String> denying = new ArrayList<>();
+        List<String> allowing = new ArrayList<>();
+        // Policies that may select the endpoint, or whose rules may deny or allow the connection
+        List<String> mayDeny = new ArrayList<>();
+        List<String> mayAllow = new ArrayList<>();
+
+        for (CompiledPolicy policy : rules.policies) {
+            if (policy.opaque()) {
+                mayDeny.add(policy.key());
+                continue;
+            }
+            Section section = direction == Direction.INGRESS ? policy.ingress() : policy.egress();
+            if (section == null) {
+                continue;
+            }
+            if (policy.endpointSelector() == null) {
+                mayDeny.add(policy.key());
+                continue;
+            }
+            if (!selects(policy.endpointSelector(), endpoint.labels())) {
+                continue;
+            }
+            selecting.add(policy.key());
+            Match deny = anyMatches(section.deny(), peer, protocol, port);
+            if (deny == Match.YES) {
+                denying.add(policy.key());
+            } else if (deny == Match.MAYBE) {
+                mayDeny.add(policy.key());
+            }
+            Match allow = anyMatches(section.allow(), peer, protocol, port);
+            if (allow == Match.YES) {
+                allowing.add(policy.key());
+            } else if (allow == Match.MAYBE) {
+                mayAllow.add(policy.key());
+            }
+        }
+
+        // A matching deny rule decides whatever the unknown rules would do
+        if (!denying.isEmpty()) {
+            return new Verdict(Decision.DENIED, denying);
+        }
+        if (!mayDeny.isEmpty()) {
+            return new Verdict(Decision.UNEVALUABLE, mayDeny);
+        }
+        if (!allowing.isEmpty()) {
+            return new Verdict(Decision.ALLOWED, allowing);
+        }
+        if (selecting.isEmpty()) {
+            return new Verdict(Decision.ALLOWED_BY_DEFAULT, List.of());
+        }
+        if (!mayAllow.isEmpty()) {
+            return new Verdict(Decision.UNEVALUABLE, mayAllow);
+        }
+        return new Verdict(Decision.DENIED_BY_DEFAULT, selecting);
+    }
+
+    /**
+     * @return the labels of a pod as selectors see them, including its namespace label
+     */
+    static Map<String, String> endpointLabels(String namespace, Map<String, String> labels) {
+        Map<String, String> endpointLabels = normalizeLabels(labels);
+        endpointLabels.put(NAMESPACE_LABEL, namespace);
+        return endpointLabels;
+    }
+
+    private static List<CompiledRule> compileIngress(List<CiliumNetworkPolicySpec.IngressRule> rules, String namespace) {
+        List<CompiledRule> compiled = new ArrayList<>();
+        if (rules != null) {
+            for (CiliumNetworkPolicySpec.IngressRule rule : rules) {
+                compiled.add(compileRule(!rule.hasUnmodelledFields(), rule.getFromEndpoints(), rule.getFromCIDR(),
+                        rule.getToPorts(), namespace));
+            }
+        }
+        return compiled;
+    }
+
+    private static List<CompiledRule> compileEgress(List<CiliumNetworkPolicySpec.EgressRule> rules, String namespace) {
+        List<CompiledRule> compiled = new ArrayList<>();
+        if (rules != null) {
+            for (CiliumNetworkPolicySpec.EgressRule rule : rules) {
+                compiled.add(compileRule(!rule.hasUnmodelledFields(), rule.getToEndpoints(), rule.getToCIDR(),
+                        rule.getToPorts(), namespace));
+            }
+        }
+        return compiled;
+    }
+
+    private static CompiledRule compileRule(boolean modelled, List<CiliumNetworkPolicySpec.EndpointSelector> endpoints,
+                                            List<String> cidrs, List<CiliumNetworkPolicySpec.PortRule> toPorts, String namespace) {
+        if (!modelled) {
+            return new CompiledRule(false, List.of(), List.of(), false, null);
+        }
+        List<Map<String, String>> selectors = new ArrayList<>();
+        if (endpoints != null) {
+            for (CiliumNetworkPolicySpec.EndpointSelector endpoint : endpoints) {
+                // Peers of a namespaced policy are in its own namespace unless the selector names one
+                Map<String, String> selector = normalizeLabels(endpoint.getMatchLabels());
+                selector.putIfAbsent(NAMESPACE_LABEL, namespace);
+                selectors.add(selector);
+            }
+        }
+        List<Ipv4Cidr> prefixes = new ArrayList<>();
+        if (cidrs != null) {
+            for (String cidr : cidrs) {
+                try {
+                    prefixes.add(Ipv4Cidr.parse(cidr));
+                } catch (IllegalArgumentException e) {
+                    // IPv6 prefixes cannot match the IPv4 addresses simulated
+                }
+            }
+        }
+        List<PortRange> ports = compilePorts(toPorts);
+        boolean hasPeers = (endpoints != null && !endpoints.isEmpty()) || (cidrs != null && !cidrs.isEmpty());
+        return new CompiledRule(true, selectors, prefixes, !hasPeers && ports != null, ports);
+    }
+
+    private static List<PortRange> compilePorts(List<CiliumNetworkPolicySpec.PortRule> toPorts) {
+        if (toPorts == null || toPorts.isEmpty()) {
+            return null;
+        }
+        List<PortRange> ranges = new ArrayList<>();
+        for (CiliumNetworkPolicySpec.PortRule portRule : toPorts) {
+            if (portRule.getPorts() == null || portRule.getPorts().isEmpty()) {
+                ranges.add(new PortRange(null, 0, 65535, false));
+                continue;
+            }
+            for (CiliumNetworkPolicySpec.PortProtocol portProtocol : portRule.getPorts()) {
+                String protocol = portProtocol.getProtocol() == null || "ANY".equalsIgnoreCase(portProtocol.getProtocol())
+                        ? null : portProtocol.getProtocol().toUpperCase();
+                String port = portProtocol.getPort();
+                if (port == null || port.isEmpty() || "0".equals(port)) {
+                    ranges.add(new PortRange(protocol, 0, 65535, false));
+                } else if (port.length() <= 5 && port.chars().allMatch(c -> c >= '0' && c <= '9')) {
+                    int from = Integer.parseInt(port);
+                    int to = portProtocol.getEndPort() != null ? Math.max(from, portProtocol.getEndPort()) : from;
+                    ranges.add(new PortRange(protocol, from, to, false));
+                } else {
+                    ranges.add(new PortRange(protocol, 0, 65535, true));
+                }
+            }
+        }
+        return ranges;
+    }
+
+    private static Match anyMatches(List<CompiledRule> rules, Peer peer, String protocol, int port) {
+        Match result = Match.NO;
+        for (CompiledRule rule : rules) {
+            if (!rule.modelled()) {
+                result = Match.MAYBE;
+                continue;
+            }
+            if (!matchesPeer(rule, peer)) {
+                continue;
+            }
+            Match portMatch = matchesPort(rule.ports(), protocol, port);
+            if (portMatch == Match.YES) {
+                return Match.YES;
+            }
+            if (portMatch == Match.MAYBE) {
+                result = Match.MAYBE;
+            }
+        }
+        return result;
+    }
+
+    private static boolean matchesPeer(CompiledRule rule, Peer peer) {
+        if (rule.anyPeer()) {
+            return true;
+        }
+        if (peer.labels() != null) {
+            for (Map<String, String> selector : rule.selectors()) {
+                if (selects(selector, peer.labels())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        for (Ipv4Cidr cidr : rule.cidrs()) {
+            if (cidr.contains(peer.address())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Match matchesPort(List<PortRange> ports, String protocol, int port) {
+        if (ports == null) {
+            return Match.YES;
+        }
+        Match result = Match.NO;
+        for (PortRange range : ports) {
+            if ((range.protocol() == null || range.protocol().equals(protocol)) && port >= range.from() && port <= range.to()) {
+                if (!range.named()) {
+                    return Match.YES;
+                }
+                result = Match.MAYBE;
+            }
+        }
+        return result;
+    }
+
+    private static boolean selects(Map<String, String> selector, Map<String, String> labels) {
+        for (Map.Entry<String, String> label : selector.entrySet()) {
+            if (!label.getValue().equals(labels.get(label.getKey()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Drops the "k8s:" or "any:" source prefix of label keys, which Cilium matches against pod labels alike.
+     */
+    private static Map<String, String> normalizeLabels(Map<String, String> labels) {
+        Map<String, String> normalized = new HashMap<>();
+        if (labels != null) {
+            labels.forEach((key, value) -> normalized.put(withoutSource(key), value));
+        }
+        return normalized;
+    }
+
+    private static String withoutSource(String key) {
+        for (String source : LABEL_SOURCES) {
+            if (key.startsWith(source)) {
+                return key.substring(source.length());
+            }
+        }
+        return key;
+    }
+}
@@ -0,0 +1,313 @@
+package org.padminisys.service;
+
+import io.fabric8.kubernetes.api.model.Namespace;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.informers.ResourceEventHandler;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Priority;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.interceptor.Interceptor;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import org.padminisys.cache.CiliumNetworkPolicyCache;
+import org.padminisys.cache.NamespaceCache;
+import org.padminisys.dto.CiliumNetworkPolicyRequest;
+import org.padminisys.dto.ConnectivityMatrixRow;
+import org.padminisys.dto.PolicySimulationRequest;
+import org.padminisys.dto.PolicySimulationResponse;
+import org.padminisys.model.CiliumNetworkPolicy;
+import org.padminisys.model.CiliumNetworkPolicyList;
+import org.padminisys.model.Ipv4Cidr;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.stream.Stream;
+
+/**
+ * Simulates connections against the CiliumNetworkPolicies in the cluster without sending traffic.
+ * With the policy cache enabled, each namespace's policies are compiled once into a rule table,
+ * which policy watch events for that namespace discard so the next simulation recompiles it.
+ * Connectivity matrices are computed one row per task on a ForkJoinPool bounded by
+ * ppcs.simulation.matrix-parallelism and cached alongside the rule tables.
+ */
+@ApplicationScoped
+public class PolicySimulationService {
+
+    private static final Logger LOG = Logger.getLogger(PolicySimulationService.class);
+
+    // Matrices kept per namespace, one per protocol and port, before the namespace's matrices are dropped
+    private static final int MAX_MATRICES_PER_NAMESPACE = 32;
+    // Namespaces with a cached rule table or matrices before all of them are dropped
+    private static final int MAX_CACHED_NAMESPACES = 1024;
+
+    @Inject
+    KubernetesClient kubernetesClient;
+
+    @Inject
+    CiliumNetworkPolicyCache policyCache;
+
+    @Inject
+    NamespaceCache namespaceCache;
+
+    @ConfigProperty(name = "ppcs.simulation.matrix-parallelism", defaultValue = "4")
+    int matrixParallelism;
+
+    private final Map<String, PolicyEvaluator.NamespaceRules> ruleTables = new ConcurrentHashMap<>();
+    private final Map<String, Map<MatrixKey, List<ForkJoinTask<ConnectivityMatrixRow>>>> matrices = new ConcurrentHashMap<>();
+
+    ForkJoinPool matrixPool;
+
+    private record MatrixKey(CiliumNetworkPolicyRequest.Protocol protocol, int port) {
+    }
+
+    final ResourceEventHandler<CiliumNetworkPolicy> eventHandler = new ResourceEventHandler<>() {
+        @Override
+        public void onAdd(CiliumNetworkPolicy policy) {
+            invalidate(policy);
+        }
+
+        @Override
+        public void onUpdate(CiliumNetworkPolicy oldPolicy, CiliumNetworkPolicy newPolicy) {
+            invalidate(newPolicy);
+        }
+
+        @Override
+        public void onDelete(CiliumNetworkPolicy policy, boolean deletedFinalStateUnknown) {
+            invalidate(policy);
+        }
+    };
+
+    @PostConstruct
+    void init() {
+        matrixPool = new ForkJoinPool(Math.max(1, matrixParallelism), pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("ppcs-matrix-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (matrixPool != null) {
+            matrixPool.shutdownNow();
+        }
+    }
+
+    /**
+     * Registers with the policy cache ahead of the informer start, so no event is missed.
+     */
+    void onStart(@Observes @Priority(Interceptor.Priority.PLATFORM_BEFORE) StartupEvent event) {
+        policyCache.addEventHandler(eventHandler);
+    }
+
+    /**
+     * Decides whether the policies allow a connection: the source's egress policies and the
+     * destination's ingress policies must both allow it.
+     *
+     * @param request the connection to simulate
+     * @return the overall result and the decision of each side
+     * @throws IllegalArgumentException if an endpoint is neither a pod nor an address, or both sides are addresses
+     * @throws RuntimeException if the policies cannot be read
+     */
+    public PolicySimulationResponse simulate(PolicySimulationRequest request) {
+        PolicySimulationRequest.Endpoint source = request.getSource();
+        PolicySimulationRequest.Endpoint destination = request.getDestination();
+        boolean sourceIsPod = isPod(source, "source");
+        boolean destinationIsPod = isPod(destination, "destination");
+        if (!sourceIsPod && !destinationIsPod) {
+            throw new IllegalArgumentException("At least one side of the connection must be a pod");
+        }
+
+        String protocol = request.getProtocol().name();
+        int port = request.getPort();
+        PolicyEvaluator.Peer sourcePeer = peer(source, sourceIsPod);
+        PolicyEvaluator.Peer destinationPeer = peer(destination, destinationIsPod);
+
+        PolicySimulationResponse.Verdict egress = sourceIsPod
+                ? PolicyEvaluator.evaluate(ruleTable(source.getNamespace()), PolicyEvaluator.Direction.EGRESS,
+                        sourcePeer, destinationPeer, protocol, port)
+                : new PolicySimulationResponse.Verdict(PolicySimulationResponse.Decision.NOT_APPLICABLE, List.of());
+        PolicySimulationResponse.Verdict ingress = destinationIsPod
+                ? PolicyEvaluator.evaluate(ruleTable(destination.getNamespace()), PolicyEvaluator.Direction.INGRESS,
+                        destinationPeer, sourcePeer, protocol, port)
+                : new PolicySimulationResponse.Verdict(PolicySimulationResponse.Decision.NOT_APPLICABLE, List.of());
+
+        PolicySimulationResponse response = new PolicySimulationResponse(egress, ingress);
+        LOG.debugf("Simulated %s: %s", request, response);
+        return response;
+    }
+
+    /**
+     * Computes whether each endpoint group of a namespace can reach each other, where the groups
+     * are the distinct endpoint selector label sets of the namespace's policies. Rows are computed
+     * in parallel and returned in group order, each available as soon as it and the rows before it
+     * are done. With the policy cache enabled the matrix is kept until a policy of the namespace
+     * changes, and a matrix whose computation failed is dropped so the next request recomputes it.
+     *
+     * @param namespace the namespace
+     * @param protocol the protocol of the connections
+     * @param port the destination port of the connections
+     * @return one row per source group
+     * @throws RuntimeException if the namespace does not exist or the policies cannot be read
+     */
+    public Stream<ConnectivityMatrixRow> computeConnectivityMatrix(String namespace, CiliumNetworkPolicyRequest.Protocol protocol, int port) {
+        LOG.infof("Computing connectivity matrix of namespace %s for %s/%d", namespace, protocol, port);
+
+        if (!policyCache.isEnabled()) {
+            return submitRows(namespace, protocol, port).stream().map(ForkJoinTask::join);
+        }
+
+        // Checks the namespace exists, so only existing namespaces get matrices
+        ruleTable(namespace);
+        if (!matrices.containsKey(namespace) && matrices.size() >= MAX_CACHED_NAMESPACES) {
+            matrices.clear();
+        }
+        Map<MatrixKey, List<ForkJoinTask<ConnectivityMatrixRow>>> namespaceMatrices =
+                matrices.computeIfAbsent(namespace, ignored -> new ConcurrentHashMap<>());
+        MatrixKey key = new MatrixKey(protocol, port);
+        List<ForkJoinTask<ConnectivityMatrixRow>> rows = namespaceMatrices.get(key);
+        if (rows == null) {
+            if (namespaceMatrices.size() >= MAX_MATRICES_PER_NAMESPACE) {
+                namespaceMatrices.clear();
+            }
+            // Concurrent requests for the same matrix share one computation. The rule table is read
+            // again here, so a policy event since the map was taken drops the matrix after it.
+            rows = namespaceMatrices.computeIfAbsent(key, ignored -> submitRows(namespace, protocol, port));
+        }
+
+        List<ForkJoinTask<ConnectivityMatrixRow>> computed = rows;
+        return rows.stream().map(row -> {
+            try {
+                return row.join();
+            } catch (RuntimeException e) {
+                namespaceMatrices.remove(key, computed);
+                throw e;
+            }
+        });
+    }
+
+    /**
+     * Gets the compiled policies of a namespace, from the rule table cache when the policy
+     * cache is enabled, otherwise compiled from an API server listing. The namespace must exist,
+     * which is checked whenever the policies are compiled. Only the listing and the existence
+     * check on a namespace cache miss go through the {@link ApiServerLimiter}, so simulations
+     * served from memory take no token.
+     *
+     * @throws RuntimeException if the namespace does not exist or the policies cannot be read
+     */
+    PolicyEvaluator.NamespaceRules ruleTable(String namespace) {
+        try {
+            if (policyCache.isEnabled()) {
+                PolicyEvaluator.NamespaceRules rules = ruleTables.get(namespace);
+                if (rules != null) {
+                    return rules;
+                }
+                validateNamespaceExists(namespace);
+                if (ruleTables.size() >= MAX_CACHED_NAMESPACES) {
+                    ruleTables.clear();
+                }
+                return ruleTables.computeIfAbsent(namespace,
+                        ignored -> PolicyEvaluator.compile(policyCache.listByNamespace(namespace)));
+            }
+            validateNamespaceExists(namespace);
+            return PolicyEvaluator.compile(listPolicies(namespace));
+        } catch (KubernetesClientException e) {
+            LOG.errorf(e, "Failed to get CiliumNetworkPolicies in namespace: %s", namespace);
+            throw new RuntimeException("Failed to get CiliumNetworkPolicies: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Lists the policies of a namespace from the API server.
+     */
+    @ApiServerCall
+    List<CiliumNetworkPolicy> listPolicies(String namespace) {
+        return kubernetesClient
+                .resources(CiliumNetworkPolicy.class, CiliumNetworkPolicyList.class)
+                .inNamespace(namespace)
+                .list()
+                .getItems();
+    }
+
+    /**
+     * Gets a namespace from the API server.
+     *
+     * @return the namespace, or null if it does not exist
+     */
+    @ApiServerCall
+    Namespace getNamespace(String namespace) {
+        return kubernetesClient.namespaces().withName(namespace).get();
+    }
+
+    /**
+     * Validates that a namespace exists, from the namespace cache when possible.
+     *
+     * @throws RuntimeException if the namespace doesn't exist
+     */
+    private void validateNamespaceExists(String namespace) {
+        if (!namespaceCache.contains(namespace) && getNamespace(namespace) == null) {
+            throw new RuntimeException("Namespace '" + namespace + "' does not exist");
+        }
+    }
+
+    private void invalidate(CiliumNetworkPolicy policy) {
+        // Rule table first, so a matrix computed from the stale table is always dropped after it
+        ruleTables.remove(policy.getMetadata().getNamespace());
+        matrices.remove(policy.getMetadata().getNamespace());
+    }
+
+    private List<ForkJoinTask<ConnectivityMatrixRow>> submitRows(String namespace, CiliumNetworkPolicyRequest.Protocol protocol, int port) {
+        PolicyEvaluator.NamespaceRules rules = ruleTable(namespace);
+        List<Map<String, String>> groups = rules.endpointGroups();
+        List<PolicyEvaluator.Peer> peers = groups.stream()
+                .map(labels -> PolicyEvaluator.Peer.pod(namespace, labels))
+                .toList();
+
+        List<ForkJoinTask<ConnectivityMatrixRow>> rows = new ArrayList<>(groups.size());
+        for (int i = 0; i < groups.size(); i++) {
+            int source = i;
+            rows.add(matrixPool.submit(() -> matrixRow(rules, groups, peers, source, protocol.name(), port)));
+        }
+        return List.copyOf(rows);
+    }
+
+    private static ConnectivityMatrixRow matrixRow(PolicyEvaluator.NamespaceRules rules, List<Map<String, String>> groups,
+                                                   List<PolicyEvaluator.Peer> peers, int source, String protocol, int port) {
+        PolicyEvaluator.Peer sourcePeer = peers.get(source);
+        List<ConnectivityMatrixRow.Cell> cells = new ArrayList<>(peers.size());
+        for (int destination = 0; destination < peers.size(); destination++) {
+            PolicyEvaluator.Peer destinationPeer = peers.get(destination);
+            PolicySimulationResponse.Decision egress = PolicyEvaluator.evaluate(rules, PolicyEvaluator.Direction.EGRESS,
+                    sourcePeer, destinationPeer, protocol, port).getDecision();
+            PolicySimulationResponse.Decision ingress = PolicyEvaluator.evaluate(rules, PolicyEvaluator.Direction.INGRESS,
+                    destinationPeer, sourcePeer, protocol, port).getDecision();
+            cells.add(new ConnectivityMatrixRow.Cell(groups.get(destination), egress, ingress));
+        }
+        return new ConnectivityMatrixRow(groups.get(source), cells);
+    }
+
+    private static boolean isPod(PolicySimulationRequest.Endpoint endpoint, String side) {
+        boolean hasNamespace = endpoint.getNamespace() != null && !endpoint.getNamespace().isEmpty();
+        boolean hasAddress = endpoint.getIpAddress() != null && !endpoint.getIpAddress().isEmpty();
+        if (hasNamespace == hasAddress) {
+            throw new IllegalArgumentException("The " + side + " must specify either a namespace or an ipAddress");
+        }
+        return hasNamespace;
+    }
+
+    private static PolicyEvaluator.Peer peer(PolicySimulationRequest.Endpoint endpoint, boolean isPod) {
+        return isPod
+                ? PolicyEvaluator.Peer.pod(endpoint.getNamespace(), endpoint.getLabels())
+                : PolicyEvaluator.Peer.external(Ipv4Cidr.parseAddressOrCidr(endpoint.getIpAddress()));
+    }
+}
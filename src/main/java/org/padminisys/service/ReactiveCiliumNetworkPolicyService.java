@@ -0,0 +1,195 @@
+package org.padminisys.service;
+
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.jboss.logging.Logger;
+import org.padminisys.cache.CiliumNetworkPolicyCache;
+import org.padminisys.cache.EndpointSelectorIndex;
+import org.padminisys.dto.CiliumNetworkPolicyRequest;
+import org.padminisys.model.CiliumNetworkPolicy;
+import org.padminisys.model.CiliumNetworkPolicyList;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Non-blocking variants of the {@link CiliumNetworkPolicyService} read and delete operations.
+ * Cached policies are served from memory once the cache has synced; otherwise the API server
+ * is called asynchronously, so no thread is held while it responds.
+ */
+@ApplicationScoped
+public class ReactiveCiliumNetworkPolicyService {
+
+    private static final Logger LOG = Logger.getLogger(ReactiveCiliumNetworkPolicyService.class);
+
+    @Inject
+    KubernetesAsyncApi asyncApi;
+
+    @Inject
+    ReactiveKubernetesService reactiveKubernetesService;
+
+    @Inject
+    CiliumNetworkPolicyService ciliumNetworkPolicyService;
+
+    @Inject
+    CiliumNetworkPolicyCache policyCache;
+
+    @Inject
+    EndpointSelectorIndex endpointSelectorIndex;
+
+    /**
+     * Retrieves a CiliumNetworkPolicy by name and converts it back to the original request format.
+     *
+     * @param name the name of the policy
+     * @param namespace the namespace of the policy
+     * @return the policy converted to request format; fails if the namespace or policy is not found
+     */
+    public Uni<CiliumNetworkPolicyRequest> getCiliumNetworkPolicyByName(String name, String namespace) {
+        LOG.infof("Getting CiliumNetworkPolicy: %s in namespace: %s", name, namespace);
+
+        return reactiveKubernetesService.validateNamespaceExists(namespace)
+                .chain(() -> findPolicy(namespace, name))
+                .onItem().ifNull().failWith(() ->
+                        new RuntimeException("CiliumNetworkPolicy '" + name + "' not found in namespace '" + namespace + "'"))
+                .map(ciliumNetworkPolicyService::toRequest)
+                .onFailure(KubernetesClientException.class).transform(e -> {
+                    LOG.errorf(e, "Failed to get CiliumNetworkPolicy: %s in namespace: %s", name, namespace);
+                    return new RuntimeException("Failed to get CiliumNetworkPolicy: " + e.getMessage(), e);
+                });
+    }
+
+    /**
+     * Retrieves all CiliumNetworkPolicies in a namespace and converts them back to the original request format.
+     *
+     * @param namespace the namespace to search in
+     * @return list of policies converted to request format; fails if the namespace doesn't exist
+     */
+    public Uni<List<CiliumNetworkPolicyRequest>> getCiliumNetworkPoliciesByNamespace(String namespace) {
+        return streamCiliumNetworkPoliciesByNamespace(namespace).collect().asList();
+    }
+
+    /**
+     * Streams all CiliumNetworkPolicies in a namespace in request format. When the policy cache is
+     * disabled, the API server is read one page at a time, requesting the next page only on demand.
+     *
+     * @param namespace the namespace to search in
+     * @return the policies converted to request format; fails if the namespace doesn't exist
+     */
+    public Multi<CiliumNetworkPolicyRequest> streamCiliumNetworkPoliciesByNamespace(String namespace) {
+        LOG.infof("Streaming all CiliumNetworkPolicies in namespace: %s", namespace);
+
+        return reactiveKubernetesService.validateNamespaceExists(namespace)
+                .onItem().transformToMulti(ignored -> streamPolicies(namespace))
+                .map(ciliumNetworkPolicyService::toRequest)
+                .onFailure(KubernetesClientException.class).transform(e -> {
+                    LOG.errorf(e, "Failed to stream CiliumNetworkPolicies in namespace: %s", namespace);
+                    return new RuntimeException("Failed to get CiliumNetworkPolicies: " + e.getMessage(), e);
+                });
+    }
+
+    /**
+     * Streams the CiliumNetworkPolicies matching the endpoint selector labels in request format.
+     *
+     * @param namespace the namespace to search in (optional, if null searches all namespaces)
+     * @param endpointLabels the endpoint selector labels to match
+     * @return the matching policies converted to request format; fails if the namespace doesn't exist
+     */
+    public Multi<CiliumNetworkPolicyRequest> streamCiliumNetworkPoliciesByEndpointSelector(String namespace, Map<String, String> endpointLabels) {
+        LOG.infof("Streaming CiliumNetworkPolicies by endpoint selector labels: %s in namespace: %s", endpointLabels, namespace);
+
+        boolean hasNamespace = namespace != null && !namespace.trim().isEmpty();
+        Uni<Void> validated = hasNamespace
+                ? reactiveKubernetesService.validateNamespaceExists(namespace)
+                : Uni.createFrom().voidItem();
+
+        return validated
+                .onItem().transformToMulti(ignored -> {
+                    if (policyCache.isEnabled() && endpointLabels != null && !endpointLabels.isEmpty()) {
+                        return ReactiveKubernetesService.fromCache(policyCache, () -> endpointSelectorIndex.find(namespace, endpointLabels))
+                                .onItem().transformToMulti(keys -> Multi.createFrom().iterable(keys))
+                                .map(policyCache::getByKey)
+                                .filter(Objects::nonNull);
+                    }
+                    return streamPolicies(hasNamespace ? namespace : null);
+                })
+                .filter(policy -> ciliumNetworkPolicyService.matchesEndpointSelector(policy, endpointLabels))
+                .map(ciliumNetworkPolicyService::toRequest)
+                .onFailure(KubernetesClientException.class).transform(e -> {
+                    LOG.errorf(e, "Failed to stream CiliumNetworkPolicies by endpoint selector: %s", endpointLabels);
+                    return new RuntimeException("Failed to get CiliumNetworkPolicies: " + e.getMessage(), e);
+                });
+    }
+
+    /**
+     * Deletes a specific CiliumNetworkPolicy by name in the given namespace.
+     *
+     * @param policyName the name of the policy to delete
+     * @param namespace the namespace containing the policy
+     * @return true if policy was deleted, false if policy didn't exist; fails if the namespace doesn't exist
+     */
+    public Uni<Boolean> deleteCiliumNetworkPolicy(String policyName, String namespace) {
+        LOG.infof("Deleting CiliumNetworkPolicy: %s in namespace: %s", policyName, namespace);
+
+        return reactiveKubernetesService.validateNamespaceExists(namespace)
+                .chain(() -> asyncApi.delete(KubernetesAsyncApi.ciliumNetworkPoliciesPath(namespace) + "/" + policyName))
+                .invoke(deleted -> {
+                    if (deleted) {
+                        LOG.infof("Successfully deleted CiliumNetworkPolicy: %s in namespace: %s", policyName, namespace);
+                    } else {
+                        LOG.warnf("CiliumNetworkPolicy %s not found in namespace %s", policyName, namespace);
+                    }
+                })
+                .onFailure(KubernetesClientException.class).transform(e -> {
+                    LOG.errorf(e, "Failed to delete CiliumNetworkPolicy: %s in namespace: %s", policyName, namespace);
+                    return new RuntimeException("Failed to delete CiliumNetworkPolicy: " + e.getMessage(), e);
+                });
+    }
+
+    private Uni<CiliumNetworkPolicy> findPolicy(String namespace, String name) {
+        if (policyCache.isEnabled()) {
+            return ReactiveKubernetesService.fromCache(policyCache, () -> policyCache.get(namespace, name));
+        }
+        return asyncApi.get(KubernetesAsyncApi.ciliumNetworkPoliciesPath(namespace) + "/" + name, CiliumNetworkPolicy.class);
+    }
+
+    /**
+     * Streams the policies in a namespace, or in all namespaces when namespace is null,
+     * from the cache when enabled, otherwise page by page from the API server.
+     */
+    private Multi<CiliumNetworkPolicy> streamPolicies(String namespace) {
+        if (policyCache.isEnabled()) {
+            return ReactiveKubernetesService.fromCache(policyCache,
+                            () -> namespace != null ? policyCache.listByNamespace(namespace) : policyCache.listAll())
+                    .onItem().transformToMulti(policies -> Multi.createFrom().iterable(policies));
+        }
+
+        return Multi.createBy().repeating()
+                .uni(() -> new AtomicReference<String>(),
+                        continueToken -> listPage(namespace, continueToken.get())
+                                .invoke(page -> continueToken.set(continueOf(page))))
+                .whilst(page -> continueOf(page) != null)
+                .onItem().transformToIterable(CiliumNetworkPolicyList::getItems);
+    }
+
+    private Uni<CiliumNetworkPolicyList> listPage(String namespace, String continueToken) {
+        String query = "?limit=" + CiliumNetworkPolicyService.STREAM_PAGE_SIZE;
+        if (continueToken != null) {
+            query += "&continue=" + URLEncoder.encode(continueToken, StandardCharsets.UTF_8);
+        }
+        String path = KubernetesAsyncApi.ciliumNetworkPoliciesPath(namespace);
+        return asyncApi.get(path + query, CiliumNetworkPolicyList.class)
+                .onItem().ifNull().failWith(() -> new RuntimeException("Failed to get CiliumNetworkPolicies: " + path + " not found"));
+    }
+
+    private static String continueOf(CiliumNetworkPolicyList page) {
+        String next = page.getMetadata() != null ? page.getMetadata().getContinue() : null;
+        return next == null || next.isEmpty() ? null : next;
+    }
+}
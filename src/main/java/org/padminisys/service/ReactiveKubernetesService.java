@@ -0,0 +1,248 @@
+package org.padminisys.service;
+
+import io.fabric8.kubernetes.api.model.Namespace;
+import io.fabric8.kubernetes.api.model.ServiceAccount;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.jboss.logging.Logger;
+import org.padminisys.cache.CiliumNetworkPolicyCache;
+import org.padminisys.cache.NamespaceCache;
+import org.padminisys.dto.CiliumNetworkPolicyRequest;
+import org.padminisys.dto.CiliumNetworkPolicyResponse;
+import org.padminisys.dto.NamespaceRequest;
+import org.padminisys.dto.NamespaceResponse;
+import org.padminisys.dto.ServiceAccountRequest;
+import org.padminisys.dto.ServiceAccountResponse;
+import org.padminisys.model.CiliumNetworkPolicy;
+
+import java.net.HttpURLConnection;
+import java.time.Instant;
+import java.util.function.Supplier;
+
+/**
+ * Non-blocking variants of the {@link KubernetesService} write operations.
+ * Each call is a chain of asynchronous API requests, so no thread is held while the API server
+ * responds. Creation is always optimistic: a single POST, with AlreadyExists mapped to EXISTS.
+ */
+@ApplicationScoped
+public class ReactiveKubernetesService {
+
+    private static final Logger LOG = Logger.getLogger(ReactiveKubernetesService.class);
+
+    @Inject
+    KubernetesService kubernetesService;
+
+    @Inject
+    KubernetesAsyncApi asyncApi;
+
+    @Inject
+    NamespaceCache namespaceCache;
+
+    @Inject
+    CiliumNetworkPolicyCache policyCache;
+
+    /**
+     * Creates a new namespace in the Kubernetes cluster.
+     *
+     * @param request the namespace creation request
+     * @return the namespace creation response
+     */
+    public Uni<NamespaceResponse> createNamespace(NamespaceRequest request) {
+        LOG.infof("Creating namespace: %s", request.getName());
+
+        return asyncApi.post("/api/v1/namespaces", kubernetesService.buildNamespace(request.getName()), Namespace.class)
+                .map(createdNamespace -> {
+                    LOG.infof("Successfully created namespace: %s", request.getName());
+                    return new NamespaceResponse(
+                            createdNamespace.getMetadata().getName(),
+                            "CREATED",
+                            Instant.parse(createdNamespace.getMetadata().getCreationTimestamp()),
+                            "Namespace created successfully"
+                    );
+                })
+                .onFailure(ReactiveKubernetesService::isConflict).recoverWithUni(() -> {
+                    LOG.warnf("Namespace %s already exists", request.getName());
+                    return asyncApi.get(KubernetesAsyncApi.namespacePath(request.getName()), Namespace.class)
+                            .map(existingNamespace -> new NamespaceResponse(
+                                    request.getName(),
+                                    "EXISTS",
+                                    kubernetesService.creationTimestampOf(existingNamespace),
+                                    "Namespace already exists"
+                            ));
+                })
+                .onFailure(KubernetesClientException.class).transform(e -> {
+                    LOG.errorf(e, "Failed to create namespace: %s", request.getName());
+                    return new RuntimeException("Failed to create namespace: " + e.getMessage(), e);
+                });
+    }
+
+    /**
+     * Creates a new service account in the specified namespace.
+     *
+     * @param request the service account creation request
+     * @return the service account creation response; fails if the namespace does not exist
+     */
+    public Uni<ServiceAccountResponse> createServiceAccount(ServiceAccountRequest request) {
+        LOG.infof("Creating service account: %s in namespace: %s", request.getName(), request.getNamespace());
+
+        ServiceAccount serviceAccount = kubernetesService.buildServiceAccount(request.getNamespace(), request.getName());
+        return asyncApi.post(KubernetesAsyncApi.serviceAccountsPath(request.getNamespace()), serviceAccount, ServiceAccount.class)
+                .map(createdServiceAccount -> {
+                    LOG.infof("Successfully created service account: %s in namespace: %s", request.getName(), request.getNamespace());
+                    return new ServiceAccountResponse(
+                            createdServiceAccount.getMetadata().getName(),
+                            createdServiceAccount.getMetadata().getNamespace(),
+                            "CREATED",
+                            Instant.parse(createdServiceAccount.getMetadata().getCreationTimestamp()),
+                            "Service account created successfully"
+                    );
+                })
+                .onFailure(ReactiveKubernetesService::isConflict).recoverWithUni(() -> {
+                    LOG.warnf("Service account %s already exists in namespace %s", request.getName(), request.getNamespace());
+                    return asyncApi.get(KubernetesAsyncApi.serviceAccountsPath(request.getNamespace()) + "/" + request.getName(),
+                                    ServiceAccount.class)
+                            .map(existingServiceAccount -> new ServiceAccountResponse(
+                                    request.getName(),
+                                    request.getNamespace(),
+                                    "EXISTS",
+                                    kubernetesService.creationTimestampOf(existingServiceAccount),
+                                    "Service account already exists"
+                            ));
+                })
+                .onFailure(KubernetesClientException.class).transform(e -> {
+                    if (((KubernetesClientException) e).getCode() == HttpURLConnection.HTTP_NOT_FOUND) {
+                        return new RuntimeException("Namespace '" + request.getNamespace() + "' does not exist", e);
+                    }
+                    LOG.errorf(e, "Failed to create service account: %s in namespace: %s", request.getName(), request.getNamespace());
+                    return new RuntimeException("Failed to create service account: " + e.getMessage(), e);
+                });
+    }
+
+    /**
+     * Creates a new CiliumNetworkPolicy. User-named policies are upserted with a server-side apply,
+     * unless the cached live policy already matches, and auto-named ones are created with a single
+     * POST, as in {@link KubernetesService}.
+     *
+     * @param request the CiliumNetworkPolicy creation request
+     * @return the CiliumNetworkPolicy creation response; fails if the namespace does not exist
+     */
+    public Uni<CiliumNetworkPolicyResponse> createCiliumNetworkPolicy(CiliumNetworkPolicyRequest request) {
+        String namespace = request.getNamespace();
+        return Uni.createFrom().item(() -> kubernetesService.determinePolicyName(request))
+                .call(policyName -> validateNamespaceExists(namespace))
+                .chain(policyName -> {
+                    LOG.infof("Creating CiliumNetworkPolicy: %s in namespace: %s", policyName, namespace);
+                    CiliumNetworkPolicy ciliumPolicy = kubernetesService.createCiliumPolicyResource(request, policyName);
+                    boolean isUserProvidedName = request.getName() != null && !request.getName().trim().isEmpty();
+                    return (isUserProvidedName
+                            ? applyCiliumNetworkPolicy(ciliumPolicy, namespace, policyName)
+                            : createGeneratedCiliumNetworkPolicy(ciliumPolicy, namespace, policyName))
+                            .map(response -> kubernetesService.withRuleCounts(response, request, ciliumPolicy));
+                })
+                .onFailure(KubernetesClientException.class).transform(e -> {
+                    LOG.errorf(e, "Failed to create CiliumNetworkPolicy in namespace: %s", namespace);
+                    return new RuntimeException("Failed to create CiliumNetworkPolicy: " + e.getMessage(), e);
+                });
+    }
+
+    private Uni<CiliumNetworkPolicyResponse> applyCiliumNetworkPolicy(CiliumNetworkPolicy ciliumPolicy,
+                                                                      String namespace, String policyName) {
+        Uni<CiliumNetworkPolicy> live = policyCache.isEnabled()
+                ? fromCache(policyCache, () -> policyCache.get(namespace, policyName))
+                : Uni.createFrom().nullItem();
+        return live.chain(livePolicy -> {
+            if (livePolicy != null && policyCache.isLastWritten(livePolicy)
+                    && CiliumNetworkPolicyMapper.isUpToDate(livePolicy, ciliumPolicy)) {
+                return Uni.createFrom().item(kubernetesService.unchangedCiliumNetworkPolicy(livePolicy, policyName));
+            }
+            return serverSideApply(ciliumPolicy, namespace, policyName);
+        });
+    }
+
+    /**
+     * Applies a user-named policy. Unlike the blocking client, the response status is visible
+     * here, so whether the apply created the policy is known exactly.
+     */
+    private Uni<CiliumNetworkPolicyResponse> serverSideApply(CiliumNetworkPolicy ciliumPolicy, String namespace, String policyName) {
+        return asyncApi.apply(KubernetesAsyncApi.ciliumNetworkPoliciesPath(namespace) + "/" + policyName, ciliumPolicy,
+                        KubernetesService.FIELD_MANAGER, CiliumNetworkPolicy.class)
+                .map(applied -> {
+                    CiliumNetworkPolicy resultPolicy = applied.object();
+                    policyCache.recordWrite(resultPolicy);
+                    boolean created = applied.created();
+                    LOG.infof("Successfully %s CiliumNetworkPolicy: %s in namespace: %s",
+                            created ? "created" : "updated", policyName, namespace);
+                    return new CiliumNetworkPolicyResponse(
+                            resultPolicy.getMetadata().getName(),
+                            resultPolicy.getMetadata().getNamespace(),
+                            created ? "CREATED" : "UPDATED",
+                            Instant.parse(resultPolicy.getMetadata().getCreationTimestamp()),
+                            created ? "CiliumNetworkPolicy created successfully" : "CiliumNetworkPolicy updated successfully",
+                            policyName
+                    );
+                });
+    }
+
+    private Uni<CiliumNetworkPolicyResponse> createGeneratedCiliumNetworkPolicy(CiliumNetworkPolicy ciliumPolicy,
+                                                                                String namespace, String policyName) {
+        return asyncApi.post(KubernetesAsyncApi.ciliumNetworkPoliciesPath(namespace), ciliumPolicy, CiliumNetworkPolicy.class)
+                .map(resultPolicy -> {
+                    LOG.infof("Successfully created CiliumNetworkPolicy: %s in namespace: %s", policyName, namespace);
+                    return new CiliumNetworkPolicyResponse(
+                            resultPolicy.getMetadata().getName(),
+                            resultPolicy.getMetadata().getNamespace(),
+                            "CREATED",
+                            Instant.parse(resultPolicy.getMetadata().getCreationTimestamp()),
+                            "CiliumNetworkPolicy created successfully",
+                            policyName
+                    );
+                })
+                .onFailure(ReactiveKubernetesService::isConflict).recoverWithUni(() -> {
+                    LOG.warnf("CiliumNetworkPolicy %s already exists in namespace %s", policyName, namespace);
+                    return asyncApi.get(KubernetesAsyncApi.ciliumNetworkPoliciesPath(namespace) + "/" + policyName,
+                                    CiliumNetworkPolicy.class)
+                            .map(existingPolicy -> new CiliumNetworkPolicyResponse(
+                                    policyName,
+                                    namespace,
+                                    "EXISTS",
+                                    kubernetesService.creationTimestampOf(existingPolicy),
+                                    "CiliumNetworkPolicy already exists",
+                                    policyName
+                            ));
+                });
+    }
+
+    /**
+     * Validates that a namespace exists in the cluster, from the namespace cache when possible.
+     *
+     * @param namespace the namespace to validate
+     * @return completes when the namespace exists; fails with "does not exist" otherwise
+     */
+    Uni<Void> validateNamespaceExists(String namespace) {
+        if (namespaceCache.contains(namespace)) {
+            return Uni.createFrom().voidItem();
+        }
+        return asyncApi.get(KubernetesAsyncApi.namespacePath(namespace), Namespace.class)
+                .onItem().ifNull().failWith(() -> new RuntimeException("Namespace '" + namespace + "' does not exist"))
+                .replaceWithVoid();
+    }
+
+    /**
+     * Reads from the policy cache once it has synced. The read is deferred until then, so the
+     * subscribing thread, possibly an event loop, never blocks waiting for the sync.
+     *
+     * @param policyCache the enabled policy cache
+     * @param read the cache read
+     * @return the result of the read; fails if the cache did not sync
+     */
+    static <T> Uni<T> fromCache(CiliumNetworkPolicyCache policyCache, Supplier<T> read) {
+        return Uni.createFrom().completionStage(policyCache::whenSynced)
+                .map(ignored -> read.get());
+    }
+
+    private static boolean isConflict(Throwable failure) {
+        return failure instanceof KubernetesClientException e && e.getCode() == HttpURLConnection.HTTP_CONFLICT;
+    }
+}
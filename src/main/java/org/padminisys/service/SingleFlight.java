@@ -0,0 +1,78 @@
+package org.padminisys.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent identical calls: the first caller for a key runs the loader, and callers
+ * arriving while it is in flight wait for and share its result or failure instead of running
+ * their own. Once the call completes the key is released, so later callers load fresh data.
+ *
+ * @param <K> the key identifying identical calls
+ * @param <V> the result type
+ */
+final class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong executions = new AtomicLong();
+    private final AtomicLong deduplicated = new AtomicLong();
+
+    /**
+     * Runs the loader for the key, or joins the call already in flight for it.
+     *
+     * @param key the key identifying the call
+     * @param loader the call to run when none is in flight
+     * @return the result of the loader, possibly shared with other callers
+     */
+    V execute(K key, Supplier<V> loader) {
+        CompletableFuture<V> call = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, call);
+        if (existing != null) {
+            deduplicated.incrementAndGet();
+            return await(existing);
+        }
+
+        executions.incrementAndGet();
+        try {
+            V value = loader.get();
+            call.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+
+    private static <V> V await(CompletableFuture<V> call) {
+        try {
+            return call.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * @return the number of calls that ran the loader
+     */
+    long getExecutions() {
+        return executions.get();
+    }
+
+    /**
+     * @return the number of calls that shared the result of a call already in flight
+     */
+    long getDeduplicated() {
+        return deduplicated.get();
+    }
+}
@@ -0,0 +1,166 @@
+package org.padminisys.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import org.padminisys.dto.CiliumNetworkPolicyBatchResult;
+import org.padminisys.dto.CiliumNetworkPolicyRequest;
+import org.padminisys.dto.NamespaceRequest;
+import org.padminisys.dto.NamespaceResponse;
+import org.padminisys.dto.ServiceAccountRequest;
+import org.padminisys.dto.ServiceAccountResponse;
+import org.padminisys.dto.TenantRequest;
+import org.padminisys.dto.TenantResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Service for provisioning a tenant in one call: its namespace, service account and baseline policies.
+ * The namespace is created first; the service account and every baseline policy are then written
+ * concurrently, without repeating the namespace existence check for each of them.
+ */
+@ApplicationScoped
+public class TenantProvisioningService {
+
+    private static final Logger LOG = Logger.getLogger(TenantProvisioningService.class);
+    static final String DEFAULT_BASELINE_POLICIES = "tenant-baseline-policies.json";
+
+    @Inject
+    KubernetesService kubernetesService;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    ExecutorService executor;
+
+    @ConfigProperty(name = "ppcs.tenants.baseline-policies-file")
+    Optional<String> baselinePoliciesFile;
+
+    List<CiliumNetworkPolicyRequest> baselinePolicies = List.of();
+
+    /**
+     * Loads the baseline policy templates from ppcs.tenants.baseline-policies-file,
+     * or from the bundled defaults if it is not set.
+     *
+     * @throws IllegalStateException if the templates cannot be read or a template has no valid name
+     */
+    @PostConstruct
+    void loadBaselinePolicies() {
+        try (InputStream in = openBaselinePolicies()) {
+            if (in == null) {
+                throw new IllegalStateException("Tenant baseline policies not found: " + DEFAULT_BASELINE_POLICIES);
+            }
+            List<CiliumNetworkPolicyRequest> templates = List.of(objectMapper.readValue(in, CiliumNetworkPolicyRequest[].class));
+            for (CiliumNetworkPolicyRequest template : templates) {
+                // Generated names would create another copy of the policy every time a tenant is re-provisioned
+                if (template.getName() == null || template.getName().isBlank()) {
+                    throw new IllegalStateException("Tenant baseline policy templates must have a name");
+                }
+                try {
+                    kubernetesService.determinePolicyName(template);
+                } catch (RuntimeException e) {
+                    throw new IllegalStateException("Invalid tenant baseline policy '" + template.getName() + "': " + e.getMessage(), e);
+                }
+            }
+            baselinePolicies = templates;
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to load tenant baseline policies: " + e.getMessage(), e);
+        }
+        LOG.infof("Loaded %d tenant baseline policies", baselinePolicies.size());
+    }
+
+    private InputStream openBaselinePolicies() throws IOException {
+        if (baselinePoliciesFile.isPresent()) {
+            return Files.newInputStream(Path.of(baselinePoliciesFile.get()));
+        }
+        return Thread.currentThread().getContextClassLoader().getResourceAsStream(DEFAULT_BASELINE_POLICIES);
+    }
+
+    /**
+     * Provisions a tenant. Every stage is idempotent, so a PARTIAL result can be retried as is.
+     *
+     * @param request the tenant provisioning request
+     * @return the result of every stage
+     * @throws RuntimeException if the namespace cannot be created; no other stage runs then
+     */
+    public TenantResponse provisionTenant(TenantRequest request) {
+        String tenant = request.getName();
+        LOG.infof("Provisioning tenant: %s with %d baseline policies", tenant, baselinePolicies.size());
+
+        List<CiliumNetworkPolicyRequest> policies = baselinePolicies.stream()
+                .map(template -> forTenant(template, tenant))
+                .toList();
+
+        NamespaceResponse namespace = kubernetesService.createNamespace(new NamespaceRequest(tenant));
+
+        CompletableFuture<ServiceAccountResponse> serviceAccountFuture = CompletableFuture.supplyAsync(
+                () -> kubernetesService.createServiceAccount(new ServiceAccountRequest(tenant, request.getServiceAccountName())),
+                executor);
+        List<CompletableFuture<CiliumNetworkPolicyBatchResult>> policyFutures = new ArrayList<>(policies.size());
+        for (int i = 0; i < policies.size(); i++) {
+            int index = i;
+            policyFutures.add(CompletableFuture.supplyAsync(
+                    () -> writePolicy(index, policies.get(index)), executor));
+        }
+
+        List<String> failures = new ArrayList<>();
+        ServiceAccountResponse serviceAccount = null;
+        try {
+            serviceAccount = serviceAccountFuture.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            LOG.errorf(cause, "Failed to create service account %s for tenant: %s", request.getServiceAccountName(), tenant);
+            failures.add("Service account '" + request.getServiceAccountName() + "': " + cause.getMessage());
+        }
+
+        List<CiliumNetworkPolicyBatchResult> policyResults = policyFutures.stream()
+                .map(CompletableFuture::join)
+                .toList();
+        policyResults.stream()
+                .filter(result -> CiliumNetworkPolicyBatchResult.STATUS_FAILED.equals(result.getStatus()))
+                .forEach(result -> failures.add("Policy '" + result.getName() + "': " + result.getMessage()));
+
+        String status = failures.isEmpty() ? namespace.getStatus() : TenantResponse.STATUS_PARTIAL;
+        LOG.infof("Provisioned tenant: %s with status %s", tenant, status);
+        return new TenantResponse(tenant, status, namespace, serviceAccount, policyResults, failures);
+    }
+
+    private CiliumNetworkPolicyBatchResult writePolicy(int index, CiliumNetworkPolicyRequest policy) {
+        try {
+            return CiliumNetworkPolicyBatchResult.of(index, kubernetesService.writeCiliumNetworkPolicy(policy, policy.getName()));
+        } catch (RuntimeException e) {
+            LOG.errorf(e, "Failed to create baseline policy %s for tenant: %s", policy.getName(), policy.getNamespace());
+            return CiliumNetworkPolicyBatchResult.failed(index, policy.getName(), policy.getNamespace(), e.getMessage());
+        }
+    }
+
+    /**
+     * Copies a baseline template into the tenant's namespace. Rule labels are scoped to the
+     * tenant's namespace when the policy is converted, whatever namespace label the template uses.
+     */
+    private CiliumNetworkPolicyRequest forTenant(CiliumNetworkPolicyRequest template, String tenant) {
+        CiliumNetworkPolicyRequest policy = new CiliumNetworkPolicyRequest();
+        policy.setName(template.getName());
+        policy.setNamespace(tenant);
+        policy.setLabels(template.getLabels());
+        policy.setIngressRules(template.getIngressRules());
+        policy.setIngressDenyRules(template.getIngressDenyRules());
+        policy.setEgressRules(template.getEgressRules());
+        policy.setEgressDenyRules(template.getEgressDenyRules());
+        policy.setAggregateCidrs(template.getAggregateCidrs());
+        return policy;
+    }
+}
@@ -0,0 +1,77 @@
+package org.padminisys.service;
+
+import org.padminisys.exception.ApiServerBusyException;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket refilled continuously at a fixed rate up to a burst capacity.
+ * When the bucket is empty a caller reserves a future token and is told how long to wait,
+ * so waiting callers are served in arrival order. A reservation is refused when it would
+ * wait longer than the caller's deadline or when too many callers are already waiting.
+ */
+final class TokenBucket {
+
+    private final String name;
+    private final double nanosPerToken;
+    private final double capacity;
+    private final int maxQueued;
+    private final LongSupplier nanoClock;
+
+    private double tokens;
+    private long lastRefill;
+    private int queued;
+
+    TokenBucket(String name, double permitsPerSecond, int burst, int maxQueued, LongSupplier nanoClock) {
+        if (permitsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("Token bucket '" + name + "' needs a positive rate and a burst of at least 1");
+        }
+        this.name = name;
+        this.nanosPerToken = TimeUnit.SECONDS.toNanos(1) / permitsPerSecond;
+        this.capacity = burst;
+        this.maxQueued = maxQueued;
+        this.nanoClock = nanoClock;
+        this.tokens = burst;
+        this.lastRefill = nanoClock.getAsLong();
+    }
+
+    /**
+     * Takes a token, or reserves the next free one. A caller that gets a non-zero wait must
+     * call {@link #dequeued()} once it has waited.
+     *
+     * @param maxWaitNanos the longest the caller is willing to wait
+     * @return how many nanoseconds the caller must wait before using its token, 0 if none
+     * @throws ApiServerBusyException if the wait would exceed maxWaitNanos or the queue is full
+     */
+    synchronized long reserve(long maxWaitNanos) {
+        refill();
+        if (tokens >= 1) {
+            tokens -= 1;
+            return 0;
+        }
+
+        long waitNanos = (long) Math.ceil((1 - tokens) * nanosPerToken);
+        if (queued >= maxQueued || waitNanos > maxWaitNanos) {
+            throw new ApiServerBusyException("Kubernetes API " + name + " rate limit exceeded, try again later",
+                    (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        }
+        tokens -= 1;
+        queued++;
+        return waitNanos;
+    }
+
+    synchronized void dequeued() {
+        queued--;
+    }
+
+    synchronized int getQueued() {
+        return queued;
+    }
+
+    private void refill() {
+        long now = nanoClock.getAsLong();
+        tokens = Math.min(capacity, tokens + (now - lastRefill) / nanosPerToken);
+        lastRefill = now;
+    }
+}
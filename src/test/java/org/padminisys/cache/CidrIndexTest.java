@@ -0,0 +1,117 @@
+package org.padminisys.cache;
+
+import io.fabric8.kubernetes.api.model.ObjectMetaBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.padminisys.dto.CidrLookupMatch;
+import org.padminisys.dto.CiliumNetworkPolicyRequest.RuleType;
+import org.padminisys.model.CiliumNetworkPolicy;
+import org.padminisys.model.CiliumNetworkPolicySpec;
+import org.padminisys.model.Ipv4Cidr;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Unit tests for the CIDR radix trie index.
+ */
+class CidrIndexTest {
+
+    CidrIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new CidrIndex();
+        index.policyCache = mock(CiliumNetworkPolicyCache.class);
+
+        index.eventHandler.onAdd(policy("web", "tenant-a", List.of("10.0.0.0/8"), List.of("10.1.2.0/24")));
+        index.eventHandler.onAdd(policy("api", "tenant-a", List.of("10.1.0.0/16", "192.168.0.0/16"), null));
+        index.eventHandler.onAdd(policy("any", "tenant-b", null, List.of("0.0.0.0/0")));
+    }
+
+    @Test
+    void testAddressLookupReturnsCoveringRulesMostSpecificFirst() {
+        assertEquals(List.of(
+                new CidrLookupMatch("web", "tenant-a", RuleType.EGRESS_DENY, "10.1.2.0/24"),
+                new CidrLookupMatch("api", "tenant-a", RuleType.INGRESS_ALLOW, "10.1.0.0/16"),
+                new CidrLookupMatch("web", "tenant-a", RuleType.INGRESS_ALLOW, "10.0.0.0/8"),
+                new CidrLookupMatch("any", "tenant-b", RuleType.EGRESS_DENY, "0.0.0.0/0")),
+                index.find(Ipv4Cidr.parseAddressOrCidr("10.1.2.3")));
+    }
+
+    @Test
+    void testCidrLookupOnlyReturnsRulesCoveringWholeRange() {
+        List<CidrLookupMatch> matches = index.find(Ipv4Cidr.parse("10.1.0.0/16"));
+
+        assertEquals(List.of("10.1.0.0/16", "10.0.0.0/8", "0.0.0.0/0"), matches.stream().map(CidrLookupMatch::getCidr).toList());
+    }
+
+    @Test
+    void testUncoveredAddressOnlyMatchesDefaultRoute() {
+        assertEquals(List.of(new CidrLookupMatch("any", "tenant-b", RuleType.EGRESS_DENY, "0.0.0.0/0")),
+                index.find(Ipv4Cidr.parseAddressOrCidr("172.16.0.1")));
+    }
+
+    @Test
+    void testUpdateReplacesPolicyCidrs() {
+        index.eventHandler.onUpdate(null, policy("api", "tenant-a", List.of("172.16.0.0/12"), null));
+
+        assertEquals(List.of("web"), names(index.find(Ipv4Cidr.parseAddressOrCidr("10.1.9.9")), "tenant-a"));
+        assertEquals(List.of("api"), names(index.find(Ipv4Cidr.parseAddressOrCidr("172.16.0.1")), "tenant-a"));
+        assertTrue(names(index.find(Ipv4Cidr.parseAddressOrCidr("192.168.1.1")), "tenant-a").isEmpty());
+    }
+
+    @Test
+    void testDeleteRemovesPolicy() {
+        index.eventHandler.onDelete(policy("web", "tenant-a", null, null), false);
+        index.eventHandler.onDelete(policy("any", "tenant-b", null, null), false);
+
+        assertEquals(List.of(new CidrLookupMatch("api", "tenant-a", RuleType.INGRESS_ALLOW, "10.1.0.0/16")),
+                index.find(Ipv4Cidr.parseAddressOrCidr("10.1.2.3")));
+    }
+
+    @Test
+    void testNonIpv4CidrsAreSkipped() {
+        index.eventHandler.onAdd(policy("v6", "tenant-c", List.of("2001:db8::/32", "10.9.0.0/16"), null));
+
+        assertEquals(List.of("v6"), names(index.find(Ipv4Cidr.parseAddressOrCidr("10.9.0.1")), "tenant-c"));
+    }
+
+    @Test
+    void testScanMatchesIndex() {
+        List<CiliumNetworkPolicy> policies = List.of(
+                policy("web", "tenant-a", List.of("10.0.0.0/8"), List.of("10.1.2.0/24")),
+                policy("api", "tenant-a", List.of("10.1.0.0/16", "192.168.0.0/16"), null),
+                policy("any", "tenant-b", null, List.of("0.0.0.0/0")));
+
+        for (String query : List.of("10.1.2.3", "10.1.0.0/16", "192.168.4.4", "8.8.8.8")) {
+            Ipv4Cidr cidr = Ipv4Cidr.parseAddressOrCidr(query);
+            assertEquals(index.find(cidr), CidrIndex.scan(policies, cidr), query);
+        }
+    }
+
+    private static List<String> names(List<CidrLookupMatch> matches, String namespace) {
+        return matches.stream().filter(match -> match.getNamespace().equals(namespace)).map(CidrLookupMatch::getName).toList();
+    }
+
+    private CiliumNetworkPolicy policy(String name, String namespace, List<String> ingressCidrs, List<String> egressDenyCidrs) {
+        CiliumNetworkPolicy policy = new CiliumNetworkPolicy();
+        policy.setMetadata(new ObjectMetaBuilder().withName(name).withNamespace(namespace).build());
+
+        CiliumNetworkPolicySpec spec = new CiliumNetworkPolicySpec();
+        if (ingressCidrs != null) {
+            CiliumNetworkPolicySpec.IngressRule ingress = new CiliumNetworkPolicySpec.IngressRule();
+            ingress.setFromCIDR(ingressCidrs);
+            spec.setIngress(List.of(ingress));
+        }
+        if (egressDenyCidrs != null) {
+            CiliumNetworkPolicySpec.EgressRule egressDeny = new CiliumNetworkPolicySpec.EgressRule();
+            egressDeny.setToCIDR(egressDenyCidrs);
+            spec.setEgressDeny(List.of(egressDeny));
+        }
+        policy.setSpec(spec);
+        return policy;
+    }
+}
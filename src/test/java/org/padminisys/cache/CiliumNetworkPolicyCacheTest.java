@@ -0,0 +1,171 @@
+package org.padminisys.cache;
+
+import io.fabric8.kubernetes.api.model.ObjectMetaBuilder;
+import io.fabric8.kubernetes.client.informers.ResourceEventHandler;
+import io.fabric8.kubernetes.client.informers.SharedIndexInformer;
+import io.fabric8.kubernetes.client.informers.impl.cache.CacheImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.padminisys.model.CiliumNetworkPolicy;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for CiliumNetworkPolicyCache using a mocked informer over a real fabric8 cache store.
+ */
+@ExtendWith(MockitoExtension.class)
+class CiliumNetworkPolicyCacheTest {
+
+    @Mock
+    SharedIndexInformer<CiliumNetworkPolicy> informer;
+
+    CiliumNetworkPolicyCache policyCache;
+    CacheImpl<CiliumNetworkPolicy> store;
+
+    @BeforeEach
+    void setUp() {
+        policyCache = new CiliumNetworkPolicyCache();
+        policyCache.enabled = true;
+        policyCache.syncTimeout = Duration.ofMillis(200);
+        store = new CacheImpl<>();
+    }
+
+    @Test
+    void testReadsAreServedFromIndexes() {
+        startWith(CompletableFuture.completedFuture(null));
+
+        store.put(policy("web", "tenant-a"));
+        store.put(policy("db", "tenant-a"));
+        store.put(policy("web", "tenant-b"));
+
+        assertTrue(policyCache.isSynced());
+        assertEquals("tenant-a", policyCache.get("tenant-a", "db").getMetadata().getNamespace());
+        assertNull(policyCache.get("tenant-b", "db"));
+        assertEquals(2, policyCache.listByNamespace("tenant-a").size());
+        assertEquals(2, policyCache.listByName("web").size());
+        assertEquals(3, policyCache.listAll().size());
+    }
+
+    @Test
+    void testReadsWaitForSync() {
+        CompletableFuture<Void> sync = new CompletableFuture<>();
+        startWith(sync);
+
+        assertFalse(policyCache.isSynced());
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> policyCache.get("tenant-a", "web"));
+        assertTrue(exception.getMessage().contains("did not sync"));
+
+        sync.complete(null);
+        assertTrue(policyCache.isSynced());
+        assertNull(policyCache.get("tenant-a", "web"));
+    }
+
+    @Test
+    void testFailedSyncIsReported() {
+        startWith(CompletableFuture.failedFuture(new IllegalStateException("CRD not installed")));
+
+        assertFalse(policyCache.isSynced());
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> policyCache.listAll());
+        assertTrue(exception.getMessage().contains("CRD not installed"));
+    }
+
+    @Test
+    void testDisabledCacheRejectsReads() {
+        policyCache.enabled = false;
+
+        assertFalse(policyCache.isEnabled());
+        assertThrows(IllegalStateException.class, () -> policyCache.listByNamespace("tenant-a"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testEventHandlersAreRegisteredOnStart() {
+        ResourceEventHandler<CiliumNetworkPolicy> handler = mock(ResourceEventHandler.class);
+        policyCache.addEventHandler(handler);
+
+        startWith(CompletableFuture.completedFuture(null));
+
+        verify(informer).addEventHandler(handler);
+    }
+
+    @Test
+    void testLastWrittenVersionIsTracked() {
+        startWith(CompletableFuture.completedFuture(null));
+        CiliumNetworkPolicy written = policy("web", "tenant-a", "11");
+
+        policyCache.recordWrite(written);
+
+        assertTrue(policyCache.isLastWritten(policy("web", "tenant-a", "11")));
+        // An older copy, or one changed by another writer since
+        assertFalse(policyCache.isLastWritten(policy("web", "tenant-a", "10")));
+        assertFalse(policyCache.isLastWritten(policy("web", "tenant-a", "12")));
+        assertFalse(policyCache.isLastWritten(policy("web", "tenant-b", "11")));
+
+        policyCache.writeTracker.onDelete(written, false);
+        assertFalse(policyCache.isLastWritten(policy("web", "tenant-a", "11")));
+    }
+
+    @Test
+    void testNamespaceIsListedInNameOrderAfterAName() {
+        startWith(CompletableFuture.completedFuture(null));
+
+        policyCache.nameOrder.onAdd(policy("c-policy", "tenant-a"));
+        policyCache.nameOrder.onAdd(policy("a-policy", "tenant-a"));
+        policyCache.nameOrder.onAdd(policy("b-policy", "tenant-a"));
+        policyCache.nameOrder.onAdd(policy("a-policy", "tenant-b"));
+
+        assertEquals(List.of("a-policy", "b-policy"), names(policyCache.listByNamespaceAfter("tenant-a", null, 2)));
+        assertEquals(List.of("c-policy"), names(policyCache.listByNamespaceAfter("tenant-a", "b-policy", 2)));
+        // A name deleted since the previous page still marks the position
+        assertEquals(List.of("b-policy", "c-policy"), names(policyCache.listByNamespaceAfter("tenant-a", "a-policy-gone", 5)));
+        assertEquals(List.of(), policyCache.listByNamespaceAfter("tenant-c", null, 2));
+
+        policyCache.nameOrder.onUpdate(policy("b-policy", "tenant-a", "1"), policy("b-policy", "tenant-a", "2"));
+        policyCache.nameOrder.onDelete(policy("a-policy", "tenant-a"), false);
+
+        List<CiliumNetworkPolicy> remaining = policyCache.listByNamespaceAfter("tenant-a", null, 5);
+        assertEquals(List.of("b-policy", "c-policy"), names(remaining));
+        assertEquals("2", remaining.get(0).getMetadata().getResourceVersion());
+    }
+
+    private List<String> names(List<CiliumNetworkPolicy> policies) {
+        return policies.stream().map(policy -> policy.getMetadata().getName()).toList();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void startWith(CompletableFuture<Void> sync) {
+        lenient().when(informer.getIndexer()).thenReturn(store);
+        lenient().when(informer.getStore()).thenReturn(store);
+        when(informer.start()).thenReturn(sync);
+
+        policyCache.start(informer);
+
+        ArgumentCaptor<Map<String, Function<CiliumNetworkPolicy, List<String>>>> indexers =
+                ArgumentCaptor.forClass(Map.class);
+        verify(informer).addIndexers(indexers.capture());
+        store.addIndexers(indexers.getValue());
+    }
+
+    private CiliumNetworkPolicy policy(String name, String namespace) {
+        CiliumNetworkPolicy policy = new CiliumNetworkPolicy();
+        policy.setMetadata(new ObjectMetaBuilder().withName(name).withNamespace(namespace).build());
+        return policy;
+    }
+
+    private CiliumNetworkPolicy policy(String name, String namespace, String resourceVersion) {
+        CiliumNetworkPolicy policy = policy(name, namespace);
+        policy.getMetadata().setResourceVersion(resourceVersion);
+        return policy;
+    }
+}
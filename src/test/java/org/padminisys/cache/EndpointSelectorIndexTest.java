@@ -0,0 +1,95 @@
+package org.padminisys.cache;
+
+import io.fabric8.kubernetes.api.model.ObjectMetaBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.padminisys.model.CiliumNetworkPolicy;
+import org.padminisys.model.CiliumNetworkPolicySpec;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Unit tests for the endpoint selector inverted label index.
+ */
+class EndpointSelectorIndexTest {
+
+    EndpointSelectorIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new EndpointSelectorIndex();
+        index.policyCache = mock(CiliumNetworkPolicyCache.class);
+
+        index.eventHandler.onAdd(policy("web", "tenant-a", Map.of("app", "web", "tier", "front")));
+        index.eventHandler.onAdd(policy("api", "tenant-a", Map.of("app", "api", "tier", "front")));
+        index.eventHandler.onAdd(policy("web", "tenant-b", Map.of("app", "web", "tier", "front")));
+        index.eventHandler.onAdd(policy("db", "tenant-b", Map.of("app", "db")));
+    }
+
+    @Test
+    void testSingleLabelLookup() {
+        assertEquals(List.of("tenant-a/web", "tenant-b/web"), index.find(null, Map.of("app", "web")));
+    }
+
+    @Test
+    void testMultipleLabelsAreIntersected() {
+        assertEquals(List.of("tenant-a/api"), index.find(null, Map.of("tier", "front", "app", "api")));
+        assertEquals(List.of("tenant-a/api", "tenant-a/web", "tenant-b/web"), index.find(null, Map.of("tier", "front")));
+    }
+
+    @Test
+    void testNamespaceRestriction() {
+        assertEquals(List.of("tenant-b/web"), index.find("tenant-b", Map.of("app", "web")));
+        assertEquals(List.of("tenant-a/web"), index.find("tenant-a", Map.of("app", "web", "tier", "front")));
+    }
+
+    @Test
+    void testUnknownLabelMatchesNothing() {
+        assertTrue(index.find(null, Map.of("app", "web", "zone", "eu")).isEmpty());
+        assertTrue(index.find(null, Map.of("app", "cache")).isEmpty());
+    }
+
+    @Test
+    void testUpdateMovesPolicyBetweenPostings() {
+        CiliumNetworkPolicy oldPolicy = policy("web", "tenant-a", Map.of("app", "web", "tier", "front"));
+        CiliumNetworkPolicy newPolicy = policy("web", "tenant-a", Map.of("app", "web", "tier", "back"));
+
+        index.eventHandler.onUpdate(oldPolicy, newPolicy);
+
+        assertEquals(List.of("tenant-a/web"), index.find(null, Map.of("tier", "back")));
+        assertEquals(List.of("tenant-a/api", "tenant-b/web"), index.find(null, Map.of("tier", "front")));
+    }
+
+    @Test
+    void testDeleteRemovesPolicy() {
+        index.eventHandler.onDelete(policy("db", "tenant-b", Map.of("app", "db")), false);
+
+        assertTrue(index.find(null, Map.of("app", "db")).isEmpty());
+        assertEquals(List.of("tenant-a/web", "tenant-b/web"), index.find(null, Map.of("app", "web")));
+    }
+
+    @Test
+    void testPolicyWithoutSpecIsIndexedWithoutLabels() {
+        CiliumNetworkPolicy policy = new CiliumNetworkPolicy();
+        policy.setMetadata(new ObjectMetaBuilder().withName("empty").withNamespace("tenant-a").build());
+
+        index.eventHandler.onAdd(policy);
+
+        assertEquals(List.of("tenant-a/api", "tenant-a/web", "tenant-b/web"), index.find(null, Map.of("tier", "front")));
+    }
+
+    private CiliumNetworkPolicy policy(String name, String namespace, Map<String, String> endpointLabels) {
+        CiliumNetworkPolicy policy = new CiliumNetworkPolicy();
+        policy.setMetadata(new ObjectMetaBuilder().withName(name).withNamespace(namespace).build());
+
+        CiliumNetworkPolicySpec spec = new CiliumNetworkPolicySpec();
+        spec.setEndpointSelector(new CiliumNetworkPolicySpec.EndpointSelector(new HashMap<>(endpointLabels)));
+        policy.setSpec(spec);
+        return policy;
+    }
+}
@@ -0,0 +1,156 @@
+package org.padminisys.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.padminisys.dto.NamespaceRequest;
+import org.padminisys.exception.IdempotencyKeyReuseException;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for IdempotencyStore replay, expiry and eviction.
+ */
+class IdempotencyStoreTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final AtomicInteger calls = new AtomicInteger();
+    private IdempotencyStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new IdempotencyStore();
+        store.objectMapper = new ObjectMapper();
+        store.ttl = Duration.ofMinutes(10);
+        store.maxEntries = 100;
+        store.nanoClock = now::get;
+    }
+
+    @Test
+    void testReplayReturnsOriginalResponse() {
+        IdempotencyStore.Outcome<String> first = store.execute("namespaces", "key-1", new NamespaceRequest("tenant-a"), this::create);
+        IdempotencyStore.Outcome<String> retry = store.execute("namespaces", "key-1", new NamespaceRequest("tenant-a"), this::create);
+
+        assertEquals("response-1", first.response());
+        assertFalse(first.replayed());
+        assertEquals("response-1", retry.response());
+        assertTrue(retry.replayed());
+        assertEquals(1, calls.get());
+        assertEquals(1, store.getReplays());
+    }
+
+    @Test
+    void testKeysAreScoped() {
+        store.execute("namespaces", "key-1", new NamespaceRequest("tenant-a"), this::create);
+        IdempotencyStore.Outcome<String> other = store.execute("cilium-network-policies", "key-1",
+                new NamespaceRequest("tenant-a"), this::create);
+
+        assertFalse(other.replayed());
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void testKeyReusedWithDifferentRequestIsRejected() {
+        store.execute("namespaces", "key-1", new NamespaceRequest("tenant-a"), this::create);
+
+        IdempotencyKeyReuseException exception = assertThrows(IdempotencyKeyReuseException.class,
+                () -> store.execute("namespaces", "key-1", new NamespaceRequest("tenant-b"), this::create));
+
+        assertTrue(exception.getMessage().contains("key-1"));
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void testFailureIsNotRemembered() {
+        assertThrows(RuntimeException.class, () -> store.execute("namespaces", "key-1", new NamespaceRequest("tenant-a"),
+                () -> {
+                    throw new RuntimeException("Failed to create namespace: Forbidden");
+                }));
+
+        IdempotencyStore.Outcome<String> retry = store.execute("namespaces", "key-1", new NamespaceRequest("tenant-a"), this::create);
+
+        assertFalse(retry.replayed());
+        assertEquals(0, store.getReplays());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void testEntriesExpireAfterTtl() {
+        store.execute("namespaces", "key-1", new NamespaceRequest("tenant-a"), this::create);
+        now.addAndGet(Duration.ofMinutes(10).toNanos());
+
+        IdempotencyStore.Outcome<String> retry = store.execute("namespaces", "key-1", new NamespaceRequest("tenant-a"), this::create);
+
+        assertFalse(retry.replayed());
+        assertEquals(2, calls.get());
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    void testOldestEntriesAreEvictedBeyondMaxEntries() {
+        store.maxEntries = 2;
+        store.execute("namespaces", "key-1", new NamespaceRequest("tenant-a"), this::create);
+        store.execute("namespaces", "key-2", new NamespaceRequest("tenant-a"), this::create);
+        store.execute("namespaces", "key-3", new NamespaceRequest("tenant-a"), this::create);
+
+        assertEquals(2, store.size());
+        assertFalse(store.execute("namespaces", "key-1", new NamespaceRequest("tenant-a"), this::create).replayed());
+        assertTrue(store.execute("namespaces", "key-3", new NamespaceRequest("tenant-a"), this::create).replayed());
+    }
+
+    @Test
+    void testWithoutKeyEveryRequestRuns() {
+        store.execute("namespaces", null, new NamespaceRequest("tenant-a"), this::create);
+        store.execute("namespaces", " ", new NamespaceRequest("tenant-a"), this::create);
+
+        assertEquals(2, calls.get());
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    void testConcurrentRetryWaitsForOriginal() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            Future<IdempotencyStore.Outcome<String>> original = executor.submit(() ->
+                    store.execute("namespaces", "key-1", new NamespaceRequest("tenant-a"), () -> {
+                        started.countDown();
+                        awaitUninterruptibly(release);
+                        return create();
+                    }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            Future<IdempotencyStore.Outcome<String>> retry = executor.submit(() ->
+                    store.execute("namespaces", "key-1", new NamespaceRequest("tenant-a"), this::create));
+            release.countDown();
+
+            assertFalse(original.get(5, TimeUnit.SECONDS).replayed());
+            assertEquals("response-1", retry.get(5, TimeUnit.SECONDS).response());
+            assertTrue(retry.get().replayed());
+            assertEquals(1, calls.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private String create() {
+        return "response-" + calls.incrementAndGet();
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package org.padminisys.cache;
+
+import io.fabric8.kubernetes.api.model.Namespace;
+import io.fabric8.kubernetes.api.model.NamespaceBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for NamespaceCache event handling.
+ */
+class NamespaceCacheTest {
+
+    NamespaceCache namespaceCache;
+
+    @BeforeEach
+    void setUp() {
+        namespaceCache = new NamespaceCache();
+        namespaceCache.enabled = true;
+    }
+
+    @Test
+    void testWatchEventsMaintainNamespaceSet() {
+        Namespace tenantA = namespace("tenant-a");
+        Namespace tenantB = namespace("tenant-b");
+
+        namespaceCache.eventHandler.onAdd(tenantA);
+        namespaceCache.eventHandler.onAdd(tenantB);
+        assertTrue(namespaceCache.contains("tenant-a"));
+        assertTrue(namespaceCache.contains("tenant-b"));
+
+        namespaceCache.eventHandler.onUpdate(tenantA, tenantA);
+        assertTrue(namespaceCache.contains("tenant-a"));
+
+        namespaceCache.eventHandler.onDelete(tenantA, false);
+        assertFalse(namespaceCache.contains("tenant-a"));
+        assertTrue(namespaceCache.contains("tenant-b"));
+    }
+
+    @Test
+    void testUnknownNamespaceIsAMiss() {
+        assertFalse(namespaceCache.contains("not-yet-watched"));
+    }
+
+    @Test
+    void testDisabledCacheAlwaysMisses() {
+        namespaceCache.eventHandler.onAdd(namespace("tenant-a"));
+        namespaceCache.enabled = false;
+
+        assertFalse(namespaceCache.contains("tenant-a"));
+    }
+
+    private Namespace namespace(String name) {
+        return new NamespaceBuilder().withNewMetadata().withName(name).endMetadata().build();
+    }
+}
@@ -0,0 +1,149 @@
+package org.padminisys.cache;
+
+import io.fabric8.kubernetes.api.model.ObjectMetaBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.padminisys.dto.CiliumNetworkPolicyRequest;
+import org.padminisys.model.CiliumNetworkPolicy;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for PolicyConversionCache memoization and eviction.
+ */
+class PolicyConversionCacheTest {
+
+    PolicyConversionCache conversionCache;
+    AtomicInteger conversions;
+    Function<CiliumNetworkPolicy, CiliumNetworkPolicyRequest> converter;
+
+    @BeforeEach
+    void setUp() {
+        conversionCache = new PolicyConversionCache();
+        conversionCache.policyCache = mock(CiliumNetworkPolicyCache.class);
+        conversions = new AtomicInteger();
+        converter = policy -> {
+            conversions.incrementAndGet();
+            CiliumNetworkPolicyRequest request = new CiliumNetworkPolicyRequest();
+            request.setName(policy.getMetadata().getName());
+            return request;
+        };
+    }
+
+    @Test
+    void testSameResourceVersionIsConvertedOnce() {
+        CiliumNetworkPolicyRequest first = conversionCache.convert(policy("web", "1"), converter);
+        CiliumNetworkPolicyRequest second = conversionCache.convert(policy("web", "1"), converter);
+
+        assertSame(first, second);
+        assertEquals(1, conversions.get());
+        assertEquals(1, conversionCache.getHits());
+        assertEquals(1, conversionCache.getMisses());
+    }
+
+    @Test
+    void testNewResourceVersionIsReconverted() {
+        CiliumNetworkPolicyRequest first = conversionCache.convert(policy("web", "1"), converter);
+        CiliumNetworkPolicyRequest second = conversionCache.convert(policy("web", "2"), converter);
+
+        assertNotSame(first, second);
+        assertEquals(2, conversions.get());
+        assertEquals(1, conversionCache.size());
+    }
+
+    @Test
+    void testUpdateEventEvictsEntry() {
+        conversionCache.convert(policy("web", "1"), converter);
+
+        conversionCache.eventHandler.onUpdate(policy("web", "1"), policy("web", "2"));
+
+        assertEquals(0, conversionCache.size());
+    }
+
+    @Test
+    void testResyncWithSameResourceVersionKeepsEntry() {
+        conversionCache.convert(policy("web", "1"), converter);
+
+        conversionCache.eventHandler.onUpdate(policy("web", "1"), policy("web", "1"));
+
+        assertEquals(1, conversionCache.size());
+    }
+
+    @Test
+    void testDeleteEventEvictsEntry() {
+        conversionCache.convert(policy("web", "1"), converter);
+        conversionCache.convert(policy("db", "1"), converter);
+
+        conversionCache.eventHandler.onDelete(policy("web", "1"), false);
+
+        assertEquals(1, conversionCache.size());
+        conversionCache.convert(policy("db", "1"), converter);
+        assertEquals(1, conversionCache.getHits());
+    }
+
+    @Test
+    void testConversionRacingDeleteIsNotCached() {
+        // Given the delete event ran while the policy was being converted
+        when(conversionCache.policyCache.isEnabled()).thenReturn(true);
+        when(conversionCache.policyCache.getByKey("tenant-a/web")).thenReturn(null);
+
+        // When
+        CiliumNetworkPolicyRequest request = conversionCache.convert(policy("web", "1"), converter);
+
+        // Then
+        assertEquals("web", request.getName());
+        assertEquals(0, conversionCache.size());
+    }
+
+    @Test
+    void testConversionOfStaleVersionIsNotCached() {
+        // Given
+        when(conversionCache.policyCache.isEnabled()).thenReturn(true);
+        when(conversionCache.policyCache.getByKey("tenant-a/web")).thenReturn(policy("web", "2"));
+
+        // When
+        conversionCache.convert(policy("web", "1"), converter);
+
+        // Then
+        assertEquals(0, conversionCache.size());
+    }
+
+    @Test
+    void testConversionOfCurrentVersionIsCached() {
+        // Given
+        when(conversionCache.policyCache.isEnabled()).thenReturn(true);
+        when(conversionCache.policyCache.getByKey("tenant-a/web")).thenReturn(policy("web", "1"));
+
+        // When
+        conversionCache.convert(policy("web", "1"), converter);
+        conversionCache.convert(policy("web", "1"), converter);
+
+        // Then
+        assertEquals(1, conversionCache.size());
+        assertEquals(1, conversions.get());
+    }
+
+    @Test
+    void testPolicyWithoutResourceVersionIsNotCached() {
+        conversionCache.convert(policy("web", null), converter);
+        conversionCache.convert(policy("web", null), converter);
+
+        assertEquals(2, conversions.get());
+        assertEquals(0, conversionCache.size());
+    }
+
+    private CiliumNetworkPolicy policy(String name, String resourceVersion) {
+        CiliumNetworkPolicy policy = new CiliumNetworkPolicy();
+        policy.setMetadata(new ObjectMetaBuilder()
+                .withName(name)
+                .withNamespace("tenant-a")
+                .withResourceVersion(resourceVersion)
+                .build());
+        return policy;
+    }
+}
@@ -0,0 +1,102 @@
+package org.padminisys.cache;
+
+import io.fabric8.kubernetes.api.model.ObjectMetaBuilder;
+import jakarta.ws.rs.core.EntityTag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.padminisys.model.CiliumNetworkPolicy;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for PolicyETags tag computation.
+ */
+@ExtendWith(MockitoExtension.class)
+class PolicyETagsTest {
+
+    @Mock
+    CiliumNetworkPolicyCache policyCache;
+
+    @InjectMocks
+    PolicyETags policyETags;
+
+    @Test
+    void testPolicyTagIsResourceVersion() {
+        when(policyCache.isEnabled()).thenReturn(true);
+        when(policyCache.get("tenant-a", "web")).thenReturn(policy("web", "42"));
+
+        EntityTag etag = policyETags.forPolicy("tenant-a", "web");
+
+        assertEquals("42", etag.getValue());
+        assertFalse(etag.isWeak());
+    }
+
+    @Test
+    void testMissingPolicyHasNoTag() {
+        when(policyCache.isEnabled()).thenReturn(true);
+        when(policyCache.get("tenant-a", "web")).thenReturn(null);
+
+        assertNull(policyETags.forPolicy("tenant-a", "web"));
+    }
+
+    @Test
+    void testNamespaceTagIgnoresListOrder() {
+        when(policyCache.isEnabled()).thenReturn(true);
+        when(policyCache.listByNamespace("tenant-a"))
+                .thenReturn(List.of(policy("web", "1"), policy("db", "2")))
+                .thenReturn(List.of(policy("db", "2"), policy("web", "1")));
+
+        assertEquals(policyETags.forNamespace("tenant-a"), policyETags.forNamespace("tenant-a"));
+    }
+
+    @Test
+    void testNamespaceTagChangesWithAnyItem() {
+        when(policyCache.isEnabled()).thenReturn(true);
+        when(policyCache.listByNamespace("tenant-a"))
+                .thenReturn(List.of(policy("web", "1"), policy("db", "2")))
+                .thenReturn(List.of(policy("web", "1"), policy("db", "3")))
+                .thenReturn(List.of(policy("web", "1")));
+
+        EntityTag original = policyETags.forNamespace("tenant-a");
+        EntityTag updated = policyETags.forNamespace("tenant-a");
+        EntityTag deleted = policyETags.forNamespace("tenant-a");
+
+        assertNotEquals(original, updated);
+        assertNotEquals(original, deleted);
+        assertNotEquals(updated, deleted);
+    }
+
+    @Test
+    void testEmptyNamespaceHasNoTag() {
+        when(policyCache.isEnabled()).thenReturn(true);
+        when(policyCache.listByNamespace("tenant-a")).thenReturn(List.of());
+
+        assertNull(policyETags.forNamespace("tenant-a"));
+    }
+
+    @Test
+    void testDisabledCacheHasNoTags() {
+        when(policyCache.isEnabled()).thenReturn(false);
+
+        assertNull(policyETags.forPolicy("tenant-a", "web"));
+        assertNull(policyETags.forNamespace("tenant-a"));
+        verify(policyCache, never()).get(anyString(), anyString());
+        verify(policyCache, never()).listByNamespace(anyString());
+    }
+
+    private CiliumNetworkPolicy policy(String name, String resourceVersion) {
+        CiliumNetworkPolicy policy = new CiliumNetworkPolicy();
+        policy.setMetadata(new ObjectMetaBuilder()
+                .withName(name)
+                .withNamespace("tenant-a")
+                .withResourceVersion(resourceVersion)
+                .build());
+        return policy;
+    }
+}
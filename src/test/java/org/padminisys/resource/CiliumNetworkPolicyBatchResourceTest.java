@@ -0,0 +1,120 @@
+package org.padminisys.resource;
+
+import io.quarkus.test.InjectMock;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.padminisys.dto.CiliumNetworkPolicyBatchResult;
+import org.padminisys.service.CiliumNetworkPolicyBatchService;
+
+import java.time.Instant;
+import java.util.List;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@QuarkusTest
+class CiliumNetworkPolicyBatchResourceTest {
+
+    @InjectMock
+    CiliumNetworkPolicyBatchService batchService;
+
+    @BeforeEach
+    void setUp() {
+        Mockito.reset(batchService);
+    }
+
+    @Test
+    void testCreateBatch_Success() {
+        // Given
+        when(batchService.createCiliumNetworkPolicies(anyList())).thenReturn(List.of(
+                new CiliumNetworkPolicyBatchResult(0, "web", "tenant-a", "CREATED", Instant.now(), "CiliumNetworkPolicy created successfully"),
+                CiliumNetworkPolicyBatchResult.failed(1, "db", "missing", "Namespace 'missing' does not exist")
+        ));
+
+        // When & Then
+        given()
+                .urlEncodingEnabled(false)
+                .contentType(ContentType.JSON)
+                .body("[" + item("tenant-a", "web") + "," + item("missing", "db") + "]")
+                .when()
+                .post("/api/v1/cilium-network-policies:batch")
+                .then()
+                .statusCode(200)
+                .body("size()", equalTo(2))
+                .body("[0].index", equalTo(0))
+                .body("[0].status", equalTo("CREATED"))
+                .body("[1].status", equalTo("FAILED"))
+                .body("[1].message", equalTo("Namespace 'missing' does not exist"))
+                .body("[1].createdAt", nullValue());
+    }
+
+    @Test
+    void testCreateBatch_InvalidBatchReturnsBadRequest() {
+        // Given
+        when(batchService.createCiliumNetworkPolicies(anyList()))
+                .thenThrow(new IllegalArgumentException("Item 1: duplicate policy name 'web' in namespace 'tenant-a'"));
+
+        // When & Then
+        given()
+                .urlEncodingEnabled(false)
+                .contentType(ContentType.JSON)
+                .body("[" + item("tenant-a", "web") + "," + item("tenant-a", "web") + "]")
+                .when()
+                .post("/api/v1/cilium-network-policies:batch")
+                .then()
+                .statusCode(400)
+                .body("error", containsString("duplicate policy name"));
+    }
+
+    @Test
+    void testCreateBatch_EmptyBatchRejected() {
+        given()
+                .urlEncodingEnabled(false)
+                .contentType(ContentType.JSON)
+                .body("[]")
+                .when()
+                .post("/api/v1/cilium-network-policies:batch")
+                .then()
+                .statusCode(400);
+
+        verify(batchService, never()).createCiliumNetworkPolicies(anyList());
+    }
+
+    @Test
+    void testCreateBatch_InvalidItemRejected() {
+        given()
+                .urlEncodingEnabled(false)
+                .contentType(ContentType.JSON)
+                .body("[" + item("tenant-a", "web") + ", {\"labels\": {\"app\": \"db\"}}]")
+                .when()
+                .post("/api/v1/cilium-network-policies:batch")
+                .then()
+                .statusCode(400);
+
+        verify(batchService, never()).createCiliumNetworkPolicies(anyList());
+    }
+
+    private String item(String namespace, String name) {
+        return """
+            {
+                "namespace": "%s",
+                "name": "%s",
+                "labels": {"app": "%s"},
+                "ingressRules": [
+                    {
+                        "ruleType": "INGRESS_ALLOW",
+                        "ipAddresses": ["203.0.113.10/32"],
+                        "ports": [{"protocol": "TCP", "port": 443}]
+                    }
+                ]
+            }
+            """.formatted(namespace, name, name);
+    }
+}
@@ -3,21 +3,35 @@ package org.padminisys.resource;
 import io.quarkus.test.junit.QuarkusTest;
 import io.quarkus.test.InjectMock;
 import io.restassured.http.ContentType;
+import jakarta.ws.rs.core.EntityTag;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
+import org.padminisys.cache.PolicyETags;
+import org.padminisys.dto.CidrLookupMatch;
+import org.padminisys.dto.CiliumNetworkPolicyPage;
 import org.padminisys.dto.CiliumNetworkPolicyRequest;
 import org.padminisys.dto.CiliumNetworkPolicyResponse;
+import org.padminisys.exception.ApiServerBusyException;
+import org.padminisys.exception.PolicyConflictException;
+import org.padminisys.exception.PolicyRuleNotFoundException;
 import org.padminisys.service.KubernetesService;
 import org.padminisys.service.CiliumNetworkPolicyService;
 
 import java.time.Instant;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 import static io.restassured.RestAssured.given;
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @QuarkusTest
@@ -29,10 +43,14 @@ class CiliumNetworkPolicyResourceTest {
     @InjectMock
     CiliumNetworkPolicyService ciliumNetworkPolicyService;
 
+    @InjectMock
+    PolicyETags policyETags;
+
     @BeforeEach
     void setUp() {
         Mockito.reset(kubernetesService);
         Mockito.reset(ciliumNetworkPolicyService);
+        Mockito.reset(policyETags);
     }
 
     @Test
@@ -126,6 +144,66 @@ class CiliumNetworkPolicyResourceTest {
                 .body("error", containsString("Failed to create CiliumNetworkPolicy"));
     }
 
+    @Test
+    void testCreateCiliumNetworkPolicy_AggregationRejectsMalformedCidr() {
+        // Given
+        when(kubernetesService.createCiliumNetworkPolicy(any(CiliumNetworkPolicyRequest.class)))
+                .thenThrow(new IllegalArgumentException("Invalid CIDR: 10.0.0.0/33"));
+
+        // When & Then
+        given()
+                .contentType(ContentType.JSON)
+                .body(createValidRequest())
+                .when()
+                .post("/api/v1/cilium-network-policies")
+                .then()
+                .statusCode(400)
+                .body("error", is("Invalid request: Invalid CIDR: 10.0.0.0/33"));
+    }
+
+    @Test
+    void testCreateCiliumNetworkPolicy_ApiServerBusy() {
+        // Given
+        when(kubernetesService.createCiliumNetworkPolicy(any(CiliumNetworkPolicyRequest.class)))
+                .thenThrow(new ApiServerBusyException("Kubernetes API write rate limit exceeded, try again later", 3));
+
+        // When & Then
+        given()
+                .contentType(ContentType.JSON)
+                .body(createValidRequest())
+                .when()
+                .post("/api/v1/cilium-network-policies")
+                .then()
+                .statusCode(503)
+                .header("Retry-After", "3")
+                .body("errorCode", is("SERVICE_UNAVAILABLE"))
+                .body("message", containsString("rate limit exceeded"));
+    }
+
+    @Test
+    void testCreateCiliumNetworkPolicy_IdempotentRetryIsReplayed() {
+        // Given
+        when(kubernetesService.createCiliumNetworkPolicy(any(CiliumNetworkPolicyRequest.class)))
+                .thenReturn(new CiliumNetworkPolicyResponse("dell-computers-abc123", "test-namespace", "CREATED",
+                        Instant.now(), "CiliumNetworkPolicy created successfully", "dell-computers-abc123"));
+
+        // When & Then
+        for (int i = 0; i < 2; i++) {
+            given()
+                    .contentType(ContentType.JSON)
+                    .header("Idempotency-Key", "cnp-retry-1")
+                    .body(createValidRequest())
+                    .when()
+                    .post("/api/v1/cilium-network-policies")
+                    .then()
+                    .statusCode(201)
+                    .header("Idempotent-Replayed", i == 0 ? nullValue() : equalTo("true"))
+                    .body("name", equalTo("dell-computers-abc123"));
+        }
+
+        verify(kubernetesService, Mockito.times(1)).createCiliumNetworkPolicy(any(CiliumNetworkPolicyRequest.class));
+    }
+
     @Test
     void testCreateCiliumNetworkPolicy_InvalidRequest_MissingNamespace() {
         // When & Then
@@ -702,6 +780,43 @@ class CiliumNetworkPolicyResourceTest {
                 .body("error", containsString("CiliumNetworkPolicy not found"));
     }
 
+    @Test
+    void testGetCiliumNetworkPolicyByName_ReturnsETag() {
+        // Given
+        when(policyETags.forPolicy("test-namespace", "gb7yp-md0dy8")).thenReturn(new EntityTag("4711"));
+        when(ciliumNetworkPolicyService.getCiliumNetworkPolicyByName("gb7yp-md0dy8", "test-namespace"))
+                .thenReturn(createMockPolicyRequest());
+
+        // When & Then
+        given()
+                .queryParam("namespace", "test-namespace")
+                .header("If-None-Match", "\"4710\"")
+                .when()
+                .get("/api/v1/cilium-network-policies/gb7yp-md0dy8")
+                .then()
+                .statusCode(200)
+                .header("ETag", equalTo("\"4711\""))
+                .body("name", equalTo("gb7yp-md0dy8"));
+    }
+
+    @Test
+    void testGetCiliumNetworkPolicyByName_NotModified() {
+        // Given
+        when(policyETags.forPolicy("test-namespace", "gb7yp-md0dy8")).thenReturn(new EntityTag("4711"));
+
+        // When & Then
+        given()
+                .queryParam("namespace", "test-namespace")
+                .header("If-None-Match", "\"4711\"")
+                .when()
+                .get("/api/v1/cilium-network-policies/gb7yp-md0dy8")
+                .then()
+                .statusCode(304)
+                .header("ETag", equalTo("\"4711\""));
+
+        verify(ciliumNetworkPolicyService, never()).getCiliumNetworkPolicyByName("gb7yp-md0dy8", "test-namespace");
+    }
+
     @Test
     void testGetCiliumNetworkPolicyByName_MissingNamespaceParam() {
         // When & Then
@@ -720,7 +835,7 @@ class CiliumNetworkPolicyResourceTest {
                 createMockPolicyRequest2()
         );
         when(ciliumNetworkPolicyService.getCiliumNetworkPoliciesByNamespace("test-namespace"))
-                .thenReturn(mockPolicies);
+                .thenReturn(new CiliumNetworkPolicyService.TaggedPolicies(mockPolicies, null));
 
         // When & Then
         given()
@@ -737,11 +852,180 @@ class CiliumNetworkPolicyResourceTest {
                 .body("[1].labels.serial", equalTo("GB7YH"));
     }
 
+    @Test
+    void testGetCiliumNetworkPoliciesByNamespace_NotModified() {
+        // Given
+        when(policyETags.forNamespace("test-namespace")).thenReturn(new EntityTag("0a1b2c"));
+
+        // When & Then
+        given()
+                .header("If-None-Match", "\"0a1b2c\"")
+                .when()
+                .get("/api/v1/cilium-network-policies/namespace/test-namespace")
+                .then()
+                .statusCode(304);
+
+        verify(ciliumNetworkPolicyService, never()).getCiliumNetworkPoliciesByNamespace("test-namespace");
+    }
+
+    @Test
+    void testGetCiliumNetworkPoliciesByNamespace_TagsListReturned() {
+        // Given a policy changed between the If-None-Match check and the read
+        when(policyETags.forNamespace("test-namespace")).thenReturn(new EntityTag("0a1b2c"));
+        when(ciliumNetworkPolicyService.getCiliumNetworkPoliciesByNamespace("test-namespace"))
+                .thenReturn(new CiliumNetworkPolicyService.TaggedPolicies(
+                        List.of(createMockPolicyRequest()), new EntityTag("3d4e5f")));
+
+        // When & Then
+        given()
+                .header("If-None-Match", "\"0a1b2c-stale\"")
+                .when()
+                .get("/api/v1/cilium-network-policies/namespace/test-namespace")
+                .then()
+                .statusCode(200)
+                .header("ETag", equalTo("\"3d4e5f\""))
+                .body("", hasSize(1));
+    }
+
+    @Test
+    void testGetCiliumNetworkPoliciesByNamespace_Paginated() {
+        // Given
+        when(ciliumNetworkPolicyService.getCiliumNetworkPoliciesByNamespace("test-namespace", 1, "abc"))
+                .thenReturn(new CiliumNetworkPolicyPage(List.of(createMockPolicyRequest()), "def"));
+
+        // When & Then
+        given()
+                .queryParam("limit", 1)
+                .queryParam("continue", "abc")
+                .when()
+                .get("/api/v1/cilium-network-policies/namespace/test-namespace")
+                .then()
+                .statusCode(200)
+                .header("X-Continue-Token", equalTo("def"))
+                .body("", hasSize(1))
+                .body("[0].name", equalTo("gb7yp-md0dy8"));
+    }
+
+    @Test
+    void testGetCiliumNetworkPoliciesByNamespace_LastPageHasNoContinueToken() {
+        // Given
+        when(ciliumNetworkPolicyService.getCiliumNetworkPoliciesByNamespace("test-namespace", 10, null))
+                .thenReturn(new CiliumNetworkPolicyPage(List.of(createMockPolicyRequest()), null));
+
+        // When & Then
+        given()
+                .queryParam("limit", 10)
+                .when()
+                .get("/api/v1/cilium-network-policies/namespace/test-namespace")
+                .then()
+                .statusCode(200)
+                .header("X-Continue-Token", nullValue())
+                .body("", hasSize(1));
+    }
+
+    @Test
+    void testGetCiliumNetworkPoliciesByNamespace_InvalidLimit() {
+        // When & Then
+        given()
+                .queryParam("limit", 0)
+                .when()
+                .get("/api/v1/cilium-network-policies/namespace/test-namespace")
+                .then()
+                .statusCode(400);
+    }
+
+    @Test
+    void testGetCiliumNetworkPoliciesByNamespace_ContinueWithoutLimit() {
+        // When & Then
+        given()
+                .queryParam("continue", "abc")
+                .when()
+                .get("/api/v1/cilium-network-policies/namespace/test-namespace")
+                .then()
+                .statusCode(400)
+                .body("error", containsString("continue requires limit"));
+    }
+
+    @Test
+    void testGetCiliumNetworkPoliciesByNamespace_ExpiredContinueToken() {
+        // Given
+        when(ciliumNetworkPolicyService.getCiliumNetworkPoliciesByNamespace("test-namespace", 10, "stale"))
+                .thenThrow(new RuntimeException("Continue token has expired, restart the listing from the first page"));
+
+        // When & Then
+        given()
+                .queryParam("limit", 10)
+                .queryParam("continue", "stale")
+                .when()
+                .get("/api/v1/cilium-network-policies/namespace/test-namespace")
+                .then()
+                .statusCode(410)
+                .body("error", containsString("Continue token has expired"));
+    }
+
+    @Test
+    void testGetCiliumNetworkPoliciesByNamespace_StreamsNdjson() {
+        // Given
+        when(ciliumNetworkPolicyService.streamCiliumNetworkPoliciesByNamespace("test-namespace"))
+                .thenReturn(Stream.of(createMockPolicyRequest(), createMockPolicyRequest2()));
+
+        // When
+        String body = given()
+                .accept("application/x-ndjson")
+                .when()
+                .get("/api/v1/cilium-network-policies/namespace/test-namespace")
+                .then()
+                .statusCode(200)
+                .contentType(startsWith("application/x-ndjson"))
+                .extract().asString();
+
+        // Then
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].contains("\"serial\":\"GB7YP\""));
+        assertTrue(lines[1].contains("\"serial\":\"GB7YH\""));
+        verify(ciliumNetworkPolicyService, never()).getCiliumNetworkPoliciesByNamespace("test-namespace");
+    }
+
+    @Test
+    void testGetCiliumNetworkPoliciesByNamespace_NdjsonNamespaceNotFound() {
+        // Given
+        when(ciliumNetworkPolicyService.streamCiliumNetworkPoliciesByNamespace("non-existent"))
+                .thenThrow(new RuntimeException("Namespace 'non-existent' does not exist"));
+
+        // When & Then
+        given()
+                .accept("application/x-ndjson")
+                .when()
+                .get("/api/v1/cilium-network-policies/namespace/non-existent")
+                .then()
+                .statusCode(404);
+    }
+
+    @Test
+    void testGetCiliumNetworkPoliciesByNamespace_PaginatedNdjson() {
+        // Given
+        when(ciliumNetworkPolicyService.getCiliumNetworkPoliciesByNamespace("test-namespace", 1, null))
+                .thenReturn(new CiliumNetworkPolicyPage(List.of(createMockPolicyRequest()), "def"));
+
+        // When & Then
+        given()
+                .accept("application/x-ndjson")
+                .queryParam("limit", 1)
+                .when()
+                .get("/api/v1/cilium-network-policies/namespace/test-namespace")
+                .then()
+                .statusCode(200)
+                .contentType(startsWith("application/x-ndjson"))
+                .header("X-Continue-Token", equalTo("def"))
+                .body(containsString("\"name\":\"gb7yp-md0dy8\""));
+    }
+
     @Test
     void testGetCiliumNetworkPoliciesByNamespace_EmptyResult() {
         // Given
         when(ciliumNetworkPolicyService.getCiliumNetworkPoliciesByNamespace("empty-namespace"))
-                .thenReturn(List.of());
+                .thenReturn(new CiliumNetworkPolicyService.TaggedPolicies(List.of(), null));
 
         // When & Then
         given()
@@ -827,6 +1111,75 @@ class CiliumNetworkPolicyResourceTest {
                 .body("", hasSize(2));
     }
 
+    @Test
+    void testFindCiliumNetworkPolicyRulesByCidr_Success() {
+        // Given
+        when(ciliumNetworkPolicyService.findCiliumNetworkPolicyRulesByCidr("10.1.2.3")).thenReturn(List.of(
+                new CidrLookupMatch("deny-range", "test-namespace", CiliumNetworkPolicyRequest.RuleType.EGRESS_DENY, "10.1.0.0/16"),
+                new CidrLookupMatch("allow-private", "test-namespace", CiliumNetworkPolicyRequest.RuleType.EGRESS_ALLOW, "10.0.0.0/8")));
+
+        // When & Then
+        given()
+                .queryParam("ip", "10.1.2.3")
+                .when()
+                .get("/api/v1/cilium-network-policies/cidr-lookup")
+                .then()
+                .statusCode(200)
+                .body("", hasSize(2))
+                .body("[0].name", equalTo("deny-range"))
+                .body("[0].ruleType", equalTo("EGRESS_DENY"))
+                .body("[0].cidr", equalTo("10.1.0.0/16"))
+                .body("[1].namespace", equalTo("test-namespace"));
+    }
+
+    @Test
+    void testFindCiliumNetworkPolicyRulesByCidr_InvalidAddress() {
+        // Given
+        when(ciliumNetworkPolicyService.findCiliumNetworkPolicyRulesByCidr("10.0.0.256"))
+                .thenThrow(new IllegalArgumentException("Invalid CIDR: 10.0.0.256"));
+
+        // When & Then
+        given()
+                .queryParam("ip", "10.0.0.256")
+                .when()
+                .get("/api/v1/cilium-network-policies/cidr-lookup")
+                .then()
+                .statusCode(400)
+                .body("error", equalTo("Invalid ip parameter: Invalid CIDR: 10.0.0.256"));
+    }
+
+    @Test
+    void testFindCiliumNetworkPolicyRulesByCidr_MissingAddress() {
+        // When & Then
+        given()
+                .when()
+                .get("/api/v1/cilium-network-policies/cidr-lookup")
+                .then()
+                .statusCode(400);
+
+        verify(ciliumNetworkPolicyService, never()).findCiliumNetworkPolicyRulesByCidr(any());
+    }
+
+    @Test
+    void testGetCiliumNetworkPoliciesByEndpointSelector_StreamsNdjson() {
+        // Given
+        when(ciliumNetworkPolicyService.streamCiliumNetworkPoliciesByEndpointSelector("test-namespace", Map.of("serial", "GB7YP")))
+                .thenReturn(Stream.of(createMockPolicyRequest()));
+
+        // When & Then
+        given()
+                .accept("application/x-ndjson")
+                .queryParam("namespace", "test-namespace")
+                .queryParam("labels", "serial=GB7YP")
+                .when()
+                .get("/api/v1/cilium-network-policies/endpoint-selector")
+                .then()
+                .statusCode(200)
+                .contentType(startsWith("application/x-ndjson"))
+                .body(endsWith("}\n"))
+                .body(containsString("\"name\":\"gb7yp-md0dy8\""));
+    }
+
     @Test
     void testGetCiliumNetworkPoliciesByEndpointSelector_InvalidLabelsFormat() {
         // When & Then
@@ -906,6 +1259,120 @@ class CiliumNetworkPolicyResourceTest {
         return request;
     }
 
+    @Test
+    void testPatchCiliumNetworkPolicyRules_Success() {
+        // Given
+        CiliumNetworkPolicyResponse patched = new CiliumNetworkPolicyResponse("web", "test-namespace", "UPDATED",
+                Instant.now(), "CiliumNetworkPolicy rules patched successfully", "web");
+        patched.setResourceVersion("4712");
+        when(ciliumNetworkPolicyService.patchCiliumNetworkPolicyRules(eq("web"), eq("test-namespace"), any(), eq("4711")))
+                .thenReturn(patched);
+
+        // When & Then
+        given()
+                .contentType(ContentType.JSON)
+                .queryParam("namespace", "test-namespace")
+                .header("If-Match", "\"4711\"")
+                .body("{\"add\":[{\"ruleType\":\"EGRESS_ALLOW\",\"ipAddresses\":[\"10.1.0.0/16\"]}]}")
+                .when()
+                .patch("/api/v1/cilium-network-policies/web/rules")
+                .then()
+                .statusCode(200)
+                .header("ETag", equalTo("\"4712\""))
+                .body("status", equalTo("UPDATED"))
+                .body("resourceVersion", equalTo("4712"));
+    }
+
+    @Test
+    void testPatchCiliumNetworkPolicyRules_WithoutIfMatch() {
+        // Given
+        CiliumNetworkPolicyResponse patched = new CiliumNetworkPolicyResponse("web", "test-namespace", "UPDATED",
+                Instant.now(), "CiliumNetworkPolicy rules patched successfully", "web");
+        patched.setResourceVersion("4712");
+        when(ciliumNetworkPolicyService.patchCiliumNetworkPolicyRules(eq("web"), eq("test-namespace"), any(), isNull()))
+                .thenReturn(patched);
+
+        // When & Then
+        given()
+                .contentType(ContentType.JSON)
+                .queryParam("namespace", "test-namespace")
+                .body("{\"remove\":[{\"ruleType\":\"INGRESS_ALLOW\",\"fromLabels\":{\"app\":\"frontend\"}}]}")
+                .when()
+                .patch("/api/v1/cilium-network-policies/web/rules")
+                .then()
+                .statusCode(200);
+    }
+
+    @Test
+    void testPatchCiliumNetworkPolicyRules_Conflict() {
+        // Given
+        when(ciliumNetworkPolicyService.patchCiliumNetworkPolicyRules(eq("web"), eq("test-namespace"), any(), eq("4711")))
+                .thenThrow(new PolicyConflictException("CiliumNetworkPolicy 'web' has changed since resourceVersion 4711; re-read it and retry"));
+
+        // When & Then
+        given()
+                .contentType(ContentType.JSON)
+                .queryParam("namespace", "test-namespace")
+                .header("If-Match", "\"4711\"")
+                .body("{\"add\":[{\"ruleType\":\"EGRESS_ALLOW\",\"ipAddresses\":[\"10.1.0.0/16\"]}]}")
+                .when()
+                .patch("/api/v1/cilium-network-policies/web/rules")
+                .then()
+                .statusCode(409)
+                .body("errorCode", equalTo("CONFLICT"));
+    }
+
+    @Test
+    void testPatchCiliumNetworkPolicyRules_RuleNotFound() {
+        // Given
+        when(ciliumNetworkPolicyService.patchCiliumNetworkPolicyRules(eq("web"), eq("test-namespace"), any(), isNull()))
+                .thenThrow(new PolicyRuleNotFoundException("Rule IngressRule{} not found in CiliumNetworkPolicy 'web' in namespace 'test-namespace'"));
+
+        // When & Then: the policy exists, so a missing rule is not a 404
+        given()
+                .contentType(ContentType.JSON)
+                .queryParam("namespace", "test-namespace")
+                .body("{\"remove\":[{\"ruleType\":\"INGRESS_ALLOW\",\"ipAddresses\":[\"10.0.0.0/8\"]}]}")
+                .when()
+                .patch("/api/v1/cilium-network-policies/web/rules")
+                .then()
+                .statusCode(422)
+                .body("errorCode", equalTo("RULE_NOT_FOUND"));
+    }
+
+    @Test
+    void testPatchCiliumNetworkPolicyRules_PolicyNotFound() {
+        // Given
+        when(ciliumNetworkPolicyService.patchCiliumNetworkPolicyRules(eq("web"), eq("test-namespace"), any(), isNull()))
+                .thenThrow(new RuntimeException("CiliumNetworkPolicy 'web' not found in namespace 'test-namespace'"));
+
+        // When & Then
+        given()
+                .contentType(ContentType.JSON)
+                .queryParam("namespace", "test-namespace")
+                .body("{\"remove\":[{\"ruleType\":\"INGRESS_ALLOW\",\"ipAddresses\":[\"10.0.0.0/8\"]}]}")
+                .when()
+                .patch("/api/v1/cilium-network-policies/web/rules")
+                .then()
+                .statusCode(404)
+                .body("error", containsString("not found"));
+    }
+
+    @Test
+    void testPatchCiliumNetworkPolicyRules_InvalidRule() {
+        // When & Then
+        given()
+                .contentType(ContentType.JSON)
+                .queryParam("namespace", "test-namespace")
+                .body("{\"add\":[{\"ruleType\":\"EGRESS_ALLOW\",\"ipAddresses\":[\"not-a-cidr\"]}]}")
+                .when()
+                .patch("/api/v1/cilium-network-policies/web/rules")
+                .then()
+                .statusCode(400);
+
+        verify(ciliumNetworkPolicyService, never()).patchCiliumNetworkPolicyRules(any(), any(), any(), any());
+    }
+
     @Test
     void testDeleteCiliumNetworkPolicy_Success() {
         // Given
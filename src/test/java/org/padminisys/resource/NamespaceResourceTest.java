@@ -8,6 +8,7 @@ import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.padminisys.dto.NamespaceRequest;
 import org.padminisys.dto.NamespaceResponse;
+import org.padminisys.exception.ApiServerBusyException;
 import org.padminisys.service.KubernetesService;
 
 import java.time.Instant;
@@ -16,7 +17,9 @@ import static io.restassured.RestAssured.given;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 
@@ -141,6 +144,85 @@ class NamespaceResourceTest {
         verify(kubernetesService).createNamespace(any(NamespaceRequest.class));
     }
 
+    @Test
+    void testCreateNamespaceApiServerBusy() {
+        // Given
+        Mockito.when(kubernetesService.createNamespace(any(NamespaceRequest.class)))
+                .thenThrow(new ApiServerBusyException("Too many Kubernetes API calls queued, try again later", 1));
+
+        // When & Then
+        given()
+                .contentType(ContentType.JSON)
+                .body("{\"name\": \"test-namespace\"}")
+                .when()
+                .post("/api/v1/namespaces")
+                .then()
+                .statusCode(503)
+                .header("Retry-After", "1")
+                .body("message", containsString("Too many Kubernetes API calls queued"));
+    }
+
+    @Test
+    void testCreateNamespaceIdempotentRetryIsReplayed() {
+        // Given
+        Mockito.when(kubernetesService.createNamespace(any(NamespaceRequest.class)))
+                .thenReturn(new NamespaceResponse("retry-namespace", "CREATED", Instant.now(), "Namespace created successfully"));
+
+        // When & Then
+        given()
+                .contentType(ContentType.JSON)
+                .header("Idempotency-Key", "ns-retry-1")
+                .body("{\"name\": \"retry-namespace\"}")
+                .when()
+                .post("/api/v1/namespaces")
+                .then()
+                .statusCode(201)
+                .header("Idempotent-Replayed", nullValue());
+
+        given()
+                .contentType(ContentType.JSON)
+                .header("Idempotency-Key", "ns-retry-1")
+                .body("{\"name\": \"retry-namespace\"}")
+                .when()
+                .post("/api/v1/namespaces")
+                .then()
+                .statusCode(201)
+                .header("Idempotent-Replayed", "true")
+                .body("name", is("retry-namespace"))
+                .body("status", is("CREATED"));
+
+        verify(kubernetesService, times(1)).createNamespace(any(NamespaceRequest.class));
+    }
+
+    @Test
+    void testCreateNamespaceIdempotencyKeyReuse() {
+        // Given
+        Mockito.when(kubernetesService.createNamespace(any(NamespaceRequest.class)))
+                .thenReturn(new NamespaceResponse("first-namespace", "CREATED", Instant.now(), "Namespace created successfully"));
+
+        given()
+                .contentType(ContentType.JSON)
+                .header("Idempotency-Key", "ns-reuse-1")
+                .body("{\"name\": \"first-namespace\"}")
+                .when()
+                .post("/api/v1/namespaces")
+                .then()
+                .statusCode(201);
+
+        // When & Then
+        given()
+                .contentType(ContentType.JSON)
+                .header("Idempotency-Key", "ns-reuse-1")
+                .body("{\"name\": \"second-namespace\"}")
+                .when()
+                .post("/api/v1/namespaces")
+                .then()
+                .statusCode(422)
+                .body("errorCode", is("IDEMPOTENCY_KEY_REUSED"));
+
+        verify(kubernetesService, times(1)).createNamespace(any(NamespaceRequest.class));
+    }
+
     @Test
     void testKubernetesHealthCheckUp() {
         // Given
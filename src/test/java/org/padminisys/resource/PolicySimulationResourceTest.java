@@ -0,0 +1,229 @@
+package org.padminisys.resource;
+
+import io.quarkus.test.InjectMock;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import io.restassured.path.json.JsonPath;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.padminisys.dto.CiliumNetworkPolicyRequest;
+import org.padminisys.dto.ConnectivityMatrixRow;
+import org.padminisys.dto.PolicySimulationRequest;
+import org.padminisys.dto.PolicySimulationResponse;
+import org.padminisys.dto.PolicySimulationResponse.Decision;
+import org.padminisys.dto.PolicySimulationResponse.Verdict;
+import org.padminisys.service.PolicySimulationService;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@QuarkusTest
+class PolicySimulationResourceTest {
+
+    @InjectMock
+    PolicySimulationService policySimulationService;
+
+    @BeforeEach
+    void setUp() {
+        Mockito.reset(policySimulationService);
+    }
+
+    @Test
+    void testSimulateConnection_Denied() {
+        // Given
+        when(policySimulationService.simulate(any(PolicySimulationRequest.class))).thenReturn(new PolicySimulationResponse(
+                new Verdict(Decision.ALLOWED_BY_DEFAULT, List.of()),
+                new Verdict(Decision.DENIED, List.of("tenant-a/deny-frontend"))));
+
+        // When & Then
+        given()
+                .contentType(ContentType.JSON)
+                .body("""
+                        {
+                          "source": {"namespace": "tenant-a", "labels": {"app": "frontend"}},
+                          "destination": {"namespace": "tenant-a", "labels": {"app": "web"}},
+                          "protocol": "TCP",
+                          "port": 8080
+                        }
+                        """)
+                .when()
+                .post("/api/v1/policy-simulations")
+                .then()
+                .statusCode(200)
+                .body("allowed", is(false))
+                .body("egress.decision", is("ALLOWED_BY_DEFAULT"))
+                .body("egress.policies", nullValue())
+                .body("ingress.decision", is("DENIED"))
+                .body("ingress.policies", contains("tenant-a/deny-frontend"));
+    }
+
+    @Test
+    void testGetConnectivityMatrix_StreamsRows() {
+        // Given
+        when(policySimulationService.computeConnectivityMatrix("tenant-a", CiliumNetworkPolicyRequest.Protocol.TCP, 8080))
+                .thenReturn(Stream.of(
+                        new ConnectivityMatrixRow(Map.of("app", "frontend"), List.of(
+                                new ConnectivityMatrixRow.Cell(Map.of("app", "web"), Decision.ALLOWED_BY_DEFAULT, Decision.ALLOWED))),
+                        new ConnectivityMatrixRow(Map.of("app", "web"), List.of(
+                                new ConnectivityMatrixRow.Cell(Map.of("app", "frontend"), Decision.ALLOWED_BY_DEFAULT, Decision.DENIED)))));
+
+        // When
+        String body = given()
+                .queryParam("protocol", "TCP")
+                .queryParam("port", 8080)
+                .when()
+                .get("/api/v1/policy-simulations/matrix/tenant-a")
+                .then()
+                .statusCode(200)
+                .contentType(CiliumNetworkPolicyResource.APPLICATION_NDJSON)
+                .extract().asString();
+
+        // Then
+        String[] lines = body.strip().split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("frontend", JsonPath.from(lines[0]).getString("source.app"));
+        assertTrue(JsonPath.from(lines[0]).getBoolean("destinations[0].allowed"));
+        assertEquals("DENIED", JsonPath.from(lines[1]).getString("destinations[0].ingress"));
+    }
+
+    @Test
+    void testGetConnectivityMatrix_MissingPort() {
+        // When & Then
+        given()
+                .queryParam("protocol", "TCP")
+                .when()
+                .get("/api/v1/policy-simulations/matrix/tenant-a")
+                .then()
+                .statusCode(400);
+
+        verifyNoInteractions(policySimulationService);
+    }
+
+    @Test
+    void testGetConnectivityMatrix_ServiceError() {
+        // Given
+        when(policySimulationService.computeConnectivityMatrix("tenant-a", CiliumNetworkPolicyRequest.Protocol.UDP, 53))
+                .thenThrow(new RuntimeException("Failed to get CiliumNetworkPolicies: connection refused"));
+
+        // When & Then
+        given()
+                .queryParam("protocol", "UDP")
+                .queryParam("port", 53)
+                .when()
+                .get("/api/v1/policy-simulations/matrix/tenant-a")
+                .then()
+                .statusCode(500)
+                .body("error", is("Failed to compute connectivity matrix: Failed to get CiliumNetworkPolicies: connection refused"));
+    }
+
+    @Test
+    void testGetConnectivityMatrix_InvalidNamespace() {
+        // When & Then
+        given()
+                .queryParam("protocol", "TCP")
+                .queryParam("port", 8080)
+                .when()
+                .get("/api/v1/policy-simulations/matrix/Tenant_A")
+                .then()
+                .statusCode(400);
+
+        verifyNoInteractions(policySimulationService);
+    }
+
+    @Test
+    void testGetConnectivityMatrix_NamespaceNotFound() {
+        // Given
+        when(policySimulationService.computeConnectivityMatrix("missing", CiliumNetworkPolicyRequest.Protocol.TCP, 8080))
+                .thenThrow(new RuntimeException("Namespace 'missing' does not exist"));
+
+        // When & Then
+        given()
+                .queryParam("protocol", "TCP")
+                .queryParam("port", 8080)
+                .when()
+                .get("/api/v1/policy-simulations/matrix/missing")
+                .then()
+                .statusCode(404)
+                .contentType(ContentType.JSON)
+                .body("error", is("Namespace not found: Namespace 'missing' does not exist"));
+    }
+
+    @Test
+    void testSimulateConnection_NamespaceNotFound() {
+        // Given
+        when(policySimulationService.simulate(any(PolicySimulationRequest.class)))
+                .thenThrow(new RuntimeException("Namespace 'missing' does not exist"));
+
+        // When & Then
+        given()
+                .contentType(ContentType.JSON)
+                .body("""
+                        {
+                          "source": {"ipAddress": "203.0.113.7"},
+                          "destination": {"namespace": "missing"},
+                          "protocol": "TCP",
+                          "port": 8080
+                        }
+                        """)
+                .when()
+                .post("/api/v1/policy-simulations")
+                .then()
+                .statusCode(404)
+                .body("error", is("Namespace not found: Namespace 'missing' does not exist"));
+    }
+
+    @Test
+    void testSimulateConnection_InvalidPort() {
+        // When & Then
+        given()
+                .contentType(ContentType.JSON)
+                .body("""
+                        {
+                          "source": {"ipAddress": "203.0.113.7"},
+                          "destination": {"namespace": "tenant-a"},
+                          "protocol": "TCP",
+                          "port": 70000
+                        }
+                        """)
+                .when()
+                .post("/api/v1/policy-simulations")
+                .then()
+                .statusCode(400);
+
+        verifyNoInteractions(policySimulationService);
+    }
+
+    @Test
+    void testSimulateConnection_InvalidEndpoint() {
+        // Given
+        when(policySimulationService.simulate(any(PolicySimulationRequest.class)))
+                .thenThrow(new IllegalArgumentException("At least one side of the connection must be a pod"));
+
+        // When & Then
+        given()
+                .contentType(ContentType.JSON)
+                .body("""
+                        {
+                          "source": {"ipAddress": "203.0.113.7"},
+                          "destination": {"ipAddress": "198.51.100.1"},
+                          "protocol": "UDP",
+                          "port": 53
+                        }
+                        """)
+                .when()
+                .post("/api/v1/policy-simulations")
+                .then()
+                .statusCode(400)
+                .body("error", is("Invalid request: At least one side of the connection must be a pod"));
+    }
+}
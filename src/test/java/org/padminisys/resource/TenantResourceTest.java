@@ -0,0 +1,148 @@
+package org.padminisys.resource;
+
+import io.quarkus.test.InjectMock;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.padminisys.dto.CiliumNetworkPolicyBatchResult;
+import org.padminisys.dto.NamespaceResponse;
+import org.padminisys.dto.ServiceAccountResponse;
+import org.padminisys.dto.TenantRequest;
+import org.padminisys.dto.TenantResponse;
+import org.padminisys.service.TenantProvisioningService;
+
+import java.time.Instant;
+import java.util.List;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@QuarkusTest
+class TenantResourceTest {
+
+    @InjectMock
+    TenantProvisioningService tenantProvisioningService;
+
+    @BeforeEach
+    void setUp() {
+        Mockito.reset(tenantProvisioningService);
+    }
+
+    @Test
+    void testProvisionTenant_Created() {
+        // Given
+        when(tenantProvisioningService.provisionTenant(any(TenantRequest.class)))
+                .thenReturn(response("CREATED", List.of()));
+
+        // When & Then
+        given()
+                .contentType(ContentType.JSON)
+                .body("{\"name\": \"acme\", \"serviceAccountName\": \"acme-sa\"}")
+                .when()
+                .post("/api/v1/tenants")
+                .then()
+                .statusCode(201)
+                .body("name", is("acme"))
+                .body("status", is("CREATED"))
+                .body("namespace.status", is("CREATED"))
+                .body("serviceAccount.name", is("acme-sa"))
+                .body("policies[0].name", is("baseline-namespace-isolation"))
+                .body("failures", empty());
+    }
+
+    @Test
+    void testProvisionTenant_AlreadyExists() {
+        // Given
+        TenantResponse response = response("EXISTS", List.of());
+        response.getNamespace().setStatus("EXISTS");
+        when(tenantProvisioningService.provisionTenant(any(TenantRequest.class))).thenReturn(response);
+
+        // When & Then
+        given()
+                .contentType(ContentType.JSON)
+                .body("{\"name\": \"acme\", \"serviceAccountName\": \"acme-sa\"}")
+                .when()
+                .post("/api/v1/tenants")
+                .then()
+                .statusCode(200)
+                .body("status", is("EXISTS"));
+    }
+
+    @Test
+    void testProvisionTenant_PartialFailure() {
+        // Given
+        when(tenantProvisioningService.provisionTenant(any(TenantRequest.class)))
+                .thenReturn(response(TenantResponse.STATUS_PARTIAL, List.of("Service account 'acme-sa': Forbidden")));
+
+        // When & Then
+        given()
+                .contentType(ContentType.JSON)
+                .body("{\"name\": \"acme\", \"serviceAccountName\": \"acme-sa\"}")
+                .when()
+                .post("/api/v1/tenants")
+                .then()
+                .statusCode(500)
+                .body("status", is("PARTIAL"))
+                .body("failures[0]", containsString("Forbidden"));
+    }
+
+    @Test
+    void testProvisionTenant_NamespaceFailure() {
+        // Given
+        when(tenantProvisioningService.provisionTenant(any(TenantRequest.class)))
+                .thenThrow(new RuntimeException("Failed to create namespace: Connection refused"));
+
+        // When & Then
+        given()
+                .contentType(ContentType.JSON)
+                .body("{\"name\": \"acme\", \"serviceAccountName\": \"acme-sa\"}")
+                .when()
+                .post("/api/v1/tenants")
+                .then()
+                .statusCode(500)
+                .body("message", containsString("Connection refused"));
+    }
+
+    @Test
+    void testProvisionTenant_InvalidName() {
+        given()
+                .contentType(ContentType.JSON)
+                .body("{\"name\": \"Acme_Corp\", \"serviceAccountName\": \"acme-sa\"}")
+                .when()
+                .post("/api/v1/tenants")
+                .then()
+                .statusCode(400);
+
+        verifyNoInteractions(tenantProvisioningService);
+    }
+
+    @Test
+    void testProvisionTenant_MissingServiceAccountName() {
+        given()
+                .contentType(ContentType.JSON)
+                .body("{\"name\": \"acme\"}")
+                .when()
+                .post("/api/v1/tenants")
+                .then()
+                .statusCode(400);
+
+        verifyNoInteractions(tenantProvisioningService);
+    }
+
+    private TenantResponse response(String status, List<String> failures) {
+        return new TenantResponse(
+                "acme",
+                status,
+                new NamespaceResponse("acme", "CREATED", Instant.now(), "Namespace created successfully"),
+                new ServiceAccountResponse("acme-sa", "acme", "CREATED", Instant.now(), "Service account created successfully"),
+                List.of(new CiliumNetworkPolicyBatchResult(0, "baseline-namespace-isolation", "acme", "CREATED",
+                        Instant.now(), "CiliumNetworkPolicy created successfully")),
+                failures
+        );
+    }
+}
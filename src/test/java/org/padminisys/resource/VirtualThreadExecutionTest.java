@@ -0,0 +1,143 @@
+package org.padminisys.resource;
+
+import io.fabric8.kubernetes.api.model.Namespace;
+import io.fabric8.kubernetes.api.model.NamespaceList;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.dsl.NonNamespaceOperation;
+import io.fabric8.kubernetes.client.dsl.Resource;
+import io.quarkus.test.InjectMock;
+import io.quarkus.test.common.http.TestHTTPResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.quarkus.test.junit.mockito.MockitoConfig;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.padminisys.service.ApiServerLimiter;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+
+/**
+ * Verifies that REST requests run on virtual threads, so slow blocking Kubernetes calls are not
+ * limited by the size of the worker thread pool, while the {@link ApiServerLimiter} still caps the
+ * calls in flight toward the API server. Only the Kubernetes client is mocked, so every request
+ * passes the real resource, service and ApiServerCall interceptor.
+ */
+@QuarkusTest
+@TestProfile(VirtualThreadExecutionTest.UnthrottledProfile.class)
+class VirtualThreadExecutionTest {
+
+    private static final int REQUESTS = 5000;
+    private static final int WORKER_POOL_SIZE = 200;
+    private static final long CALL_MILLIS = 50;
+
+    /**
+     * Lifts the rate limits and the queue bound, so all requests wait for a permit instead of
+     * being turned away, and only the concurrency cap applies.
+     */
+    public static class UnthrottledProfile implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of(
+                    "ppcs.kubernetes.rate-limit.enabled", "false",
+                    "ppcs.kubernetes.max-queued-calls", String.valueOf(REQUESTS * 2));
+        }
+    }
+
+    @InjectMock
+    @MockitoConfig(convertScopes = true)
+    KubernetesClient kubernetesClient;
+
+    @Inject
+    ApiServerLimiter limiter;
+
+    @ConfigProperty(name = "ppcs.kubernetes.max-concurrent-calls")
+    int maxConcurrentCalls;
+
+    @TestHTTPResource("/api/v1/namespaces")
+    URI namespacesUri;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testSlowBlockingCallsRunOnVirtualThreadsAndAreCappedAtTheApiServer() throws Exception {
+        // Given a Kubernetes client whose namespace creation blocks for a while
+        AtomicInteger platformThreadCalls = new AtomicInteger();
+        AtomicInteger concurrent = new AtomicInteger();
+        AtomicInteger maxConcurrent = new AtomicInteger();
+        NonNamespaceOperation<Namespace, NamespaceList, Resource<Namespace>> namespaces = Mockito.mock(NonNamespaceOperation.class);
+        Mockito.when(kubernetesClient.namespaces()).thenReturn(namespaces);
+        Mockito.when(namespaces.create(any(Namespace.class))).thenAnswer(invocation -> {
+            if (!Thread.currentThread().isVirtual()) {
+                platformThreadCalls.incrementAndGet();
+            }
+            maxConcurrent.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(CALL_MILLIS);
+            } finally {
+                concurrent.decrementAndGet();
+            }
+            Namespace namespace = invocation.getArgument(0);
+            namespace.getMetadata().setCreationTimestamp(Instant.now().toString());
+            return namespace;
+        });
+
+        // When far more requests than worker threads or permits arrive at once
+        AtomicInteger maxWaiting = new AtomicInteger();
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread sampler = Thread.ofVirtual().start(() -> {
+            while (running.get()) {
+                maxWaiting.accumulateAndGet(limiter.getInFlight() + limiter.getQueuedCalls(), Math::max);
+                try {
+                    Thread.sleep(1);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        });
+        List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>(REQUESTS);
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(30)).build();
+        try {
+            for (int i = 0; i < REQUESTS; i++) {
+                HttpRequest request = HttpRequest.newBuilder(namespacesUri)
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString("{\"name\": \"tenant-" + i + "\"}"))
+                        .build();
+                responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.ofString()));
+            }
+            CompletableFuture.allOf(responses.toArray(CompletableFuture[]::new)).get(120, TimeUnit.SECONDS);
+        } finally {
+            client.shutdownNow();
+            running.set(false);
+            sampler.join();
+        }
+
+        // Then every request succeeded on a virtual thread, more requests were waiting at once than
+        // the worker pool could hold, and the client never saw more calls than there are permits
+        for (CompletableFuture<HttpResponse<String>> response : responses) {
+            assertEquals(201, response.get().statusCode());
+        }
+        assertEquals(0, platformThreadCalls.get());
+        assertTrue(maxWaiting.get() > WORKER_POOL_SIZE, "max waiting requests was " + maxWaiting.get());
+        assertTrue(maxConcurrent.get() <= maxConcurrentCalls,
+                "max concurrent client calls was " + maxConcurrent.get() + " with " + maxConcurrentCalls + " permits");
+        assertEquals(maxConcurrentCalls, maxConcurrent.get());
+        assertEquals(0, limiter.getInFlight());
+    }
+}
@@ -0,0 +1,131 @@
+package org.padminisys.service;
+
+import io.quarkus.test.InjectMock;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.mockito.InjectSpy;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.padminisys.cache.CiliumNetworkPolicyCache;
+import org.padminisys.cache.NamespaceCache;
+import org.padminisys.dto.CiliumNetworkPolicyRequest;
+import org.padminisys.dto.PolicySimulationRequest;
+import org.padminisys.dto.PolicySimulationRequest.Endpoint;
+import org.padminisys.model.CiliumNetworkPolicy;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Verifies through the real {@link ApiServerCallInterceptor} that reads served from the policy
+ * and namespace caches do not draw from the Kubernetes API rate limit.
+ */
+@QuarkusTest
+class ApiServerCallGatingTest {
+
+    // More calls than the read burst, which would be throttled if each took a token
+    private static final int CALLS = 500;
+
+    @InjectSpy
+    ApiServerLimiter limiter;
+
+    @InjectMock
+    CiliumNetworkPolicyCache policyCache;
+
+    @InjectMock
+    NamespaceCache namespaceCache;
+
+    @Inject
+    PolicySimulationService policySimulationService;
+
+    @Inject
+    CiliumNetworkPolicyService ciliumNetworkPolicyService;
+
+    @Inject
+    KubernetesService kubernetesService;
+
+    @BeforeEach
+    void setUp() {
+        Mockito.reset(policyCache, namespaceCache);
+        when(policyCache.isEnabled()).thenReturn(true);
+        when(namespaceCache.contains(anyString())).thenReturn(true);
+    }
+
+    @Test
+    void testCachedSimulationsTakeNoToken() throws Exception {
+        // Given
+        when(policyCache.listByNamespace("gating-a")).thenReturn(List.of(webIngressPolicy("gating-a")));
+        PolicySimulationRequest request = new PolicySimulationRequest(
+                Endpoint.pod("gating-a", Map.of("app", "frontend")), Endpoint.pod("gating-a", Map.of("app", "web")),
+                CiliumNetworkPolicyRequest.Protocol.TCP, 8080);
+
+        // When
+        for (int i = 0; i < CALLS; i++) {
+            assertTrue(policySimulationService.simulate(request).isAllowed());
+        }
+
+        // Then
+        verify(limiter, never()).call(anyBoolean(), any());
+    }
+
+    @Test
+    void testCachedConnectivityMatricesTakeNoToken() throws Exception {
+        // Given
+        when(policyCache.listByNamespace("gating-b")).thenReturn(List.of(webIngressPolicy("gating-b")));
+
+        // When
+        for (int i = 0; i < CALLS; i++) {
+            assertEquals(1, policySimulationService
+                    .computeConnectivityMatrix("gating-b", CiliumNetworkPolicyRequest.Protocol.TCP, 8080).count());
+        }
+
+        // Then
+        verify(limiter, never()).call(anyBoolean(), any());
+    }
+
+    @Test
+    void testIndexedCidrLookupsTakeNoToken() throws Exception {
+        // When
+        for (int i = 0; i < CALLS; i++) {
+            assertTrue(ciliumNetworkPolicyService.findCiliumNetworkPolicyRulesByCidr("203.0.113.7").isEmpty());
+        }
+
+        // Then
+        verify(limiter, never()).call(anyBoolean(), any());
+    }
+
+    @Test
+    void testCachedNamespaceValidationTakesNoToken() throws Exception {
+        // When
+        for (int i = 0; i < CALLS; i++) {
+            kubernetesService.validateNamespaceExists("gating-c");
+        }
+
+        // Then
+        verify(limiter, never()).call(anyBoolean(), any());
+    }
+
+    private static CiliumNetworkPolicy webIngressPolicy(String namespace) {
+        CiliumNetworkPolicyRequest.PortRule port = new CiliumNetworkPolicyRequest.PortRule();
+        port.setProtocol(CiliumNetworkPolicyRequest.Protocol.TCP);
+        port.setPort(8080);
+        CiliumNetworkPolicyRequest.NetworkRule rule = new CiliumNetworkPolicyRequest.NetworkRule();
+        rule.setRuleType(CiliumNetworkPolicyRequest.RuleType.INGRESS_ALLOW);
+        rule.setFromLabels(Map.of("app", "frontend"));
+        rule.setPorts(List.of(port));
+        CiliumNetworkPolicyRequest request = new CiliumNetworkPolicyRequest();
+        request.setNamespace(namespace);
+        request.setLabels(Map.of("app", "web"));
+        request.setIngressRules(List.of(rule));
+        return CiliumNetworkPolicyMapper.toResource(request, "web");
+    }
+}
@@ -0,0 +1,276 @@
+package org.padminisys.service;
+
+import io.smallrye.mutiny.Uni;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.padminisys.exception.ApiServerBusyException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ApiServerLimiter.
+ */
+class ApiServerLimiterTest {
+
+    private ApiServerLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        limiter = new ApiServerLimiter();
+        limiter.maxConcurrentCalls = 50;
+        limiter.acquireTimeout = Duration.ofSeconds(30);
+        limiter.maxQueuedCalls = 10000;
+        limiter.init();
+    }
+
+    @Test
+    void testManySlowCallsOnVirtualThreadsAllComplete() throws Exception {
+        // Given 5000 concurrent callers, each blocking for 20ms in a call to the API server
+        AtomicInteger concurrent = new AtomicInteger();
+        AtomicInteger maxConcurrent = new AtomicInteger();
+        List<Future<Integer>> results = new ArrayList<>();
+
+        // When
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 5000; i++) {
+                int value = i;
+                results.add(executor.submit(() -> limiter.call(() -> {
+                    maxConcurrent.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+                    Thread.sleep(20);
+                    concurrent.decrementAndGet();
+                    return value;
+                })));
+            }
+        }
+
+        // Then every call completed, and never more than the limit ran at once
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(i, results.get(i).get());
+        }
+        assertTrue(maxConcurrent.get() <= 50, "max concurrent calls was " + maxConcurrent.get());
+        assertEquals(maxConcurrent.get(), limiter.getMaxObservedInFlight());
+        assertEquals(0, limiter.getInFlight());
+        assertEquals(0, limiter.getRejected());
+    }
+
+    @Test
+    void testAsyncCallsHoldPermitsUntilTheyComplete() {
+        // Given 2000 asynchronous calls, each completing 20ms after it starts
+        AtomicInteger concurrent = new AtomicInteger();
+        AtomicInteger maxConcurrent = new AtomicInteger();
+        List<Uni<Integer>> calls = new ArrayList<>();
+
+        // When
+        for (int i = 0; i < 2000; i++) {
+            int value = i;
+            calls.add(limiter.callAsync(false, () -> {
+                maxConcurrent.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+                return Uni.createFrom().item(value)
+                        .onItem().delayIt().by(Duration.ofMillis(20))
+                        .invoke(concurrent::decrementAndGet);
+            }));
+        }
+        List<Integer> results = Uni.join().all(calls).andFailFast().await().atMost(Duration.ofSeconds(60));
+
+        // Then every call completed, and never more than the limit were in flight at once
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(i, results.get(i));
+        }
+        assertTrue(maxConcurrent.get() <= 50, "max concurrent calls was " + maxConcurrent.get());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void testAsyncCallIsRejectedWhenNoPermitFreesUpInTime() {
+        // Given the only permit is held by an asynchronous call that has not completed
+        limiter.maxConcurrentCalls = 1;
+        limiter.acquireTimeout = Duration.ofMillis(50);
+        limiter.init();
+        CompletableFuture<String> response = new CompletableFuture<>();
+        Uni<String> holder = limiter.callAsync(false, () -> Uni.createFrom().completionStage(response)).memoize().indefinitely();
+        holder.subscribe().with(ignored -> { });
+        await(() -> limiter.getInFlight() == 1);
+
+        // When
+        ApiServerBusyException exception = assertThrows(ApiServerBusyException.class,
+                () -> limiter.callAsync(false, () -> Uni.createFrom().item("late")).await().atMost(Duration.ofSeconds(5)));
+
+        // Then the permit is only freed once the response arrives, and a failed call frees it too
+        assertEquals("Too many concurrent Kubernetes API calls, try again later", exception.getMessage());
+        response.complete("done");
+        assertEquals("done", holder.await().atMost(Duration.ofSeconds(5)));
+        assertThrows(IllegalStateException.class, () -> limiter.callAsync(false,
+                () -> Uni.createFrom().<String>failure(new IllegalStateException("boom"))).await().atMost(Duration.ofSeconds(5)));
+        assertEquals("next", limiter.callAsync(false, () -> Uni.createFrom().item("next")).await().atMost(Duration.ofSeconds(5)));
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void testNestedCallDoesNotTakeSecondPermit() throws Exception {
+        // Given a single permit
+        limiter.maxConcurrentCalls = 1;
+        limiter.acquireTimeout = Duration.ofMillis(100);
+        limiter.init();
+
+        // When a call makes a nested call on the same thread
+        String result = limiter.call(() -> limiter.call(() -> "nested"));
+
+        // Then it does not wait for itself
+        assertEquals("nested", result);
+        assertEquals(0, limiter.getRejected());
+    }
+
+    @Test
+    void testCallIsRejectedWhenNoPermitFreesUpInTime() throws Exception {
+        // Given the only permit is held by a slow call
+        limiter.maxConcurrentCalls = 1;
+        limiter.acquireTimeout = Duration.ofMillis(50);
+        limiter.init();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread holder = Thread.ofVirtual().start(() -> {
+            try {
+                limiter.call(() -> {
+                    started.countDown();
+                    return release.await(5, TimeUnit.SECONDS);
+                });
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // When
+        ApiServerBusyException exception = assertThrows(ApiServerBusyException.class, () -> limiter.call(() -> "late"));
+
+        // Then
+        assertEquals("Too many concurrent Kubernetes API calls, try again later", exception.getMessage());
+        assertEquals(1, exception.getRetryAfterSeconds());
+        assertEquals(1, limiter.getRejected());
+        release.countDown();
+        holder.join();
+        assertEquals("free", limiter.call(() -> "free"));
+    }
+
+    @Test
+    void testPermitIsReleasedWhenCallFails() throws Exception {
+        // Given a single permit
+        limiter.maxConcurrentCalls = 1;
+        limiter.acquireTimeout = Duration.ofMillis(50);
+        limiter.init();
+
+        // When a call fails
+        assertThrows(IllegalStateException.class, () -> limiter.call(() -> {
+            throw new IllegalStateException("boom");
+        }));
+
+        // Then the permit is available again
+        assertEquals("next", limiter.call(() -> "next"));
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void testFullQueueIsRejectedWithoutWaiting() throws Exception {
+        // Given the only permit is held and one caller is already waiting for it
+        limiter.maxConcurrentCalls = 1;
+        limiter.maxQueuedCalls = 1;
+        limiter.init();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread holder = Thread.ofVirtual().start(() -> {
+            try {
+                limiter.call(() -> {
+                    started.countDown();
+                    return release.await(5, TimeUnit.SECONDS);
+                });
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        Thread waiter = Thread.ofVirtual().start(() -> {
+            try {
+                limiter.call(() -> "queued");
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+        while (limiter.getQueuedCalls() == 0) {
+            Thread.sleep(1);
+        }
+
+        // When
+        long start = System.nanoTime();
+        ApiServerBusyException exception = assertThrows(ApiServerBusyException.class, () -> limiter.call(() -> "late"));
+
+        // Then the caller is turned away at once instead of timing out
+        assertEquals("Too many Kubernetes API calls queued, try again later", exception.getMessage());
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+        release.countDown();
+        holder.join();
+        waiter.join();
+    }
+
+    @Test
+    void testWritesAreRateLimitedSeparatelyFromReads() throws Exception {
+        // Given a write budget of a single token
+        limiter.rateLimitEnabled = true;
+        limiter.readQps = 1000;
+        limiter.readBurst = 1000;
+        limiter.writeQps = 0.1;
+        limiter.writeBurst = 1;
+        limiter.acquireTimeout = Duration.ofMillis(100);
+        limiter.init();
+
+        // When
+        assertEquals("first", limiter.call(true, () -> "first"));
+        ApiServerBusyException exception = assertThrows(ApiServerBusyException.class, () -> limiter.call(true, () -> "second"));
+
+        // Then the next write would wait about ten seconds, while reads are unaffected
+        assertEquals("Kubernetes API write rate limit exceeded, try again later", exception.getMessage());
+        assertTrue(exception.getRetryAfterSeconds() >= 9, "retry after " + exception.getRetryAfterSeconds());
+        assertEquals("read", limiter.call(false, () -> "read"));
+        assertEquals(1, limiter.getRejected());
+    }
+
+    @Test
+    void testQueuedCallWaitsForNextToken() throws Exception {
+        // Given 20 writes per second and no burst
+        limiter.rateLimitEnabled = true;
+        limiter.readQps = 1000;
+        limiter.readBurst = 1000;
+        limiter.writeQps = 20;
+        limiter.writeBurst = 1;
+        limiter.init();
+
+        // When
+        long start = System.nanoTime();
+        for (int i = 0; i < 4; i++) {
+            limiter.call(true, () -> null);
+        }
+
+        // Then the three calls after the first are spaced by the refill rate
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(140));
+        assertEquals(0, limiter.getRejected());
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not met in time");
+            Thread.onSpinWait();
+        }
+    }
+}
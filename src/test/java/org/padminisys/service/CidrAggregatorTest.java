@@ -0,0 +1,133 @@
+package org.padminisys.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for CidrAggregator.
+ */
+class CidrAggregatorTest {
+
+    @Test
+    void testDropsCoveredPrefixes() {
+        assertEquals(List.of("10.0.0.0/8"), CidrAggregator.aggregate(List.of("10.1.2.0/24", "10.0.0.0/8", "10.200.0.0/16")));
+    }
+
+    @Test
+    void testMergesSiblingsIntoSupernet() {
+        List<String> aggregated = CidrAggregator.aggregate(List.of(
+                "192.168.0.0/25", "192.168.0.128/25", "192.168.1.0/24", "192.168.3.0/24"));
+
+        assertEquals(List.of("192.168.0.0/23", "192.168.3.0/24"), aggregated);
+    }
+
+    @Test
+    void testSortsAndDeduplicates() {
+        assertEquals(List.of("10.0.0.1/32", "172.16.0.0/12"),
+                CidrAggregator.aggregate(List.of("172.16.0.0/12", "10.0.0.1/32", "172.16.0.0/12")));
+    }
+
+    @Test
+    void testIgnoresHostBits() {
+        assertEquals(List.of("10.0.0.0/24"), CidrAggregator.aggregate(List.of("10.0.0.77/24")));
+    }
+
+    @Test
+    void testDefaultRouteCoversEverything() {
+        assertEquals(List.of("0.0.0.0/0"), CidrAggregator.aggregate(List.of("1.2.3.4/32", "0.0.0.0/0", "255.255.255.255/32")));
+        assertEquals(List.of("0.0.0.0/0"), CidrAggregator.aggregate(List.of("0.0.0.0/1", "128.0.0.0/1")));
+    }
+
+    @Test
+    void testRejectsMalformedCidrs() {
+        for (String cidr : List.of("10.0.0.0", "10.0.0.0/33", "256.0.0.0/8", "10.0.0/8", "10.0.0.0/x", "10..0.0/8")) {
+            IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                    () -> CidrAggregator.aggregate(List.of(cidr)));
+            assertEquals("Invalid CIDR: " + cidr, exception.getMessage());
+        }
+    }
+
+    @Test
+    void testAggregatedPrefixesMatchSameAddresses() {
+        Random random = new Random(42);
+        List<String> cidrs = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            int prefixLength = 20 + random.nextInt(13);
+            cidrs.add(format(0xC0A80000 | random.nextInt(1 << 16), prefixLength));
+        }
+
+        List<String> aggregated = CidrAggregator.aggregate(cidrs);
+
+        assertTrue(aggregated.size() < cidrs.size());
+        boolean[] expected = addressesMatched(cidrs);
+        boolean[] actual = addressesMatched(aggregated);
+        for (int host = 0; host < 1 << 16; host++) {
+            int address = host;
+            assertEquals(expected[host], actual[host], () -> "Mismatch for " + format(0xC0A80000 | address, 32));
+        }
+        // Nothing left to merge: aggregating again changes nothing
+        assertEquals(aggregated, CidrAggregator.aggregate(aggregated));
+    }
+
+    @Test
+    void testAggregatesHundredThousandPrefixes() {
+        // Every /24 of 10.0.0.0/8, shuffled, plus /28s inside them and disjoint /32s
+        List<String> cidrs = new ArrayList<>();
+        for (int i = 0; i < 1 << 16; i++) {
+            cidrs.add(format(0x0A000000 | i << 8, 24));
+        }
+        Random random = new Random(7);
+        while (cidrs.size() < 90_000) {
+            cidrs.add(format(0x0A000000 | random.nextInt(1 << 24), 28));
+        }
+        for (int i = 0; cidrs.size() < 100_000; i += 2) {
+            cidrs.add(format(0x64400000 + i, 32));
+        }
+        Collections.shuffle(cidrs, random);
+
+        long start = System.nanoTime();
+        List<String> aggregated = CidrAggregator.aggregate(cidrs);
+        long elapsed = System.nanoTime() - start;
+
+        assertEquals(10_001, aggregated.size());
+        assertEquals("10.0.0.0/8", aggregated.get(0));
+        assertEquals("100.64.0.0/32", aggregated.get(1));
+        assertTrue(elapsed < TimeUnit.SECONDS.toNanos(2), () -> "Aggregation took " + TimeUnit.NANOSECONDS.toMillis(elapsed) + " ms");
+    }
+
+    /**
+     * Marks the addresses of 192.168.0.0/16 matched by any of the CIDRs, which all lie within it.
+     */
+    private static boolean[] addressesMatched(List<String> cidrs) {
+        boolean[] matched = new boolean[1 << 16];
+        for (String cidr : cidrs) {
+            String[] parts = cidr.split("/");
+            int size = 1 << (32 - Integer.parseInt(parts[1]));
+            int first = parse(parts[0]) & 0xFFFF & -size;
+            for (int host = first; host < first + size; host++) {
+                matched[host] = true;
+            }
+        }
+        return matched;
+    }
+
+    private static int parse(String address) {
+        int value = 0;
+        for (String octet : address.split("\\.")) {
+            value = value << 8 | Integer.parseInt(octet);
+        }
+        return value;
+    }
+
+    private static String format(int address, int prefixLength) {
+        return (address >>> 24) + "." + (address >>> 16 & 0xff) + "." + (address >>> 8 & 0xff) + "." + (address & 0xff)
+                + "/" + prefixLength;
+    }
+}
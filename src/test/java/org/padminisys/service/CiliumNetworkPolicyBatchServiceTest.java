@@ -0,0 +1,250 @@
+package org.padminisys.service;
+
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.padminisys.dto.CiliumNetworkPolicyBatchResult;
+import org.padminisys.dto.CiliumNetworkPolicyRequest;
+import org.padminisys.dto.CiliumNetworkPolicyResponse;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for CiliumNetworkPolicyBatchService with a mocked KubernetesService.
+ */
+@ExtendWith(MockitoExtension.class)
+class CiliumNetworkPolicyBatchServiceTest {
+
+    @Mock
+    KubernetesService kubernetesService;
+
+    @InjectMocks
+    CiliumNetworkPolicyBatchService batchService;
+
+    @BeforeEach
+    void setUp() {
+        batchService.maxConcurrency = 2;
+    }
+
+    @Test
+    void testCreateBatch_ResultsInRequestOrder() {
+        // Given
+        List<CiliumNetworkPolicyRequest> requests = List.of(
+                request("tenant-a", "web"), request("tenant-a", "db"), request("tenant-b", "api"));
+        when(kubernetesService.determinePolicyName(any())).thenAnswer(inv -> inv.<CiliumNetworkPolicyRequest>getArgument(0).getName());
+        when(kubernetesService.writeCiliumNetworkPolicy(any(), anyString()))
+                .thenAnswer(inv -> response(inv.getArgument(0), inv.getArgument(1)));
+
+        // When
+        List<CiliumNetworkPolicyBatchResult> results = batchService.createCiliumNetworkPolicies(requests);
+
+        // Then
+        assertEquals(3, results.size());
+        assertEquals(List.of("web", "db", "api"), results.stream().map(CiliumNetworkPolicyBatchResult::getName).toList());
+        assertEquals(List.of(0, 1, 2), results.stream().map(CiliumNetworkPolicyBatchResult::getIndex).toList());
+        assertTrue(results.stream().allMatch(result -> "CREATED".equals(result.getStatus())));
+    }
+
+    @Test
+    void testCreateBatch_ValidatesEachNamespaceOnce() {
+        // Given
+        List<CiliumNetworkPolicyRequest> requests = List.of(
+                request("tenant-a", "web"), request("tenant-a", "db"), request("tenant-a", "api"));
+        when(kubernetesService.determinePolicyName(any())).thenAnswer(inv -> inv.<CiliumNetworkPolicyRequest>getArgument(0).getName());
+        when(kubernetesService.writeCiliumNetworkPolicy(any(), anyString()))
+                .thenAnswer(inv -> response(inv.getArgument(0), inv.getArgument(1)));
+
+        // When
+        batchService.createCiliumNetworkPolicies(requests);
+
+        // Then
+        verify(kubernetesService, times(1)).validateNamespaceExists("tenant-a");
+        verify(kubernetesService, times(3)).writeCiliumNetworkPolicy(any(), anyString());
+    }
+
+    @Test
+    void testCreateBatch_MissingNamespaceFailsOnlyItsItems() {
+        // Given
+        List<CiliumNetworkPolicyRequest> requests = List.of(request("missing", "web"), request("tenant-a", "db"));
+        when(kubernetesService.determinePolicyName(any())).thenAnswer(inv -> inv.<CiliumNetworkPolicyRequest>getArgument(0).getName());
+        doThrow(new RuntimeException("Namespace 'missing' does not exist"))
+                .when(kubernetesService).validateNamespaceExists("missing");
+        when(kubernetesService.writeCiliumNetworkPolicy(any(), anyString()))
+                .thenAnswer(inv -> response(inv.getArgument(0), inv.getArgument(1)));
+
+        // When
+        List<CiliumNetworkPolicyBatchResult> results = batchService.createCiliumNetworkPolicies(requests);
+
+        // Then
+        assertEquals(CiliumNetworkPolicyBatchResult.STATUS_FAILED, results.get(0).getStatus());
+        assertEquals("Namespace 'missing' does not exist", results.get(0).getMessage());
+        assertEquals("CREATED", results.get(1).getStatus());
+        verify(kubernetesService, times(1)).writeCiliumNetworkPolicy(any(), anyString());
+    }
+
+    @Test
+    void testCreateBatch_WriteFailureFailsOnlyThatItem() {
+        // Given
+        List<CiliumNetworkPolicyRequest> requests = List.of(request("tenant-a", "web"), request("tenant-a", "db"));
+        when(kubernetesService.determinePolicyName(any())).thenAnswer(inv -> inv.<CiliumNetworkPolicyRequest>getArgument(0).getName());
+        when(kubernetesService.writeCiliumNetworkPolicy(any(), eq("web")))
+                .thenThrow(new RuntimeException("Failed to create CiliumNetworkPolicy: Forbidden"));
+        when(kubernetesService.writeCiliumNetworkPolicy(any(), eq("db")))
+                .thenAnswer(inv -> response(inv.getArgument(0), inv.getArgument(1)));
+
+        // When
+        List<CiliumNetworkPolicyBatchResult> results = batchService.createCiliumNetworkPolicies(requests);
+
+        // Then
+        assertEquals(CiliumNetworkPolicyBatchResult.STATUS_FAILED, results.get(0).getStatus());
+        assertEquals("Failed to create CiliumNetworkPolicy: Forbidden", results.get(0).getMessage());
+        assertEquals("CREATED", results.get(1).getStatus());
+    }
+
+    @Test
+    void testCreateBatch_NamespaceCheckErrorFailsItsItems() {
+        // Given
+        List<CiliumNetworkPolicyRequest> requests = List.of(request("tenant-a", "web"));
+        when(kubernetesService.determinePolicyName(any())).thenReturn("web");
+        doThrow(new KubernetesClientException("Connection refused"))
+                .when(kubernetesService).validateNamespaceExists("tenant-a");
+
+        // When
+        List<CiliumNetworkPolicyBatchResult> results = batchService.createCiliumNetworkPolicies(requests);
+
+        // Then
+        assertEquals(CiliumNetworkPolicyBatchResult.STATUS_FAILED, results.get(0).getStatus());
+        assertTrue(results.get(0).getMessage().contains("Connection refused"));
+        verify(kubernetesService, never()).writeCiliumNetworkPolicy(any(), anyString());
+    }
+
+    @Test
+    void testCreateBatch_InvalidNameRejectsWholeBatch() {
+        // Given
+        List<CiliumNetworkPolicyRequest> requests = List.of(request("tenant-a", "web"), request("tenant-a", "Bad_Name"));
+        when(kubernetesService.determinePolicyName(any())).thenAnswer(inv -> {
+            String name = inv.<CiliumNetworkPolicyRequest>getArgument(0).getName();
+            if (!name.matches("^[a-z0-9-]+$")) {
+                throw new RuntimeException("Policy name must be a valid DNS-1123 label");
+            }
+            return name;
+        });
+
+        // When & Then
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> batchService.createCiliumNetworkPolicies(requests));
+        assertTrue(exception.getMessage().startsWith("Item 1:"));
+        verify(kubernetesService, never()).validateNamespaceExists(anyString());
+        verify(kubernetesService, never()).writeCiliumNetworkPolicy(any(), anyString());
+    }
+
+    @Test
+    void testCreateBatch_DuplicateNameRejectsWholeBatch() {
+        // Given
+        List<CiliumNetworkPolicyRequest> requests = List.of(request("tenant-a", "web"), request("tenant-a", "web"));
+        when(kubernetesService.determinePolicyName(any())).thenReturn("web");
+
+        // When & Then
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> batchService.createCiliumNetworkPolicies(requests));
+        assertTrue(exception.getMessage().contains("duplicate policy name 'web'"));
+        verify(kubernetesService, never()).writeCiliumNetworkPolicy(any(), anyString());
+    }
+
+    @Test
+    void testCreateBatch_SameNameInDifferentNamespacesAllowed() {
+        // Given
+        List<CiliumNetworkPolicyRequest> requests = List.of(request("tenant-a", "web"), request("tenant-b", "web"));
+        when(kubernetesService.determinePolicyName(any())).thenReturn("web");
+        when(kubernetesService.writeCiliumNetworkPolicy(any(), anyString()))
+                .thenAnswer(inv -> response(inv.getArgument(0), inv.getArgument(1)));
+
+        // When
+        List<CiliumNetworkPolicyBatchResult> results = batchService.createCiliumNetworkPolicies(requests);
+
+        // Then
+        assertEquals(List.of("tenant-a", "tenant-b"), results.stream().map(CiliumNetworkPolicyBatchResult::getNamespace).toList());
+    }
+
+    @Test
+    void testCreateBatch_WritesBoundedByMaxConcurrency() {
+        // Given
+        List<CiliumNetworkPolicyRequest> requests = java.util.stream.IntStream.range(0, 20)
+                .mapToObj(i -> request("tenant-a", "policy-" + i))
+                .toList();
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        when(kubernetesService.determinePolicyName(any())).thenAnswer(inv -> inv.<CiliumNetworkPolicyRequest>getArgument(0).getName());
+        when(kubernetesService.writeCiliumNetworkPolicy(any(), anyString())).thenAnswer(inv -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            Thread.sleep(10);
+            inFlight.decrementAndGet();
+            return response(inv.getArgument(0), inv.getArgument(1));
+        });
+
+        // When
+        List<CiliumNetworkPolicyBatchResult> results = batchService.createCiliumNetworkPolicies(requests);
+
+        // Then
+        assertEquals(20, results.size());
+        assertTrue(maxInFlight.get() <= 2, "at most max-concurrency writes may run at once");
+        assertTrue(maxInFlight.get() > 1, "writes should run in parallel");
+    }
+
+    @Test
+    void testCreateBatch_ConcurrencyIsBoundedPerRequest() throws Exception {
+        // Given writes that only finish once both batches have max-concurrency writes in flight
+        CountDownLatch allInFlight = new CountDownLatch(4);
+        AtomicInteger timedOut = new AtomicInteger();
+        when(kubernetesService.determinePolicyName(any())).thenAnswer(inv -> inv.<CiliumNetworkPolicyRequest>getArgument(0).getName());
+        when(kubernetesService.writeCiliumNetworkPolicy(any(), anyString())).thenAnswer(inv -> {
+            allInFlight.countDown();
+            if (!allInFlight.await(5, TimeUnit.SECONDS)) {
+                timedOut.incrementAndGet();
+            }
+            return response(inv.getArgument(0), inv.getArgument(1));
+        });
+
+        // When two batches run at once
+        try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<List<CiliumNetworkPolicyBatchResult>> first = callers.submit(() -> batchService.createCiliumNetworkPolicies(
+                    List.of(request("tenant-a", "web"), request("tenant-a", "db"))));
+            Future<List<CiliumNetworkPolicyBatchResult>> second = callers.submit(() -> batchService.createCiliumNetworkPolicies(
+                    List.of(request("tenant-b", "web"), request("tenant-b", "db"))));
+
+            // Then neither waited for the other's permits
+            assertEquals(2, first.get(10, TimeUnit.SECONDS).size());
+            assertEquals(2, second.get(10, TimeUnit.SECONDS).size());
+        }
+        assertEquals(0, timedOut.get());
+    }
+
+    private CiliumNetworkPolicyRequest request(String namespace, String name) {
+        CiliumNetworkPolicyRequest request = new CiliumNetworkPolicyRequest();
+        request.setNamespace(namespace);
+        request.setName(name);
+        request.setLabels(Map.of("app", name));
+        return request;
+    }
+
+    private CiliumNetworkPolicyResponse response(CiliumNetworkPolicyRequest request, String policyName) {
+        return new CiliumNetworkPolicyResponse(policyName, request.getNamespace(), "CREATED", Instant.now(),
+                "CiliumNetworkPolicy created successfully", policyName);
+    }
+}
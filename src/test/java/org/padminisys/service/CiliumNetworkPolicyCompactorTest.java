@@ -0,0 +1,110 @@
+package org.padminisys.service;
+
+import org.junit.jupiter.api.Test;
+import org.padminisys.dto.CiliumNetworkPolicyRequest;
+import org.padminisys.model.CiliumNetworkPolicySpec;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the rule merging of CiliumNetworkPolicyCompactor.
+ */
+class CiliumNetworkPolicyCompactorTest {
+
+    @Test
+    void testMergesRulesWithSamePorts() {
+        CiliumNetworkPolicySpec spec = spec(List.of(
+                egressRule(List.of("10.0.0.0/8"), 443),
+                egressRule(List.of("192.168.0.0/16"), 443),
+                egressRule(List.of("172.16.0.0/12"), 8443)));
+
+        CiliumNetworkPolicyCompactor.compact(spec);
+
+        assertEquals(2, spec.getEgress().size());
+        assertEquals(List.of("10.0.0.0/8", "192.168.0.0/16"), spec.getEgress().get(0).getToCIDR());
+        assertEquals("443", spec.getEgress().get(0).getToPorts().get(0).getPorts().get(0).getPort());
+        assertEquals(List.of("172.16.0.0/12"), spec.getEgress().get(1).getToCIDR());
+        assertEquals(2, CiliumNetworkPolicyCompactor.ruleCount(spec));
+    }
+
+    @Test
+    void testDropsDuplicatePeers() {
+        CiliumNetworkPolicySpec spec = spec(List.of(
+                egressRule(List.of("10.0.0.0/8", "10.0.0.0/8"), null),
+                egressRule(List.of("10.0.0.0/8"), null),
+                labelRule(Map.of("app", "db")),
+                labelRule(Map.of("app", "db"))));
+
+        CiliumNetworkPolicyCompactor.compact(spec);
+
+        assertEquals(2, spec.getEgress().size());
+        assertEquals(List.of("10.0.0.0/8"), spec.getEgress().get(0).getToCIDR());
+        assertEquals(1, spec.getEgress().get(1).getToEndpoints().size());
+        assertNull(spec.getEgress().get(1).getToCIDR());
+    }
+
+    @Test
+    void testKeepsCidrAndLabelPeersApart() {
+        CiliumNetworkPolicySpec spec = spec(List.of(egressRule(List.of("10.0.0.0/8"), null), labelRule(Map.of("app", "db"))));
+
+        CiliumNetworkPolicyCompactor.compact(spec);
+
+        assertEquals(2, spec.getEgress().size());
+    }
+
+    @Test
+    void testKeepsRuleWithoutPeers() {
+        CiliumNetworkPolicySpec.EgressRule allPeers = new CiliumNetworkPolicySpec.EgressRule();
+        CiliumNetworkPolicySpec spec = spec(List.of(allPeers, new CiliumNetworkPolicySpec.EgressRule()));
+
+        CiliumNetworkPolicyCompactor.compact(spec);
+
+        assertEquals(2, spec.getEgress().size());
+    }
+
+    @Test
+    void testMappedPolicyIsCompacted() {
+        CiliumNetworkPolicyRequest request = new CiliumNetworkPolicyRequest();
+        request.setNamespace("tenant-a");
+        request.setIngressRules(List.of(ingressLabelRule("frontend"), ingressLabelRule("gateway")));
+        CiliumNetworkPolicySpec spec = CiliumNetworkPolicyMapper.toResource(request, "web").getSpec();
+
+        CiliumNetworkPolicyCompactor.compact(spec);
+
+        assertEquals(1, spec.getIngress().size());
+        assertEquals(2, spec.getIngress().get(0).getFromEndpoints().size());
+    }
+
+    private CiliumNetworkPolicySpec spec(List<CiliumNetworkPolicySpec.EgressRule> egress) {
+        CiliumNetworkPolicySpec spec = new CiliumNetworkPolicySpec();
+        spec.setEgress(egress);
+        return spec;
+    }
+
+    private CiliumNetworkPolicySpec.EgressRule egressRule(List<String> cidrs, Integer port) {
+        CiliumNetworkPolicySpec.EgressRule rule = new CiliumNetworkPolicySpec.EgressRule();
+        rule.setToCIDR(cidrs);
+        if (port != null) {
+            CiliumNetworkPolicySpec.PortRule portRule = new CiliumNetworkPolicySpec.PortRule();
+            portRule.setPorts(List.of(new CiliumNetworkPolicySpec.PortProtocol(String.valueOf(port), "TCP", null)));
+            rule.setToPorts(List.of(portRule));
+        }
+        return rule;
+    }
+
+    private CiliumNetworkPolicySpec.EgressRule labelRule(Map<String, String> labels) {
+        CiliumNetworkPolicySpec.EgressRule rule = new CiliumNetworkPolicySpec.EgressRule();
+        rule.setToEndpoints(List.of(new CiliumNetworkPolicySpec.EndpointSelector(labels)));
+        return rule;
+    }
+
+    private CiliumNetworkPolicyRequest.NetworkRule ingressLabelRule(String app) {
+        CiliumNetworkPolicyRequest.NetworkRule rule = new CiliumNetworkPolicyRequest.NetworkRule();
+        rule.setRuleType(CiliumNetworkPolicyRequest.RuleType.INGRESS_ALLOW);
+        rule.setFromLabels(Map.of("app", app));
+        return rule;
+    }
+}
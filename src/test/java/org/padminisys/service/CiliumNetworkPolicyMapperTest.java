@@ -0,0 +1,193 @@
+package org.padminisys.service;
+
+import io.fabric8.kubernetes.client.utils.Serialization;
+import org.junit.jupiter.api.Test;
+import org.padminisys.dto.CiliumNetworkPolicyRequest;
+import org.padminisys.model.CiliumNetworkPolicy;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for CiliumNetworkPolicyMapper and the JSON binding of the typed policy model.
+ */
+class CiliumNetworkPolicyMapperTest {
+
+    @Test
+    void testToResourceBuildsCiliumSpec() {
+        CiliumNetworkPolicy policy = CiliumNetworkPolicyMapper.toResource(request(), "web");
+
+        String json = Serialization.asJson(policy);
+
+        assertEquals("cilium.io/v2", policy.getApiVersion());
+        assertEquals("CiliumNetworkPolicy", policy.getKind());
+        assertEquals("ppcs-nsm", policy.getMetadata().getLabels().get("created-by"));
+        assertTrue(json.contains("\"fromEndpoints\":[{\"matchLabels\":{"));
+        assertTrue(json.contains("\"k8s:io.kubernetes.pod.namespace\":\"tenant-a\""));
+        assertTrue(json.contains("\"toCIDR\":[\"10.0.0.0/8\"]"));
+        assertTrue(json.contains("\"ports\":[{\"port\":\"8080\",\"protocol\":\"TCP\"}]"));
+        assertTrue(json.contains("\"rules\":{\"http\":[{\"headerMatches\":[{\"name\":\"x-tenant\",\"value\":\"a\"}]}]}"));
+        assertFalse(json.contains("null"));
+    }
+
+    @Test
+    void testEmptyLabelsSelectAllEndpoints() {
+        CiliumNetworkPolicyRequest request = new CiliumNetworkPolicyRequest();
+        request.setNamespace("tenant-a");
+
+        String json = Serialization.asJson(CiliumNetworkPolicyMapper.toResource(request, "all"));
+
+        assertTrue(json.contains("\"spec\":{\"endpointSelector\":{}}"));
+    }
+
+    @Test
+    void testRoundTripThroughJson() {
+        String json = Serialization.asJson(CiliumNetworkPolicyMapper.toResource(request(), "web"));
+
+        CiliumNetworkPolicyRequest converted = CiliumNetworkPolicyMapper.toRequest(
+                Serialization.unmarshal(json, CiliumNetworkPolicy.class));
+
+        assertEquals("web", converted.getName());
+        assertEquals(Map.of("app", "web"), converted.getLabels());
+        CiliumNetworkPolicyRequest.NetworkRule ingress = converted.getIngressRules().get(0);
+        assertEquals(CiliumNetworkPolicyRequest.RuleType.INGRESS_ALLOW, ingress.getRuleType());
+        assertEquals(Map.of("app", "frontend"), ingress.getFromLabels());
+        assertEquals(8080, ingress.getPorts().get(0).getPort());
+        assertEquals("x-tenant", ingress.getPorts().get(0).getHeaderMatches().get(0).getName());
+        CiliumNetworkPolicyRequest.NetworkRule egress = converted.getEgressDenyRules().get(0);
+        assertEquals(CiliumNetworkPolicyRequest.RuleType.EGRESS_DENY, egress.getRuleType());
+        assertEquals(List.of("10.0.0.0/8"), egress.getIpAddresses());
+        assertEquals(CiliumNetworkPolicyRequest.Protocol.UDP, egress.getPorts().get(0).getProtocol());
+        assertEquals(5353, egress.getPorts().get(0).getEndPort());
+    }
+
+    @Test
+    void testApiServerPolicyWithStatusAndUnmodelledFieldsIsBound() {
+        String json = "{\"apiVersion\":\"cilium.io/v2\",\"kind\":\"CiliumNetworkPolicy\","
+                + "\"metadata\":{\"name\":\"dns\",\"namespace\":\"tenant-a\",\"resourceVersion\":\"7\"},"
+                + "\"spec\":{\"endpointSelector\":{\"matchLabels\":{\"app\":\"web\"},\"matchExpressions\":[]},"
+                + "\"egress\":[{\"toFQDNs\":[{\"matchName\":\"example.com\"}],\"toPorts\":[{\"ports\":[{\"port\":\"53\",\"protocol\":\"UDP\"}]}]}]},"
+                + "\"status\":{\"conditions\":[{\"type\":\"Valid\",\"status\":\"True\"}]}}";
+
+        CiliumNetworkPolicy policy = Serialization.unmarshal(json, CiliumNetworkPolicy.class);
+
+        assertEquals("7", policy.getMetadata().getResourceVersion());
+        assertEquals(Map.of("app", "web"), policy.getSpec().getEndpointSelector().getMatchLabels());
+        assertEquals("53", policy.getSpec().getEgress().get(0).getToPorts().get(0).getPorts().get(0).getPort());
+        assertTrue(CiliumNetworkPolicyMapper.matchesEndpointSelector(policy, Map.of("app", "web")));
+        assertFalse(CiliumNetworkPolicyMapper.matchesEndpointSelector(policy, Map.of("app", "db")));
+    }
+
+    @Test
+    void testUnmodelledFieldsSurviveRoundTrip() {
+        String json = "{\"apiVersion\":\"cilium.io/v2\",\"kind\":\"CiliumNetworkPolicy\","
+                + "\"metadata\":{\"name\":\"dns\",\"namespace\":\"tenant-a\"},"
+                + "\"spec\":{\"endpointSelector\":{\"matchExpressions\":[{\"key\":\"app\",\"operator\":\"Exists\"}]},"
+                + "\"egress\":[{\"toEntities\":[\"world\"],\"icmps\":[{\"fields\":[{\"type\":8}]}]}]},"
+                + "\"specs\":[{\"endpointSelector\":{}}]}";
+
+        CiliumNetworkPolicy policy = Serialization.unmarshal(json, CiliumNetworkPolicy.class);
+        String serialized = Serialization.asJson(policy);
+
+        assertTrue(policy.hasUnmodelledFields());
+        assertTrue(policy.getSpec().getEndpointSelector().hasUnmodelledFields());
+        assertTrue(policy.getSpec().getEgress().get(0).hasUnmodelledFields());
+        assertTrue(serialized.contains("\"matchExpressions\":[{\"key\":\"app\",\"operator\":\"Exists\"}]"));
+        assertTrue(serialized.contains("\"toEntities\":[\"world\"]"));
+        assertTrue(serialized.contains("\"icmps\":[{\"fields\":[{\"type\":8}]}]"));
+        assertTrue(serialized.contains("\"specs\":[{\"endpointSelector\":{}}]"));
+        assertFalse(CiliumNetworkPolicyMapper.toResource(request(), "web").hasUnmodelledFields());
+    }
+
+    @Test
+    void testIsUpToDateSeesUnmodelledFields() {
+        CiliumNetworkPolicy desired = CiliumNetworkPolicyMapper.toResource(request(), "web");
+        String liveJson = Serialization.asJson(desired)
+                .replace("\"toCIDR\":[\"10.0.0.0/8\"]", "\"toCIDR\":[\"10.0.0.0/8\"],\"icmps\":[{\"fields\":[{\"type\":8}]}]");
+        CiliumNetworkPolicy live = Serialization.unmarshal(liveJson, CiliumNetworkPolicy.class);
+
+        assertTrue(live.getSpec().hasUnmodelledFields());
+        assertFalse(CiliumNetworkPolicyMapper.isUpToDate(live, desired));
+    }
+
+    @Test
+    void testIsUpToDateIgnoresServerSideDefaults() {
+        CiliumNetworkPolicy desired = CiliumNetworkPolicyMapper.toResource(request(), "web");
+        String liveJson = Serialization.asJson(desired)
+                .replace("\"labels\":{", "\"labels\":{\"team\":\"payments\",")
+                .replace("\"toCIDR\":[\"10.0.0.0/8\"]", "\"toCIDR\":[\"10.0.0.0/8\"],\"toEndpoints\":[]");
+        CiliumNetworkPolicy live = Serialization.unmarshal(liveJson, CiliumNetworkPolicy.class);
+        live.getMetadata().setResourceVersion("42");
+
+        assertTrue(CiliumNetworkPolicyMapper.isUpToDate(live, desired));
+        assertEquals(List.of(), live.getSpec().getEgressDeny().get(0).getToEndpoints());
+    }
+
+    @Test
+    void testIsUpToDateDetectsChanges() {
+        CiliumNetworkPolicy desired = CiliumNetworkPolicyMapper.toResource(request(), "web");
+
+        CiliumNetworkPolicy portChanged = Serialization.unmarshal(
+                Serialization.asJson(desired).replace("\"port\":\"8080\"", "\"port\":\"8081\""), CiliumNetworkPolicy.class);
+        CiliumNetworkPolicy labelRemoved = Serialization.unmarshal(Serialization.asJson(desired), CiliumNetworkPolicy.class);
+        labelRemoved.getMetadata().setLabels(Map.of("created-by", "ppcs-nsm"));
+
+        assertFalse(CiliumNetworkPolicyMapper.isUpToDate(portChanged, desired));
+        assertFalse(CiliumNetworkPolicyMapper.isUpToDate(labelRemoved, desired));
+        assertFalse(CiliumNetworkPolicyMapper.isUpToDate(new CiliumNetworkPolicy(), desired));
+    }
+
+    @Test
+    void testToRequestSplitsRuleWithSeveralSelectors() {
+        CiliumNetworkPolicyRequest.NetworkRule frontend = new CiliumNetworkPolicyRequest.NetworkRule();
+        frontend.setRuleType(CiliumNetworkPolicyRequest.RuleType.INGRESS_ALLOW);
+        frontend.setFromLabels(Map.of("app", "frontend"));
+        CiliumNetworkPolicyRequest.NetworkRule gateway = new CiliumNetworkPolicyRequest.NetworkRule();
+        gateway.setRuleType(CiliumNetworkPolicyRequest.RuleType.INGRESS_ALLOW);
+        gateway.setFromLabels(Map.of("app", "gateway"));
+        CiliumNetworkPolicyRequest request = new CiliumNetworkPolicyRequest();
+        request.setNamespace("tenant-a");
+        request.setIngressRules(List.of(frontend, gateway));
+        CiliumNetworkPolicy policy = CiliumNetworkPolicyMapper.toResource(request, "web");
+        CiliumNetworkPolicyCompactor.compact(policy.getSpec());
+
+        CiliumNetworkPolicyRequest converted = CiliumNetworkPolicyMapper.toRequest(policy);
+
+        assertEquals(1, policy.getSpec().getIngress().size());
+        assertEquals(2, converted.getIngressRules().size());
+        assertEquals(Map.of("app", "frontend"), converted.getIngressRules().get(0).getFromLabels());
+        assertEquals(Map.of("app", "gateway"), converted.getIngressRules().get(1).getFromLabels());
+    }
+
+    private CiliumNetworkPolicyRequest request() {
+        CiliumNetworkPolicyRequest.PortRule httpPort = new CiliumNetworkPolicyRequest.PortRule();
+        httpPort.setProtocol(CiliumNetworkPolicyRequest.Protocol.TCP);
+        httpPort.setPort(8080);
+        httpPort.setHeaderMatches(List.of(new CiliumNetworkPolicyRequest.HeaderMatch("x-tenant", "a")));
+
+        CiliumNetworkPolicyRequest.NetworkRule ingress = new CiliumNetworkPolicyRequest.NetworkRule();
+        ingress.setRuleType(CiliumNetworkPolicyRequest.RuleType.INGRESS_ALLOW);
+        ingress.setFromLabels(Map.of("app", "frontend"));
+        ingress.setPorts(List.of(httpPort));
+
+        CiliumNetworkPolicyRequest.PortRule dnsPorts = new CiliumNetworkPolicyRequest.PortRule();
+        dnsPorts.setProtocol(CiliumNetworkPolicyRequest.Protocol.UDP);
+        dnsPorts.setPort(5300);
+        dnsPorts.setEndPort(5353);
+
+        CiliumNetworkPolicyRequest.NetworkRule egressDeny = new CiliumNetworkPolicyRequest.NetworkRule();
+        egressDeny.setRuleType(CiliumNetworkPolicyRequest.RuleType.EGRESS_DENY);
+        egressDeny.setIpAddresses(List.of("10.0.0.0/8"));
+        egressDeny.setPorts(List.of(dnsPorts));
+
+        CiliumNetworkPolicyRequest request = new CiliumNetworkPolicyRequest();
+        request.setName("web");
+        request.setNamespace("tenant-a");
+        request.setLabels(Map.of("app", "web"));
+        request.setIngressRules(List.of(ingress));
+        request.setEgressDenyRules(List.of(egressDeny));
+        return request;
+    }
+}
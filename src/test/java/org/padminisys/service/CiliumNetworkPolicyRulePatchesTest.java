@@ -0,0 +1,186 @@
+package org.padminisys.service;
+
+import io.fabric8.kubernetes.client.utils.Serialization;
+import org.junit.jupiter.api.Test;
+import org.padminisys.dto.CiliumNetworkPolicyRequest;
+import org.padminisys.dto.CiliumNetworkPolicyRulePatch;
+import org.padminisys.exception.PolicyRuleNotFoundException;
+import org.padminisys.model.CiliumNetworkPolicy;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the JSON patches built by CiliumNetworkPolicyRulePatches.
+ */
+class CiliumNetworkPolicyRulePatchesTest {
+
+    @Test
+    void testAppendToExistingList() {
+        CiliumNetworkPolicy live = livePolicy(List.of(cidrRule("10.0.0.0/8")));
+
+        List<Map<String, Object>> operations = build(live, List.of(cidrRule("10.1.0.0/16")), null);
+
+        assertEquals(2, operations.size());
+        assertEquals(Map.of("op", "test", "path", "/metadata/resourceVersion", "value", "7"), operations.get(0));
+        assertEquals("add", operations.get(1).get("op"));
+        assertEquals("/spec/egress/-", operations.get(1).get("path"));
+        assertEquals(Map.of("toCIDR", List.of("10.1.0.0/16")), operations.get(1).get("value"));
+    }
+
+    @Test
+    void testRemoveMatchesRulesByContent() {
+        CiliumNetworkPolicy live = livePolicy(List.of(cidrRule("10.0.0.0/8"), cidrRule("10.1.0.0/16"), cidrRule("10.2.0.0/16")));
+
+        List<Map<String, Object>> operations = build(live, null, List.of(cidrRule("10.2.0.0/16"), cidrRule("10.0.0.0/8")));
+
+        // Later positions first, so the earlier ones still point at the right rules
+        assertEquals(Map.of("op", "remove", "path", "/spec/egress/2"), operations.get(1));
+        assertEquals(Map.of("op", "remove", "path", "/spec/egress/0"), operations.get(2));
+        assertEquals(3, operations.size());
+    }
+
+    @Test
+    void testRemovingLastRuleDropsList() {
+        CiliumNetworkPolicy live = livePolicy(List.of(cidrRule("10.0.0.0/8")));
+
+        List<Map<String, Object>> operations = build(live, null, List.of(cidrRule("10.0.0.0/8")));
+
+        assertEquals(Map.of("op", "remove", "path", "/spec/egress"), operations.get(1));
+    }
+
+    @Test
+    void testLabelRuleMatchesNamespacedSelector() {
+        CiliumNetworkPolicyRequest.NetworkRule frontend = new CiliumNetworkPolicyRequest.NetworkRule();
+        frontend.setRuleType(CiliumNetworkPolicyRequest.RuleType.INGRESS_ALLOW);
+        frontend.setFromLabels(Map.of("app", "frontend"));
+        CiliumNetworkPolicyRequest request = new CiliumNetworkPolicyRequest();
+        request.setNamespace("tenant-a");
+        request.setLabels(Map.of("app", "web"));
+        request.setIngressRules(List.of(frontend));
+        CiliumNetworkPolicy live = Serialization.unmarshal(
+                Serialization.asJson(CiliumNetworkPolicyMapper.toResource(request, "web")), CiliumNetworkPolicy.class);
+        live.getMetadata().setResourceVersion("7");
+
+        List<Map<String, Object>> operations = build(live, null, List.of(frontend));
+
+        assertEquals(Map.of("op", "remove", "path", "/spec/ingress"), operations.get(1));
+    }
+
+    @Test
+    void testRemovingUnknownRuleFails() {
+        CiliumNetworkPolicy live = livePolicy(List.of(cidrRule("10.0.0.0/8")));
+
+        PolicyRuleNotFoundException exception = assertThrows(PolicyRuleNotFoundException.class,
+                () -> build(live, null, List.of(cidrRule("192.168.0.0/16"))));
+
+        assertTrue(exception.getMessage().contains("not found in CiliumNetworkPolicy 'web'"));
+    }
+
+    @Test
+    void testRemoveTakesPeerOutOfMergedRule() {
+        CiliumNetworkPolicy live = compactedLivePolicy(List.of(cidrRule("10.0.0.0/8"), cidrRule("10.1.0.0/16")));
+
+        List<Map<String, Object>> operations = build(live, null, List.of(cidrRule("10.0.0.0/8")), true);
+
+        assertEquals(2, operations.size());
+        assertEquals(Map.of("op", "replace", "path", "/spec/egress/0", "value", Map.of("toCIDR", List.of("10.1.0.0/16"))),
+                operations.get(1));
+    }
+
+    @Test
+    void testRemovingAllPeersOfMergedRuleDropsIt() {
+        CiliumNetworkPolicy live = compactedLivePolicy(List.of(cidrRule("10.0.0.0/8"), cidrRule("10.1.0.0/16")));
+
+        List<Map<String, Object>> operations = build(live, null,
+                List.of(cidrRule("10.1.0.0/16"), cidrRule("10.0.0.0/8")), true);
+
+        assertEquals(Map.of("op", "remove", "path", "/spec/egress"), operations.get(1));
+        assertEquals(2, operations.size());
+    }
+
+    @Test
+    void testRemovingPeerWithOtherPortsFails() {
+        CiliumNetworkPolicyRequest.PortRule port = new CiliumNetworkPolicyRequest.PortRule();
+        port.setProtocol(CiliumNetworkPolicyRequest.Protocol.TCP);
+        port.setPort(443);
+        CiliumNetworkPolicyRequest.NetworkRule https = cidrRule("10.0.0.0/8");
+        https.setPorts(List.of(port));
+        CiliumNetworkPolicy live = compactedLivePolicy(List.of(cidrRule("10.0.0.0/8"), cidrRule("10.1.0.0/16")));
+
+        PolicyRuleNotFoundException exception = assertThrows(PolicyRuleNotFoundException.class,
+                () -> build(live, null, List.of(https), true));
+
+        assertTrue(exception.getMessage().contains("not found in CiliumNetworkPolicy 'web'"));
+    }
+
+    @Test
+    void testAddMergesIntoEquivalentRuleWhenCompacting() {
+        CiliumNetworkPolicy live = livePolicy(List.of(cidrRule("10.0.0.0/8")));
+
+        List<Map<String, Object>> operations = build(live,
+                List.of(cidrRule("10.1.0.0/16"), cidrRule("10.0.0.0/8"), cidrRule("10.2.0.0/16")), null, true);
+
+        assertEquals(2, operations.size());
+        assertEquals(Map.of("op", "replace", "path", "/spec/egress/0",
+                "value", Map.of("toCIDR", List.of("10.0.0.0/8", "10.1.0.0/16", "10.2.0.0/16"))), operations.get(1));
+    }
+
+    @Test
+    void testAddDoesNotMergeIntoRuleWithUnmodelledFields() {
+        CiliumNetworkPolicy live = livePolicy(List.of(cidrRule("10.0.0.0/8")));
+        live.getSpec().getEgress().get(0).setAdditionalProperty("icmps", List.of(Map.of("fields", List.of(Map.of("type", 8)))));
+
+        List<Map<String, Object>> operations = build(live, List.of(cidrRule("10.1.0.0/16")), null, true);
+
+        assertEquals(2, operations.size());
+        assertEquals(Map.of("op", "add", "path", "/spec/egress/-", "value", Map.of("toCIDR", List.of("10.1.0.0/16"))),
+                operations.get(1));
+    }
+
+    @Test
+    void testRemovingPeerOfRuleWithUnmodelledFieldsFails() {
+        CiliumNetworkPolicy live = compactedLivePolicy(List.of(cidrRule("10.0.0.0/8"), cidrRule("10.1.0.0/16")));
+        live.getSpec().getEgress().get(0).setAdditionalProperty("toFQDNs", List.of(Map.of("matchName", "example.com")));
+
+        assertThrows(PolicyRuleNotFoundException.class, () -> build(live, null, List.of(cidrRule("10.0.0.0/8")), true));
+        assertThrows(PolicyRuleNotFoundException.class,
+                () -> build(live, null, List.of(cidrRule("10.0.0.0/8"), cidrRule("10.1.0.0/16")), true));
+    }
+
+    private List<Map<String, Object>> build(CiliumNetworkPolicy live, List<CiliumNetworkPolicyRequest.NetworkRule> add,
+                                            List<CiliumNetworkPolicyRequest.NetworkRule> remove) {
+        return build(live, add, remove, false);
+    }
+
+    private List<Map<String, Object>> build(CiliumNetworkPolicy live, List<CiliumNetworkPolicyRequest.NetworkRule> add,
+                                            List<CiliumNetworkPolicyRequest.NetworkRule> remove, boolean compact) {
+        String patch = CiliumNetworkPolicyRulePatches.build(live, new CiliumNetworkPolicyRulePatch(add, remove), compact);
+        return Serialization.unmarshal(patch, List.class);
+    }
+
+    private CiliumNetworkPolicy compactedLivePolicy(List<CiliumNetworkPolicyRequest.NetworkRule> egressRules) {
+        CiliumNetworkPolicy live = livePolicy(egressRules);
+        CiliumNetworkPolicyCompactor.compact(live.getSpec());
+        return live;
+    }
+
+    private CiliumNetworkPolicy livePolicy(List<CiliumNetworkPolicyRequest.NetworkRule> egressRules) {
+        CiliumNetworkPolicyRequest request = new CiliumNetworkPolicyRequest();
+        request.setNamespace("tenant-a");
+        request.setLabels(Map.of("app", "web"));
+        request.setEgressRules(egressRules);
+        CiliumNetworkPolicy live = CiliumNetworkPolicyMapper.toResource(request, "web");
+        live.getMetadata().setResourceVersion("7");
+        return live;
+    }
+
+    private CiliumNetworkPolicyRequest.NetworkRule cidrRule(String cidr) {
+        CiliumNetworkPolicyRequest.NetworkRule rule = new CiliumNetworkPolicyRequest.NetworkRule();
+        rule.setRuleType(CiliumNetworkPolicyRequest.RuleType.EGRESS_ALLOW);
+        rule.setIpAddresses(List.of(cidr));
+        return rule;
+    }
+}
@@ -0,0 +1,645 @@
+package org.padminisys.service;
+
+import io.fabric8.kubernetes.api.model.*;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.dsl.*;
+import io.fabric8.kubernetes.client.dsl.base.PatchContext;
+import io.fabric8.kubernetes.client.dsl.base.PatchType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.padminisys.cache.CidrIndex;
+import org.padminisys.cache.CiliumNetworkPolicyCache;
+import org.padminisys.cache.EndpointSelectorIndex;
+import org.padminisys.cache.NamespaceCache;
+import org.padminisys.cache.PolicyConversionCache;
+import org.padminisys.cache.PolicyETags;
+import org.padminisys.dto.CidrLookupMatch;
+import org.padminisys.dto.CiliumNetworkPolicyPage;
+import org.padminisys.dto.CiliumNetworkPolicyRequest;
+import org.padminisys.dto.CiliumNetworkPolicyResponse;
+import org.padminisys.dto.CiliumNetworkPolicyRulePatch;
+import org.padminisys.exception.PolicyConflictException;
+import org.padminisys.model.CiliumNetworkPolicy;
+import org.padminisys.model.CiliumNetworkPolicyList;
+import org.padminisys.model.CiliumNetworkPolicySpec;
+import org.padminisys.model.Ipv4Cidr;
+
+import java.lang.reflect.Field;
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for CiliumNetworkPolicyService read and rule patch paths with mocked Kubernetes client and policy cache.
+ */
+@ExtendWith(MockitoExtension.class)
+class CiliumNetworkPolicyServiceMockTest {
+
+    private static final String NAMESPACE = "test-namespace";
+
+    @Mock
+    KubernetesClient kubernetesClient;
+
+    @Mock
+    CiliumNetworkPolicyCache policyCache;
+
+    @Mock
+    NamespaceCache namespaceCache;
+
+    @Mock
+    EndpointSelectorIndex endpointSelectorIndex;
+
+    @Mock
+    CidrIndex cidrIndex;
+
+    @Spy
+    PolicyConversionCache conversionCache = new PolicyConversionCache();
+
+    @InjectMocks
+    CiliumNetworkPolicyService ciliumNetworkPolicyService;
+
+    @BeforeEach
+    void wireConversionCache() throws Exception {
+        // The conversion cache re-checks the policy cache, which lives in another package
+        Field policyCacheField = PolicyConversionCache.class.getDeclaredField("policyCache");
+        policyCacheField.setAccessible(true);
+        policyCacheField.set(conversionCache, policyCache);
+    }
+
+    @Test
+    void testGetCiliumNetworkPolicyByName_ServedFromCache() {
+        // Given
+        mockNamespaceExists(NAMESPACE);
+        when(policyCache.isEnabled()).thenReturn(true);
+        when(policyCache.get(NAMESPACE, "web-policy")).thenReturn(createPolicy("web-policy", NAMESPACE, Map.of("app", "web")));
+
+        // When
+        CiliumNetworkPolicyRequest policy = ciliumNetworkPolicyService.getCiliumNetworkPolicyByName("web-policy", NAMESPACE);
+
+        // Then
+        assertEquals("web-policy", policy.getName());
+        assertEquals(Map.of("app", "web"), policy.getLabels());
+        verify(kubernetesClient, never()).resources(CiliumNetworkPolicy.class, CiliumNetworkPolicyList.class);
+    }
+
+    @Test
+    void testGetCiliumNetworkPolicyByName_NotInCache() {
+        // Given
+        mockNamespaceExists(NAMESPACE);
+        when(policyCache.isEnabled()).thenReturn(true);
+        when(policyCache.get(NAMESPACE, "missing")).thenReturn(null);
+
+        // When & Then
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> ciliumNetworkPolicyService.getCiliumNetworkPolicyByName("missing", NAMESPACE));
+        assertTrue(exception.getMessage().contains("not found"));
+        verify(kubernetesClient, never()).resources(CiliumNetworkPolicy.class, CiliumNetworkPolicyList.class);
+    }
+
+    @Test
+    void testGetCiliumNetworkPoliciesByNamespace_ServedFromCache() {
+        // Given
+        mockNamespaceExists(NAMESPACE);
+        when(policyCache.isEnabled()).thenReturn(true);
+        when(policyCache.listByNamespace(NAMESPACE)).thenReturn(List.of(
+                createPolicy("web-policy", NAMESPACE, Map.of("app", "web")),
+                createPolicy("db-policy", NAMESPACE, Map.of("app", "db"))));
+
+        // When
+        List<CiliumNetworkPolicyRequest> policies = ciliumNetworkPolicyService.getCiliumNetworkPoliciesByNamespace(NAMESPACE).items();
+
+        // Then
+        assertEquals(2, policies.size());
+        verify(kubernetesClient, never()).resources(CiliumNetworkPolicy.class, CiliumNetworkPolicyList.class);
+    }
+
+    @Test
+    void testGetTaggedCiliumNetworkPoliciesByNamespace_TagsListRead() {
+        // Given
+        mockNamespaceExists(NAMESPACE);
+        when(policyCache.isEnabled()).thenReturn(true);
+        List<CiliumNetworkPolicy> cached = List.of(
+                createPolicy("web-policy", NAMESPACE, Map.of("app", "web")),
+                createPolicy("db-policy", NAMESPACE, Map.of("app", "db")));
+        when(policyCache.listByNamespace(NAMESPACE)).thenReturn(cached);
+
+        // When
+        CiliumNetworkPolicyService.TaggedPolicies policies = ciliumNetworkPolicyService.getCiliumNetworkPoliciesByNamespace(NAMESPACE);
+
+        // Then
+        assertEquals(2, policies.items().size());
+        assertEquals(PolicyETags.forPolicies(cached), policies.etag());
+        verify(policyCache, times(1)).listByNamespace(NAMESPACE);
+    }
+
+    @Test
+    void testGetCiliumNetworkPoliciesByEndpointSelector_AllNamespacesFromIndex() {
+        // Given
+        when(policyCache.isEnabled()).thenReturn(true);
+        when(endpointSelectorIndex.find(null, Map.of("app", "web")))
+                .thenReturn(List.of("tenant-a/web-policy", "tenant-b/web-policy"));
+        when(policyCache.getByKey("tenant-a/web-policy"))
+                .thenReturn(createPolicy("web-policy", "tenant-a", Map.of("app", "web", "tier", "front")));
+        when(policyCache.getByKey("tenant-b/web-policy"))
+                .thenReturn(createPolicy("web-policy", "tenant-b", Map.of("app", "web")));
+
+        // When
+        List<CiliumNetworkPolicyRequest> policies = ciliumNetworkPolicyService
+                .getCiliumNetworkPoliciesByEndpointSelector(null, Map.of("app", "web"));
+
+        // Then
+        assertEquals(2, policies.size());
+        assertTrue(policies.stream().allMatch(policy -> "web-policy".equals(policy.getName())));
+        verify(policyCache, never()).listAll();
+        verify(kubernetesClient, never()).resources(CiliumNetworkPolicy.class, CiliumNetworkPolicyList.class);
+        verify(kubernetesClient, never()).namespaces();
+    }
+
+    @Test
+    void testGetCiliumNetworkPoliciesByEndpointSelector_DropsStaleIndexEntries() {
+        // Given
+        when(namespaceCache.contains("tenant-a")).thenReturn(true);
+        when(policyCache.isEnabled()).thenReturn(true);
+        when(endpointSelectorIndex.find("tenant-a", Map.of("app", "web")))
+                .thenReturn(List.of("tenant-a/deleted-policy", "tenant-a/relabelled-policy"));
+        when(policyCache.getByKey("tenant-a/deleted-policy")).thenReturn(null);
+        when(policyCache.getByKey("tenant-a/relabelled-policy"))
+                .thenReturn(createPolicy("relabelled-policy", "tenant-a", Map.of("app", "db")));
+
+        // When
+        List<CiliumNetworkPolicyRequest> policies = ciliumNetworkPolicyService
+                .getCiliumNetworkPoliciesByEndpointSelector("tenant-a", Map.of("app", "web"));
+
+        // Then
+        assertTrue(policies.isEmpty());
+    }
+
+    @Test
+    void testRepeatedReadsReuseConvertedPolicy() {
+        // Given
+        mockNamespaceExists(NAMESPACE);
+        CiliumNetworkPolicy policy = createPolicy("web-policy", NAMESPACE, Map.of("app", "web"));
+        when(policyCache.isEnabled()).thenReturn(true);
+        when(policyCache.get(NAMESPACE, "web-policy")).thenReturn(policy);
+        when(policyCache.getByKey(NAMESPACE + "/web-policy")).thenReturn(policy);
+
+        // When
+        CiliumNetworkPolicyRequest first = ciliumNetworkPolicyService.getCiliumNetworkPolicyByName("web-policy", NAMESPACE);
+        CiliumNetworkPolicyRequest second = ciliumNetworkPolicyService.getCiliumNetworkPolicyByName("web-policy", NAMESPACE);
+
+        // Then
+        assertSame(first, second);
+        assertEquals(1, conversionCache.getHits());
+        assertEquals(1, conversionCache.getMisses());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testGetCiliumNetworkPoliciesByNamespace_CacheDisabledUsesApi() {
+        // Given
+        mockNamespaceExists(NAMESPACE);
+        when(policyCache.isEnabled()).thenReturn(false);
+
+        MixedOperation<CiliumNetworkPolicy, CiliumNetworkPolicyList, Resource<CiliumNetworkPolicy>> customResourceOp = mock(MixedOperation.class);
+        CiliumNetworkPolicyList policyList = new CiliumNetworkPolicyList();
+        policyList.setItems(List.of(createPolicy("web-policy", NAMESPACE, Map.of("app", "web"))));
+
+        when(kubernetesClient.resources(CiliumNetworkPolicy.class, CiliumNetworkPolicyList.class)).thenReturn(customResourceOp);
+        when(customResourceOp.inNamespace(NAMESPACE)).thenReturn(customResourceOp);
+        when(customResourceOp.list()).thenReturn(policyList);
+
+        // When
+        List<CiliumNetworkPolicyRequest> policies = ciliumNetworkPolicyService.getCiliumNetworkPoliciesByNamespace(NAMESPACE).items();
+
+        // Then
+        assertEquals(1, policies.size());
+        verify(customResourceOp).list();
+        verify(policyCache, never()).listByNamespace(anyString());
+        verify(conversionCache, never()).convert(any(), any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testGetCiliumNetworkPoliciesByNamespace_ConcurrentReadsShareOneApiCall() throws Exception {
+        // Given a slow API listing
+        mockNamespaceExists(NAMESPACE);
+        when(policyCache.isEnabled()).thenReturn(false);
+
+        MixedOperation<CiliumNetworkPolicy, CiliumNetworkPolicyList, Resource<CiliumNetworkPolicy>> customResourceOp = mock(MixedOperation.class);
+        CiliumNetworkPolicyList policyList = new CiliumNetworkPolicyList();
+        policyList.setItems(List.of(createPolicy("web-policy", NAMESPACE, Map.of("app", "web"))));
+        CountDownLatch release = new CountDownLatch(1);
+
+        when(kubernetesClient.resources(CiliumNetworkPolicy.class, CiliumNetworkPolicyList.class)).thenReturn(customResourceOp);
+        when(customResourceOp.inNamespace(NAMESPACE)).thenReturn(customResourceOp);
+        when(customResourceOp.list()).thenAnswer(invocation -> {
+            assertTrue(release.await(5, TimeUnit.SECONDS));
+            return policyList;
+        });
+
+        // When a burst of identical queries arrives while the first is in flight
+        List<Future<List<CiliumNetworkPolicyRequest>>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 20; i++) {
+                results.add(executor.submit(() -> ciliumNetworkPolicyService.getCiliumNetworkPoliciesByNamespace(NAMESPACE).items()));
+            }
+            while (ciliumNetworkPolicyService.getDeduplicatedReads() < 19) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+        }
+
+        // Then they all get the policies from a single listing
+        for (Future<List<CiliumNetworkPolicyRequest>> result : results) {
+            assertEquals("web-policy", result.get().get(0).getName());
+        }
+        verify(customResourceOp, times(1)).list();
+        assertEquals(1, ciliumNetworkPolicyService.getReadExecutions());
+    }
+
+    @Test
+    void testGetCiliumNetworkPoliciesPage_PagesCacheByName() {
+        // Given
+        when(namespaceCache.contains(NAMESPACE)).thenReturn(true);
+        when(policyCache.isEnabled()).thenReturn(true);
+        when(policyCache.listByNamespaceAfter(NAMESPACE, null, 3)).thenReturn(List.of(
+                createPolicy("a-policy", NAMESPACE, Map.of("app", "a")),
+                createPolicy("b-policy", NAMESPACE, Map.of("app", "b")),
+                createPolicy("c-policy", NAMESPACE, Map.of("app", "c"))));
+        when(policyCache.listByNamespaceAfter(NAMESPACE, "b-policy", 3)).thenReturn(List.of(
+                createPolicy("c-policy", NAMESPACE, Map.of("app", "c"))));
+
+        // When
+        CiliumNetworkPolicyPage first = ciliumNetworkPolicyService.getCiliumNetworkPoliciesByNamespace(NAMESPACE, 2, null);
+        CiliumNetworkPolicyPage second = ciliumNetworkPolicyService
+                .getCiliumNetworkPoliciesByNamespace(NAMESPACE, 2, first.getContinueToken());
+
+        // Then
+        assertEquals(List.of("a-policy", "b-policy"),
+                first.getItems().stream().map(CiliumNetworkPolicyRequest::getName).toList());
+        assertNotNull(first.getContinueToken());
+        assertEquals(List.of("c-policy"),
+                second.getItems().stream().map(CiliumNetworkPolicyRequest::getName).toList());
+        assertNull(second.getContinueToken());
+        verify(kubernetesClient, never()).resources(CiliumNetworkPolicy.class, CiliumNetworkPolicyList.class);
+    }
+
+    @Test
+    void testGetCiliumNetworkPoliciesPage_MalformedToken() {
+        // Given
+        when(namespaceCache.contains(NAMESPACE)).thenReturn(true);
+        when(policyCache.isEnabled()).thenReturn(true);
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class,
+                () -> ciliumNetworkPolicyService.getCiliumNetworkPoliciesByNamespace(NAMESPACE, 10, "not base64!"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testGetCiliumNetworkPoliciesPage_CacheDisabledPassesListOptions() {
+        // Given
+        mockNamespaceExists(NAMESPACE);
+        when(policyCache.isEnabled()).thenReturn(false);
+
+        MixedOperation<CiliumNetworkPolicy, CiliumNetworkPolicyList, Resource<CiliumNetworkPolicy>> customResourceOp = mock(MixedOperation.class);
+        CiliumNetworkPolicyList policyList = new CiliumNetworkPolicyList();
+        policyList.setItems(List.of(createPolicy("web-policy", NAMESPACE, Map.of("app", "web"))));
+        policyList.setMetadata(new ListMetaBuilder().withContinue("next-page").build());
+
+        when(kubernetesClient.resources(CiliumNetworkPolicy.class, CiliumNetworkPolicyList.class)).thenReturn(customResourceOp);
+        when(customResourceOp.inNamespace(NAMESPACE)).thenReturn(customResourceOp);
+        when(customResourceOp.list(any(ListOptions.class))).thenReturn(policyList);
+
+        // When
+        CiliumNetworkPolicyPage page = ciliumNetworkPolicyService.getCiliumNetworkPoliciesByNamespace(NAMESPACE, 50, "this-page");
+
+        // Then
+        ArgumentCaptor<ListOptions> options = ArgumentCaptor.forClass(ListOptions.class);
+        verify(customResourceOp).list(options.capture());
+        assertEquals(50L, options.getValue().getLimit());
+        assertEquals("this-page", options.getValue().getContinue());
+        assertEquals(1, page.getItems().size());
+        assertEquals("next-page", page.getContinueToken());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testGetCiliumNetworkPoliciesPage_ExpiredContinueToken() {
+        // Given
+        mockNamespaceExists(NAMESPACE);
+        when(policyCache.isEnabled()).thenReturn(false);
+
+        MixedOperation<CiliumNetworkPolicy, CiliumNetworkPolicyList, Resource<CiliumNetworkPolicy>> customResourceOp = mock(MixedOperation.class);
+        when(kubernetesClient.resources(CiliumNetworkPolicy.class, CiliumNetworkPolicyList.class)).thenReturn(customResourceOp);
+        when(customResourceOp.inNamespace(NAMESPACE)).thenReturn(customResourceOp);
+        when(customResourceOp.list(any(ListOptions.class)))
+                .thenThrow(new KubernetesClientException("The provided continue parameter is too old", 410, null));
+
+        // When & Then
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> ciliumNetworkPolicyService.getCiliumNetworkPoliciesByNamespace(NAMESPACE, 50, "stale"));
+        assertTrue(exception.getMessage().contains("Continue token has expired"));
+    }
+
+    @Test
+    void testStreamCiliumNetworkPoliciesByNamespace_FromCache() {
+        // Given
+        when(namespaceCache.contains(NAMESPACE)).thenReturn(true);
+        when(policyCache.isEnabled()).thenReturn(true);
+        when(policyCache.listByNamespace(NAMESPACE)).thenReturn(List.of(
+                createPolicy("web-policy", NAMESPACE, Map.of("app", "web")),
+                createPolicy("db-policy", NAMESPACE, Map.of("app", "db"))));
+
+        // When
+        List<String> names = ciliumNetworkPolicyService.streamCiliumNetworkPoliciesByNamespace(NAMESPACE)
+                .map(CiliumNetworkPolicyRequest::getName)
+                .toList();
+
+        // Then
+        assertEquals(List.of("web-policy", "db-policy"), names);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testStreamCiliumNetworkPoliciesByNamespace_CacheDisabledListsPageByPage() {
+        // Given
+        mockNamespaceExists(NAMESPACE);
+        when(policyCache.isEnabled()).thenReturn(false);
+
+        MixedOperation<CiliumNetworkPolicy, CiliumNetworkPolicyList, Resource<CiliumNetworkPolicy>> customResourceOp = mock(MixedOperation.class);
+        CiliumNetworkPolicyList firstPage = new CiliumNetworkPolicyList();
+        firstPage.setItems(List.of(createPolicy("a-policy", NAMESPACE, Map.of("app", "a"))));
+        firstPage.setMetadata(new ListMetaBuilder().withContinue("page-2").build());
+        CiliumNetworkPolicyList secondPage = new CiliumNetworkPolicyList();
+        secondPage.setItems(List.of(createPolicy("b-policy", NAMESPACE, Map.of("app", "b"))));
+        secondPage.setMetadata(new ListMetaBuilder().build());
+
+        when(kubernetesClient.resources(CiliumNetworkPolicy.class, CiliumNetworkPolicyList.class)).thenReturn(customResourceOp);
+        when(customResourceOp.inNamespace(NAMESPACE)).thenReturn(customResourceOp);
+        when(customResourceOp.list(any(ListOptions.class))).thenReturn(firstPage, secondPage);
+
+        // When
+        Iterator<CiliumNetworkPolicyRequest> policies = ciliumNetworkPolicyService
+                .streamCiliumNetworkPoliciesByNamespace(NAMESPACE).iterator();
+
+        // Then
+        assertEquals("a-policy", policies.next().getName());
+        verify(customResourceOp, times(1)).list(any(ListOptions.class));
+        assertEquals("b-policy", policies.next().getName());
+        assertFalse(policies.hasNext());
+
+        ArgumentCaptor<ListOptions> options = ArgumentCaptor.forClass(ListOptions.class);
+        verify(customResourceOp, times(2)).list(options.capture());
+        assertNull(options.getAllValues().get(0).getContinue());
+        assertEquals("page-2", options.getAllValues().get(1).getContinue());
+        verify(customResourceOp, never()).list();
+    }
+
+    @Test
+    void testStreamCiliumNetworkPoliciesByEndpointSelector_FromIndex() {
+        // Given
+        when(policyCache.isEnabled()).thenReturn(true);
+        when(endpointSelectorIndex.find(null, Map.of("app", "web"))).thenReturn(List.of("tenant-a/web-policy"));
+        when(policyCache.getByKey("tenant-a/web-policy"))
+                .thenReturn(createPolicy("web-policy", "tenant-a", Map.of("app", "web")));
+
+        // When
+        List<CiliumNetworkPolicyRequest> policies = ciliumNetworkPolicyService
+                .streamCiliumNetworkPoliciesByEndpointSelector(null, Map.of("app", "web"))
+                .toList();
+
+        // Then
+        assertEquals(1, policies.size());
+        assertEquals("tenant-a", policies.get(0).getNamespace());
+        verify(policyCache, never()).listAll();
+    }
+
+    @Test
+    void testNamespaceCacheHit_SkipsNamespaceLookup() {
+        // Given
+        when(namespaceCache.contains(NAMESPACE)).thenReturn(true);
+        when(policyCache.isEnabled()).thenReturn(true);
+        when(policyCache.listByNamespace(NAMESPACE)).thenReturn(List.of());
+
+        // When
+        List<CiliumNetworkPolicyRequest> policies = ciliumNetworkPolicyService.getCiliumNetworkPoliciesByNamespace(NAMESPACE).items();
+
+        // Then
+        assertTrue(policies.isEmpty());
+        verify(kubernetesClient, never()).namespaces();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testNamespaceCacheMiss_FallsBackToApi() {
+        // Given
+        NonNamespaceOperation<Namespace, NamespaceList, Resource<Namespace>> namespacesOp = mock(NonNamespaceOperation.class);
+        Resource<Namespace> namespaceResource = mock(Resource.class);
+        when(namespaceCache.contains("missing-namespace")).thenReturn(false);
+        when(kubernetesClient.namespaces()).thenReturn(namespacesOp);
+        when(namespacesOp.withName("missing-namespace")).thenReturn(namespaceResource);
+        when(namespaceResource.get()).thenReturn(null);
+
+        // When & Then
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> ciliumNetworkPolicyService.getCiliumNetworkPoliciesByNamespace("missing-namespace"));
+        assertEquals("Namespace 'missing-namespace' does not exist", exception.getMessage());
+        verify(namespaceResource).get();
+    }
+
+    @Test
+    void testPatchCiliumNetworkPolicyRules_SendsJsonPatchAgainstCachedVersion() {
+        // Given
+        when(namespaceCache.contains(NAMESPACE)).thenReturn(true);
+        when(policyCache.isEnabled()).thenReturn(true);
+        when(policyCache.get(NAMESPACE, "web-policy")).thenReturn(createPolicy("web-policy", NAMESPACE, Map.of("app", "web")));
+        Resource<CiliumNetworkPolicy> policyResource = mockPolicyResource("web-policy");
+        when(policyResource.patch(any(PatchContext.class), anyString())).thenReturn(patchedPolicy("web-policy", "2"));
+
+        // When
+        CiliumNetworkPolicyResponse response = ciliumNetworkPolicyService.patchCiliumNetworkPolicyRules("web-policy", NAMESPACE,
+                new CiliumNetworkPolicyRulePatch(List.of(cidrRule("10.1.0.0/16")), null), null);
+
+        // Then
+        assertEquals("UPDATED", response.getStatus());
+        assertEquals("2", response.getResourceVersion());
+        ArgumentCaptor<PatchContext> contextCaptor = ArgumentCaptor.forClass(PatchContext.class);
+        ArgumentCaptor<String> patchCaptor = ArgumentCaptor.forClass(String.class);
+        verify(policyResource).patch(contextCaptor.capture(), patchCaptor.capture());
+        assertEquals(PatchType.JSON, contextCaptor.getValue().getPatchType());
+        assertTrue(patchCaptor.getValue().startsWith("[{\"op\":\"test\",\"path\":\"/metadata/resourceVersion\",\"value\":\"1\"}"));
+        assertTrue(patchCaptor.getValue().contains("{\"op\":\"add\",\"path\":\"/spec/egress\",\"value\":[{\"toCIDR\":[\"10.1.0.0/16\"]}]}"));
+        verify(policyResource, never()).get();
+    }
+
+    @Test
+    void testPatchCiliumNetworkPolicyRules_IfMatchAheadOfCacheReadsApi() {
+        // Given
+        when(namespaceCache.contains(NAMESPACE)).thenReturn(true);
+        when(policyCache.isEnabled()).thenReturn(true);
+        when(policyCache.get(NAMESPACE, "web-policy")).thenReturn(createPolicy("web-policy", NAMESPACE, Map.of("app", "web")));
+        CiliumNetworkPolicy current = createPolicy("web-policy", NAMESPACE, Map.of("app", "web"));
+        current.getMetadata().setResourceVersion("5");
+        Resource<CiliumNetworkPolicy> policyResource = mockPolicyResource("web-policy");
+        when(policyResource.get()).thenReturn(current);
+        when(policyResource.patch(any(PatchContext.class), anyString())).thenReturn(patchedPolicy("web-policy", "6"));
+
+        // When
+        CiliumNetworkPolicyResponse response = ciliumNetworkPolicyService.patchCiliumNetworkPolicyRules("web-policy", NAMESPACE,
+                new CiliumNetworkPolicyRulePatch(List.of(cidrRule("10.1.0.0/16")), null), "5");
+
+        // Then
+        assertEquals("6", response.getResourceVersion());
+        verify(policyResource).patch(any(PatchContext.class), contains("\"value\":\"5\""));
+    }
+
+    @Test
+    void testPatchCiliumNetworkPolicyRules_IfMatchOutdatedIsConflict() {
+        // Given
+        when(namespaceCache.contains(NAMESPACE)).thenReturn(true);
+        when(policyCache.isEnabled()).thenReturn(false);
+        Resource<CiliumNetworkPolicy> policyResource = mockPolicyResource("web-policy");
+        when(policyResource.get()).thenReturn(createPolicy("web-policy", NAMESPACE, Map.of("app", "web")));
+
+        // When & Then
+        assertThrows(PolicyConflictException.class, () -> ciliumNetworkPolicyService.patchCiliumNetworkPolicyRules("web-policy",
+                NAMESPACE, new CiliumNetworkPolicyRulePatch(List.of(cidrRule("10.1.0.0/16")), null), "0"));
+        verify(policyResource, never()).patch(any(PatchContext.class), anyString());
+    }
+
+    @Test
+    void testPatchCiliumNetworkPolicyRules_FailedVersionTestIsConflict() {
+        // Given
+        when(namespaceCache.contains(NAMESPACE)).thenReturn(true);
+        when(policyCache.isEnabled()).thenReturn(true);
+        when(policyCache.get(NAMESPACE, "web-policy")).thenReturn(createPolicy("web-policy", NAMESPACE, Map.of("app", "web")));
+        Resource<CiliumNetworkPolicy> policyResource = mockPolicyResource("web-policy");
+        when(policyResource.patch(any(PatchContext.class), anyString())).thenThrow(new KubernetesClientException(
+                "the server rejected our request: testing value /metadata/resourceVersion failed: test failed", 422, null));
+
+        // When & Then
+        assertThrows(PolicyConflictException.class, () -> ciliumNetworkPolicyService.patchCiliumNetworkPolicyRules("web-policy",
+                NAMESPACE, new CiliumNetworkPolicyRulePatch(List.of(cidrRule("10.1.0.0/16")), null), null));
+    }
+
+    @Test
+    void testPatchCiliumNetworkPolicyRules_EmptyPatchIsRejected() {
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> ciliumNetworkPolicyService.patchCiliumNetworkPolicyRules("web-policy",
+                NAMESPACE, new CiliumNetworkPolicyRulePatch(List.of(), null), null));
+        verifyNoInteractions(kubernetesClient);
+    }
+
+    @Test
+    void testFindCiliumNetworkPolicyRulesByCidr_FromIndex() {
+        // Given
+        when(policyCache.isEnabled()).thenReturn(true);
+        List<CidrLookupMatch> matches = List.of(
+                new CidrLookupMatch("web-policy", NAMESPACE, CiliumNetworkPolicyRequest.RuleType.EGRESS_ALLOW, "10.0.0.0/8"));
+        when(cidrIndex.find(Ipv4Cidr.parse("10.1.2.3/32"))).thenReturn(matches);
+
+        // When
+        List<CidrLookupMatch> result = ciliumNetworkPolicyService.findCiliumNetworkPolicyRulesByCidr("10.1.2.3");
+
+        // Then
+        assertSame(matches, result);
+        verifyNoInteractions(kubernetesClient);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFindCiliumNetworkPolicyRulesByCidr_CacheDisabledScansAllNamespaces() {
+        // Given
+        when(policyCache.isEnabled()).thenReturn(false);
+        CiliumNetworkPolicy policy = createPolicy("web-policy", NAMESPACE, Map.of("app", "web"));
+        CiliumNetworkPolicySpec.EgressRule egress = new CiliumNetworkPolicySpec.EgressRule();
+        egress.setToCIDR(List.of("10.0.0.0/8", "192.168.0.0/16"));
+        policy.getSpec().setEgress(List.of(egress));
+        MixedOperation<CiliumNetworkPolicy, CiliumNetworkPolicyList, Resource<CiliumNetworkPolicy>> policiesOp = mock(MixedOperation.class);
+        AnyNamespaceOperation<CiliumNetworkPolicy, CiliumNetworkPolicyList, Resource<CiliumNetworkPolicy>> anyNamespaceOp = mock(AnyNamespaceOperation.class);
+        CiliumNetworkPolicyList policyList = new CiliumNetworkPolicyList();
+        policyList.setItems(List.of(policy));
+        when(kubernetesClient.resources(CiliumNetworkPolicy.class, CiliumNetworkPolicyList.class)).thenReturn(policiesOp);
+        when(policiesOp.inAnyNamespace()).thenReturn(anyNamespaceOp);
+        when(anyNamespaceOp.list()).thenReturn(policyList);
+
+        // When
+        List<CidrLookupMatch> result = ciliumNetworkPolicyService.findCiliumNetworkPolicyRulesByCidr("192.168.7.0/24");
+
+        // Then
+        assertEquals(List.of(new CidrLookupMatch("web-policy", NAMESPACE, CiliumNetworkPolicyRequest.RuleType.EGRESS_ALLOW,
+                "192.168.0.0/16")), result);
+        verifyNoInteractions(cidrIndex);
+    }
+
+    @Test
+    void testFindCiliumNetworkPolicyRulesByCidr_InvalidAddressIsRejected() {
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> ciliumNetworkPolicyService.findCiliumNetworkPolicyRulesByCidr("10.0.0.256"));
+        verifyNoInteractions(kubernetesClient, cidrIndex);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Resource<CiliumNetworkPolicy> mockPolicyResource(String name) {
+        MixedOperation<CiliumNetworkPolicy, CiliumNetworkPolicyList, Resource<CiliumNetworkPolicy>> policiesOp = mock(MixedOperation.class);
+        Resource<CiliumNetworkPolicy> policyResource = mock(Resource.class);
+        when(kubernetesClient.resources(CiliumNetworkPolicy.class, CiliumNetworkPolicyList.class)).thenReturn(policiesOp);
+        when(policiesOp.inNamespace(NAMESPACE)).thenReturn(policiesOp);
+        when(policiesOp.withName(name)).thenReturn(policyResource);
+        return policyResource;
+    }
+
+    private CiliumNetworkPolicy patchedPolicy(String name, String resourceVersion) {
+        CiliumNetworkPolicy policy = createPolicy(name, NAMESPACE, Map.of("app", "web"));
+        policy.getMetadata().setResourceVersion(resourceVersion);
+        policy.getMetadata().setCreationTimestamp("2023-01-01T10:00:00Z");
+        return policy;
+    }
+
+    private CiliumNetworkPolicyRequest.NetworkRule cidrRule(String cidr) {
+        CiliumNetworkPolicyRequest.NetworkRule rule = new CiliumNetworkPolicyRequest.NetworkRule();
+        rule.setRuleType(CiliumNetworkPolicyRequest.RuleType.EGRESS_ALLOW);
+        rule.setIpAddresses(List.of(cidr));
+        return rule;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void mockNamespaceExists(String namespace) {
+        NonNamespaceOperation<Namespace, NamespaceList, Resource<Namespace>> namespacesOp = mock(NonNamespaceOperation.class);
+        Resource<Namespace> namespaceResource = mock(Resource.class);
+        Namespace existingNamespace = new NamespaceBuilder().withNewMetadata().withName(namespace).endMetadata().build();
+
+        when(kubernetesClient.namespaces()).thenReturn(namespacesOp);
+        when(namespacesOp.withName(namespace)).thenReturn(namespaceResource);
+        when(namespaceResource.get()).thenReturn(existingNamespace);
+    }
+
+    private CiliumNetworkPolicy createPolicy(String name, String namespace, Map<String, String> endpointLabels) {
+        CiliumNetworkPolicy policy = new CiliumNetworkPolicy();
+        policy.setMetadata(new ObjectMetaBuilder()
+                .withName(name)
+                .withNamespace(namespace)
+                .withResourceVersion("1")
+                .build());
+
+        CiliumNetworkPolicySpec spec = new CiliumNetworkPolicySpec();
+        spec.setEndpointSelector(new CiliumNetworkPolicySpec.EndpointSelector(new HashMap<>(endpointLabels)));
+        policy.setSpec(spec);
+        return policy;
+    }
+}
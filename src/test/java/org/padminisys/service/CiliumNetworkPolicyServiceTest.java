@@ -60,7 +60,7 @@ class CiliumNetworkPolicyServiceTest {
             
             // Test getCiliumNetworkPoliciesByNamespace method signature
             var getByNamespaceMethod = serviceClass.getMethod("getCiliumNetworkPoliciesByNamespace", String.class);
-            assertEquals(java.util.List.class, getByNamespaceMethod.getReturnType());
+            assertEquals(CiliumNetworkPolicyService.TaggedPolicies.class, getByNamespaceMethod.getReturnType());
             
         } catch (ClassNotFoundException | NoSuchMethodException e) {
             fail("Method signature validation failed: " + e.getMessage());
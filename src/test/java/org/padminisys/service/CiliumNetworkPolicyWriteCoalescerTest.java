@@ -0,0 +1,170 @@
+package org.padminisys.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.padminisys.dto.CiliumNetworkPolicyRequest;
+import org.padminisys.dto.CiliumNetworkPolicyResponse;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for CiliumNetworkPolicyWriteCoalescer.
+ */
+class CiliumNetworkPolicyWriteCoalescerTest {
+
+    private CiliumNetworkPolicyWriteCoalescer coalescer;
+    private final List<CiliumNetworkPolicyRequest> written = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        coalescer = new CiliumNetworkPolicyWriteCoalescer();
+        coalescer.window = Duration.ofMillis(100);
+        coalescer.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        coalescer.shutdown();
+    }
+
+    @Test
+    void testRapidUpdatesCollapseIntoLatestWrite() throws Exception {
+        // Given ten updates of the same policy within the window
+        List<Future<CiliumNetworkPolicyResponse>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 10; i++) {
+                CiliumNetworkPolicyRequest request = request("v" + i);
+                results.add(executor.submit(() -> coalescer.write("tenant-a", "web", request, recordingWriter())));
+                while (coalescer.getUpdatesCoalesced() < i) {
+                    Thread.sleep(1);
+                }
+            }
+        }
+
+        // Then only the latest desired state was written, and every caller got its outcome
+        assertEquals(1, written.size());
+        assertEquals("v9", written.get(0).getLabels().get("version"));
+        CiliumNetworkPolicyResponse first = results.get(0).get();
+        for (Future<CiliumNetworkPolicyResponse> result : results) {
+            assertSame(first, result.get());
+        }
+        assertEquals(1, coalescer.getWritesIssued());
+        assertEquals(9, coalescer.getUpdatesCoalesced());
+    }
+
+    @Test
+    void testDifferentPoliciesAreWrittenSeparately() throws Exception {
+        // When
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<CiliumNetworkPolicyResponse> web = executor.submit(() -> coalescer.write("tenant-a", "web", request("v1"), recordingWriter()));
+            Future<CiliumNetworkPolicyResponse> db = executor.submit(() -> coalescer.write("tenant-a", "db", request("v1"), recordingWriter()));
+            web.get();
+            db.get();
+        }
+
+        // Then
+        assertEquals(2, written.size());
+        assertEquals(0, coalescer.getUpdatesCoalesced());
+    }
+
+    @Test
+    void testFailureIsReturnedToEveryCaller() throws Exception {
+        // Given
+        RuntimeException failure = new RuntimeException("Failed to create CiliumNetworkPolicy: Forbidden");
+        Function<CiliumNetworkPolicyRequest, CiliumNetworkPolicyResponse> failingWriter = latest -> {
+            throw failure;
+        };
+
+        // When
+        List<Future<CiliumNetworkPolicyResponse>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            results.add(executor.submit(() -> coalescer.write("tenant-a", "web", request("v1"), failingWriter)));
+            results.add(executor.submit(() -> coalescer.write("tenant-a", "web", request("v2"), failingWriter)));
+        }
+
+        // Then
+        for (Future<CiliumNetworkPolicyResponse> result : results) {
+            assertSame(failure, assertThrows(Exception.class, result::get).getCause());
+        }
+    }
+
+    @Test
+    void testWritesOfSamePolicyDoNotOverlap() throws Exception {
+        // Given the first window's write is still in progress
+        coalescer.shutdown();
+        coalescer = new CiliumNetworkPolicyWriteCoalescer();
+        coalescer.window = Duration.ofMillis(10);
+        coalescer.init();
+        CountDownLatch firstWriteStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirstWrite = new CountDownLatch(1);
+        Function<CiliumNetworkPolicyRequest, CiliumNetworkPolicyResponse> slowWriter = latest -> {
+            firstWriteStarted.countDown();
+            try {
+                assertTrue(releaseFirstWrite.await(5, TimeUnit.SECONDS));
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            return recordingWriter().apply(latest);
+        };
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<CiliumNetworkPolicyResponse> first = executor.submit(() -> coalescer.write("tenant-a", "web", request("v1"), slowWriter));
+            assertTrue(firstWriteStarted.await(5, TimeUnit.SECONDS));
+
+            // When a second window closes meanwhile
+            Future<CiliumNetworkPolicyResponse> second = executor.submit(() -> coalescer.write("tenant-a", "web", request("v2"), recordingWriter()));
+            Thread.sleep(100);
+
+            // Then it is written only after the first, so the latest state wins
+            assertTrue(written.isEmpty());
+            releaseFirstWrite.countDown();
+            first.get();
+            second.get();
+        }
+        assertEquals(List.of("v1", "v2"), written.stream().map(request -> request.getLabels().get("version")).toList());
+    }
+
+    @Test
+    void testZeroWindowDisablesCoalescing() {
+        // Given
+        CiliumNetworkPolicyWriteCoalescer disabled = new CiliumNetworkPolicyWriteCoalescer();
+        disabled.window = Duration.ZERO;
+
+        // When
+        disabled.init();
+
+        // Then
+        assertFalse(disabled.isEnabled());
+        disabled.shutdown();
+    }
+
+    private Function<CiliumNetworkPolicyRequest, CiliumNetworkPolicyResponse> recordingWriter() {
+        return latest -> {
+            written.add(latest);
+            return new CiliumNetworkPolicyResponse(latest.getName(), latest.getNamespace(), "UPDATED", Instant.now(),
+                    "CiliumNetworkPolicy updated successfully", latest.getName());
+        };
+    }
+
+    private CiliumNetworkPolicyRequest request(String version) {
+        CiliumNetworkPolicyRequest request = new CiliumNetworkPolicyRequest();
+        request.setName("web");
+        request.setNamespace("tenant-a");
+        request.setLabels(Map.of("app", "web", "version", version));
+        return request;
+    }
+}
@@ -0,0 +1,222 @@
+package org.padminisys.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.fabric8.kubernetes.api.model.Namespace;
+import io.fabric8.kubernetes.api.model.NamespaceBuilder;
+import io.fabric8.kubernetes.client.ConfigBuilder;
+import io.fabric8.kubernetes.client.KubernetesClientBuilder;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.padminisys.exception.ApiServerBusyException;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests KubernetesAsyncApi against a local HTTP server standing in for the API server.
+ */
+class KubernetesAsyncApiTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    private HttpServer server;
+    private final Map<String, Response> responses = new ConcurrentHashMap<>();
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+    private final Map<String, String> requestBodies = new ConcurrentHashMap<>();
+    private final Map<String, String> requestContentTypes = new ConcurrentHashMap<>();
+
+    private KubernetesAsyncApi asyncApi;
+
+    private record Response(int code, String body) {
+    }
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", this::handle);
+        server.start();
+
+        asyncApi = new KubernetesAsyncApi();
+        asyncApi.kubernetesClient = new KubernetesClientBuilder()
+                .withConfig(new ConfigBuilder()
+                        .withMasterUrl("http://127.0.0.1:" + server.getAddress().getPort() + "/")
+                        .withRequestRetryBackoffLimit(0)
+                        .build())
+                .build();
+        asyncApi.limiter = new ApiServerLimiter();
+        asyncApi.limiter.maxConcurrentCalls = 2;
+        asyncApi.limiter.acquireTimeout = Duration.ofSeconds(5);
+        asyncApi.limiter.maxQueuedCalls = 100;
+        asyncApi.limiter.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        asyncApi.kubernetesClient.close();
+        server.stop(0);
+    }
+
+    @Test
+    void testGet_ReturnsObject() {
+        respond("GET /api/v1/namespaces/tenant-a", 200, namespaceJson("tenant-a"));
+
+        Namespace namespace = asyncApi.get("/api/v1/namespaces/tenant-a", Namespace.class).await().atMost(TIMEOUT);
+
+        assertEquals("tenant-a", namespace.getMetadata().getName());
+    }
+
+    @Test
+    void testGet_NotFoundIsNull() {
+        respond("GET /api/v1/namespaces/missing", 404, statusJson(404, "namespaces \"missing\" not found"));
+
+        assertNull(asyncApi.get("/api/v1/namespaces/missing", Namespace.class).await().atMost(TIMEOUT));
+    }
+
+    @Test
+    void testPost_SendsJsonAndReturnsCreated() {
+        respond("POST /api/v1/namespaces", 201, namespaceJson("tenant-a"));
+
+        Namespace created = asyncApi.post("/api/v1/namespaces",
+                new NamespaceBuilder().withNewMetadata().withName("tenant-a").endMetadata().build(),
+                Namespace.class).await().atMost(TIMEOUT);
+
+        assertEquals("tenant-a", created.getMetadata().getName());
+        assertTrue(requestBodies.get("POST /api/v1/namespaces").contains("\"name\":\"tenant-a\""));
+    }
+
+    @Test
+    void testPost_ConflictFailsWithStatusCode() {
+        respond("POST /api/v1/namespaces", 409, statusJson(409, "namespaces \"tenant-a\" already exists"));
+
+        KubernetesClientException exception = assertThrows(KubernetesClientException.class,
+                () -> asyncApi.post("/api/v1/namespaces",
+                        new NamespaceBuilder().withNewMetadata().withName("tenant-a").endMetadata().build(),
+                        Namespace.class).await().atMost(TIMEOUT));
+
+        assertEquals(409, exception.getCode());
+        assertTrue(exception.getMessage().contains("already exists"));
+    }
+
+    @Test
+    void testApply_SendsServerSideApplyPatch() {
+        respond("PATCH /apis/cilium.io/v2/namespaces/tenant-a/ciliumnetworkpolicies/web?fieldManager=ppcs-nsm&force=true",
+                200, namespaceJson("web"));
+
+        KubernetesAsyncApi.Applied<Namespace> applied = asyncApi.apply("/apis/cilium.io/v2/namespaces/tenant-a/ciliumnetworkpolicies/web",
+                new NamespaceBuilder().withNewMetadata().withName("web").endMetadata().build(),
+                "ppcs-nsm", Namespace.class).await().atMost(TIMEOUT);
+
+        String key = "PATCH /apis/cilium.io/v2/namespaces/tenant-a/ciliumnetworkpolicies/web?fieldManager=ppcs-nsm&force=true";
+        assertTrue(requests.contains(key));
+        assertTrue(requestContentTypes.get(key).startsWith(KubernetesAsyncApi.APPLY_PATCH_CONTENT_TYPE));
+        assertEquals("web", applied.object().getMetadata().getName());
+        assertFalse(applied.created());
+    }
+
+    @Test
+    void testApply_CreatedIsReportedFromStatusCode() {
+        respond("PATCH /apis/cilium.io/v2/namespaces/tenant-a/ciliumnetworkpolicies/web?fieldManager=ppcs-nsm&force=true",
+                201, namespaceJson("web"));
+
+        KubernetesAsyncApi.Applied<Namespace> applied = asyncApi.apply("/apis/cilium.io/v2/namespaces/tenant-a/ciliumnetworkpolicies/web",
+                new NamespaceBuilder().withNewMetadata().withName("web").endMetadata().build(),
+                "ppcs-nsm", Namespace.class).await().atMost(TIMEOUT);
+
+        assertTrue(applied.created());
+    }
+
+    @Test
+    void testDelete_NotFoundIsFalse() {
+        respond("DELETE /apis/cilium.io/v2/namespaces/tenant-a/ciliumnetworkpolicies/web", 200, statusJson(200, "deleted"));
+
+        assertTrue(asyncApi.delete("/apis/cilium.io/v2/namespaces/tenant-a/ciliumnetworkpolicies/web").await().atMost(TIMEOUT));
+        assertFalse(asyncApi.delete("/apis/cilium.io/v2/namespaces/tenant-a/ciliumnetworkpolicies/db").await().atMost(TIMEOUT));
+    }
+
+    @Test
+    void testServerErrorFailsWithStatusCode() {
+        respond("GET /api/v1/namespaces/tenant-a", 403, statusJson(403, "forbidden"));
+
+        KubernetesClientException exception = assertThrows(KubernetesClientException.class,
+                () -> asyncApi.get("/api/v1/namespaces/tenant-a", Namespace.class).await().atMost(TIMEOUT));
+
+        assertEquals(403, exception.getCode());
+    }
+
+    @Test
+    void testRequestsPassTheApiServerLimiter() {
+        // Given a write budget of a single token
+        asyncApi.limiter.rateLimitEnabled = true;
+        asyncApi.limiter.readQps = 1000;
+        asyncApi.limiter.readBurst = 1000;
+        asyncApi.limiter.writeQps = 0.1;
+        asyncApi.limiter.writeBurst = 1;
+        asyncApi.limiter.acquireTimeout = Duration.ofMillis(100);
+        asyncApi.limiter.init();
+        respond("POST /api/v1/namespaces", 201, namespaceJson("tenant-a"));
+        respond("GET /api/v1/namespaces/tenant-a", 200, namespaceJson("tenant-a"));
+        Namespace namespace = new NamespaceBuilder().withNewMetadata().withName("tenant-a").endMetadata().build();
+
+        // When
+        asyncApi.post("/api/v1/namespaces", namespace, Namespace.class).await().atMost(TIMEOUT);
+        ApiServerBusyException exception = assertThrows(ApiServerBusyException.class,
+                () -> asyncApi.post("/api/v1/namespaces", namespace, Namespace.class).await().atMost(TIMEOUT));
+
+        // Then the second write never reached the server, while reads draw from their own budget
+        assertEquals("Kubernetes API write rate limit exceeded, try again later", exception.getMessage());
+        assertEquals(1, requests.stream().filter("POST /api/v1/namespaces"::equals).count());
+        assertNotNull(asyncApi.get("/api/v1/namespaces/tenant-a", Namespace.class).await().atMost(TIMEOUT));
+        assertEquals(0, asyncApi.limiter.getInFlight());
+    }
+
+    @Test
+    void testPaths() {
+        assertEquals("/api/v1/namespaces/tenant-a", KubernetesAsyncApi.namespacePath("tenant-a"));
+        assertEquals("/api/v1/namespaces/tenant-a/serviceaccounts", KubernetesAsyncApi.serviceAccountsPath("tenant-a"));
+        assertEquals("/apis/cilium.io/v2/namespaces/tenant-a/ciliumnetworkpolicies", KubernetesAsyncApi.ciliumNetworkPoliciesPath("tenant-a"));
+        assertEquals("/apis/cilium.io/v2/ciliumnetworkpolicies", KubernetesAsyncApi.ciliumNetworkPoliciesPath(null));
+    }
+
+    private void respond(String request, int code, String body) {
+        responses.put(request, new Response(code, body));
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String query = exchange.getRequestURI().getRawQuery();
+        String key = exchange.getRequestMethod() + " " + exchange.getRequestURI().getRawPath() + (query != null ? "?" + query : "");
+        requests.add(key);
+        requestBodies.put(key, new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+        String contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+        if (contentType != null) {
+            requestContentTypes.put(key, contentType);
+        }
+
+        Response response = responses.getOrDefault(key, new Response(404, statusJson(404, "not found")));
+        byte[] body = response.body().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(response.code(), body.length);
+        exchange.getResponseBody().write(body);
+        exchange.close();
+    }
+
+    private static String namespaceJson(String name) {
+        return "{\"apiVersion\":\"v1\",\"kind\":\"Namespace\",\"metadata\":{\"name\":\"" + name
+                + "\",\"creationTimestamp\":\"2025-01-01T00:00:00Z\"}}";
+    }
+
+    private static String statusJson(int code, String message) {
+        return "{\"apiVersion\":\"v1\",\"kind\":\"Status\",\"status\":\"Failure\",\"code\":" + code
+                + ",\"message\":\"" + message.replace("\"", "\\\"") + "\"}";
+    }
+}
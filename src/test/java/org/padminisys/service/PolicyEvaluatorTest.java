@@ -0,0 +1,246 @@
+package org.padminisys.service;
+
+import io.fabric8.kubernetes.api.model.ObjectMetaBuilder;
+import io.fabric8.kubernetes.client.utils.Serialization;
+import org.junit.jupiter.api.Test;
+import org.padminisys.dto.CiliumNetworkPolicyRequest;
+import org.padminisys.dto.PolicySimulationResponse.Decision;
+import org.padminisys.dto.PolicySimulationResponse.Verdict;
+import org.padminisys.model.CiliumNetworkPolicy;
+import org.padminisys.model.CiliumNetworkPolicySpec;
+import org.padminisys.model.Ipv4Cidr;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the Cilium semantics of PolicyEvaluator, over policies built by CiliumNetworkPolicyMapper.
+ */
+class PolicyEvaluatorTest {
+
+    private static final PolicyEvaluator.Peer WEB = PolicyEvaluator.Peer.pod("tenant-a", Map.of("app", "web"));
+    private static final PolicyEvaluator.Peer FRONTEND = PolicyEvaluator.Peer.pod("tenant-a", Map.of("app", "frontend"));
+
+    @Test
+    void testUnselectedEndpointAllowsEverything() {
+        PolicyEvaluator.NamespaceRules rules = compile(policy("web", Map.of("app", "web"), List.of(ingressFrom("frontend", 8080, null)), null));
+
+        Verdict verdict = PolicyEvaluator.evaluate(rules, PolicyEvaluator.Direction.INGRESS, FRONTEND, WEB, "TCP", 22);
+
+        assertEquals(Decision.ALLOWED_BY_DEFAULT, verdict.getDecision());
+        assertTrue(verdict.getPolicies().isEmpty());
+    }
+
+    @Test
+    void testSelectedEndpointAllowsOnlyMatchingRules() {
+        PolicyEvaluator.NamespaceRules rules = compile(policy("web", Map.of("app", "web"), List.of(ingressFrom("frontend", 8080, 8090)), null));
+
+        assertEquals(new Verdict(Decision.ALLOWED, List.of("tenant-a/web")).toString(),
+                PolicyEvaluator.evaluate(rules, PolicyEvaluator.Direction.INGRESS, WEB, FRONTEND, "TCP", 8085).toString());
+        assertEquals(Decision.DENIED_BY_DEFAULT,
+                PolicyEvaluator.evaluate(rules, PolicyEvaluator.Direction.INGRESS, WEB, FRONTEND, "TCP", 8091).getDecision());
+        assertEquals(Decision.DENIED_BY_DEFAULT,
+                PolicyEvaluator.evaluate(rules, PolicyEvaluator.Direction.INGRESS, WEB, FRONTEND, "UDP", 8080).getDecision());
+        assertEquals(Decision.DENIED_BY_DEFAULT,
+                PolicyEvaluator.evaluate(rules, PolicyEvaluator.Direction.INGRESS, WEB, WEB, "TCP", 8080).getDecision());
+        // Ingress rules leave egress unenforced
+        assertEquals(Decision.ALLOWED_BY_DEFAULT,
+                PolicyEvaluator.evaluate(rules, PolicyEvaluator.Direction.EGRESS, WEB, FRONTEND, "TCP", 8080).getDecision());
+    }
+
+    @Test
+    void testPeerSelectorIsScopedToPolicyNamespace() {
+        PolicyEvaluator.NamespaceRules rules = compile(policy("web", Map.of("app", "web"), List.of(ingressFrom("frontend", 8080, null)), null));
+        PolicyEvaluator.Peer otherTenantFrontend = PolicyEvaluator.Peer.pod("tenant-b", Map.of("app", "frontend"));
+
+        assertEquals(Decision.DENIED_BY_DEFAULT, PolicyEvaluator.evaluate(
+                rules, PolicyEvaluator.Direction.INGRESS, WEB, otherTenantFrontend, "TCP", 8080).getDecision());
+    }
+
+    @Test
+    void testDenyRuleOverridesAllow() {
+        CiliumNetworkPolicy allow = policy("allow-frontend", Map.of("app", "web"), List.of(ingressFrom("frontend", 8080, null)), null);
+        CiliumNetworkPolicyRequest.NetworkRule deny = ingressFrom("frontend", 8000, 9000);
+        deny.setRuleType(CiliumNetworkPolicyRequest.RuleType.INGRESS_DENY);
+        CiliumNetworkPolicyRequest denyRequest = request(Map.of("app", "web"));
+        denyRequest.setIngressDenyRules(List.of(deny));
+        CiliumNetworkPolicy denyPolicy = CiliumNetworkPolicyMapper.toResource(denyRequest, "deny-frontend");
+
+        Verdict verdict = PolicyEvaluator.evaluate(PolicyEvaluator.compile(List.of(allow, denyPolicy)),
+                PolicyEvaluator.Direction.INGRESS, WEB, FRONTEND, "TCP", 8080);
+
+        assertEquals(Decision.DENIED, verdict.getDecision());
+        assertEquals(List.of("tenant-a/deny-frontend"), verdict.getPolicies());
+    }
+
+    @Test
+    void testCidrRulesMatchExternalAddressesOnly() {
+        CiliumNetworkPolicyRequest.NetworkRule toPrivate = new CiliumNetworkPolicyRequest.NetworkRule();
+        toPrivate.setRuleType(CiliumNetworkPolicyRequest.RuleType.EGRESS_ALLOW);
+        toPrivate.setIpAddresses(List.of("10.0.0.0/8"));
+        PolicyEvaluator.NamespaceRules rules = compile(policy("web", Map.of("app", "web"), null, List.of(toPrivate)));
+
+        assertEquals(Decision.ALLOWED, PolicyEvaluator.evaluate(rules, PolicyEvaluator.Direction.EGRESS, WEB,
+                PolicyEvaluator.Peer.external(Ipv4Cidr.parseAddressOrCidr("10.1.2.3")), "UDP", 53).getDecision());
+        assertEquals(Decision.DENIED_BY_DEFAULT, PolicyEvaluator.evaluate(rules, PolicyEvaluator.Direction.EGRESS, WEB,
+                PolicyEvaluator.Peer.external(Ipv4Cidr.parseAddressOrCidr("8.8.8.8")), "UDP", 53).getDecision());
+        assertEquals(Decision.DENIED_BY_DEFAULT, PolicyEvaluator.evaluate(rules, PolicyEvaluator.Direction.EGRESS, WEB,
+                FRONTEND, "UDP", 53).getDecision());
+    }
+
+    @Test
+    void testPortOnlyRuleMatchesEveryPeer() {
+        CiliumNetworkPolicySpec.PortRule https = new CiliumNetworkPolicySpec.PortRule();
+        https.setPorts(List.of(new CiliumNetworkPolicySpec.PortProtocol("443", "ANY", null)));
+        CiliumNetworkPolicySpec.IngressRule rule = new CiliumNetworkPolicySpec.IngressRule();
+        rule.setToPorts(List.of(https));
+        CiliumNetworkPolicySpec spec = new CiliumNetworkPolicySpec();
+        spec.setEndpointSelector(new CiliumNetworkPolicySpec.EndpointSelector(Map.of("k8s:app", "web")));
+        spec.setIngress(List.of(rule, new CiliumNetworkPolicySpec.IngressRule()));
+        CiliumNetworkPolicy policy = new CiliumNetworkPolicy();
+        policy.setMetadata(new ObjectMetaBuilder().withName("https").withNamespace("tenant-a").build());
+        policy.setSpec(spec);
+        PolicyEvaluator.NamespaceRules rules = compile(policy);
+
+        assertEquals(Decision.ALLOWED, PolicyEvaluator.evaluate(rules, PolicyEvaluator.Direction.INGRESS, WEB,
+                PolicyEvaluator.Peer.external(Ipv4Cidr.parseAddressOrCidr("203.0.113.7")), "TCP", 443).getDecision());
+        assertEquals(Decision.ALLOWED, PolicyEvaluator.evaluate(rules, PolicyEvaluator.Direction.INGRESS, WEB,
+                PolicyEvaluator.Peer.pod("tenant-b", Map.of()), "UDP", 443).getDecision());
+        // The empty rule matches nothing, so other ports stay denied
+        assertEquals(Decision.DENIED_BY_DEFAULT, PolicyEvaluator.evaluate(rules, PolicyEvaluator.Direction.INGRESS, WEB,
+                FRONTEND, "TCP", 80).getDecision());
+    }
+
+    @Test
+    void testEndpointGroupsAreDistinctSelectors() {
+        CiliumNetworkPolicy web = policy("web", Map.of("app", "web"), List.of(ingressFrom("frontend", 8080, null)), null);
+        CiliumNetworkPolicy webAgain = policy("web-metrics", Map.of("app", "web"), List.of(ingressFrom("prometheus", 9090, null)), null);
+        CiliumNetworkPolicy all = policy("default-deny", Map.of(), List.of(ingressFrom("frontend", 443, null)), null);
+        CiliumNetworkPolicy api = policy("api", Map.of("tier", "backend", "app", "api"), List.of(ingressFrom("web", 8080, null)), null);
+
+        PolicyEvaluator.NamespaceRules rules = PolicyEvaluator.compile(List.of(web, webAgain, all, api));
+
+        assertEquals(List.of(Map.of("app", "api", "tier", "backend"), Map.of("app", "web"), Map.of()), rules.endpointGroups());
+    }
+
+    @Test
+    void testEntitiesOnlyRuleIsUnevaluable() {
+        // Given a rule whose only peers are entities, which the model does not cover
+        PolicyEvaluator.NamespaceRules rules = compile(parse("entities", "{\"endpointSelector\":{\"matchLabels\":{\"app\":\"web\"}},"
+                + "\"ingress\":[{\"fromEntities\":[\"cluster\"],\"toPorts\":[{\"ports\":[{\"port\":\"8080\",\"protocol\":\"TCP\"}]}]}]}"));
+
+        // When
+        Verdict external = PolicyEvaluator.evaluate(rules, PolicyEvaluator.Direction.INGRESS, WEB,
+                PolicyEvaluator.Peer.external(Ipv4Cidr.parseAddressOrCidr("203.0.113.7")), "TCP", 8080);
+        Verdict pod = PolicyEvaluator.evaluate(rules, PolicyEvaluator.Direction.INGRESS, WEB, FRONTEND, "TCP", 8080);
+
+        // Then neither is reported as allowed by a wildcard
+        assertEquals(new Verdict(Decision.UNEVALUABLE, List.of("tenant-a/entities")).toString(), external.toString());
+        assertEquals(Decision.UNEVALUABLE, pod.getDecision());
+        assertFalse(pod.getDecision().isAllowed());
+    }
+
+    @Test
+    void testEntitiesOnlyDenyRuleIsUnevaluable() {
+        CiliumNetworkPolicy allow = policy("allow-frontend", Map.of("app", "web"), List.of(ingressFrom("frontend", 8080, null)), null);
+        CiliumNetworkPolicy deny = parse("deny-world", "{\"endpointSelector\":{\"matchLabels\":{\"app\":\"web\"}},"
+                + "\"ingressDeny\":[{\"fromEntities\":[\"world\"],\"toPorts\":[{\"ports\":[{\"port\":\"8080\",\"protocol\":\"TCP\"}]}]}]}");
+
+        Verdict verdict = PolicyEvaluator.evaluate(PolicyEvaluator.compile(List.of(allow, deny)),
+                PolicyEvaluator.Direction.INGRESS, WEB, FRONTEND, "TCP", 8080);
+
+        assertEquals(new Verdict(Decision.UNEVALUABLE, List.of("tenant-a/deny-world")).toString(), verdict.toString());
+    }
+
+    @Test
+    void testMatchExpressionsOnlySelectorIsUnevaluable() {
+        // Given a policy whose selector is only matchExpressions
+        CiliumNetworkPolicy expressions = parse("expressions", "{\"endpointSelector\":{\"matchExpressions\":"
+                + "[{\"key\":\"app\",\"operator\":\"In\",\"values\":[\"db\"]}]},"
+                + "\"ingress\":[{\"fromEndpoints\":[{\"matchLabels\":{\"app\":\"backup\"}}]}]}");
+        PolicyEvaluator.NamespaceRules rules = PolicyEvaluator.compile(List.of(expressions,
+                policy("web", Map.of("app", "web"), List.of(ingressFrom("frontend", 8080, null)), null)));
+
+        // When
+        Verdict web = PolicyEvaluator.evaluate(rules, PolicyEvaluator.Direction.INGRESS, WEB, FRONTEND, "TCP", 8080);
+        Verdict egress = PolicyEvaluator.evaluate(rules, PolicyEvaluator.Direction.EGRESS, WEB, FRONTEND, "TCP", 8080);
+
+        // Then it is not taken to select every endpoint, nor to form a group
+        assertEquals(new Verdict(Decision.UNEVALUABLE, List.of("tenant-a/expressions")).toString(), web.toString());
+        assertEquals(Decision.ALLOWED_BY_DEFAULT, egress.getDecision());
+        assertEquals(List.of(Map.of("app", "web")), rules.endpointGroups());
+    }
+
+    @Test
+    void testMatchingDenyRuleDecidesDespiteUnevaluableRules() {
+        CiliumNetworkPolicyRequest.NetworkRule deny = ingressFrom("frontend", 8080, null);
+        deny.setRuleType(CiliumNetworkPolicyRequest.RuleType.INGRESS_DENY);
+        CiliumNetworkPolicyRequest denyRequest = request(Map.of("app", "web"));
+        denyRequest.setIngressDenyRules(List.of(deny));
+        CiliumNetworkPolicy entities = parse("entities", "{\"endpointSelector\":{\"matchLabels\":{\"app\":\"web\"}},"
+                + "\"ingress\":[{\"fromEntities\":[\"cluster\"]}]}");
+
+        Verdict verdict = PolicyEvaluator.evaluate(PolicyEvaluator.compile(List.of(entities,
+                        CiliumNetworkPolicyMapper.toResource(denyRequest, "deny-frontend"))),
+                PolicyEvaluator.Direction.INGRESS, WEB, FRONTEND, "TCP", 8080);
+
+        assertEquals(new Verdict(Decision.DENIED, List.of("tenant-a/deny-frontend")).toString(), verdict.toString());
+    }
+
+    @Test
+    void testNamedPortAndPluralSpecsAreUnevaluable() {
+        CiliumNetworkPolicy namedPort = parse("named-port", "{\"endpointSelector\":{\"matchLabels\":{\"app\":\"web\"}},"
+                + "\"ingress\":[{\"fromEndpoints\":[{\"matchLabels\":{\"app\":\"frontend\"}}],"
+                + "\"toPorts\":[{\"ports\":[{\"port\":\"http\",\"protocol\":\"TCP\"}]}]}]}");
+        CiliumNetworkPolicy pluralSpecs = CiliumNetworkPolicyMapper.toResource(request(Map.of("app", "db")), "plural");
+        pluralSpecs.setSpec(null);
+        pluralSpecs.setAdditionalProperty("specs", List.of(Map.of("endpointSelector", Map.of())));
+
+        assertEquals(Decision.UNEVALUABLE, PolicyEvaluator.evaluate(compile(namedPort),
+                PolicyEvaluator.Direction.INGRESS, WEB, FRONTEND, "TCP", 8080).getDecision());
+        assertEquals(Decision.DENIED_BY_DEFAULT, PolicyEvaluator.evaluate(compile(namedPort),
+                PolicyEvaluator.Direction.INGRESS, WEB, FRONTEND, "UDP", 8080).getDecision());
+        assertEquals(new Verdict(Decision.UNEVALUABLE, List.of("tenant-a/plural")).toString(), PolicyEvaluator.evaluate(
+                compile(pluralSpecs), PolicyEvaluator.Direction.EGRESS, WEB, FRONTEND, "TCP", 8080).toString());
+    }
+
+    private PolicyEvaluator.NamespaceRules compile(CiliumNetworkPolicy policy) {
+        return PolicyEvaluator.compile(List.of(policy));
+    }
+
+    private CiliumNetworkPolicy policy(String name, Map<String, String> labels, List<CiliumNetworkPolicyRequest.NetworkRule> ingress,
+                                      List<CiliumNetworkPolicyRequest.NetworkRule> egress) {
+        CiliumNetworkPolicyRequest request = request(labels);
+        request.setIngressRules(ingress);
+        request.setEgressRules(egress);
+        return CiliumNetworkPolicyMapper.toResource(request, name);
+    }
+
+    private CiliumNetworkPolicy parse(String name, String specJson) {
+        CiliumNetworkPolicy policy = new CiliumNetworkPolicy();
+        policy.setMetadata(new ObjectMetaBuilder().withName(name).withNamespace("tenant-a").build());
+        policy.setSpec(Serialization.unmarshal(specJson, CiliumNetworkPolicySpec.class));
+        return policy;
+    }
+
+    private CiliumNetworkPolicyRequest request(Map<String, String> labels) {
+        CiliumNetworkPolicyRequest request = new CiliumNetworkPolicyRequest();
+        request.setNamespace("tenant-a");
+        request.setLabels(labels);
+        return request;
+    }
+
+    private CiliumNetworkPolicyRequest.NetworkRule ingressFrom(String app, int port, Integer endPort) {
+        CiliumNetworkPolicyRequest.PortRule portRule = new CiliumNetworkPolicyRequest.PortRule();
+        portRule.setProtocol(CiliumNetworkPolicyRequest.Protocol.TCP);
+        portRule.setPort(port);
+        portRule.setEndPort(endPort);
+        CiliumNetworkPolicyRequest.NetworkRule rule = new CiliumNetworkPolicyRequest.NetworkRule();
+        rule.setRuleType(CiliumNetworkPolicyRequest.RuleType.INGRESS_ALLOW);
+        rule.setFromLabels(Map.of("app", app));
+        rule.setPorts(List.of(portRule));
+        return rule;
+    }
+}
@@ -0,0 +1,357 @@
+package org.padminisys.service;
+
+import io.fabric8.kubernetes.api.model.Namespace;
+import io.fabric8.kubernetes.api.model.NamespaceList;
+import io.fabric8.kubernetes.api.model.ObjectMetaBuilder;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.dsl.MixedOperation;
+import io.fabric8.kubernetes.client.dsl.NonNamespaceOperation;
+import io.fabric8.kubernetes.client.dsl.Resource;
+import io.fabric8.kubernetes.client.utils.Serialization;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.padminisys.cache.CiliumNetworkPolicyCache;
+import org.padminisys.cache.NamespaceCache;
+import org.padminisys.dto.CiliumNetworkPolicyRequest;
+import org.padminisys.dto.ConnectivityMatrixRow;
+import org.padminisys.dto.PolicySimulationRequest;
+import org.padminisys.dto.PolicySimulationRequest.Endpoint;
+import org.padminisys.dto.PolicySimulationResponse;
+import org.padminisys.dto.PolicySimulationResponse.Decision;
+import org.padminisys.model.CiliumNetworkPolicy;
+import org.padminisys.model.CiliumNetworkPolicyList;
+import org.padminisys.model.CiliumNetworkPolicySpec;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for PolicySimulationService with mocked policy cache and Kubernetes client.
+ */
+@ExtendWith(MockitoExtension.class)
+class PolicySimulationServiceTest {
+
+    @Mock
+    KubernetesClient kubernetesClient;
+
+    @Mock
+    CiliumNetworkPolicyCache policyCache;
+
+    @Mock
+    NamespaceCache namespaceCache;
+
+    @InjectMocks
+    PolicySimulationService policySimulationService;
+
+    @Test
+    void testSimulate_BothSidesMustAllow() {
+        // Given: web only accepts frontend on 8080, and frontend may only reach web
+        when(policyCache.isEnabled()).thenReturn(true);
+        when(namespaceCache.contains("tenant-a")).thenReturn(true);
+        when(policyCache.listByNamespace("tenant-a")).thenReturn(List.of(
+                webIngressPolicy(),
+                frontendEgressPolicy()));
+
+        // When
+        PolicySimulationResponse allowed = policySimulationService.simulate(simulation(
+                Endpoint.pod("tenant-a", Map.of("app", "frontend")), Endpoint.pod("tenant-a", Map.of("app", "web")), 8080));
+        PolicySimulationResponse wrongPort = policySimulationService.simulate(simulation(
+                Endpoint.pod("tenant-a", Map.of("app", "frontend")), Endpoint.pod("tenant-a", Map.of("app", "web")), 9090));
+
+        // Then
+        assertTrue(allowed.isAllowed());
+        assertEquals(Decision.ALLOWED, allowed.getEgress().getDecision());
+        assertEquals(List.of("tenant-a/web"), allowed.getIngress().getPolicies());
+        assertFalse(wrongPort.isAllowed());
+        assertEquals(Decision.DENIED_BY_DEFAULT, wrongPort.getIngress().getDecision());
+        // The namespace was compiled once for both simulations
+        verify(policyCache, times(1)).listByNamespace("tenant-a");
+    }
+
+    @Test
+    void testSimulate_PolicyEventRecompilesNamespace() {
+        // Given
+        when(policyCache.isEnabled()).thenReturn(true);
+        when(namespaceCache.contains("tenant-a")).thenReturn(true);
+        when(policyCache.listByNamespace("tenant-a")).thenReturn(List.of(), List.of(webIngressPolicy()));
+        PolicySimulationRequest request = simulation(
+                Endpoint.pod("tenant-b", Map.of("app", "client")), Endpoint.pod("tenant-a", Map.of("app", "web")), 8080);
+        when(namespaceCache.contains("tenant-b")).thenReturn(true);
+        when(policyCache.listByNamespace("tenant-b")).thenReturn(List.of());
+
+        // When
+        PolicySimulationResponse before = policySimulationService.simulate(request);
+        policySimulationService.eventHandler.onAdd(webIngressPolicy());
+        PolicySimulationResponse after = policySimulationService.simulate(request);
+
+        // Then
+        assertEquals(Decision.ALLOWED_BY_DEFAULT, before.getIngress().getDecision());
+        assertEquals(Decision.DENIED_BY_DEFAULT, after.getIngress().getDecision());
+        verify(policyCache, times(2)).listByNamespace("tenant-a");
+        verify(policyCache, times(1)).listByNamespace("tenant-b");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testSimulate_CacheDisabledReadsApi() {
+        // Given
+        when(policyCache.isEnabled()).thenReturn(false);
+        when(namespaceCache.contains("tenant-a")).thenReturn(true);
+        MixedOperation<CiliumNetworkPolicy, CiliumNetworkPolicyList, Resource<CiliumNetworkPolicy>> policiesOp = mock(MixedOperation.class);
+        NonNamespaceOperation<CiliumNetworkPolicy, CiliumNetworkPolicyList, Resource<CiliumNetworkPolicy>> namespaceOp = mock(NonNamespaceOperation.class);
+        CiliumNetworkPolicyList policyList = new CiliumNetworkPolicyList();
+        policyList.setItems(List.of(webIngressPolicy()));
+        when(kubernetesClient.resources(CiliumNetworkPolicy.class, CiliumNetworkPolicyList.class)).thenReturn(policiesOp);
+        when(policiesOp.inNamespace("tenant-a")).thenReturn(namespaceOp);
+        when(namespaceOp.list()).thenReturn(policyList);
+
+        // When
+        PolicySimulationResponse response = policySimulationService.simulate(simulation(
+                Endpoint.external("203.0.113.7"), Endpoint.pod("tenant-a", Map.of("app", "web")), 8080));
+
+        // Then: the external source has no egress side, and web only admits frontend
+        assertFalse(response.isAllowed());
+        assertEquals(Decision.NOT_APPLICABLE, response.getEgress().getDecision());
+        assertEquals(Decision.DENIED_BY_DEFAULT, response.getIngress().getDecision());
+    }
+
+    @Test
+    void testSimulate_InvalidEndpoints() {
+        Endpoint both = Endpoint.pod("tenant-a", Map.of());
+        both.setIpAddress("10.0.0.1");
+
+        IllegalArgumentException ambiguous = assertThrows(IllegalArgumentException.class, () -> policySimulationService.simulate(
+                simulation(both, Endpoint.pod("tenant-a", Map.of()), 80)));
+        IllegalArgumentException external = assertThrows(IllegalArgumentException.class, () -> policySimulationService.simulate(
+                simulation(Endpoint.external("10.0.0.1"), Endpoint.external("10.0.0.2"), 80)));
+
+        assertEquals("The source must specify either a namespace or an ipAddress", ambiguous.getMessage());
+        assertEquals("At least one side of the connection must be a pod", external.getMessage());
+        verifyNoInteractions(policyCache, kubernetesClient);
+    }
+
+    @Test
+    void testComputeConnectivityMatrix_RowsPerEndpointGroup() {
+        // Given
+        when(policyCache.isEnabled()).thenReturn(true);
+        when(namespaceCache.contains("tenant-a")).thenReturn(true);
+        when(policyCache.listByNamespace("tenant-a")).thenReturn(List.of(webIngressPolicy(), frontendEgressPolicy()));
+        policySimulationService.init();
+
+        try {
+            // When
+            List<ConnectivityMatrixRow> matrix = policySimulationService
+                    .computeConnectivityMatrix("tenant-a", CiliumNetworkPolicyRequest.Protocol.TCP, 8080).toList();
+
+            // Then: groups in label order, frontend may only reach web, and web only admits frontend
+            assertEquals(2, matrix.size());
+            ConnectivityMatrixRow frontend = matrix.get(0);
+            ConnectivityMatrixRow web = matrix.get(1);
+            assertEquals(Map.of("app", "frontend"), frontend.getSource());
+            assertEquals(Map.of("app", "web"), web.getSource());
+            assertEquals(List.of(Map.of("app", "frontend"), Map.of("app", "web")),
+                    frontend.getDestinations().stream().map(ConnectivityMatrixRow.Cell::getDestination).toList());
+
+            assertFalse(frontend.getDestinations().get(0).isAllowed());
+            assertEquals(Decision.DENIED_BY_DEFAULT, frontend.getDestinations().get(0).getEgress());
+            assertTrue(frontend.getDestinations().get(1).isAllowed());
+            assertEquals(Decision.ALLOWED, frontend.getDestinations().get(1).getIngress());
+            // No policy selects web's egress or frontend's ingress
+            assertTrue(web.getDestinations().get(0).isAllowed());
+            assertEquals(Decision.ALLOWED_BY_DEFAULT, web.getDestinations().get(0).getEgress());
+            assertEquals(Decision.ALLOWED_BY_DEFAULT, web.getDestinations().get(0).getIngress());
+            assertFalse(web.getDestinations().get(1).isAllowed());
+            assertEquals(Decision.DENIED_BY_DEFAULT, web.getDestinations().get(1).getIngress());
+        } finally {
+            policySimulationService.shutdown();
+        }
+    }
+
+    @Test
+    void testComputeConnectivityMatrix_UnmodelledRulesAreUnevaluable() {
+        // Given a third-party policy that lets web reach FQDNs, which the evaluator cannot model
+        CiliumNetworkPolicy fqdnEgress = new CiliumNetworkPolicy();
+        fqdnEgress.setMetadata(new ObjectMetaBuilder().withName("web-fqdn").withNamespace("tenant-a").build());
+        fqdnEgress.setSpec(Serialization.unmarshal("{\"endpointSelector\":{\"matchLabels\":{\"app\":\"web\"}},"
+                + "\"egress\":[{\"toFQDNs\":[{\"matchName\":\"example.com\"}]}]}", CiliumNetworkPolicySpec.class));
+        when(policyCache.isEnabled()).thenReturn(true);
+        when(namespaceCache.contains("tenant-a")).thenReturn(true);
+        when(policyCache.listByNamespace("tenant-a")).thenReturn(List.of(webIngressPolicy(), frontendEgressPolicy(), fqdnEgress));
+        policySimulationService.init();
+
+        try {
+            // When
+            List<ConnectivityMatrixRow> matrix = policySimulationService
+                    .computeConnectivityMatrix("tenant-a", CiliumNetworkPolicyRequest.Protocol.TCP, 8080).toList();
+
+            // Then web's egress is neither allowed by default nor allowed by a wildcard
+            ConnectivityMatrixRow.Cell webToFrontend = matrix.get(1).getDestinations().get(0);
+            assertEquals(Decision.UNEVALUABLE, webToFrontend.getEgress());
+            assertFalse(webToFrontend.isAllowed());
+        } finally {
+            policySimulationService.shutdown();
+        }
+    }
+
+    @Test
+    void testComputeConnectivityMatrix_CachedUntilPolicyChanges() {
+        // Given
+        when(policyCache.isEnabled()).thenReturn(true);
+        when(namespaceCache.contains("tenant-a")).thenReturn(true);
+        when(policyCache.listByNamespace("tenant-a")).thenReturn(List.of(webIngressPolicy()),
+                List.of(webIngressPolicy(), frontendEgressPolicy()));
+        policySimulationService.init();
+
+        try {
+            // When
+            List<ConnectivityMatrixRow> first = policySimulationService
+                    .computeConnectivityMatrix("tenant-a", CiliumNetworkPolicyRequest.Protocol.TCP, 8080).toList();
+            List<ConnectivityMatrixRow> cached = policySimulationService
+                    .computeConnectivityMatrix("tenant-a", CiliumNetworkPolicyRequest.Protocol.TCP, 8080).toList();
+            policySimulationService.eventHandler.onAdd(frontendEgressPolicy());
+            List<ConnectivityMatrixRow> recomputed = policySimulationService
+                    .computeConnectivityMatrix("tenant-a", CiliumNetworkPolicyRequest.Protocol.TCP, 8080).toList();
+
+            // Then
+            assertEquals(1, first.size());
+            assertSame(first.get(0), cached.get(0));
+            assertEquals(2, recomputed.size());
+            verify(policyCache, times(2)).listByNamespace("tenant-a");
+        } finally {
+            policySimulationService.shutdown();
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testComputeConnectivityMatrix_CacheDisabledReadsApiEachTime() {
+        // Given
+        when(policyCache.isEnabled()).thenReturn(false);
+        when(namespaceCache.contains("tenant-a")).thenReturn(true);
+        MixedOperation<CiliumNetworkPolicy, CiliumNetworkPolicyList, Resource<CiliumNetworkPolicy>> policiesOp = mock(MixedOperation.class);
+        NonNamespaceOperation<CiliumNetworkPolicy, CiliumNetworkPolicyList, Resource<CiliumNetworkPolicy>> namespaceOp = mock(NonNamespaceOperation.class);
+        CiliumNetworkPolicyList policyList = new CiliumNetworkPolicyList();
+        policyList.setItems(List.of(webIngressPolicy()));
+        when(kubernetesClient.resources(CiliumNetworkPolicy.class, CiliumNetworkPolicyList.class)).thenReturn(policiesOp);
+        when(policiesOp.inNamespace("tenant-a")).thenReturn(namespaceOp);
+        when(namespaceOp.list()).thenReturn(policyList);
+        policySimulationService.init();
+
+        try {
+            // When
+            policySimulationService.computeConnectivityMatrix("tenant-a", CiliumNetworkPolicyRequest.Protocol.UDP, 53).toList();
+            List<ConnectivityMatrixRow> matrix = policySimulationService
+                    .computeConnectivityMatrix("tenant-a", CiliumNetworkPolicyRequest.Protocol.UDP, 53).toList();
+
+            // Then
+            assertEquals(1, matrix.size());
+            assertEquals(Decision.DENIED_BY_DEFAULT, matrix.get(0).getDestinations().get(0).getIngress());
+            verify(namespaceOp, times(2)).list();
+        } finally {
+            policySimulationService.shutdown();
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testComputeConnectivityMatrix_UnknownNamespace() {
+        // Given
+        when(policyCache.isEnabled()).thenReturn(true);
+        when(namespaceCache.contains("missing")).thenReturn(false);
+        NonNamespaceOperation<Namespace, NamespaceList, Resource<Namespace>> namespacesOp = mock(NonNamespaceOperation.class);
+        Resource<Namespace> namespaceResource = mock(Resource.class);
+        when(kubernetesClient.namespaces()).thenReturn(namespacesOp);
+        when(namespacesOp.withName("missing")).thenReturn(namespaceResource);
+        when(namespaceResource.get()).thenReturn(null);
+
+        // When
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> policySimulationService
+                .computeConnectivityMatrix("missing", CiliumNetworkPolicyRequest.Protocol.TCP, 8080));
+
+        // Then
+        assertEquals("Namespace 'missing' does not exist", exception.getMessage());
+        verify(policyCache, never()).listByNamespace(anyString());
+    }
+
+    @Test
+    void testComputeConnectivityMatrix_FailedMatrixIsRecomputed() throws Exception {
+        // Given a pool whose only worker is busy, so the rows of the first matrix stay queued
+        when(policyCache.isEnabled()).thenReturn(true);
+        when(namespaceCache.contains("tenant-a")).thenReturn(true);
+        when(policyCache.listByNamespace("tenant-a")).thenReturn(List.of(webIngressPolicy(), frontendEgressPolicy()));
+        policySimulationService.matrixParallelism = 1;
+        policySimulationService.init();
+        AtomicBoolean busy = new AtomicBoolean(true);
+        CountDownLatch started = new CountDownLatch(1);
+        policySimulationService.matrixPool.execute(() -> {
+            started.countDown();
+            while (busy.get()) {
+                Thread.onSpinWait();
+            }
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        try {
+            // When the queued rows are cancelled
+            Stream<ConnectivityMatrixRow> failed = policySimulationService
+                    .computeConnectivityMatrix("tenant-a", CiliumNetworkPolicyRequest.Protocol.TCP, 8080);
+            policySimulationService.matrixPool.shutdownNow();
+            busy.set(false);
+            assertThrows(CancellationException.class, failed::toList);
+            policySimulationService.init();
+
+            // Then the failed matrix is not served again
+            List<ConnectivityMatrixRow> matrix = policySimulationService
+                    .computeConnectivityMatrix("tenant-a", CiliumNetworkPolicyRequest.Protocol.TCP, 8080).toList();
+            assertEquals(2, matrix.size());
+        } finally {
+            busy.set(false);
+            policySimulationService.shutdown();
+        }
+    }
+
+    private PolicySimulationRequest simulation(Endpoint source, Endpoint destination, int port) {
+        return new PolicySimulationRequest(source, destination, CiliumNetworkPolicyRequest.Protocol.TCP, port);
+    }
+
+    private CiliumNetworkPolicy webIngressPolicy() {
+        CiliumNetworkPolicyRequest.NetworkRule rule = new CiliumNetworkPolicyRequest.NetworkRule();
+        rule.setRuleType(CiliumNetworkPolicyRequest.RuleType.INGRESS_ALLOW);
+        rule.setFromLabels(Map.of("app", "frontend"));
+        rule.setPorts(List.of(port(8080)));
+        CiliumNetworkPolicyRequest request = new CiliumNetworkPolicyRequest();
+        request.setNamespace("tenant-a");
+        request.setLabels(Map.of("app", "web"));
+        request.setIngressRules(List.of(rule));
+        return CiliumNetworkPolicyMapper.toResource(request, "web");
+    }
+
+    private CiliumNetworkPolicy frontendEgressPolicy() {
+        CiliumNetworkPolicyRequest.NetworkRule rule = new CiliumNetworkPolicyRequest.NetworkRule();
+        rule.setRuleType(CiliumNetworkPolicyRequest.RuleType.EGRESS_ALLOW);
+        rule.setToLabels(Map.of("app", "web"));
+        CiliumNetworkPolicyRequest request = new CiliumNetworkPolicyRequest();
+        request.setNamespace("tenant-a");
+        request.setLabels(Map.of("app", "frontend"));
+        request.setEgressRules(List.of(rule));
+        return CiliumNetworkPolicyMapper.toResource(request, "frontend");
+    }
+
+    private CiliumNetworkPolicyRequest.PortRule port(int port) {
+        CiliumNetworkPolicyRequest.PortRule portRule = new CiliumNetworkPolicyRequest.PortRule();
+        portRule.setProtocol(CiliumNetworkPolicyRequest.Protocol.TCP);
+        portRule.setPort(port);
+        return portRule;
+    }
+}
@@ -0,0 +1,224 @@
+package org.padminisys.service;
+
+import io.fabric8.kubernetes.api.model.ListMetaBuilder;
+import io.fabric8.kubernetes.api.model.ObjectMetaBuilder;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.helpers.test.AssertSubscriber;
+import io.smallrye.mutiny.helpers.test.UniAssertSubscriber;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.padminisys.cache.CiliumNetworkPolicyCache;
+import org.padminisys.cache.EndpointSelectorIndex;
+import org.padminisys.dto.CiliumNetworkPolicyRequest;
+import org.padminisys.model.CiliumNetworkPolicy;
+import org.padminisys.model.CiliumNetworkPolicyList;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ReactiveCiliumNetworkPolicyService with a mocked asynchronous API and policy cache.
+ */
+@ExtendWith(MockitoExtension.class)
+class ReactiveCiliumNetworkPolicyServiceTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+    private static final String POLICIES_PATH = "/apis/cilium.io/v2/namespaces/tenant-a/ciliumnetworkpolicies";
+
+    @Mock
+    KubernetesAsyncApi asyncApi;
+
+    @Mock
+    ReactiveKubernetesService reactiveKubernetesService;
+
+    @Mock
+    CiliumNetworkPolicyService ciliumNetworkPolicyService;
+
+    @Mock
+    CiliumNetworkPolicyCache policyCache;
+
+    @Mock
+    EndpointSelectorIndex endpointSelectorIndex;
+
+    @InjectMocks
+    ReactiveCiliumNetworkPolicyService reactiveService;
+
+    @Test
+    void testGetByName_FromApi() {
+        mockNamespaceExists();
+        when(policyCache.isEnabled()).thenReturn(false);
+        when(asyncApi.get(POLICIES_PATH + "/web", CiliumNetworkPolicy.class)).thenReturn(Uni.createFrom().item(policy("web")));
+        mockConversion();
+
+        CiliumNetworkPolicyRequest request = reactiveService.getCiliumNetworkPolicyByName("web", "tenant-a").await().atMost(TIMEOUT);
+
+        assertEquals("web", request.getName());
+    }
+
+    @Test
+    void testGetByName_FromCache() {
+        mockNamespaceExists();
+        when(policyCache.isEnabled()).thenReturn(true);
+        when(policyCache.whenSynced()).thenReturn(CompletableFuture.completedFuture(null));
+        when(policyCache.get("tenant-a", "web")).thenReturn(policy("web"));
+        mockConversion();
+
+        CiliumNetworkPolicyRequest request = reactiveService.getCiliumNetworkPolicyByName("web", "tenant-a").await().atMost(TIMEOUT);
+
+        assertEquals("web", request.getName());
+        verifyNoInteractions(asyncApi);
+    }
+
+    @Test
+    void testGetByName_CacheReadWaitsForSync() {
+        mockNamespaceExists();
+        CompletableFuture<Void> synced = new CompletableFuture<>();
+        when(policyCache.isEnabled()).thenReturn(true);
+        when(policyCache.whenSynced()).thenReturn(synced);
+        when(policyCache.get("tenant-a", "web")).thenReturn(policy("web"));
+        mockConversion();
+
+        // Subscribing before the sync returns at once without reading the cache
+        UniAssertSubscriber<CiliumNetworkPolicyRequest> subscriber = reactiveService.getCiliumNetworkPolicyByName("web", "tenant-a")
+                .subscribe().withSubscriber(UniAssertSubscriber.create());
+        verify(policyCache, never()).get(anyString(), anyString());
+
+        synced.complete(null);
+
+        assertEquals("web", subscriber.awaitItem(TIMEOUT).getItem().getName());
+    }
+
+    @Test
+    void testGetByName_NotFound() {
+        mockNamespaceExists();
+        when(policyCache.isEnabled()).thenReturn(false);
+        when(asyncApi.get(POLICIES_PATH + "/web", CiliumNetworkPolicy.class)).thenReturn(Uni.createFrom().nullItem());
+
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> reactiveService.getCiliumNetworkPolicyByName("web", "tenant-a").await().atMost(TIMEOUT));
+
+        assertEquals("CiliumNetworkPolicy 'web' not found in namespace 'tenant-a'", exception.getMessage());
+    }
+
+    @Test
+    void testGetByName_MissingNamespace() {
+        when(reactiveKubernetesService.validateNamespaceExists("tenant-a"))
+                .thenReturn(Uni.createFrom().failure(new RuntimeException("Namespace 'tenant-a' does not exist")));
+
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> reactiveService.getCiliumNetworkPolicyByName("web", "tenant-a").await().atMost(TIMEOUT));
+
+        assertEquals("Namespace 'tenant-a' does not exist", exception.getMessage());
+        verifyNoInteractions(asyncApi);
+    }
+
+    @Test
+    void testStreamByNamespace_FollowsContinueTokens() {
+        mockNamespaceExists();
+        when(policyCache.isEnabled()).thenReturn(false);
+        when(asyncApi.get(POLICIES_PATH + "?limit=250", CiliumNetworkPolicyList.class))
+                .thenReturn(Uni.createFrom().item(page("next+1", policy("a"), policy("b"))));
+        when(asyncApi.get(POLICIES_PATH + "?limit=250&continue=next%2B1", CiliumNetworkPolicyList.class))
+                .thenReturn(Uni.createFrom().item(page(null, policy("c"))));
+        mockConversion();
+
+        List<CiliumNetworkPolicyRequest> policies = reactiveService.getCiliumNetworkPoliciesByNamespace("tenant-a")
+                .await().atMost(TIMEOUT);
+
+        assertEquals(List.of("a", "b", "c"), policies.stream().map(CiliumNetworkPolicyRequest::getName).toList());
+    }
+
+    @Test
+    void testStreamByNamespace_FetchesPagesOnDemand() {
+        mockNamespaceExists();
+        when(policyCache.isEnabled()).thenReturn(false);
+        when(asyncApi.get(POLICIES_PATH + "?limit=250", CiliumNetworkPolicyList.class))
+                .thenReturn(Uni.createFrom().item(page("next", policy("a"))));
+        mockConversion();
+
+        AssertSubscriber<CiliumNetworkPolicyRequest> subscriber = reactiveService.streamCiliumNetworkPoliciesByNamespace("tenant-a")
+                .subscribe().withSubscriber(AssertSubscriber.create(1));
+
+        subscriber.awaitItems(1);
+        subscriber.cancel();
+        verify(asyncApi, never()).get(eq(POLICIES_PATH + "?limit=250&continue=next"), any());
+    }
+
+    @Test
+    void testStreamByNamespace_ApiErrorIsWrapped() {
+        mockNamespaceExists();
+        when(policyCache.isEnabled()).thenReturn(false);
+        when(asyncApi.get(POLICIES_PATH + "?limit=250", CiliumNetworkPolicyList.class))
+                .thenReturn(Uni.createFrom().failure(new KubernetesClientException("Forbidden", 403, null)));
+
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> reactiveService.getCiliumNetworkPoliciesByNamespace("tenant-a").await().atMost(TIMEOUT));
+
+        assertEquals("Failed to get CiliumNetworkPolicies: Forbidden", exception.getMessage());
+    }
+
+    @Test
+    void testStreamByEndpointSelector_UsesIndex() {
+        Map<String, String> labels = Map.of("app", "web");
+        mockNamespaceExists();
+        when(policyCache.isEnabled()).thenReturn(true);
+        when(policyCache.whenSynced()).thenReturn(CompletableFuture.completedFuture(null));
+        when(endpointSelectorIndex.find("tenant-a", labels)).thenReturn(List.of("tenant-a/web"));
+        when(policyCache.getByKey("tenant-a/web")).thenReturn(policy("web"));
+        when(ciliumNetworkPolicyService.matchesEndpointSelector(any(), eq(labels))).thenReturn(true);
+        mockConversion();
+
+        List<CiliumNetworkPolicyRequest> policies = reactiveService.streamCiliumNetworkPoliciesByEndpointSelector("tenant-a", labels)
+                .collect().asList().await().atMost(TIMEOUT);
+
+        assertEquals(List.of("web"), policies.stream().map(CiliumNetworkPolicyRequest::getName).toList());
+        verifyNoInteractions(asyncApi);
+    }
+
+    @Test
+    void testDelete() {
+        mockNamespaceExists();
+        when(asyncApi.delete(POLICIES_PATH + "/web")).thenReturn(Uni.createFrom().item(true));
+        when(asyncApi.delete(POLICIES_PATH + "/db")).thenReturn(Uni.createFrom().item(false));
+
+        assertTrue(reactiveService.deleteCiliumNetworkPolicy("web", "tenant-a").await().atMost(TIMEOUT));
+        assertFalse(reactiveService.deleteCiliumNetworkPolicy("db", "tenant-a").await().atMost(TIMEOUT));
+    }
+
+    private void mockNamespaceExists() {
+        when(reactiveKubernetesService.validateNamespaceExists("tenant-a")).thenReturn(Uni.createFrom().voidItem());
+    }
+
+    private void mockConversion() {
+        when(ciliumNetworkPolicyService.toRequest(any())).thenAnswer(inv -> {
+            CiliumNetworkPolicy policy = inv.getArgument(0);
+            CiliumNetworkPolicyRequest request = new CiliumNetworkPolicyRequest();
+            request.setName(policy.getMetadata().getName());
+            request.setNamespace(policy.getMetadata().getNamespace());
+            return request;
+        });
+    }
+
+    private CiliumNetworkPolicy policy(String name) {
+        CiliumNetworkPolicy policy = new CiliumNetworkPolicy();
+        policy.setMetadata(new ObjectMetaBuilder().withName(name).withNamespace("tenant-a").build());
+        return policy;
+    }
+
+    private CiliumNetworkPolicyList page(String continueToken, CiliumNetworkPolicy... items) {
+        CiliumNetworkPolicyList page = new CiliumNetworkPolicyList();
+        page.setItems(List.of(items));
+        page.setMetadata(new ListMetaBuilder().withContinue(continueToken).build());
+        return page;
+    }
+}
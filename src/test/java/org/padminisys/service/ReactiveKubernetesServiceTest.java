@@ -0,0 +1,259 @@
+package org.padminisys.service;
+
+import io.fabric8.kubernetes.api.model.Namespace;
+import io.fabric8.kubernetes.api.model.ObjectMetaBuilder;
+import io.fabric8.kubernetes.api.model.ServiceAccount;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.smallrye.mutiny.Uni;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.padminisys.cache.CiliumNetworkPolicyCache;
+import org.padminisys.cache.NamespaceCache;
+import org.padminisys.dto.CiliumNetworkPolicyRequest;
+import org.padminisys.dto.CiliumNetworkPolicyResponse;
+import org.padminisys.dto.NamespaceRequest;
+import org.padminisys.dto.NamespaceResponse;
+import org.padminisys.dto.ServiceAccountRequest;
+import org.padminisys.dto.ServiceAccountResponse;
+import org.padminisys.model.CiliumNetworkPolicy;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ReactiveKubernetesService with a mocked asynchronous API.
+ */
+@ExtendWith(MockitoExtension.class)
+class ReactiveKubernetesServiceTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+    private static final String CREATED_AT = "2025-01-01T00:00:00Z";
+
+    @Mock
+    KubernetesAsyncApi asyncApi;
+
+    @Mock
+    NamespaceCache namespaceCache;
+
+    @Mock
+    CiliumNetworkPolicyCache policyCache;
+
+    @Spy
+    KubernetesService kubernetesService = new KubernetesService();
+
+    @InjectMocks
+    ReactiveKubernetesService reactiveKubernetesService;
+
+    @Test
+    void testCreateNamespace_Created() {
+        when(asyncApi.post(eq("/api/v1/namespaces"), any(Namespace.class), eq(Namespace.class)))
+                .thenReturn(Uni.createFrom().item(namespace("tenant-a")));
+
+        NamespaceResponse response = reactiveKubernetesService.createNamespace(new NamespaceRequest("tenant-a"))
+                .await().atMost(TIMEOUT);
+
+        assertEquals("CREATED", response.getStatus());
+        assertEquals("tenant-a", response.getName());
+    }
+
+    @Test
+    void testCreateNamespace_ConflictIsExists() {
+        when(asyncApi.post(eq("/api/v1/namespaces"), any(Namespace.class), eq(Namespace.class)))
+                .thenReturn(Uni.createFrom().failure(new KubernetesClientException("already exists", 409, null)));
+        when(asyncApi.get("/api/v1/namespaces/tenant-a", Namespace.class))
+                .thenReturn(Uni.createFrom().item(namespace("tenant-a")));
+
+        NamespaceResponse response = reactiveKubernetesService.createNamespace(new NamespaceRequest("tenant-a"))
+                .await().atMost(TIMEOUT);
+
+        assertEquals("EXISTS", response.getStatus());
+        assertEquals(CREATED_AT, response.getCreationTimestamp().toString());
+    }
+
+    @Test
+    void testCreateNamespace_ErrorIsWrapped() {
+        when(asyncApi.post(eq("/api/v1/namespaces"), any(Namespace.class), eq(Namespace.class)))
+                .thenReturn(Uni.createFrom().failure(new KubernetesClientException("Forbidden", 403, null)));
+
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> reactiveKubernetesService.createNamespace(new NamespaceRequest("tenant-a")).await().atMost(TIMEOUT));
+
+        assertEquals("Failed to create namespace: Forbidden", exception.getMessage());
+    }
+
+    @Test
+    void testCreateServiceAccount_MissingNamespace() {
+        when(asyncApi.post(eq("/api/v1/namespaces/missing/serviceaccounts"), any(ServiceAccount.class), eq(ServiceAccount.class)))
+                .thenReturn(Uni.createFrom().failure(new KubernetesClientException("not found", 404, null)));
+
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> reactiveKubernetesService.createServiceAccount(new ServiceAccountRequest("missing", "builder"))
+                        .await().atMost(TIMEOUT));
+
+        assertEquals("Namespace 'missing' does not exist", exception.getMessage());
+    }
+
+    @Test
+    void testCreateServiceAccount_Created() {
+        ServiceAccount created = new ServiceAccount();
+        created.setMetadata(new ObjectMetaBuilder().withName("builder").withNamespace("tenant-a")
+                .withCreationTimestamp(CREATED_AT).build());
+        when(asyncApi.post(eq("/api/v1/namespaces/tenant-a/serviceaccounts"), any(ServiceAccount.class), eq(ServiceAccount.class)))
+                .thenReturn(Uni.createFrom().item(created));
+
+        ServiceAccountResponse response = reactiveKubernetesService.createServiceAccount(new ServiceAccountRequest("tenant-a", "builder"))
+                .await().atMost(TIMEOUT);
+
+        assertEquals("CREATED", response.getStatus());
+        assertEquals("tenant-a", response.getNamespace());
+    }
+
+    @Test
+    void testCreateCiliumNetworkPolicy_UserNamedIsApplied() {
+        when(namespaceCache.contains("tenant-a")).thenReturn(true);
+        CiliumNetworkPolicy applied = policy("web", 2L);
+        when(asyncApi.apply(eq("/apis/cilium.io/v2/namespaces/tenant-a/ciliumnetworkpolicies/web"), any(CiliumNetworkPolicy.class),
+                eq(KubernetesService.FIELD_MANAGER), eq(CiliumNetworkPolicy.class)))
+                .thenReturn(Uni.createFrom().item(new KubernetesAsyncApi.Applied<>(applied, false)));
+
+        CiliumNetworkPolicyResponse response = reactiveKubernetesService.createCiliumNetworkPolicy(request("web"))
+                .await().atMost(TIMEOUT);
+
+        assertEquals("UPDATED", response.getStatus());
+        assertEquals("web", response.getName());
+        verify(asyncApi, never()).get(anyString(), any());
+    }
+
+    @Test
+    void testCreateCiliumNetworkPolicy_CreatedStatusComesFromTheApplyResponse() {
+        when(namespaceCache.contains("tenant-a")).thenReturn(true);
+        when(asyncApi.apply(eq("/apis/cilium.io/v2/namespaces/tenant-a/ciliumnetworkpolicies/web"), any(CiliumNetworkPolicy.class),
+                eq(KubernetesService.FIELD_MANAGER), eq(CiliumNetworkPolicy.class)))
+                .thenReturn(Uni.createFrom().item(new KubernetesAsyncApi.Applied<>(policy("web", 1L), true)));
+
+        CiliumNetworkPolicyResponse response = reactiveKubernetesService.createCiliumNetworkPolicy(request("web"))
+                .await().atMost(TIMEOUT);
+
+        assertEquals("CREATED", response.getStatus());
+    }
+
+    @Test
+    void testCreateCiliumNetworkPolicy_NoOpReapplyIsUpdated() {
+        // An unchanged re-apply keeps generation 1 and the creation-time managed fields
+        when(namespaceCache.contains("tenant-a")).thenReturn(true);
+        when(asyncApi.apply(eq("/apis/cilium.io/v2/namespaces/tenant-a/ciliumnetworkpolicies/web"), any(CiliumNetworkPolicy.class),
+                eq(KubernetesService.FIELD_MANAGER), eq(CiliumNetworkPolicy.class)))
+                .thenReturn(Uni.createFrom().item(new KubernetesAsyncApi.Applied<>(policy("web", 1L), false)));
+
+        CiliumNetworkPolicyResponse response = reactiveKubernetesService.createCiliumNetworkPolicy(request("web"))
+                .await().atMost(TIMEOUT);
+
+        assertEquals("UPDATED", response.getStatus());
+    }
+
+    @Test
+    void testCreateCiliumNetworkPolicy_UnchangedCachedPolicyIsNotWritten() {
+        when(namespaceCache.contains("tenant-a")).thenReturn(true);
+        CiliumNetworkPolicy live = kubernetesService.createCiliumPolicyResource(request("web"), "web");
+        live.getMetadata().setCreationTimestamp(CREATED_AT);
+        when(policyCache.isEnabled()).thenReturn(true);
+        when(policyCache.whenSynced()).thenReturn(CompletableFuture.completedFuture(null));
+        when(policyCache.get("tenant-a", "web")).thenReturn(live);
+        when(policyCache.isLastWritten(live)).thenReturn(true);
+
+        CiliumNetworkPolicyResponse response = reactiveKubernetesService.createCiliumNetworkPolicy(request("web"))
+                .await().atMost(TIMEOUT);
+
+        assertEquals("UNCHANGED", response.getStatus());
+        assertEquals(CREATED_AT, response.getCreatedAt().toString());
+        verifyNoInteractions(asyncApi);
+    }
+
+    @Test
+    void testCreateCiliumNetworkPolicy_UnchangedPolicyNotWrittenHereIsApplied() {
+        when(namespaceCache.contains("tenant-a")).thenReturn(true);
+        CiliumNetworkPolicy live = kubernetesService.createCiliumPolicyResource(request("web"), "web");
+        live.getMetadata().setCreationTimestamp(CREATED_AT);
+        when(policyCache.isEnabled()).thenReturn(true);
+        when(policyCache.whenSynced()).thenReturn(CompletableFuture.completedFuture(null));
+        when(policyCache.get("tenant-a", "web")).thenReturn(live);
+        when(policyCache.isLastWritten(live)).thenReturn(false);
+        CiliumNetworkPolicy applied = policy("web", 2L);
+        when(asyncApi.apply(eq("/apis/cilium.io/v2/namespaces/tenant-a/ciliumnetworkpolicies/web"), any(CiliumNetworkPolicy.class),
+                eq(KubernetesService.FIELD_MANAGER), eq(CiliumNetworkPolicy.class)))
+                .thenReturn(Uni.createFrom().item(new KubernetesAsyncApi.Applied<>(applied, false)));
+
+        CiliumNetworkPolicyResponse response = reactiveKubernetesService.createCiliumNetworkPolicy(request("web"))
+                .await().atMost(TIMEOUT);
+
+        assertEquals("UPDATED", response.getStatus());
+        verify(policyCache).recordWrite(applied);
+    }
+
+    @Test
+    void testCreateCiliumNetworkPolicy_GeneratedNameIsPosted() {
+        when(namespaceCache.contains("tenant-a")).thenReturn(false);
+        when(asyncApi.get("/api/v1/namespaces/tenant-a", Namespace.class)).thenReturn(Uni.createFrom().item(namespace("tenant-a")));
+        when(asyncApi.post(eq("/apis/cilium.io/v2/namespaces/tenant-a/ciliumnetworkpolicies"), any(CiliumNetworkPolicy.class),
+                eq(CiliumNetworkPolicy.class)))
+                .thenAnswer(inv -> Uni.createFrom().item(policy(inv.<CiliumNetworkPolicy>getArgument(1).getMetadata().getName(), 1L)));
+
+        CiliumNetworkPolicyResponse response = reactiveKubernetesService.createCiliumNetworkPolicy(request(null))
+                .await().atMost(TIMEOUT);
+
+        assertEquals("CREATED", response.getStatus());
+        assertTrue(response.getName().startsWith("web-"));
+    }
+
+    @Test
+    void testCreateCiliumNetworkPolicy_MissingNamespaceWritesNothing() {
+        when(namespaceCache.contains("tenant-a")).thenReturn(false);
+        when(asyncApi.get("/api/v1/namespaces/tenant-a", Namespace.class)).thenReturn(Uni.createFrom().nullItem());
+
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> reactiveKubernetesService.createCiliumNetworkPolicy(request("web")).await().atMost(TIMEOUT));
+
+        assertEquals("Namespace 'tenant-a' does not exist", exception.getMessage());
+        verify(asyncApi, never()).apply(anyString(), any(), anyString(), any());
+        verify(asyncApi, never()).post(anyString(), any(), any());
+    }
+
+    @Test
+    void testCreateCiliumNetworkPolicy_InvalidNameFails() {
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> reactiveKubernetesService.createCiliumNetworkPolicy(request("Web_Policy")).await().atMost(TIMEOUT));
+
+        assertTrue(exception.getMessage().contains("DNS-1123"));
+        verifyNoInteractions(asyncApi);
+    }
+
+    private Namespace namespace(String name) {
+        Namespace namespace = new Namespace();
+        namespace.setMetadata(new ObjectMetaBuilder().withName(name).withCreationTimestamp(CREATED_AT).build());
+        return namespace;
+    }
+
+    private CiliumNetworkPolicy policy(String name, long generation) {
+        CiliumNetworkPolicy policy = new CiliumNetworkPolicy();
+        policy.setMetadata(new ObjectMetaBuilder().withName(name).withNamespace("tenant-a")
+                .withGeneration(generation).withCreationTimestamp(CREATED_AT).build());
+        return policy;
+    }
+
+    private CiliumNetworkPolicyRequest request(String name) {
+        CiliumNetworkPolicyRequest request = new CiliumNetworkPolicyRequest();
+        request.setName(name);
+        request.setNamespace("tenant-a");
+        request.setLabels(Map.of("app", "web"));
+        return request;
+    }
+}
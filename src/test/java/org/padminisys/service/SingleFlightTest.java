@@ -0,0 +1,124 @@
+package org.padminisys.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SingleFlight.
+ */
+class SingleFlightTest {
+
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>();
+
+    @Test
+    void testConcurrentCallersShareOneExecution() throws Exception {
+        // Given a loader that blocks until every caller has arrived
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        List<Future<String>> results = new ArrayList<>();
+
+        // When
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 50; i++) {
+                results.add(executor.submit(() -> singleFlight.execute("tenant-a", () -> {
+                    loads.incrementAndGet();
+                    awaitQuietly(release);
+                    return "policies";
+                })));
+            }
+            while (singleFlight.getDeduplicated() < 49) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+        }
+
+        // Then
+        for (Future<String> result : results) {
+            assertEquals("policies", result.get());
+        }
+        assertEquals(1, loads.get());
+        assertEquals(1, singleFlight.getExecutions());
+        assertEquals(49, singleFlight.getDeduplicated());
+    }
+
+    @Test
+    void testFailureIsSharedWithWaitingCallers() throws Exception {
+        // Given a failing call in flight
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        RuntimeException failure = new RuntimeException("Namespace 'tenant-a' does not exist");
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<String> leader = executor.submit(() -> singleFlight.execute("tenant-a", () -> {
+                started.countDown();
+                awaitQuietly(release);
+                throw failure;
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            Future<String> follower = executor.submit(() -> singleFlight.execute("tenant-a", () -> "unused"));
+            while (singleFlight.getDeduplicated() < 1) {
+                Thread.sleep(1);
+            }
+
+            // When
+            release.countDown();
+
+            // Then both callers see the same failure
+            assertSame(failure, assertThrows(Exception.class, leader::get).getCause());
+            assertSame(failure, assertThrows(Exception.class, follower::get).getCause());
+        }
+    }
+
+    @Test
+    void testSequentialCallsAreNotCoalesced() {
+        // When
+        String first = singleFlight.execute("tenant-a", () -> "first");
+        String second = singleFlight.execute("tenant-a", () -> "second");
+
+        // Then a completed call is not reused
+        assertEquals("first", first);
+        assertEquals("second", second);
+        assertEquals(2, singleFlight.getExecutions());
+        assertEquals(0, singleFlight.getDeduplicated());
+    }
+
+    @Test
+    void testKeyIsReleasedAfterFailure() {
+        // Given
+        assertThrows(IllegalStateException.class, () -> singleFlight.execute("tenant-a", () -> {
+            throw new IllegalStateException("boom");
+        }));
+
+        // When & Then
+        assertEquals("recovered", singleFlight.execute("tenant-a", () -> "recovered"));
+    }
+
+    @Test
+    void testDifferentKeysRunIndependently() {
+        // When
+        String outer = singleFlight.execute("tenant-a", () -> "a+" + singleFlight.execute("tenant-b", () -> "b"));
+
+        // Then
+        assertEquals("a+b", outer);
+        assertEquals(2, singleFlight.getExecutions());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
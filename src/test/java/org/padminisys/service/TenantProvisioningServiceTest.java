@@ -0,0 +1,227 @@
+package org.padminisys.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.padminisys.dto.CiliumNetworkPolicyRequest;
+import org.padminisys.dto.CiliumNetworkPolicyResponse;
+import org.padminisys.dto.NamespaceRequest;
+import org.padminisys.dto.NamespaceResponse;
+import org.padminisys.dto.ServiceAccountRequest;
+import org.padminisys.dto.ServiceAccountResponse;
+import org.padminisys.dto.TenantRequest;
+import org.padminisys.dto.TenantResponse;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for TenantProvisioningService with a mocked KubernetesService.
+ */
+@ExtendWith(MockitoExtension.class)
+class TenantProvisioningServiceTest {
+
+    @Mock
+    KubernetesService kubernetesService;
+
+    @InjectMocks
+    TenantProvisioningService tenantProvisioningService;
+
+    @AfterEach
+    void tearDown() {
+        if (tenantProvisioningService.executor != null) {
+            tenantProvisioningService.executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testProvisionTenant_AllStagesCreated() {
+        // Given
+        setUp(List.of(template("baseline-a"), template("baseline-b")));
+        when(kubernetesService.createNamespace(any(NamespaceRequest.class)))
+                .thenReturn(new NamespaceResponse("acme", "CREATED", Instant.now(), "Namespace created successfully"));
+        when(kubernetesService.createServiceAccount(any(ServiceAccountRequest.class))).thenAnswer(inv -> serviceAccount(inv.getArgument(0)));
+        when(kubernetesService.writeCiliumNetworkPolicy(any(), anyString())).thenAnswer(inv -> policy(inv.getArgument(0), inv.getArgument(1)));
+
+        // When
+        TenantResponse response = tenantProvisioningService.provisionTenant(new TenantRequest("acme", "acme-sa"));
+
+        // Then
+        assertEquals("CREATED", response.getStatus());
+        assertEquals("acme-sa", response.getServiceAccount().getName());
+        assertEquals("acme", response.getServiceAccount().getNamespace());
+        assertEquals(List.of("baseline-a", "baseline-b"), response.getPolicies().stream().map(p -> p.getName()).toList());
+        assertTrue(response.getPolicies().stream().allMatch(p -> "acme".equals(p.getNamespace())));
+        assertTrue(response.getFailures().isEmpty());
+        // The namespace was just created, so the policies skip the per-policy existence check
+        verify(kubernetesService, never()).validateNamespaceExists(anyString());
+        verify(kubernetesService, never()).createCiliumNetworkPolicy(any());
+    }
+
+    @Test
+    void testProvisionTenant_ExistingTenant() {
+        // Given
+        setUp(List.of(template("baseline-a")));
+        when(kubernetesService.createNamespace(any(NamespaceRequest.class)))
+                .thenReturn(new NamespaceResponse("acme", "EXISTS", Instant.now(), "Namespace already exists"));
+        when(kubernetesService.createServiceAccount(any(ServiceAccountRequest.class))).thenAnswer(inv -> serviceAccount(inv.getArgument(0)));
+        when(kubernetesService.writeCiliumNetworkPolicy(any(), anyString())).thenAnswer(inv -> policy(inv.getArgument(0), inv.getArgument(1)));
+
+        // When
+        TenantResponse response = tenantProvisioningService.provisionTenant(new TenantRequest("acme", "acme-sa"));
+
+        // Then
+        assertEquals("EXISTS", response.getStatus());
+    }
+
+    @Test
+    void testProvisionTenant_StagesRunConcurrently() throws Exception {
+        // Given
+        setUp(List.of(template("baseline-a")));
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        when(kubernetesService.createNamespace(any(NamespaceRequest.class)))
+                .thenReturn(new NamespaceResponse("acme", "CREATED", Instant.now(), "Namespace created successfully"));
+        when(kubernetesService.createServiceAccount(any(ServiceAccountRequest.class))).thenAnswer(inv -> {
+            bothStarted.countDown();
+            assertTrue(bothStarted.await(5, TimeUnit.SECONDS), "policy stage should run alongside the service account");
+            return serviceAccount(inv.getArgument(0));
+        });
+        when(kubernetesService.writeCiliumNetworkPolicy(any(), anyString())).thenAnswer(inv -> {
+            bothStarted.countDown();
+            assertTrue(bothStarted.await(5, TimeUnit.SECONDS), "service account stage should run alongside the policy");
+            return policy(inv.getArgument(0), inv.getArgument(1));
+        });
+
+        // When
+        TenantResponse response = tenantProvisioningService.provisionTenant(new TenantRequest("acme", "acme-sa"));
+
+        // Then
+        assertEquals("CREATED", response.getStatus());
+    }
+
+    @Test
+    void testProvisionTenant_StageFailuresArePartial() {
+        // Given
+        setUp(List.of(template("baseline-a"), template("baseline-b")));
+        when(kubernetesService.createNamespace(any(NamespaceRequest.class)))
+                .thenReturn(new NamespaceResponse("acme", "CREATED", Instant.now(), "Namespace created successfully"));
+        when(kubernetesService.createServiceAccount(any(ServiceAccountRequest.class)))
+                .thenThrow(new RuntimeException("Failed to create service account: Forbidden"));
+        when(kubernetesService.writeCiliumNetworkPolicy(any(), eq("baseline-a"))).thenAnswer(inv -> policy(inv.getArgument(0), inv.getArgument(1)));
+        when(kubernetesService.writeCiliumNetworkPolicy(any(), eq("baseline-b")))
+                .thenThrow(new RuntimeException("Failed to create CiliumNetworkPolicy: Timeout"));
+
+        // When
+        TenantResponse response = tenantProvisioningService.provisionTenant(new TenantRequest("acme", "acme-sa"));
+
+        // Then
+        assertEquals(TenantResponse.STATUS_PARTIAL, response.getStatus());
+        assertNull(response.getServiceAccount());
+        assertEquals("CREATED", response.getPolicies().get(0).getStatus());
+        assertEquals("FAILED", response.getPolicies().get(1).getStatus());
+        assertEquals(2, response.getFailures().size());
+        assertTrue(response.getFailures().get(0).contains("Forbidden"));
+        assertTrue(response.getFailures().get(1).contains("Timeout"));
+    }
+
+    @Test
+    void testProvisionTenant_NamespaceFailureStopsPipeline() {
+        // Given
+        setUp(List.of(template("baseline-a")));
+        when(kubernetesService.createNamespace(any(NamespaceRequest.class)))
+                .thenThrow(new RuntimeException("Failed to create namespace: Connection refused"));
+
+        // When & Then
+        assertThrows(RuntimeException.class,
+                () -> tenantProvisioningService.provisionTenant(new TenantRequest("acme", "acme-sa")));
+        verify(kubernetesService, never()).createServiceAccount(any());
+        verify(kubernetesService, never()).writeCiliumNetworkPolicy(any(), anyString());
+    }
+
+    @Test
+    void testLoadBaselinePolicies_BundledDefaults() {
+        // Given
+        tenantProvisioningService.objectMapper = new ObjectMapper();
+        tenantProvisioningService.baselinePoliciesFile = Optional.empty();
+        when(kubernetesService.determinePolicyName(any())).thenAnswer(inv -> inv.<CiliumNetworkPolicyRequest>getArgument(0).getName());
+
+        // When
+        tenantProvisioningService.loadBaselinePolicies();
+
+        // Then
+        assertEquals(List.of("baseline-namespace-isolation"),
+                tenantProvisioningService.baselinePolicies.stream().map(CiliumNetworkPolicyRequest::getName).toList());
+    }
+
+    @Test
+    void testLoadBaselinePolicies_FromFile(@TempDir Path dir) throws Exception {
+        // Given
+        Path file = dir.resolve("baseline.json");
+        Files.writeString(file, """
+                [
+                    {"name": "deny-metadata", "egressDenyRules": [{"ruleType": "EGRESS_DENY", "ipAddresses": ["169.254.169.254/32"]}]},
+                    {"name": "allow-monitoring", "ingressRules": [{"ruleType": "INGRESS_ALLOW", "ipAddresses": ["10.0.0.0/8"]}]}
+                ]
+                """);
+        tenantProvisioningService.objectMapper = new ObjectMapper();
+        tenantProvisioningService.baselinePoliciesFile = Optional.of(file.toString());
+        when(kubernetesService.determinePolicyName(any())).thenAnswer(inv -> inv.<CiliumNetworkPolicyRequest>getArgument(0).getName());
+
+        // When
+        tenantProvisioningService.loadBaselinePolicies();
+
+        // Then
+        assertEquals(List.of("deny-metadata", "allow-monitoring"),
+                tenantProvisioningService.baselinePolicies.stream().map(CiliumNetworkPolicyRequest::getName).toList());
+    }
+
+    @Test
+    void testLoadBaselinePolicies_UnnamedTemplateRejected(@TempDir Path dir) throws Exception {
+        // Given
+        Path file = dir.resolve("baseline.json");
+        Files.writeString(file, "[{\"egressDenyRules\": [{\"ruleType\": \"EGRESS_DENY\", \"ipAddresses\": [\"169.254.169.254/32\"]}]}]");
+        tenantProvisioningService.objectMapper = new ObjectMapper();
+        tenantProvisioningService.baselinePoliciesFile = Optional.of(file.toString());
+
+        // When & Then
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> tenantProvisioningService.loadBaselinePolicies());
+        assertTrue(exception.getMessage().contains("must have a name"));
+    }
+
+    private void setUp(List<CiliumNetworkPolicyRequest> baselinePolicies) {
+        tenantProvisioningService.baselinePolicies = baselinePolicies;
+        tenantProvisioningService.executor = Executors.newFixedThreadPool(4);
+    }
+
+    private CiliumNetworkPolicyRequest template(String name) {
+        CiliumNetworkPolicyRequest template = new CiliumNetworkPolicyRequest();
+        template.setName(name);
+        return template;
+    }
+
+    private ServiceAccountResponse serviceAccount(ServiceAccountRequest request) {
+        return new ServiceAccountResponse(request.getName(), request.getNamespace(), "CREATED", Instant.now(),
+                "Service account created successfully");
+    }
+
+    private CiliumNetworkPolicyResponse policy(CiliumNetworkPolicyRequest request, String policyName) {
+        return new CiliumNetworkPolicyResponse(policyName, request.getNamespace(), "CREATED", Instant.now(),
+                "CiliumNetworkPolicy created successfully", policyName);
+    }
+}
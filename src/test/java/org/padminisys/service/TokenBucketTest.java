@@ -0,0 +1,99 @@
+package org.padminisys.service;
+
+import org.junit.jupiter.api.Test;
+import org.padminisys.exception.ApiServerBusyException;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for TokenBucket with a manual clock.
+ */
+class TokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    void testBurstIsServedImmediately() {
+        // Given
+        TokenBucket bucket = new TokenBucket("write", 10, 3, 100, clock::get);
+
+        // When & Then
+        assertEquals(0, bucket.reserve(SECOND));
+        assertEquals(0, bucket.reserve(SECOND));
+        assertEquals(0, bucket.reserve(SECOND));
+    }
+
+    @Test
+    void testEmptyBucketReservesTokensInArrivalOrder() {
+        // Given an empty bucket refilling 10 tokens per second
+        TokenBucket bucket = new TokenBucket("write", 10, 1, 100, clock::get);
+        bucket.reserve(SECOND);
+
+        // When
+        long first = bucket.reserve(SECOND);
+        long second = bucket.reserve(SECOND);
+
+        // Then each waiter gets the next free token
+        assertEquals(SECOND / 10, first);
+        assertEquals(2 * SECOND / 10, second);
+        assertEquals(2, bucket.getQueued());
+    }
+
+    @Test
+    void testTokensRefillOverTimeUpToBurst() {
+        // Given
+        TokenBucket bucket = new TokenBucket("read", 10, 2, 100, clock::get);
+        bucket.reserve(SECOND);
+        bucket.reserve(SECOND);
+
+        // When a long idle period passes
+        clock.addAndGet(10 * SECOND);
+
+        // Then only the burst is available
+        assertEquals(0, bucket.reserve(SECOND));
+        assertEquals(0, bucket.reserve(SECOND));
+        assertTrue(bucket.reserve(SECOND) > 0);
+    }
+
+    @Test
+    void testReservationPastDeadlineIsRejected() {
+        // Given
+        TokenBucket bucket = new TokenBucket("write", 1, 1, 100, clock::get);
+        bucket.reserve(SECOND);
+
+        // When
+        ApiServerBusyException exception = assertThrows(ApiServerBusyException.class,
+                () -> bucket.reserve(SECOND / 2));
+
+        // Then nothing was reserved and the client is told when a token frees up
+        assertEquals("Kubernetes API write rate limit exceeded, try again later", exception.getMessage());
+        assertEquals(1, exception.getRetryAfterSeconds());
+        assertEquals(0, bucket.getQueued());
+        assertEquals(SECOND, bucket.reserve(SECOND));
+    }
+
+    @Test
+    void testFullQueueIsRejected() {
+        // Given one waiter already queued
+        TokenBucket bucket = new TokenBucket("write", 10, 1, 1, clock::get);
+        bucket.reserve(SECOND);
+        bucket.reserve(SECOND);
+
+        // When & Then
+        assertThrows(ApiServerBusyException.class, () -> bucket.reserve(SECOND));
+
+        bucket.dequeued();
+        assertTrue(bucket.reserve(SECOND) > 0);
+    }
+
+    @Test
+    void testInvalidRateIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket("read", 0, 1, 1, clock::get));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket("read", 1, 0, 1, clock::get));
+    }
+}